@@ -0,0 +1,204 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A class that measures the time and the memory an operation takes, the way JMH does in its throughput mode: the
+ * operation runs in a loop for a few warmup iterations, so the JIT compiles it, then for a few measured iterations of
+ * fixed length. Every result of the operation is folded into a field of the harness at the end of each iteration, so
+ * the JIT can't drop the work as dead code.
+ * <p>
+ * The bytes are those allocated by the measuring thread, as counted by the HotSpot ThreadMXBean, and the collections
+ * those of every collector of the virtual machine during the measured iterations, like the gc profiler of JMH reports
+ * them. The benchmarks of the
+ * game live in the same, unnamed, package as the game itself, which JMH can't generate its harness for.
+ */
+public final class Benchmark {
+  /**
+   * A functional interface for the operation measured.
+   */
+  @FunctionalInterface
+  public interface Operation {
+    /**
+     * Runs the operation once.
+     *
+     * @return A value computed by the operation, consumed so its work isn't eliminated.
+     * @throws Exception If the operation fails, the benchmark stops.
+     */
+    long run() throws Exception;
+  }
+
+  /**
+   * A record that represents the measures of a benchmark, averaged over the measured iterations.
+   *
+   * @param name              The name of the benchmark.
+   * @param nanosPerOperation The mean time of an operation, in nanoseconds.
+   * @param errorNanos        The standard deviation of the time of an operation between the iterations.
+   * @param bytesPerOperation The mean number of bytes allocated by an operation.
+   * @param operations        The number of operations measured.
+   * @param collections       The number of garbage collections during the measured iterations.
+   * @param collectionMillis  The time the garbage collections took, in milliseconds.
+   */
+  public record Result(String name, double nanosPerOperation, double errorNanos, double bytesPerOperation,
+                       long operations, long collections, long collectionMillis) {
+    /**
+     * A function that formats the result as a line of the report.
+     *
+     * @return The line.
+     */
+    @Override
+    public String toString() {
+      return String.format("%-48s %14.1f +- %10.1f ns/op %12.1f B/op %6d gc %6d ms", name, nanosPerOperation,
+                           errorNanos, bytesPerOperation, collections, collectionMillis);
+    }
+  }
+
+  private final int warmupIterations;
+  private final int measurementIterations;
+  private final long iterationNanos;
+  /* The operations run between two reads of the clock. */
+  private final int batch;
+  private final com.sun.management.ThreadMXBean threads;
+  private final List<Result> results = new ArrayList<>();
+  private long sink;
+
+  /**
+   * A constructor for a Benchmark instance, the clock is read every 64 operations.
+   *
+   * @param warmupIterations      The number of iterations run before measuring.
+   * @param measurementIterations The number of iterations measured.
+   * @param iterationMillis       The length of an iteration, in milliseconds.
+   */
+  public Benchmark(int warmupIterations, int measurementIterations, int iterationMillis) {
+    this(warmupIterations, measurementIterations, iterationMillis, 64);
+  }
+
+  /**
+   * A constructor for a Benchmark instance.
+   *
+   * @param warmupIterations      The number of iterations run before measuring.
+   * @param measurementIterations The number of iterations measured.
+   * @param iterationMillis       The length of an iteration, in milliseconds.
+   * @param batch                 The number of operations run between two reads of the clock, one for operations
+   *                              long enough that reading the clock doesn't weigh on them.
+   */
+  public Benchmark(int warmupIterations, int measurementIterations, int iterationMillis, int batch) {
+    if (warmupIterations < 0 || measurementIterations <= 0 || iterationMillis <= 0) {
+      throw new IllegalArgumentException("At least one iteration of a positive length has to be measured");
+    }
+    if (batch <= 0) {
+      throw new IllegalArgumentException("At least one operation has to run between two reads of the clock");
+    }
+    this.warmupIterations = warmupIterations;
+    this.measurementIterations = measurementIterations;
+    this.iterationNanos = iterationMillis * 1_000_000L;
+    this.batch = batch;
+    this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    if (!threads.isThreadAllocatedMemorySupported()) {
+      throw new IllegalStateException("The virtual machine doesn't count the bytes allocated by a thread");
+    }
+    threads.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  /**
+   * Runs the operation in a loop for an iteration.
+   *
+   * @param operation The operation.
+   * @return The number of operations, the nanoseconds and the bytes allocated they took.
+   * @throws Exception If the operation fails.
+   */
+  private long[] iterate(Operation operation) throws Exception {
+    long local = 0, operations = 0;
+    long bytes = threads.getCurrentThreadAllocatedBytes();
+    long start = System.nanoTime(), elapsed;
+    do {
+      for (int i = 0; i < batch; i++) {
+        local += operation.run();
+      }
+      operations += batch;
+      elapsed = System.nanoTime() - start;
+    } while (elapsed < iterationNanos);
+    bytes = threads.getCurrentThreadAllocatedBytes() - bytes;
+    sink ^= local;
+    return new long[]{operations, elapsed, bytes};
+  }
+
+  /**
+   * Counts the garbage collections since the start of the virtual machine.
+   *
+   * @return The number of collections, of every collector.
+   */
+  private static long collections() {
+    var count = 0L;
+    for (var collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, collector.getCollectionCount());
+    }
+    return count;
+  }
+
+  /**
+   * Sums the time of the garbage collections since the start of the virtual machine.
+   *
+   * @return The time, in milliseconds, of every collector.
+   */
+  private static long collectionMillis() {
+    var millis = 0L;
+    for (var collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      millis += Math.max(0, collector.getCollectionTime());
+    }
+    return millis;
+  }
+
+  /**
+   * Measures an operation, prints its result and keeps it.
+   *
+   * @param name      The name of the benchmark.
+   * @param operation The operation.
+   * @return The result.
+   * @throws Exception If the operation fails.
+   */
+  public Result run(String name, Operation operation) throws Exception {
+    Objects.requireNonNull(name);
+    Objects.requireNonNull(operation);
+    for (int i = 0; i < warmupIterations; i++) {
+      iterate(operation);
+    }
+    var nanos = new double[measurementIterations];
+    long operations = 0;
+    double bytes = 0;
+    long collections = -collections(), collectionMillis = -collectionMillis();
+    for (int i = 0; i < measurementIterations; i++) {
+      var measure = iterate(operation);
+      nanos[i] = (double) measure[1] / measure[0];
+      operations += measure[0];
+      bytes += (double) measure[2] / measure[0];
+    }
+    collections += collections();
+    collectionMillis += collectionMillis();
+    var mean = 0.0;
+    for (var value : nanos) {
+      mean += value;
+    }
+    mean /= nanos.length;
+    var variance = 0.0;
+    for (var value : nanos) {
+      variance += (value - mean) * (value - mean);
+    }
+    var error = nanos.length > 1 ? Math.sqrt(variance / (nanos.length - 1)) : 0;
+    var result = new Result(name, mean, error, bytes / measurementIterations, operations, collections,
+                            collectionMillis);
+    results.add(result);
+    System.out.println(result);
+    return result;
+  }
+
+  /**
+   * Getter function for the results of the benchmarks run so far.
+   *
+   * @return The results, in the order they were measured.
+   */
+  public List<Result> getResults() {
+    return List.copyOf(results);
+  }
+}
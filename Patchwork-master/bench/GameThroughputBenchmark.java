@@ -0,0 +1,73 @@
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The benchmark of whole games: bots play complete games through the GameController, with a BotView that displays
+ * nothing, in the base and in the full version of the game, so a slowdown on either path of the rules shows.
+ * <p>
+ * An operation is a game, from dealing the patches to evaluating the winner, played between two random bots or two
+ * greedy ones. It reports the games per second, the turns per second, the bytes allocated per game and the garbage
+ * collections. It has to be run from the directory of complexPatches.txt, like {@code ant bench
+ * -Dbench.class=GameThroughputBenchmark}.
+ */
+public class GameThroughputBenchmark {
+  private static final long SEED = 42;
+
+  /**
+   * Private constructor, the class only holds static functions.
+   */
+  private GameThroughputBenchmark() {
+  }
+
+  /**
+   * A function that plays a game between two bots, on the calling thread.
+   *
+   * @param bot         The bot playing both players.
+   * @param fullVersion Whether the full version of the game is played.
+   * @return The score of the winner.
+   * @throws IOException In case the file containing the complex patches is not found.
+   */
+  private static long playGame(BotView bot, boolean fullVersion) throws IOException {
+    Map<String, Boolean> choicesMap = new HashMap<>(Map.of(Main.FULL, fullVersion, Main.GRAPHICAL, false));
+    var player1 = Main.createPlayerOne("Bot 1");
+    var player2 = Main.createPlayerTwo("Bot 2");
+    var controller = new GameController(bot, Main.getPatchesByChoice(choicesMap),
+                                        Main.getTimeBoardByChoice(choicesMap, player1, player2), player1, player2,
+                                        choicesMap);
+    bot.setController(controller);
+    return controller.startGame().score();
+  }
+
+  /**
+   * Runs the benchmarks whose name contains the filter given, all of them by default.
+   *
+   * @param args An optional filter on the names of the benchmarks, "full" or "random" for instance.
+   * @throws Exception If a game fails.
+   */
+  public static void main(String[] args) throws Exception {
+    var filter = args.length > 0 ? args[0] : "";
+    // A game takes milliseconds, the clock is read after each one.
+    var benchmark = new Benchmark(5, 5, 2000, 1);
+    for (var fullVersion : new boolean[]{false, true}) {
+      for (var greedy : new boolean[]{false, true}) {
+        var name = "Game " + (fullVersion ? "full" : "base") + " " + (greedy ? "greedy" : "random");
+        if (!name.contains(filter)) {
+          continue;
+        }
+        var bot = new BotView(null, new Random(SEED), greedy);
+        var games = new long[1];
+        var result = benchmark.run(name, () -> {
+          games[0]++;
+          return playGame(bot, fullVersion);
+        });
+        // Every turn, warmup included, asks the bot for one move.
+        var turnsPerGame = (double) bot.getSearchedMoves() / games[0];
+        var gamesPerSecond = 1e9 / result.nanosPerOperation();
+        System.out.printf("%-48s %14.1f games/s %11.1f turns/s %9.1f turns/game%n", name, gamesPerSecond,
+                          gamesPerSecond * turnsPerGame, turnsPerGame);
+      }
+    }
+  }
+}
@@ -0,0 +1,592 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The load generator of the game server: simulated clients connect over the loopback interface, are paired by the
+ * server and play whole games through the protocol of NetworkView the way a person would, choosing a patch, rotating
+ * and flipping it until it fits, giving the point to place it at, or advancing. A client waits a think time drawn from
+ * a distribution before every answer, and plays game after game until the end of the level.
+ * <p>
+ * The load rises by levels of concurrent clients. For each one it reports the games and the prompts answered per
+ * second and the percentiles of the latency of the server: the time from an answer sent to the first line the server
+ * sends back, the think times of the players excluded. The level where the latency takes off while the throughput
+ * stops growing is the knee.
+ * <p>
+ * The arguments, all optional, are the levels of clients separated by commas ({@code 2,8,32,128,512} by default,
+ * rounded up to even numbers), the seconds each level lasts (10), the think time ({@code 0}, {@code fixed:ms},
+ * {@code uniform:min-max} or {@code exp:mean}, {@code exp:20} by default) and the {@code host:port} of a server to
+ * load. Without one, a GameServer playing the full version is started in the process for every level, which has to be
+ * run from the directory of complexPatches.txt, like {@code ant bench -Dbench.class=LoadGenerator
+ * -Dbench.filter=2,16,128}.
+ */
+public class LoadGenerator {
+  private static final String DEFAULT_LEVELS = "2,8,32,128,512";
+  private static final int DEFAULT_SECONDS = 10;
+  private static final String DEFAULT_THINK_TIME = "exp:20";
+  /* How long the games still being played at the end of a level are waited for. */
+  private static final long GRACE_MILLIS = 30_000;
+  private static final int CLIENT_STACK_SIZE = 256 * 1024;
+
+  /**
+   * Private constructor, the class only holds static functions.
+   */
+  private LoadGenerator() {
+  }
+
+  /**
+   * The measures of a level, shared by its clients.
+   */
+  private static final class Level {
+    private final long deadline;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder answers = new LongAdder();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Constructor for a Level.
+     *
+     * @param deadline The time the level ends at, from System.nanoTime.
+     */
+    private Level(long deadline) {
+      this.deadline = deadline;
+    }
+
+    /**
+     * Determines whether the level is still being measured.
+     *
+     * @return true before the deadline, false after it.
+     */
+    private boolean running() {
+      return System.nanoTime() - deadline < 0;
+    }
+  }
+
+  /**
+   * A simulated client, it keeps the quiltboard, the buttons and the patches on offer of its player up to date from
+   * the lines the server broadcasts and answers the prompts from them.
+   */
+  private static final class Client implements Runnable {
+    private final int id;
+    private final InetSocketAddress server;
+    private final LongSupplier thinkTime;
+    private final Level level;
+    private volatile Socket socket;
+
+    private int slot;
+    private int buttons;
+    private final char[] quilt = new char[81];
+    /* The next patches of the circle, the first three can be bought, and the one being manipulated. */
+    private final ArrayList<char[][]> offer = new ArrayList<>();
+    private final ArrayList<Integer> prices = new ArrayList<>();
+    private char[][] patch;
+    private int chosen;
+    private final boolean[] rejected = new boolean[3];
+    private int manipulations;
+    private String placement;
+    private char[][] placed;
+
+    /**
+     * Constructor for a Client.
+     *
+     * @param id        The number of the client, its name in the games.
+     * @param server    The address of the server.
+     * @param thinkTime The think times, in milliseconds.
+     * @param level     The level the client plays in.
+     */
+    private Client(int id, InetSocketAddress server, LongSupplier thinkTime, Level level) {
+      this.id = id;
+      this.server = server;
+      this.thinkTime = thinkTime;
+      this.level = level;
+    }
+
+    @Override
+    public void run() {
+      while (level.running()) {
+        try {
+          if (play()) {
+            level.games.increment();
+          }
+        } catch (IOException e) {
+          if (level.running()) {
+            level.failures.increment();
+          }
+        }
+      }
+    }
+
+    /**
+     * Closes the socket of the game being played, if any, to stop the client.
+     */
+    private void close() {
+      var current = socket;
+      if (current != null) {
+        try {
+          current.close();
+        } catch (IOException e) {
+          // Closed anyway.
+        }
+      }
+    }
+
+    /**
+     * Plays a game from the connection to the BYE of the server.
+     *
+     * @return true if the game went to its end before the end of the level.
+     * @throws IOException If the connection fails or the server closes it early.
+     */
+    private boolean play() throws IOException {
+      try (var current = new Socket()) {
+        socket = current;
+        current.setTcpNoDelay(true);
+        current.connect(server);
+        var reader = new BufferedReader(new InputStreamReader(current.getInputStream(), StandardCharsets.UTF_8));
+        var writer = new PrintWriter(current.getOutputStream(), false, StandardCharsets.UTF_8);
+        var sentAt = 0L;
+        for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+          if (sentAt != 0) {
+            // The first line after an answer is the reaction of the server.
+            var now = System.nanoTime();
+            if (level.running()) {
+              level.latency.record(now - sentAt);
+            }
+            sentAt = 0;
+          }
+          if (line.equals("BYE")) {
+            return level.running();
+          }
+          if (!line.startsWith("? ")) {
+            read(line);
+            continue;
+          }
+          var answer = answer(line.substring(2));
+          think();
+          writer.print(answer);
+          writer.print('\n');
+          writer.flush();
+          sentAt = System.nanoTime();
+          if (level.running()) {
+            level.answers.increment();
+          }
+        }
+        throw new IOException("The server closed the connection");
+      } finally {
+        socket = null;
+      }
+    }
+
+    /**
+     * Waits a think time.
+     */
+    private void think() {
+      var millis = thinkTime.getAsLong();
+      if (millis > 0) {
+        try {
+          Thread.sleep(millis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+    /**
+     * Updates what the client knows of the game from a line broadcast by the server.
+     *
+     * @param line The line.
+     */
+    private void read(String line) {
+      var parts = line.split(" ");
+      switch (parts[0]) {
+        case "YOU" -> slot = Integer.parseInt(parts[1]);
+        case "QUILT" -> {
+          if (Integer.parseInt(parts[1]) == slot) {
+            buttons = Integer.parseInt(parts[2]);
+            parts[4].getChars(0, quilt.length, quilt, 0);
+          }
+        }
+        case "STATUS" -> {
+          if (Integer.parseInt(parts[1]) == slot) {
+            buttons = Integer.parseInt(parts[3]);
+          }
+        }
+        case "PATCHES" -> {
+          offer.clear();
+          prices.clear();
+          for (int k = 2; k < parts.length; k++) {
+            offer.add(decodePatch(parts[k]));
+            prices.add(Integer.parseInt(parts[k].substring(0, parts[k].indexOf(','))));
+          }
+        }
+        case "PATCH" -> patch = decodePatch(parts[1]);
+        case "TURN" -> {
+          if (Integer.parseInt(parts[1]) == slot) {
+            Arrays.fill(rejected, false);
+          }
+        }
+        case "EXPENSIVE" -> rejected[chosen - 1] = true;
+        case "INVALID" -> {
+          // The orientation doesn't fit after all, the next one is tried.
+          placement = null;
+          placed = null;
+        }
+        default -> {
+          // Nothing the client plays from.
+        }
+      }
+    }
+
+    /**
+     * Answers a prompt of the server.
+     *
+     * @param kind The kind of prompt.
+     * @return The answer.
+     */
+    private String answer(String kind) {
+      return switch (kind) {
+        case "NAME" -> "client" + id;
+        case "TURN" -> {
+          chosen = choosePatch();
+          yield chosen == 0 ? "a" : "c";
+        }
+        case "PATCH" -> {
+          patch = offer.get(chosen - 1);
+          manipulations = 0;
+          yield Integer.toString(chosen);
+        }
+        case "MANIPULATE" -> manipulate();
+        case "PLACE" -> place();
+        default -> "q";
+      };
+    }
+
+    /**
+     * Chooses the patch to buy: the first of the three on offer that the player can afford and place in one of its
+     * orientations, and that wasn't given up during the turn.
+     *
+     * @return The choice, from 1 to 3, or 0 to advance.
+     */
+    private int choosePatch() {
+      for (int k = 0; k < Math.min(3, offer.size()); k++) {
+        if (rejected[k] || prices.get(k) > buttons) {
+          continue;
+        }
+        var oriented = offer.get(k);
+        for (int orientation = 0; orientation < 8; orientation++) {
+          if (findPlacement(oriented) != null) {
+            return k + 1;
+          }
+          oriented = orientation == 3 ? flip(oriented) : rotate(oriented);
+        }
+        rejected[k] = true;
+      }
+      return 0;
+    }
+
+    /**
+     * Places the patch if it fits in its current orientation, otherwise rotates it, flips it after four rotations,
+     * and gives it up once the eight orientations were tried.
+     *
+     * @return The answer to the manipulation prompt.
+     */
+    private String manipulate() {
+      if (manipulations < 8) {
+        placement = findPlacement(patch);
+        if (placement != null) {
+          placed = patch;
+          return "p";
+        }
+      }
+      manipulations++;
+      if (manipulations >= 8) {
+        rejected[chosen - 1] = true;
+        return "q";
+      }
+      return manipulations == 4 ? "f" : "r";
+    }
+
+    /**
+     * Gives the point to place the patch bought at, or a special patch at, the first empty space of the quiltboard.
+     *
+     * @return The answer to the placement prompt, the line and the column.
+     */
+    private String place() {
+      if (placement == null) {
+        placed = new char[][]{{'#'}};
+        placement = findPlacement(placed);
+        if (placement == null) {
+          placement = "1 1";
+        }
+      } else {
+        // Another orientation is tried if the server refuses the placement.
+        manipulations++;
+      }
+      var answer = placement;
+      var parts = answer.split(" ");
+      fill(placed, Integer.parseInt(parts[0]) - 1, Integer.parseInt(parts[1]) - 1 - shift(placed));
+      placement = null;
+      placed = null;
+      return answer;
+    }
+
+    /**
+     * Finds where a patch fits on the quiltboard.
+     *
+     * @param shape The spaces of the patch, in its orientation.
+     * @return The point to give the server, the line and the column of the first space of the first line of the
+     * patch, or null if the patch doesn't fit.
+     */
+    private String findPlacement(char[][] shape) {
+      for (int top = 0; top + shape.length <= 9; top++) {
+        for (int left = 0; left + shape[0].length <= 9; left++) {
+          if (fits(shape, top, left)) {
+            return (top + 1) + " " + (left + 1 + shift(shape));
+          }
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Determines if a patch fits on the quiltboard at a given place.
+     *
+     * @param shape The spaces of the patch.
+     * @param top   The line of the top left corner of the patch.
+     * @param left  The column of the top left corner of the patch.
+     * @return A boolean.
+     */
+    private boolean fits(char[][] shape, int top, int left) {
+      for (int i = 0; i < shape.length; i++) {
+        for (int j = 0; j < shape[i].length; j++) {
+          if (shape[i][j] != '.' && quilt[(top + i) * 9 + left + j] != '.') {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Marks the spaces of a patch placed as filled, until the server broadcasts the quiltboard.
+     *
+     * @param shape The spaces of the patch.
+     * @param top   The line of the top left corner of the patch.
+     * @param left  The column of the top left corner of the patch.
+     */
+    private void fill(char[][] shape, int top, int left) {
+      for (int i = 0; i < shape.length; i++) {
+        for (int j = 0; j < shape[i].length; j++) {
+          var index = (top + i) * 9 + left + j;
+          if (shape[i][j] != '.' && 0 <= index && index < quilt.length) {
+            quilt[index] = '#';
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Decodes a patch of the protocol, {@code price,timeCost,income,lines,columns,cells}.
+   *
+   * @param encoded The encoded patch.
+   * @return The spaces of the patch.
+   */
+  private static char[][] decodePatch(String encoded) {
+    var fields = encoded.split(",");
+    int lines = Integer.parseInt(fields[3]), columns = Integer.parseInt(fields[4]);
+    var shape = new char[lines][columns];
+    for (int i = 0; i < lines; i++) {
+      fields[5].getChars(i * columns, (i + 1) * columns, shape[i], 0);
+    }
+    return shape;
+  }
+
+  /**
+   * Counts the empty spaces before the first space of the first line of a patch, the server takes the placement of
+   * this space.
+   *
+   * @param shape The spaces of the patch.
+   * @return The number of empty spaces.
+   */
+  private static int shift(char[][] shape) {
+    var shift = 0;
+    while (shift < shape[0].length && shape[0][shift] == '.') {
+      shift++;
+    }
+    return shift;
+  }
+
+  /**
+   * Rotates the spaces of a patch a quarter turn.
+   *
+   * @param shape The spaces of the patch.
+   * @return The rotated spaces.
+   */
+  private static char[][] rotate(char[][] shape) {
+    var rotated = new char[shape[0].length][shape.length];
+    for (int i = 0; i < shape.length; i++) {
+      for (int j = 0; j < shape[0].length; j++) {
+        rotated[j][shape.length - 1 - i] = shape[i][j];
+      }
+    }
+    return rotated;
+  }
+
+  /**
+   * Flips the spaces of a patch horizontally.
+   *
+   * @param shape The spaces of the patch.
+   * @return The flipped spaces.
+   */
+  private static char[][] flip(char[][] shape) {
+    var flipped = new char[shape.length][];
+    for (int i = 0; i < shape.length; i++) {
+      flipped[i] = new char[shape[i].length];
+      for (int j = 0; j < shape[i].length; j++) {
+        flipped[i][j] = shape[i][shape[i].length - 1 - j];
+      }
+    }
+    return flipped;
+  }
+
+  /**
+   * A function that parses a distribution of think times.
+   *
+   * @param spec {@code 0}, {@code fixed:ms}, {@code uniform:min-max} or {@code exp:mean}, in milliseconds.
+   * @return The think times.
+   */
+  private static LongSupplier parseThinkTime(String spec) {
+    Objects.requireNonNull(spec);
+    var separator = spec.indexOf(':');
+    var kind = separator == -1 ? spec : spec.substring(0, separator);
+    var value = separator == -1 ? "" : spec.substring(separator + 1);
+    switch (kind) {
+      case "0" -> {
+        return () -> 0;
+      }
+      case "fixed" -> {
+        var millis = Long.parseLong(value);
+        return () -> millis;
+      }
+      case "uniform" -> {
+        var bounds = value.split("-");
+        long min = Long.parseLong(bounds[0]), max = Long.parseLong(bounds[1]);
+        if (min > max) {
+          throw new IllegalArgumentException("The minimum think time is above the maximum");
+        }
+        return () -> ThreadLocalRandom.current().nextLong(min, max + 1);
+      }
+      case "exp" -> {
+        var mean = Double.parseDouble(value);
+        return () -> Math.round(-mean * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+      }
+      default -> throw new IllegalArgumentException("Unknown think time: " + spec);
+    }
+  }
+
+  /**
+   * Runs a level: its clients play against each other until its end, then the games still being played are waited
+   * for, and stopped after a grace period.
+   *
+   * @param clients   The number of clients, even.
+   * @param seconds   How long the level lasts.
+   * @param thinkTime The think times of the clients.
+   * @param server    The address of the server, or null to start one in the process.
+   * @return The measures of the level.
+   * @throws IOException If the server can't be started.
+   * @throws InterruptedException If the thread is interrupted while the clients play.
+   */
+  private static Level runLevel(int clients, int seconds, LongSupplier thinkTime, InetSocketAddress server)
+          throws IOException, InterruptedException {
+    GameServer local = null;
+    if (server == null) {
+      local = new GameServer(0, true);
+      server = new InetSocketAddress(InetAddress.getLoopbackAddress(), local.getPort());
+      var serving = local;
+      var thread = new Thread(() -> {
+        try {
+          serving.serve();
+        } catch (IOException e) {
+          System.err.println("The server stopped: " + e.getMessage());
+        }
+      }, "server");
+      thread.setDaemon(true);
+      thread.start();
+    }
+    try {
+      var level = new Level(System.nanoTime() + seconds * 1_000_000_000L);
+      var players = new ArrayList<Client>(clients);
+      var threads = new ArrayList<Thread>(clients);
+      for (int id = 0; id < clients; id++) {
+        var client = new Client(id, server, thinkTime, level);
+        var thread = new Thread(null, client, "client-" + id, CLIENT_STACK_SIZE);
+        thread.setDaemon(true);
+        players.add(client);
+        threads.add(thread);
+        thread.start();
+      }
+      var graceEnd = System.currentTimeMillis() + seconds * 1000L + GRACE_MILLIS;
+      for (int k = 0; k < clients; k++) {
+        threads.get(k).join(Math.max(1, graceEnd - System.currentTimeMillis()));
+        if (threads.get(k).isAlive()) {
+          players.get(k).close();
+        }
+      }
+      for (var player : players) {
+        player.close();
+      }
+      for (var thread : threads) {
+        thread.join();
+      }
+      return level;
+    } finally {
+      if (local != null) {
+        local.close();
+      }
+    }
+  }
+
+  /**
+   * Runs the levels given and prints a line of measures for each one.
+   *
+   * @param args The levels, the seconds per level, the think time and the address of the server, all optional.
+   * @throws Exception If a server can't be started or reached.
+   */
+  public static void main(String[] args) throws Exception {
+    var levels = args.length > 0 && !args[0].isEmpty() ? args[0] : DEFAULT_LEVELS;
+    var seconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+    var thinkTime = parseThinkTime(args.length > 2 ? args[2] : DEFAULT_THINK_TIME);
+    InetSocketAddress server = null;
+    if (args.length > 3) {
+      var separator = args[3].lastIndexOf(':');
+      var port = Integer.parseInt(args[3].substring(separator + 1));
+      server = new InetSocketAddress(args[3].substring(0, separator), port);
+    }
+    System.out.printf("%8s %10s %10s %10s %10s %10s %10s %10s %10s %8s%n", "clients", "games/s", "prompts/s",
+                      "mean (us)", "p50", "p90", "p99", "p99.9", "max", "failures");
+    for (var value : levels.split(",")) {
+      var clients = Integer.parseInt(value.trim());
+      clients += clients % 2; // The server plays them in pairs.
+      var level = runLevel(clients, seconds, thinkTime, server);
+      var latency = level.latency;
+      System.out.printf("%8d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f %8d%n", clients,
+                        level.games.sum() / (double) seconds, level.answers.sum() / (double) seconds,
+                        latency.getMean() / 1000, latency.getValueAtPercentile(50) / 1000.0,
+                        latency.getValueAtPercentile(90) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                        latency.getValueAtPercentile(99.9) / 1000.0, latency.getMax() / 1000.0,
+                        level.failures.sum());
+    }
+  }
+}
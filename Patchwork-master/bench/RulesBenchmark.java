@@ -0,0 +1,231 @@
+import java.awt.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The microbenchmarks of the rules: the checks and placements on the quiltboards, the evaluation of the winner, the
+ * lookups of the timeboard, the manipulations of the patches and the parsing of the catalog of the full version.
+ * <p>
+ * The quiltboards are filled at the levels a game goes through, empty, about half and about nine tenths, with the
+ * patches of the full version placed at random, from a fixed seed so every run measures the same boards. It has to be
+ * run from the directory of complexPatches.txt, see the bench target of the build.
+ */
+public class RulesBenchmark {
+  /* The number of spaces of a quiltboard filled at each level, out of 81. */
+  private static final List<Integer> FILL_LEVELS = List.of(0, 40, 72);
+  private static final Path CATALOG = Path.of("complexPatches.txt");
+  private static final long SEED = 42;
+
+  /**
+   * Private constructor, the class only holds static functions.
+   */
+  private RulesBenchmark() {
+  }
+
+  /**
+   * A function that places patches of a catalog at random on a new quiltboard until enough spaces are filled, the
+   * spaces left by the patches of a full quiltboard are filled with special patches, like a player would.
+   *
+   * @param catalog The patches to place.
+   * @param filled  The number of spaces to fill at least, at most 81.
+   * @param random  The source of randomness.
+   * @return The player the quiltboard belongs to.
+   */
+  private static Player fill(List<Patch> catalog, int filled, Random random) {
+    var player = Main.createPlayerOne("Benchmark");
+    var quiltBoard = player.getQuiltBoard();
+    var count = 0;
+    for (int attempt = 0; count < filled && attempt < 100_000; attempt++) {
+      var patch = catalog.get(random.nextInt(catalog.size())).copy();
+      patch.setOrientation(random.nextInt(4), random.nextBoolean());
+      var point = new Point(random.nextInt(9) + 1, random.nextInt(9) + 1);
+      if (quiltBoard.validUserPlacement(point, patch)) {
+        quiltBoard.placePatch(point, patch);
+        count += cells(patch);
+      }
+    }
+    if (filled == 81) {
+      var structure = quiltBoard.getStructure();
+      for (var line : structure) {
+        for (int j = 0; j < line.length; j++) {
+          if (line[j] == null) {
+            line[j] = new PatchSpace(false, new Color(110, 46, 36));
+          }
+        }
+      }
+    }
+    return player;
+  }
+
+  /**
+   * Counts the spaces a patch covers.
+   *
+   * @param patch The patch.
+   * @return The number of spaces.
+   */
+  private static int cells(Patch patch) {
+    var count = 0;
+    for (var line : patch.getStructure()) {
+      for (var space : line) {
+        if (space != null) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * A record that represents a placement tried on a quiltboard.
+   *
+   * @param point The point the player gives.
+   * @param patch The oriented patch.
+   */
+  private record Probe(Point point, Patch patch) {
+  }
+
+  /**
+   * A function that draws placements at random anywhere on a quiltboard, valid or not.
+   *
+   * @param catalog The patches.
+   * @param count   The number of placements, a power of two.
+   * @param random  The source of randomness.
+   * @return The placements.
+   */
+  private static Probe[] probes(List<Patch> catalog, int count, Random random) {
+    var probes = new Probe[count];
+    for (int i = 0; i < count; i++) {
+      var patch = catalog.get(random.nextInt(catalog.size())).copy();
+      patch.setOrientation(random.nextInt(4), random.nextBoolean());
+      probes[i] = new Probe(new Point(random.nextInt(9) + 1, random.nextInt(9) + 1), patch);
+    }
+    return probes;
+  }
+
+  /**
+   * Runs the benchmarks whose name contains the filter given, all of them by default.
+   *
+   * @param args An optional filter on the names of the benchmarks.
+   * @throws Exception If a benchmark fails.
+   */
+  public static void main(String[] args) throws Exception {
+    var filter = args.length > 0 ? args[0] : "";
+    var benchmark = new Benchmark(5, 5, 1000);
+    var patches = new Patches();
+    patches.generatePatches(CATALOG);
+    var catalog = patches.getPatchesList();
+    var random = new Random(SEED);
+
+    var evaluator = new PositionEvaluator();
+    var boards = new ArrayList<Player>();
+    for (var level : FILL_LEVELS) {
+      boards.add(fill(catalog, level, random));
+    }
+    var probes = probes(catalog, 1024, random);
+    var mask = probes.length - 1;
+
+    var tasks = new ArrayList<Map.Entry<String, Benchmark.Operation>>();
+    for (int b = 0; b < boards.size(); b++) {
+      var quiltBoard = boards.get(b).getQuiltBoard();
+      var level = FILL_LEVELS.get(b);
+      var index = new int[1];
+      tasks.add(Map.entry("QuiltBoard.validUserPlacement fill=" + level, () -> {
+        var probe = probes[index[0]++ & mask];
+        return quiltBoard.validUserPlacement(probe.point(), probe.patch()) ? 1 : 0;
+      }));
+      tasks.add(Map.entry("QuiltBoard.containsSevenBySeven fill=" + level,
+                          () -> quiltBoard.containsSevenBySeven() ? 1 : 0));
+      tasks.add(Map.entry("QuiltBoard.fullyPatched fill=" + level,
+                          () -> QuiltBoard.fullyPatched(quiltBoard.getStructure()) ? 1 : 0));
+      var lines = new int[PositionEvaluator.SIZE];
+      PositionEvaluator.occupancy(quiltBoard, lines);
+      tasks.add(Map.entry("PositionEvaluator.measure fill=" + level, () -> {
+        evaluator.measure(lines, 2);
+        return evaluator.getRegions();
+      }));
+    }
+    // The placements that fit on an empty quiltboard, placePatch doesn't check the spaces it overwrites so its cost
+    // doesn't depend on them and the same quiltboard serves every placement.
+    var placed = new QuiltBoard(Color.WHITE, 0);
+    var placements = new ArrayList<Probe>();
+    for (var probe : probes) {
+      if (placed.validUserPlacement(probe.point(), probe.patch())) {
+        placements.add(probe);
+      }
+    }
+    var placementIndex = new int[1];
+    tasks.add(Map.entry("QuiltBoard.placePatch", () -> {
+      var probe = placements.get(placementIndex[0]++ % placements.size());
+      placed.placePatch(probe.point(), probe.patch());
+      return probe.point().i();
+    }));
+    var full = fill(catalog, 81, new Random(SEED)).getQuiltBoard();
+    tasks.add(Map.entry("QuiltBoard.containsSevenBySeven fill=81", () -> full.containsSevenBySeven() ? 1 : 0));
+    tasks.add(Map.entry("QuiltBoard.fullyPatched fill=81",
+                        () -> QuiltBoard.fullyPatched(full.getStructure()) ? 1 : 0));
+
+    var player1 = boards.get(1);
+    var player2 = boards.get(2);
+    tasks.add(Map.entry("GameEvaluator.evaluateWinner",
+                        () -> GameEvaluator.evaluateWinner(player1, player2).score()));
+
+    var timeBoard = Main.getTimeBoardByChoice(Map.of(Main.FULL, true), player1, player2);
+    var positions = new int[64];
+    var coordinates = new Point[64];
+    for (int i = 0; i < 64; i++) {
+      positions[i] = random.nextInt(64);
+      coordinates[i] = timeBoard.getCoordinates(positions[i]);
+    }
+    var timeIndex = new int[1];
+    tasks.add(Map.entry("TimeBoard.getCoordinates(int)",
+                        () -> timeBoard.getCoordinates(positions[timeIndex[0]++ & 63]).i()));
+    tasks.add(Map.entry("TimeBoard.getPosition(Point)",
+                        () -> timeBoard.getPosition(coordinates[timeIndex[0]++ & 63])));
+    tasks.add(Map.entry("TimeBoard.lookups(int)", () -> {
+      var position = positions[timeIndex[0]++ & 63];
+      return (timeBoard.spaceContainsPatch(position) ? 1 : 0) + (timeBoard.spaceContainsButton(position) ? 2 : 0) +
+             (timeBoard.isVoidSpace(position) ? 4 : 0);
+    }));
+    tasks.add(Map.entry("TimeBoard.lookups(Point)", () -> {
+      var coordinate = coordinates[timeIndex[0]++ & 63];
+      return (timeBoard.spaceContainsPatch(coordinate) ? 1 : 0) + (timeBoard.spaceContainsButton(coordinate) ? 2 : 0) +
+             (timeBoard.isVoidSpace(coordinate) ? 4 : 0);
+    }));
+    tasks.add(Map.entry("PositionEvaluator.evaluatePlayer",
+                        () -> (long) evaluator.evaluatePlayer(player1, timeBoard, player2, 2)));
+    // A cache of one entry asked for two patches in turn misses every time.
+    var hints = new PlacementHintService(1, PositionEvaluator.Weights.DEFAULT);
+    var hintIndex = new int[1];
+    tasks.add(Map.entry("PlacementHintService.hints hit",
+                        () -> hints.hints(player1.getQuiltBoard(), catalog.get(0), 2, 5).size()));
+    tasks.add(Map.entry("PlacementHintService.hints miss",
+                        () -> hints.hints(player1.getQuiltBoard(), catalog.get(hintIndex[0]++ & 1), 2, 5).size()));
+
+    // The largest patch of the catalog, a rotation copies its whole structure.
+    var largest = catalog.stream().max((a, b) -> Integer.compare(cells(a), cells(b))).orElseThrow().copy();
+    tasks.add(Map.entry("Patch.rotatePatch", () -> {
+      largest.rotatePatch();
+      return largest.getRotations();
+    }));
+    tasks.add(Map.entry("Patch.flipPatch", () -> {
+      largest.flipPatch();
+      return largest.isFlipped() ? 1 : 0;
+    }));
+    tasks.add(Map.entry("Patch.hashCode", largest::hashCode));
+
+    tasks.add(Map.entry("Patches.generatePatches(Path)", () -> {
+      var parsed = new Patches();
+      parsed.generatePatches(CATALOG);
+      return parsed.getPatchesList().size();
+    }));
+
+    for (var task : tasks) {
+      if (task.getKey().contains(filter)) {
+        benchmark.run(task.getKey(), task.getValue());
+      }
+    }
+  }
+}
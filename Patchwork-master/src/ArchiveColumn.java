@@ -0,0 +1,47 @@
+/**
+ * The columns of the per-turn records of a game archive, with the number of bytes each value is stored with.
+ */
+public enum ArchiveColumn {
+  /** The index of the game in the archive. */
+  GAME(4),
+  /** The index of the turn in the game, from 0. */
+  TURN(2),
+  /** The slot of the player who moved, 1 or 2. */
+  PLAYER(1),
+  /** 0 for advancing, 1 for purchasing a patch. */
+  MOVE_TYPE(1),
+  /** The catalog identifier of the purchased patch, -1 when advancing or unknown. */
+  PATCH_ID(1),
+  /** The number of clock wise rotations of the placed patch, plus 4 if flipped, -1 when advancing. */
+  ORIENTATION(1),
+  /** The space the patch was placed at, 9 times its line plus its column (0-based), -1 when advancing. */
+  PLACEMENT(1),
+  /** The buttons of the player before the move. */
+  BUTTONS_BEFORE(2),
+  /** The buttons of the player after the move. */
+  BUTTONS_AFTER(2),
+  /** The position of the player on the timeboard after the move. */
+  TIME_POSITION(1),
+  /** 1 if the player claimed the 7x7 bonus tile during the move, 0 otherwise. */
+  BONUS(1);
+
+  private final int width;
+
+  /**
+   * Constructor for the ArchiveColumn enum.
+   *
+   * @param width The number of bytes a value is stored with, values are signed.
+   */
+  ArchiveColumn(int width) {
+    this.width = width;
+  }
+
+  /**
+   * Getter function for the width field.
+   *
+   * @return The number of bytes a value is stored with.
+   */
+  public int getWidth() {
+    return width;
+  }
+}
@@ -0,0 +1,57 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A MoveRecorder that saves the game after every turn, so that a game that was stopped can be picked up again at the
+ * beginning of the turn it was stopped in. The save is deleted once the game is over.
+ */
+public class AutoSave implements MoveRecorder {
+  private final GameController gameController;
+  private final Path path;
+
+  /**
+   * A constructor for an AutoSave instance.
+   *
+   * @param gameController The controller of the game to save.
+   * @param path           The path of the save.
+   */
+  public AutoSave(GameController gameController, Path path) {
+    this.gameController = Objects.requireNonNull(gameController);
+    this.path = Objects.requireNonNull(path);
+  }
+
+  /**
+   * Saves the game, replacing the previous save.
+   *
+   * @throws UncheckedIOException If the save can't be written, the recorder is called from within the game.
+   */
+  private void save() {
+    try {
+      GameStateCodec.save(gameController.saveState(), path);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void gameStarted(GameHeader header) {
+    save();
+  }
+
+  @Override
+  public void moveApplied(Move move) {
+    save();
+  }
+
+  @Override
+  public void gameEnded(int winner, int score) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,333 @@
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * An implementation of the View interface where the computer plays both players and displays nothing, used for
+ * self-play.
+ * <p>
+ * On every turn the bot first looks the position up in its opening book, if it has one, and plays the book move if the
+ * rules allow it. Otherwise it searches the legal moves and plays the one with the best value per space of time spent:
+ * the buttons gained when advancing, or twice the spaces covered plus the income still to come minus the price when
+ * purchasing, corrected by the change of fragmentation of the quiltboard the PositionEvaluator measures, the placement
+ * touching the most patches and borders breaking ties. Special patches go to the empty space with the most filled
+ * neighbours.
+ * <p>
+ * A bot that isn't greedy plays a legal move drawn at random instead of searching, a baseline for the benchmarks.
+ * <p>
+ * The lookups in the book, the searches and the random moves of every bot are counted in the SearchStatistics.
+ */
+public class BotView implements View {
+  private final OpeningBook book;
+  private final Random random;
+  private final boolean greedy;
+  private GameController gameController;
+  /* The move of the turn being played. */
+  private Move move;
+  private boolean placementPending;
+  private long bookMoves, searchedMoves;
+  private final SearchStatistics statistics = SearchStatistics.getInstance();
+  private final PositionEvaluator evaluator = new PositionEvaluator();
+  /* The occupancy of the quiltboard searched and the spaces of the patch being oriented, as bitmasks. */
+  private final int[] lines = new int[PositionEvaluator.SIZE];
+  private final int[] shape = new int[PositionEvaluator.SIZE];
+
+  /**
+   * Constructor for the BotView class, the bot is greedy.
+   *
+   * @param book   The opening book to consult before searching, or null.
+   * @param random The source of randomness to break ties between equally good moves.
+   */
+  public BotView(OpeningBook book, Random random) {
+    this(book, random, true);
+  }
+
+  /**
+   * Constructor for the BotView class.
+   *
+   * @param book   The opening book to consult before searching, or null.
+   * @param random The source of randomness to break ties between equally good moves, or to draw the moves.
+   * @param greedy Whether the bot searches for the best move, or plays a legal move at random.
+   */
+  public BotView(OpeningBook book, Random random, boolean greedy) {
+    this.book = book;
+    this.random = Objects.requireNonNull(random);
+    this.greedy = greedy;
+  }
+
+  /**
+   * Getter function for the number of moves taken from the opening book.
+   *
+   * @return The number of book moves.
+   */
+  public long getBookMoves() {
+    return bookMoves;
+  }
+
+  /**
+   * Getter function for the number of moves chosen by searching, or at random.
+   *
+   * @return The number of searched moves.
+   */
+  public long getSearchedMoves() {
+    return searchedMoves;
+  }
+
+  /**
+   * Chooses the move of the player whose turn it is.
+   *
+   * @param state   The state of the game.
+   * @param playing The player whose turn it is.
+   * @return The move.
+   */
+  private Move chooseMove(GameState state, Player playing) {
+    if (book != null) {
+      var index = book.find(PositionHash.of(state, playing, book.getRingPatches()));
+      if (index != -1) {
+        var bookMove = OpeningBook.decodeMove(book.move(index), playing == state.player1() ? 1 : 2);
+        if (MoveGenerator.isLegal(state, playing, bookMove)) {
+          statistics.bookLookup(true);
+          bookMoves++;
+          return bookMove;
+        }
+      }
+      statistics.bookLookup(false);
+    }
+    searchedMoves++;
+    if (!greedy) {
+      statistics.randomMove();
+      var moves = MoveGenerator.legalMoves(state, playing);
+      return moves.get(random.nextInt(moves.size()));
+    }
+    return search(state, playing);
+  }
+
+  /**
+   * Searches the legal moves for the one with the best value per space of time spent.
+   *
+   * @param state   The state of the game.
+   * @param playing The player whose turn it is.
+   * @return The best move.
+   */
+  private Move search(GameState state, Player playing) {
+    var start = System.nanoTime();
+    var other = playing == state.player1() ? state.player2() : state.player1();
+    var incomeLeft = 0;
+    for (var position : state.timeBoard().getButtonsPos()) {
+      if (position > playing.getPosition()) {
+        incomeLeft++;
+      }
+    }
+    PositionEvaluator.occupancy(playing.getQuiltBoard(), lines);
+    var smallestPatch = PositionEvaluator.smallestPatch(state.patches());
+    var fragmentation = evaluator.evaluateQuilt(lines, smallestPatch);
+    var shapeLines = 0;
+    Move best = null;
+    double bestValue = Double.NEGATIVE_INFINITY;
+    int ties = 0, nodes = 0;
+    Patch oriented = null;
+    for (var candidate : MoveGenerator.legalMoves(state, playing)) {
+      nodes++;
+      double value;
+      if (candidate.type() == Move.Type.ADVANCE) {
+        value = 1; // A button per space.
+      } else {
+        var patch = MoveGenerator.ringPatch(state.patches(), candidate.ringOffset());
+        if (oriented == null || oriented.getId() != patch.getId() || oriented.getRotations() != candidate.rotations() ||
+            oriented.isFlipped() != candidate.flipped()) {
+          oriented = patch.copy();
+          oriented.setOrientation(candidate.rotations(), candidate.flipped());
+          shapeLines = PositionEvaluator.shape(oriented, shape);
+        }
+        var origin = QuiltBoard.realPlacementPosition(candidate.placement(), oriented);
+        var gain = 2 * cells(oriented) + patch.getIncome() * incomeLeft - patch.getPrice() +
+                   evaluator.evaluatePlacement(lines, shape, shapeLines, origin.i(), origin.j(), smallestPatch) -
+                   fragmentation;
+        value = gain / Math.max(1, patch.getTimeCost()) +
+                contacts(playing.getQuiltBoard(), oriented, candidate.placement()) / 100.0;
+      }
+      if (value > bestValue) {
+        best = candidate;
+        bestValue = value;
+        ties = 1;
+      } else if (value == bestValue && random.nextInt(++ties) == 0) {
+        best = candidate;
+      }
+    }
+    statistics.searched(nodes, System.nanoTime() - start);
+    return best;
+  }
+
+  /**
+   * Counts the spaces a patch covers.
+   *
+   * @param patch The patch.
+   * @return The number of spaces.
+   */
+  private static int cells(Patch patch) {
+    var count = 0;
+    for (var line : patch.getStructure()) {
+      for (var space : line) {
+        if (space != null) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * A function that determines if a space of the quiltboard is filled, or outside the quiltboard.
+   *
+   * @param structure The spaces of the quiltboard.
+   * @param i         The line of the space, from 0.
+   * @param j         The column of the space, from 0.
+   * @return A boolean.
+   */
+  private static boolean blocked(PatchSpace[][] structure, int i, int j) {
+    return i < 0 || j < 0 || i >= structure.length || j >= structure[i].length || structure[i][j] != null;
+  }
+
+  /**
+   * Counts the sides of the spaces of a placed patch that touch another patch or a border of the quiltboard.
+   *
+   * @param quiltBoard The quiltboard.
+   * @param patch      The oriented patch.
+   * @param point      The placement, in the coordinates the quiltboard takes from the players.
+   * @return The number of sides.
+   */
+  private static int contacts(QuiltBoard quiltBoard, Patch patch, Point point) {
+    var origin = QuiltBoard.realPlacementPosition(point, patch);
+    var structure = quiltBoard.getStructure();
+    var patchStructure = patch.getStructure();
+    var count = 0;
+    for (int i = 0; i < patchStructure.length; i++) {
+      for (int j = 0; j < patchStructure[i].length; j++) {
+        if (patchStructure[i][j] == null) {
+          continue;
+        }
+        int line = origin.i() + i, column = origin.j() + j;
+        count += (blocked(structure, line - 1, column) ? 1 : 0) + (blocked(structure, line + 1, column) ? 1 : 0) +
+                 (blocked(structure, line, column - 1) ? 1 : 0) + (blocked(structure, line, column + 1) ? 1 : 0);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Chooses where to place a special patch: the empty space with the most filled neighbours.
+   *
+   * @param quiltBoard The quiltboard of the player.
+   * @return The space, in the coordinates the quiltboard takes from the players.
+   */
+  private static Point chooseSpecialPatchPlacement(QuiltBoard quiltBoard) {
+    var structure = quiltBoard.getStructure();
+    Point best = null;
+    var bestContacts = -1;
+    for (int i = 0; i < structure.length; i++) {
+      for (int j = 0; j < structure[i].length; j++) {
+        if (structure[i][j] != null) {
+          continue;
+        }
+        var contacts = (blocked(structure, i - 1, j) ? 1 : 0) + (blocked(structure, i + 1, j) ? 1 : 0) +
+                       (blocked(structure, i, j - 1) ? 1 : 0) + (blocked(structure, i, j + 1) ? 1 : 0);
+        if (contacts > bestContacts) {
+          best = new Point(i + 1, j + 1);
+          bestContacts = contacts;
+        }
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public void displayTimeBoard(TimeBoard timeBoard, Player player1, Player player2) {
+    // Nobody is watching.
+  }
+
+  @Override
+  public void displayQuiltBoard(Player player) {
+  }
+
+  @Override
+  public void displayPatches(Patches patches) {
+  }
+
+  @Override
+  public void setController(GameController gameController) {
+    Objects.requireNonNull(gameController);
+    this.gameController = gameController;
+  }
+
+  @Override
+  public void playerTurnStartMessage(Player playing) {
+  }
+
+  @Override
+  public char promptPlayerTurnDecision(Player player) {
+    Objects.requireNonNull(player);
+    move = chooseMove(gameController.saveState(), player);
+    placementPending = move.type() == Move.Type.PURCHASE;
+    return placementPending ? 'c' : 'a';
+  }
+
+  @Override
+  public void displayPlayerNewStatusAfterAdvancing(Player player) {
+  }
+
+  @Override
+  public void displayQuiltBoardIncomeMessage(Player playing) {
+  }
+
+  @Override
+  public void displaySpecialPatchAcquisition(Player playing) {
+  }
+
+  @Override
+  public Point promptPlayerForPatchPlacementPosition(Player player) {
+    Objects.requireNonNull(player);
+    if (placementPending) {
+      placementPending = false;
+      return move.placement();
+    }
+    return chooseSpecialPatchPlacement(player.getQuiltBoard());
+  }
+
+  @Override
+  public Optional<Patch> promptPlayerPatchDecision(Player playing, Patches patches) {
+    Objects.requireNonNull(patches);
+    var patch = MoveGenerator.ringPatch(patches, move.ringOffset());
+    patch.setOrientation(move.rotations(), move.flipped());
+    return Optional.of(patch);
+  }
+
+  @Override
+  public void quiltBoardFullyPatchedMessage(Player player) {
+  }
+
+  @Override
+  public char promptPlayerPatchManipulationDecision(Player playing) {
+    return 'p';
+  }
+
+  @Override
+  public void displayPatch(Patch patch) {
+  }
+
+  @Override
+  public void displaySevenBySevenAcquisition(Player player) {
+  }
+
+  @Override
+  public void displayWinnerMessage(GameResult res) {
+  }
+
+  @Override
+  public void displayInvalidPlacementMessage() {
+    throw new IllegalStateException("The bot chose an invalid placement: " + move);
+  }
+
+  @Override
+  public void closeView() {
+  }
+}
@@ -0,0 +1,178 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * A class that reads the connections of a GameServer on a single thread, with a selector: a connection waiting for
+ * its player holds no thread, and the answers complete the futures of the prompts on the thread of the reader.
+ * <p>
+ * The games go on from these futures, so all the matches of a server are played on this thread, one step at a time,
+ * and never block it: the lines they send are written without waiting, what the socket doesn't take at once being
+ * written once it can take more. The tasks given to {@link #execute(Runnable)} run on the same thread, between two
+ * reads.
+ */
+public class ConnectionReader implements Closeable {
+  private final Selector selector;
+  private final Thread thread;
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+  /**
+   * A constructor for a ConnectionReader instance, its thread is started right away.
+   *
+   * @param name The name of the thread of the reader.
+   * @throws IOException If the selector can't be opened.
+   */
+  public ConnectionReader(String name) throws IOException {
+    Objects.requireNonNull(name);
+    this.selector = Selector.open();
+    this.thread = new Thread(this::run, name);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Runs a task on the thread of the reader, after the reads in progress.
+   *
+   * @param task The task.
+   */
+  public void execute(Runnable task) {
+    Objects.requireNonNull(task);
+    tasks.add(task);
+    selector.wakeup();
+  }
+
+  /**
+   * Starts reading a connection, its answers complete its prompts from now on.
+   *
+   * @param connection The connection, its channel in non blocking mode.
+   */
+  void register(PlayerConnection connection) {
+    execute(() -> {
+      try {
+        connection.channel().register(selector, SelectionKey.OP_READ, connection);
+      } catch (IOException e) {
+        connection.disconnected();
+      }
+    });
+  }
+
+  /**
+   * Waits for a connection to accept more bytes, the ones it couldn't take are written then.
+   *
+   * @param connection The connection.
+   */
+  void awaitWritable(PlayerConnection connection) {
+    execute(() -> {
+      var key = connection.channel().keyFor(selector);
+      if (key != null && key.isValid()) {
+        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+      }
+    });
+  }
+
+  /**
+   * Accepts the connections of a server socket, without a thread of its own.
+   *
+   * @param server   The server socket, it is put in non blocking mode.
+   * @param accepted What to do with a connection accepted, called on the thread of the reader.
+   * @throws IOException If the server socket can't be put in non blocking mode.
+   */
+  public void accept(ServerSocketChannel server, Consumer<SocketChannel> accepted) throws IOException {
+    Objects.requireNonNull(server);
+    Objects.requireNonNull(accepted);
+    server.configureBlocking(false);
+    execute(() -> {
+      try {
+        server.register(selector, SelectionKey.OP_ACCEPT, accepted);
+      } catch (IOException e) {
+        System.err.println(thread.getName() + " can't accept connections: " + e.getMessage());
+      }
+    });
+  }
+
+  /**
+   * The loop of the thread of the reader, until the reader is closed.
+   */
+  private void run() {
+    try {
+      while (selector.isOpen()) {
+        selector.select();
+        for (Runnable task; (task = tasks.poll()) != null; ) {
+          task.run();
+        }
+        var keys = selector.selectedKeys();
+        for (var key : keys) {
+          handle(key);
+        }
+        keys.clear();
+      }
+    } catch (IOException | ClosedSelectorException e) {
+      // Closed, the connections go with it.
+    }
+  }
+
+  /**
+   * Handles a key the selector found ready.
+   *
+   * @param key The key.
+   */
+  @SuppressWarnings("unchecked")
+  private void handle(SelectionKey key) {
+    try {
+      if (key.isValid() && key.isAcceptable()) {
+        var channel = ((ServerSocketChannel) key.channel()).accept();
+        if (channel != null) {
+          ((Consumer<SocketChannel>) key.attachment()).accept(channel);
+        }
+        return;
+      }
+      var connection = (PlayerConnection) key.attachment();
+      if (key.isValid() && key.isReadable()) {
+        connection.readAvailable();
+      }
+      if (key.isValid() && key.isWritable() && connection.writeAvailable()) {
+        key.interestOps(SelectionKey.OP_READ);
+      }
+    } catch (IOException | RuntimeException e) {
+      // One connection failing mustn't stop the others.
+      System.err.println(thread.getName() + ": " + e);
+      if (key.attachment() instanceof PlayerConnection connection) {
+        connection.close();
+      }
+    }
+  }
+
+  /**
+   * Stops reading, the connections still registered are closed on the thread of the reader, which is waited for.
+   */
+  @Override
+  public void close() {
+    execute(() -> {
+      for (var key : selector.keys()) {
+        if (key.attachment() instanceof PlayerConnection connection) {
+          connection.close();
+        }
+      }
+      try {
+        selector.close();
+      } catch (IOException e) {
+        // Nothing left to read anyway.
+      }
+    });
+    if (Thread.currentThread() != thread) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
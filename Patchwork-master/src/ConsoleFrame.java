@@ -0,0 +1,327 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A character frame buffer the console view draws a screen into before emitting it to the terminal with one buffered
+ * write, instead of printing it cell by cell.
+ * <p>
+ * The frame is reused from one screen to the next, it only grows. In ANSI diff mode the frame stays at the top of the
+ * terminal: the first screen is drawn whole, then only the cells that changed since the previous screen are rewritten
+ * with cursor moves, and the lines below the frame are set as a scrolling region for the messages and the prompts. The
+ * terminal has to be larger than the frame.
+ * <p>
+ * The frame counts what drawing a screen cost: the cells put into it since the previous screen, the writes the screen
+ * was emitted with, a line or a run of changed cells each, and the bytes they took, for RenderMetrics.
+ */
+public class ConsoleFrame {
+  private static final char ESCAPE = '\033';
+
+  private final boolean ansiDiff;
+  private final StringBuilder output = new StringBuilder();
+  private char[] cells = new char[0];
+  private char[] previous = new char[0];
+  /* For each line, the column following the last character put into it since the frame was blanked. */
+  private int[] ends = new int[0];
+  private int height;
+  private int width;
+  /* Whether the terminal shows a previous frame of the same size, in diff mode. */
+  private boolean drawn;
+  /* What the screen being drawn cost so far, and the last one emitted. */
+  private int cellsPut;
+  private int lastCellsPut;
+  private int lastWrites;
+
+  /**
+   * Constructor for the ConsoleFrame class.
+   *
+   * @param ansiDiff Whether only the cells that changed between two screens are rewritten, the terminal has to
+   *                 understand ANSI escape sequences.
+   */
+  public ConsoleFrame(boolean ansiDiff) {
+    this.ansiDiff = ansiDiff;
+  }
+
+  /**
+   * Getter function for the ansiDiff field.
+   *
+   * @return Whether the frame is emitted in ANSI diff mode.
+   */
+  public boolean isAnsiDiff() {
+    return ansiDiff;
+  }
+
+  /**
+   * Getter function for the width field.
+   *
+   * @return The number of columns of the frame.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Makes sure the frame has at least the given size, the cells kept are left as they are and the new ones are blank.
+   *
+   * @param minHeight The minimal number of lines.
+   * @param minWidth  The minimal number of columns.
+   */
+  public void ensureSize(int minHeight, int minWidth) {
+    if (minHeight <= height && minWidth <= width) {
+      return;
+    }
+    int newHeight = Math.max(height, minHeight), newWidth = Math.max(width, minWidth);
+    var newCells = new char[newHeight * newWidth];
+    Arrays.fill(newCells, ' ');
+    for (int i = 0; i < height; i++) {
+      System.arraycopy(cells, i * width, newCells, i * newWidth, width);
+    }
+    cells = newCells;
+    previous = new char[newCells.length];
+    ends = Arrays.copyOf(ends, newHeight);
+    height = newHeight;
+    width = newWidth;
+    drawn = false; // The terminal has to be redrawn whole.
+  }
+
+  /**
+   * Blanks the whole frame.
+   */
+  public void clear() {
+    Arrays.fill(cells, ' ');
+    Arrays.fill(ends, 0);
+  }
+
+  /**
+   * Blanks a rectangle of the frame.
+   *
+   * @param top     The first line of the rectangle.
+   * @param left    The first column of the rectangle.
+   * @param lines   The number of lines of the rectangle.
+   * @param columns The number of columns of the rectangle.
+   */
+  public void clear(int top, int left, int lines, int columns) {
+    for (int i = top; i < Math.min(top + lines, height); i++) {
+      Arrays.fill(cells, i * width + left, i * width + Math.min(left + columns, width), ' ');
+    }
+  }
+
+  /**
+   * Writes a character in the frame, characters outside of it are dropped.
+   *
+   * @param line   The line, from 0.
+   * @param column The column, from 0.
+   * @param c      The character.
+   * @return The column following the character.
+   */
+  public int put(int line, int column, char c) {
+    if (line >= 0 && line < height && column >= 0 && column < width) {
+      cells[line * width + column] = c;
+      ends[line] = Math.max(ends[line], column + 1);
+      cellsPut++;
+    }
+    return column + 1;
+  }
+
+  /**
+   * Makes a line go on to a column, blank or not, so a plain screen emits its blanks up to there as a direct print of
+   * the line would.
+   *
+   * @param line   The line, from 0.
+   * @param column The column following the last character of the line, from 0.
+   */
+  public void extendLine(int line, int column) {
+    if (line >= 0 && line < height) {
+      ends[line] = Math.max(ends[line], Math.min(column, width));
+    }
+  }
+
+  /**
+   * Writes a text on one line of the frame, the characters outside of it are dropped.
+   *
+   * @param line   The line, from 0.
+   * @param column The column of the first character, from 0.
+   * @param text   The text, without line breaks.
+   * @return The column following the text.
+   */
+  public int put(int line, int column, CharSequence text) {
+    Objects.requireNonNull(text);
+    for (int k = 0; k < text.length(); k++) {
+      put(line, column + k, text.charAt(k));
+    }
+    return column + text.length();
+  }
+
+  /**
+   * Writes a positive or negative number right-aligned in a field, like the {@code %nd} format does.
+   *
+   * @param line   The line, from 0.
+   * @param column The column of the field, from 0.
+   * @param value  The number.
+   * @param field  The width of the field, wider numbers overflow it.
+   * @return The column following the number.
+   */
+  public int putNumber(int line, int column, int value, int field) {
+    var digits = 1;
+    for (var rest = Math.abs((long) value); rest >= 10; rest /= 10) {
+      digits++;
+    }
+    var length = digits + (value < 0 ? 1 : 0);
+    var end = column + Math.max(field, length);
+    var rest = Math.abs((long) value);
+    var k = end - 1;
+    for (int d = 0; d < digits; d++, rest /= 10) {
+      put(line, k--, (char) ('0' + rest % 10));
+    }
+    if (value < 0) {
+      put(line, k--, '-');
+    }
+    while (k >= column) {
+      put(line, k--, ' ');
+    }
+    return end;
+  }
+
+  /**
+   * Emits the given number of first lines of the frame in one write, each line up to the last character put into it,
+   * blanks included, and followed by a line break, so the text is the same as if it had been printed directly. In
+   * ANSI diff mode the whole frame is emitted as described in the class documentation.
+   *
+   * @param out   The stream to write to.
+   * @param lines The number of lines, in plain mode.
+   */
+  public void present(PrintStream out, int lines) {
+    Objects.requireNonNull(out);
+    output.setLength(0);
+    if (ansiDiff) {
+      lastWrites = appendDifferences();
+    } else {
+      lastWrites = Math.min(lines, height);
+      for (int i = 0; i < lastWrites; i++) {
+        output.append(cells, i * width, ends[i]).append('\n');
+      }
+    }
+    out.append(output);
+    out.flush();
+    lastCellsPut = cellsPut;
+    cellsPut = 0;
+  }
+
+  /**
+   * Getter function for the number of cells put into the last screen emitted, since the previous one.
+   *
+   * @return The number of cells.
+   */
+  public int getLastCellsPut() {
+    return lastCellsPut;
+  }
+
+  /**
+   * Getter function for the number of writes the last screen was emitted with: its lines in plain mode, the runs of
+   * cells that changed in ANSI diff mode.
+   *
+   * @return The number of writes.
+   */
+  public int getLastWrites() {
+    return lastWrites;
+  }
+
+  /**
+   * Computes the number of bytes the last screen took once encoded in UTF-8, escape sequences included.
+   *
+   * @return The number of bytes.
+   */
+  public long getLastBytes() {
+    var bytes = 0L;
+    for (int k = 0; k < output.length(); k++) {
+      var c = output.charAt(k);
+      if (c < 0x80) {
+        bytes++;
+      } else if (c < 0x800) {
+        bytes += 2;
+      } else if (Character.isHighSurrogate(c)) {
+        bytes += 4;
+        k++; // The low surrogate is part of the same code point.
+      } else {
+        bytes += 3;
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Computes the length of a line of the frame without its trailing blanks.
+   *
+   * @param line The line.
+   * @return The number of characters up to the last one that isn't blank.
+   */
+  private int trimmedLength(int line) {
+    var end = width;
+    while (end > 0 && cells[line * width + end - 1] == ' ') {
+      end--;
+    }
+    return end;
+  }
+
+  /**
+   * Emits the frame in ANSI diff mode: whole when the terminal doesn't show the previous frame, otherwise only the runs
+   * of cells that changed, the cursor being saved and restored around them so the prompts carry on where they were.
+   *
+   * @return The number of lines or runs of cells emitted.
+   */
+  private int appendDifferences() {
+    if (!drawn) {
+      // Home and clear, the frame, then the scrolling region below it, which also homes the cursor.
+      output.append(ESCAPE).append("[H").append(ESCAPE).append("[2J");
+      for (int i = 0; i < height; i++) {
+        output.append(ESCAPE).append('[').append(i + 1).append(";1H").append(cells, i * width, trimmedLength(i));
+      }
+      output.append(ESCAPE).append('[').append(height + 1).append('r');
+      output.append(ESCAPE).append('[').append(height + 1).append(";1H");
+      System.arraycopy(cells, 0, previous, 0, cells.length);
+      drawn = true;
+      return height;
+    }
+    var start = output.length();
+    var runs = 0;
+    output.append(ESCAPE).append('7');
+    for (int i = 0; i < height; i++) {
+      var j = 0;
+      while (j < width) {
+        if (cells[i * width + j] == previous[i * width + j]) {
+          j++;
+          continue;
+        }
+        var runStart = j;
+        while (j < width && cells[i * width + j] != previous[i * width + j]) {
+          j++;
+        }
+        output.append(ESCAPE).append('[').append(i + 1).append(';').append(runStart + 1).append('H')
+              .append(cells, i * width + runStart, j - runStart);
+        runs++;
+      }
+    }
+    if (runs == 0) {
+      output.setLength(start); // Nothing changed.
+      return 0;
+    }
+    output.append(ESCAPE).append('8');
+    System.arraycopy(cells, 0, previous, 0, cells.length);
+    return runs;
+  }
+
+  /**
+   * Gives the terminal its whole screen back in ANSI diff mode, the cursor is left at the bottom of the screen. Does
+   * nothing in plain mode.
+   *
+   * @param out The stream to write to.
+   */
+  public void release(PrintStream out) {
+    Objects.requireNonNull(out);
+    if (ansiDiff && drawn) {
+      out.print(ESCAPE + "[r" + ESCAPE + "[999;1H");
+      out.flush();
+      drawn = false;
+    }
+  }
+}
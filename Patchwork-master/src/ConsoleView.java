@@ -13,6 +13,30 @@ public class ConsoleView implements View {
    * A Scanner object to read user input.
    */
   private final Scanner scr;
+  /**
+   * The frame the boards are drawn into before being written to the console.
+   */
+  private final ConsoleFrame frame;
+  /**
+   * The metrics the screens drawn are reported to, or null if they aren't measured.
+   */
+  private RenderMetrics renderMetrics;
+  /**
+   * The service the placements of the patch being manipulated are suggested by, or null if they aren't.
+   */
+  private PlacementHintService placementHints;
+  /* The patches of the circle and the patch being manipulated, shown last, for the hints. */
+  private Patches patches;
+  private Patch manipulated;
+
+  /* Where the boards are laid out in ANSI diff mode, they share one frame that stays at the top of the terminal. */
+  private static final int QUILTBOARD_LEFT = 30;
+  private static final int PATCHES_TOP = 11;
+  private static final int PATCH_LINES = 5;
+  private static final int PATCH_TOP = PATCHES_TOP + PATCH_LINES + 1;
+  private static final int DASHBOARD_LINES = PATCH_TOP + PATCH_LINES;
+  /* Seven patches of five columns and their descriptions, the widest line. */
+  private static final int DASHBOARD_COLUMNS = 7 * (2 * PATCH_LINES + 14);
 
   /**
    * Constructor for the ConsoleView class.
@@ -21,8 +45,90 @@ public class ConsoleView implements View {
    * @throws NullPointerException if the Scanner object passed is null
    */
   public ConsoleView(Scanner myScr) {
+    this(myScr, false);
+  }
+
+  /**
+   * Constructor for the ConsoleView class.
+   *
+   * @param myScr    a Scanner object to read user input.
+   * @param ansiDiff whether the boards stay at the top of the terminal and only their changes are redrawn, the
+   *                 terminal has to understand ANSI escape sequences.
+   * @throws NullPointerException if the Scanner object passed is null
+   */
+  public ConsoleView(Scanner myScr, boolean ansiDiff) {
     Objects.requireNonNull(myScr);
     scr = myScr;
+    frame = new ConsoleFrame(ansiDiff);
+    if (ansiDiff) {
+      frame.ensureSize(DASHBOARD_LINES, DASHBOARD_COLUMNS);
+    }
+  }
+
+  /**
+   * Setter function for the renderMetrics field, every screen drawn is then measured: how long drawing and writing it
+   * took, the lines or runs of cells written as draw calls, the cells put into the frame as shapes and the bytes
+   * written to the standard output.
+   *
+   * @param renderMetrics The metrics, or null to stop measuring.
+   */
+  public void setRenderMetrics(RenderMetrics renderMetrics) {
+    this.renderMetrics = renderMetrics;
+  }
+
+  /**
+   * Setter function for the placementHints field, the best placement of the patch being manipulated in its current
+   * orientation is then suggested before every manipulation prompt, and whether another orientation does better.
+   *
+   * @param placementHints The service the placements are suggested by, or null to stop suggesting them.
+   */
+  public void setPlacementHints(PlacementHintService placementHints) {
+    this.placementHints = placementHints;
+  }
+
+  /**
+   * Suggests where to place the patch being manipulated, if the placements are suggested.
+   *
+   * @param playing The player manipulating the patch.
+   */
+  private void suggestPlacement(Player playing) {
+    if (placementHints == null || manipulated == null || patches == null) {
+      return;
+    }
+    var smallestPatch = PositionEvaluator.smallestPatch(patches);
+    var best = placementHints.hints(playing.getQuiltBoard(), manipulated, smallestPatch, 1);
+    var current = placementHints.bestInOrientation(playing.getQuiltBoard(), manipulated, smallestPatch);
+    if (current.isEmpty()) {
+      System.out.println("Hint: the patch doesn't fit in this orientation" +
+                         (best.isEmpty() ? " nor in any other" : ", rotate or flip it"));
+      return;
+    }
+    var placement = current.get().placement();
+    System.out.println("Hint: place it at line " + placement.i() + " column " + placement.j() +
+                       (best.get(0).value() > current.get().value() ? ", or rotate or flip it for a better fit" : ""));
+  }
+
+  /**
+   * Reads the clock at the start of a screen, only if the screens are measured.
+   *
+   * @return The time, in nanoseconds, or 0.
+   */
+  private long screenStart() {
+    return renderMetrics == null ? 0 : System.nanoTime();
+  }
+
+  /**
+   * Writes the screen drawn into the frame to the console and reports what it cost, if the screens are measured.
+   *
+   * @param lines The number of lines of the screen, in plain mode.
+   * @param start The time the screen started at, see screenStart.
+   */
+  private void presentScreen(int lines, long start) {
+    frame.present(System.out, lines);
+    if (renderMetrics != null) {
+      renderMetrics.recordFrame(System.nanoTime() - start, frame.getLastWrites(), frame.getLastCellsPut(),
+                                frame.getLastBytes());
+    }
   }
 
   @Override
@@ -38,6 +144,7 @@ public class ConsoleView implements View {
 
   @Override
   public void closeView() {
+    frame.release(System.out);
     scr.close();
   }
 
@@ -68,6 +175,7 @@ public class ConsoleView implements View {
       System.out.println(
               playing.getName() + ", choose to either rotate, flip, place your patch on your quiltBoard or go " +
               "back to your previous decision r/f/p/q");
+      suggestPlacement(playing);
       char decision = scr.next().charAt(0);
       switch (decision) {
         case 'r' -> {
@@ -103,6 +211,7 @@ public class ConsoleView implements View {
                   (patches.getNeutralPawnIndex() + Integer.parseInt(String.valueOf(decision)) - 1) %
                   patches.getPatchesList().size());
           if (playing.purchasePossible(chosen)) {
+            manipulated = chosen;
             return Optional.of(chosen);
           }
           System.out.println("You can't afford this patch " + playing.getName() + ", please choose another or go back" +
@@ -172,125 +281,167 @@ public class ConsoleView implements View {
     Objects.requireNonNull(player1);
     Objects.requireNonNull(player2);
     // System.out.print(" ● ■ —‾_");
+    var start = screenStart();
+    var sideLength = timeBoard.getSideLength();
+    frame.ensureSize(frame.isAnsiDiff() ? DASHBOARD_LINES : sideLength + 1, 3 * sideLength + 1);
+    if (!frame.isAnsiDiff()) {
+      frame.clear();
+    }
     Point playerOnePos = timeBoard.getSpiralPathCoordinates().get(player1.getPosition());
     Point playerTwoPos = timeBoard.getSpiralPathCoordinates().get(player2.getPosition());
-    for (int i = 0; i < timeBoard.getSideLength(); i++) {
-      for (int j = 0; j < timeBoard.getSideLength(); j++) {
+    for (int i = 0; i < sideLength; i++) {
+      var column = 0;
+      for (int j = 0; j < sideLength; j++) {
         if (j == 0) {
-          displayLeftSide(new Point(i, j), timeBoard, playerOnePos, playerTwoPos, player1, player2);
-        } else if (j == timeBoard.getSideLength() - 1) {
-          displayRightSide(new Point(i, j), timeBoard, playerOnePos, playerTwoPos, player1, player2);
+          column = drawLeftSide(new Point(i, j), column, timeBoard, playerOnePos, playerTwoPos, player1, player2);
+        } else if (j == sideLength - 1) {
+          column = drawRightSide(new Point(i, j), column, timeBoard, playerOnePos, playerTwoPos, player1, player2);
         } else {
-          displayMiddleSide(new Point(i, j), timeBoard, playerOnePos, playerTwoPos, player1, player2);
+          column = drawMiddleSide(new Point(i, j), column, timeBoard, playerOnePos, playerTwoPos, player1, player2);
         }
       }
-      System.out.print("\n");
     }
-    System.out.print("\n");
+    presentScreen(sideLength + 1, start);
   }
 
   @Override
   public void displayQuiltBoard(Player player) {
     Objects.requireNonNull(player);
-    for (int i = 0; i < player.getQuiltBoard().getQBOARDSIZE(); i++) {
-      for (int j = 0; j < player.getQuiltBoard().getQBOARDSIZE(); j++) {
-        if (j == player.getQuiltBoard().getQBOARDSIZE() - 1) {
-          if (player.getQuiltBoard().getStructure()[i][j] != null) {
-            System.out.print("■");
-          } else {
-            System.out.print(".");
-          }
-        } else {
-          if (player.getQuiltBoard().getStructure()[i][j] != null) {
-            System.out.print("■  ");
-          } else {
-            System.out.print(".  ");
-          }
-        }
+    var start = screenStart();
+    var quiltBoard = player.getQuiltBoard();
+    var size = quiltBoard.getQBOARDSIZE();
+    var left = 0;
+    if (frame.isAnsiDiff()) {
+      // The two quiltboards take turns in the same place, the name of the player tells them apart.
+      frame.ensureSize(DASHBOARD_LINES, QUILTBOARD_LEFT + 3 * size);
+      frame.clear(0, QUILTBOARD_LEFT, size + 1, frame.getWidth());
+      left = QUILTBOARD_LEFT;
+    } else {
+      frame.ensureSize(size + 2, 3 * size);
+      frame.clear();
+    }
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        frame.put(i, left + 3 * j, quiltBoard.getStructure()[i][j] != null ? '■' : '.');
       }
-      System.out.print("\n");
     }
-    System.out.println("Your current income is " + player.getQuiltBoard().getTotalIncome() + "\n");
+    var column = frame.put(size, left, frame.isAnsiDiff() ? player.getName() + ", your current income is " :
+                                       "Your current income is ");
+    frame.putNumber(size, column, quiltBoard.getTotalIncome(), 1);
+    presentScreen(size + 2, start);
   }
 
   /**
-   * Displays the description of a patch given a line of the said patch.
+   * Draws the description of a patch given a line of the said patch.
    *
+   * @param frame       the frame to draw into
+   * @param line        the line of the frame
+   * @param column      the column of the frame where the description starts
    * @param currentLine current line of the patch
    * @param patch       patch in question
+   * @return the column following the description
    */
-  private static void displayPatchDescription(int currentLine, Patch patch) {
-    switch (currentLine) {
-      case 0 -> System.out.printf("Price    :%2d", patch.getPrice());
-      case 1 -> System.out.printf("TimeCost :%2d", patch.getTimeCost());
-      case 2 -> System.out.printf("income   :%2d", patch.getIncome());
-      default -> System.out.print("            "); // For the alignement
-    }
+  private static int drawPatchDescription(ConsoleFrame frame, int line, int column, int currentLine, Patch patch) {
+    return switch (currentLine) {
+      case 0 -> frame.putNumber(line, frame.put(line, column, "Price    :"), patch.getPrice(), 2);
+      case 1 -> frame.putNumber(line, frame.put(line, column, "TimeCost :"), patch.getTimeCost(), 2);
+      case 2 -> frame.putNumber(line, frame.put(line, column, "income   :"), patch.getIncome(), 2);
+      default -> column + 12; // For the alignement
+    };
   }
 
   /**
-   * Displays the current line of the patch
+   * Draws the current line of the patch
    *
+   * @param frame       the frame to draw into
+   * @param line        the line of the frame
+   * @param column      the column of the frame where the patch starts
    * @param currentLine the current line of the patch
    * @param patch       the patch being displayed
-   * @param line        the current line of the patch
+   * @param spaces      the current line of the patch, null if the patch has no such line
+   * @return the column following the line of the patch
    */
-  private static void displayPatchLine(int currentLine, Patch patch, PatchSpace[] line) {
-    for (int elementPosition = 0; elementPosition < line.length; elementPosition++) {
-      if (line[elementPosition] != null) {
-        System.out.print("■ ");
-      } else {
-        System.out.print("  ");
-      }
-      if (elementPosition == line.length - 1) {
-        displayPatchDescription(currentLine, patch);
+  private static int drawPatchLine(ConsoleFrame frame, int line, int column, int currentLine, Patch patch,
+                                   PatchSpace[] spaces) {
+    var patchWidth = patch.getStructure()[0].length;
+    for (int elementPosition = 0; elementPosition < patchWidth; elementPosition++) {
+      if (spaces != null && spaces[elementPosition] != null) {
+        frame.put(line, column, '■');
       }
+      column += 2;
     }
+    return drawPatchDescription(frame, line, column, currentLine, patch);
   }
 
   /**
-   * Displays all the patches in the list
+   * Draws all the patches in the list
    *
+   * @param frame                 the frame to draw into
+   * @param line                  the line of the frame
    * @param selectablePatchesList list of patches that can be selected
    * @param currentLine           the current line of the patches
    */
-  private static void displayPatchesLine(List<Patch> selectablePatchesList, int currentLine) {
+  private static void drawPatchesLine(ConsoleFrame frame, int line, List<Patch> selectablePatchesList,
+                                      int currentLine) {
+    var column = 0;
     for (Patch patch : selectablePatchesList) {
-      PatchSpace[] line;
+      PatchSpace[] spaces = null;
       if (currentLine < patch.getStructure().length) {
-        line = patch.getStructure()[currentLine];
-      } else {
-        line = new PatchSpace[patch.getStructure()[0].length];
+        spaces = patch.getStructure()[currentLine];
       }
-      displayPatchLine(currentLine, patch, line);
-      System.out.print("  ");
+      column = drawPatchLine(frame, line, column, currentLine, patch, spaces) + 2;
+    }
+    frame.extendLine(line, column);
+  }
+
+  /**
+   * Draws patches side by side, with their descriptions, and writes them to the console.
+   *
+   * @param patchesList the patches
+   * @param top         the line of the frame where the patches go in ANSI diff mode
+   */
+  private void drawPatches(List<Patch> patchesList, int top) {
+    var start = screenStart();
+    int longestPatch = 0, width = 0;
+    for (var patch : patchesList) {
+      longestPatch = Math.max(longestPatch, patch.getStructure().length);
+      width += 2 * patch.getStructure()[0].length + 14;
+    }
+    var lines = Math.max(longestPatch, 3);
+    if (frame.isAnsiDiff()) {
+      frame.ensureSize(DASHBOARD_LINES, width);
+      frame.clear(top, 0, PATCH_LINES, frame.getWidth());
+    } else {
+      top = 0;
+      frame.ensureSize(lines, width);
+      frame.clear();
+    }
+    for (int currentLine = 0; currentLine < lines; currentLine++) {
+      drawPatchesLine(frame, top + currentLine, patchesList, currentLine);
     }
+    presentScreen(lines, start);
   }
 
   @Override
   public void displayPatches(Patches patches) {
     Objects.requireNonNull(patches);
+    this.patches = patches;
     var patchesList = patches.getPatchesList();
     var patchesStartingIndex = patches.getNeutralPawnIndex() % patchesList.size();
     var selectablePatchesList = patchesList.subList(patchesStartingIndex,
                                                     (patchesStartingIndex + 7) % patchesList.size());
     // % patchesList.size() to ensure we never get an index out of range
-    int longestPatch = selectablePatchesList.stream().map(elem -> elem.getStructure().length).max(
-            Integer::compareTo).orElse(0);
-
-    for (int currentLine = 0; currentLine < Math.max(longestPatch, 3); currentLine++) {
-      displayPatchesLine(selectablePatchesList, currentLine);
-      System.out.print("\n");
+    if (frame.isAnsiDiff()) {
+      frame.clear(PATCH_TOP, 0, PATCH_LINES, frame.getWidth()); // The patch chosen last turn.
     }
+    drawPatches(selectablePatchesList, PATCHES_TOP);
   }
 
   @Override
   public void displayPatch(Patch patch) {
     Objects.requireNonNull(patch);
-    for (int currentLine = 0; currentLine < (Math.max(patch.getStructure().length, 3)); currentLine++) {
-      displayPatchesLine(new ArrayList<>(List.of(patch)), currentLine);
-      System.out.print("\n");
-    }
+    manipulated = patch;
+    drawPatches(List.of(patch), PATCH_TOP);
   }
 
   /**
@@ -317,120 +468,140 @@ public class ConsoleView implements View {
   }
 
   /**
-   * Displays a player on the board
+   * Draws a space of the timeboard between a prefix and a suffix.
+   *
+   * @param line   the line of the frame
+   * @param column the column of the frame where the space starts
+   * @param prefix the characters before the content of the space
+   * @param c      the content of the space
+   * @param suffix the characters after the content of the space
+   * @return the column following the space
+   */
+  private int drawSpace(int line, int column, String prefix, char c, String suffix) {
+    column = frame.put(line, column, prefix);
+    column = frame.put(line, column, c);
+    return frame.put(line, column, suffix);
+  }
+
+  /**
+   * Draws a player on the board
    *
    * @param timeBoard    the game board
    * @param coordinates  the point on the board where the player is located
+   * @param column       the column of the frame where the space starts
    * @param playerOnePos the position of the first player
    * @param playerTwoPos the position of the second player
    * @param player1      the first player
    * @param player2      the second player
-   * @param template     the template for displaying the player
+   * @param prefix       the characters before the player
+   * @param suffix       the characters after the player
+   * @return the column following the space
    */
-  private static void displayPlayer(TimeBoard timeBoard, Point coordinates, Point playerOnePos, Point playerTwoPos,
-                                    Player player1, Player player2, String template) {
+  private int drawPlayer(TimeBoard timeBoard, Point coordinates, int column, Point playerOnePos, Point playerTwoPos,
+                         Player player1, Player player2, String prefix, String suffix) {
+    Player shown;
     if (containsPlayer(coordinates, playerOnePos) && containsPlayer(coordinates, playerTwoPos)) {
-      if (timeBoard.getPlayerOnTop().equals(player1)) {
-        System.out.printf(template, player1.getName().charAt(0));
-      } else {
-        System.out.printf(template, player2.getName().charAt(0));
-      }
+      shown = timeBoard.getPlayerOnTop().equals(player1) ? player1 : player2;
     } else if (containsPlayer(coordinates, playerOnePos)) {
-      System.out.printf(template, player1.getName().charAt(0));
+      shown = player1;
     } else {
-      System.out.printf(template, player2.getName().charAt(0));
+      shown = player2;
     }
+    return drawSpace(coordinates.i(), column, prefix, shown.getName().charAt(0), suffix);
   }
 
   /**
-   * Displays an item (patch or button) on the timeboard on the given coordinates if it exists.
+   * Draws an item (patch or button) on the timeboard on the given coordinates if it exists.
    *
    * @param coordinates A point on the timeboard.
+   * @param column      The column of the frame where the space starts.
    * @param timeBoard   The game board
-   * @param template    The template for displaying the item.
+   * @param prefix      The characters before the item.
+   * @param suffix      The characters after the item.
+   * @return The column following the space.
    */
-  private static void displayItem(Point coordinates, TimeBoard timeBoard, String template) {
+  private int drawItem(Point coordinates, int column, TimeBoard timeBoard, String prefix, String suffix) {
+    char item;
     if (timeBoard.spaceContainsPatch(coordinates)) {
-      System.out.printf(template, "■");
+      item = '■';
     } else if (timeBoard.spaceContainsButton(coordinates)) {
-      System.out.printf(template, "●");
+      item = '●';
     } else {
-      System.out.printf(template, "_");
+      item = '_';
     }
+    return drawSpace(coordinates.i(), column, prefix, item, suffix);
   }
 
   /**
-   * Display the player or the item on the timeboard if they existed.
+   * Draws the player or the item on the timeboard if they existed.
    *
-   * @param coordinates    The coordinates of the space of the player/item.
-   * @param timeBoard      the game board.
-   * @param playerOnePos   the first player's positon.
-   * @param playerTwoPos   the second player's position.
-   * @param player1        the first player.
-   * @param player2        the second player.
-   * @param playerTemplate the template for displaying the player.
-   * @param itemTemplate   the template for displaying the item.
+   * @param coordinates  The coordinates of the space of the player/item.
+   * @param column       The column of the frame where the space starts.
+   * @param timeBoard    the game board.
+   * @param playerOnePos the first player's positon.
+   * @param playerTwoPos the second player's position.
+   * @param player1      the first player.
+   * @param player2      the second player.
+   * @param prefix       the characters before the player or the item.
+   * @param suffix       the characters after the player or the item.
+   * @return The column following the space.
    */
-  private static void displayPlayerAndItem(Point coordinates, TimeBoard timeBoard, Point playerOnePos,
-                                           Point playerTwoPos, Player player1, Player player2, String playerTemplate,
-                                           String itemTemplate) {
+  private int drawPlayerAndItem(Point coordinates, int column, TimeBoard timeBoard, Point playerOnePos,
+                                Point playerTwoPos, Player player1, Player player2, String prefix, String suffix) {
     if (containsPlayers(coordinates, playerOnePos, playerTwoPos)) {
-      displayPlayer(timeBoard, coordinates, playerOnePos, playerTwoPos, player1, player2, playerTemplate);
-    } else {
-      displayItem(coordinates, timeBoard, itemTemplate);
+      return drawPlayer(timeBoard, coordinates, column, playerOnePos, playerTwoPos, player1, player2, prefix, suffix);
     }
+    return drawItem(coordinates, column, timeBoard, prefix, suffix);
   }
 
   /**
-   * Displays a space on the left side of the timeboard.
+   * Draws a space on the left side of the timeboard.
    *
    * @param coordinates  The coordinates of the space on the left side of the timeboard.
+   * @param column       The column of the frame where the space starts.
    * @param timeBoard    The timeboard.
    * @param playerOnePos the first player's positon.
    * @param playerTwoPos the second player's position.
    * @param player1      the first player.
    * @param player2      the second player.
+   * @return The column following the space.
    */
-  private static void displayLeftSide(Point coordinates, TimeBoard timeBoard, Point playerOnePos, Point playerTwoPos,
-                                      Player player1, Player player2) {
-    displayPlayerAndItem(coordinates, timeBoard, playerOnePos, playerTwoPos, player1, player2, "|%s", "|%s");
+  private int drawLeftSide(Point coordinates, int column, TimeBoard timeBoard, Point playerOnePos,
+                           Point playerTwoPos, Player player1, Player player2) {
+    return drawPlayerAndItem(coordinates, column, timeBoard, playerOnePos, playerTwoPos, player1, player2, "|", "");
   }
 
   /**
-   * Displays a space on the right side of the timeboard.
+   * Draws a space on the right side of the timeboard.
    *
    * @param coordinates  The coordinates of the space on the right side of the timeboard.
+   * @param column       The column of the frame where the space starts.
    * @param timeBoard    The timeboard.
    * @param playerOnePos the first player's positon.
    * @param playerTwoPos the second player's position.
    * @param player1      the first player.
    * @param player2      the second player.
+   * @return The column following the space.
    */
-  private static void displayRightSide(Point coordinates, TimeBoard timeBoard, Point playerOnePos, Point playerTwoPos,
-                                       Player player1, Player player2) {
-//    if (isEmptySpace(i, j, timeBoard)) {
-//      displayPlayerAndItem(i, j, timeBoard, playerOnePos, playerTwoPos, player1, player2, "___%s|", "___%s|");
-//      return;
-//    }
-    displayPlayerAndItem(coordinates, timeBoard, playerOnePos, playerTwoPos, player1, player2, "_|_%s|", "_|_%s|");
+  private int drawRightSide(Point coordinates, int column, TimeBoard timeBoard, Point playerOnePos,
+                            Point playerTwoPos, Player player1, Player player2) {
+    return drawPlayerAndItem(coordinates, column, timeBoard, playerOnePos, playerTwoPos, player1, player2, "_|_", "|");
   }
 
   /**
-   * Displays a middle space of the timeboard.
+   * Draws a middle space of the timeboard.
    *
    * @param coordinates  The coordinates of the space in the middle of the timeboard.
+   * @param column       The column of the frame where the space starts.
    * @param timeBoard    The timeboard.
    * @param playerOnePos the first player's positon.
    * @param playerTwoPos the second player's position.
    * @param player1      the first player.
    * @param player2      the second player.
+   * @return The column following the space.
    */
-  private static void displayMiddleSide(Point coordinates, TimeBoard timeBoard, Point playerOnePos, Point playerTwoPos,
-                                        Player player1, Player player2) {
-//    if (isEmptySpace(i, j, timeBoard)) {
-//      displayPlayerAndItem(i, j, timeBoard, playerOnePos, playerTwoPos, player1, player2, "__%s", "__%s");
-//      return;
-//    }
-    displayPlayerAndItem(coordinates, timeBoard, playerOnePos, playerTwoPos, player1, player2, "_|%s", "_|%s");
+  private int drawMiddleSide(Point coordinates, int column, TimeBoard timeBoard, Point playerOnePos,
+                             Point playerTwoPos, Player player1, Player player2) {
+    return drawPlayerAndItem(coordinates, column, timeBoard, playerOnePos, playerTwoPos, player1, player2, "_|", "");
   }
 }
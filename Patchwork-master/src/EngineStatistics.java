@@ -0,0 +1,114 @@
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A class that counts the games played by the GameControllers of the virtual machine, registered with the platform
+ * MBean server so they can be watched live through JMX, next to the SearchStatistics of the bots.
+ * <p>
+ * The games being played are counted by type of view, the simple name of the class of the view given to the
+ * controller, the one adapted by a SynchronousViewAdapter for a blocking view. The counters are LongAdders, concurrent
+ * games update them without contending on a single cache line.
+ */
+public class EngineStatistics implements EngineStatisticsMXBean {
+  /**
+   * The name the statistics are registered under.
+   */
+  public static final String OBJECT_NAME = "patchwork:type=Engine";
+
+  private static final EngineStatistics instance = new EngineStatistics();
+
+  private final LongAdder gamesStarted = new LongAdder();
+  private final LongAdder gamesFinished = new LongAdder();
+  private final LongAdder turns = new LongAdder();
+  private final Map<String, LongAdder> activeGames = new ConcurrentHashMap<>();
+  private final RateMeter gameRate = new RateMeter();
+  private final RateMeter turnRate = new RateMeter();
+
+  /**
+   * Private constructor, the statistics are shared, see getInstance.
+   */
+  private EngineStatistics() {
+  }
+
+  /**
+   * Getter function for the statistics of the games of the virtual machine.
+   *
+   * @return The statistics.
+   */
+  public static EngineStatistics getInstance() {
+    return instance;
+  }
+
+  /**
+   * Counts a game that starts.
+   *
+   * @param viewType The type of the view the game is played with.
+   */
+  public void gameStarted(String viewType) {
+    Objects.requireNonNull(viewType);
+    gamesStarted.increment();
+    activeGames.computeIfAbsent(viewType, type -> new LongAdder()).increment();
+  }
+
+  /**
+   * Counts a game that is over.
+   *
+   * @param viewType The type of the view the game was played with.
+   */
+  public void gameFinished(String viewType) {
+    Objects.requireNonNull(viewType);
+    gamesFinished.increment();
+    activeGames.computeIfAbsent(viewType, type -> new LongAdder()).decrement();
+  }
+
+  /**
+   * Counts a turn played.
+   */
+  public void turnPlayed() {
+    turns.increment();
+  }
+
+  @Override
+  public long getGamesStarted() {
+    return gamesStarted.sum();
+  }
+
+  @Override
+  public long getGamesFinished() {
+    return gamesFinished.sum();
+  }
+
+  @Override
+  public double getGamesPerSecond() {
+    return gameRate.rate(gamesFinished.sum());
+  }
+
+  @Override
+  public long getTurns() {
+    return turns.sum();
+  }
+
+  @Override
+  public double getTurnsPerSecond() {
+    return turnRate.rate(turns.sum());
+  }
+
+  @Override
+  public long getActiveGames() {
+    var count = 0L;
+    for (var games : activeGames.values()) {
+      count += games.sum();
+    }
+    return count;
+  }
+
+  @Override
+  public Map<String, Long> getActiveGamesByView() {
+    var counts = new TreeMap<String, Long>();
+    activeGames.forEach((type, games) -> counts.put(type, games.sum()));
+    return counts;
+  }
+}
@@ -0,0 +1,55 @@
+import java.util.Map;
+
+/**
+ * The management interface of the statistics of the games, see EngineStatistics.
+ */
+public interface EngineStatisticsMXBean {
+  /**
+   * Getter function for the number of games started.
+   *
+   * @return The number of games.
+   */
+  long getGamesStarted();
+
+  /**
+   * Getter function for the number of games over, won or failed.
+   *
+   * @return The number of games.
+   */
+  long getGamesFinished();
+
+  /**
+   * Getter function for the number of games over per second, over the last period, the playouts of the self-play.
+   *
+   * @return The number of games per second.
+   */
+  double getGamesPerSecond();
+
+  /**
+   * Getter function for the number of turns played.
+   *
+   * @return The number of turns.
+   */
+  long getTurns();
+
+  /**
+   * Getter function for the number of turns played per second, over the last period.
+   *
+   * @return The number of turns per second.
+   */
+  double getTurnsPerSecond();
+
+  /**
+   * Getter function for the number of games being played.
+   *
+   * @return The number of games.
+   */
+  long getActiveGames();
+
+  /**
+   * Getter function for the number of games being played by type of view, ConsoleView or BotView for instance.
+   *
+   * @return The number of games, by simple name of the class of the view.
+   */
+  Map<String, Long> getActiveGamesByView();
+}
@@ -0,0 +1,264 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A StateRecorder that encodes the positions of the games it is told about as float features, to train evaluation
+ * functions offline.
+ * <p>
+ * Every position is seen from the player whose turn it is, and is made of {@link #getFeaturesPerPosition()} floats:
+ * <ul>
+ *   <li>four 9x9 planes, line by line: the occupied spaces of the quiltboard of the player to move, the buttons on it,
+ *   then the same two planes for the other player,</li>
+ *   <li>{@link #SCALARS_PER_PLAYER} scalars for the player to move then for the other player: position on the
+ *   timeboard, buttons, income, time left to the center square and 1 if it owns the 7x7 bonus tile,</li>
+ *   <li>the next patches of the circle after the neutral pawn, each one-hot encoded on the shapes of the patches of
+ *   both catalogs, {@link #getShapes()} of them, all zeros when the circle has fewer patches left. Two patches have the
+ *   same shape when the spaces they cover are the same in the orientation of the catalog, whatever their buttons,
+ *   price or version.</li>
+ * </ul>
+ * The positions are written into a preallocated direct buffer of little-endian floats, and the buffer is written
+ * as is to the file once it holds a whole batch, so that the file is a raw float32 array of shape
+ * (positions, features). Encoding a position allocates nothing.
+ */
+public class FeatureEncoder implements StateRecorder, Closeable {
+  public static final int PLANE_SIZE = 81;
+  public static final int PLANES = 4;
+  public static final int SCALARS_PER_PLAYER = 5;
+  private static final int CENTER_SQUARE = 60;
+
+  private final FileChannel channel;
+  private final ByteBuffer bytes;
+  private final FloatBuffer features;
+  private final int batchSize;
+  private final int ringPatches;
+  /* The shape index of every patch identifier, for the base version then the full one, -1 for no patch. */
+  private final int[][] shapesOfIds = new int[2][];
+  private final int shapes;
+  private final int featuresPerPosition;
+  private int positions;
+  private long written;
+
+  /**
+   * A constructor for a FeatureEncoder instance, an existing file is replaced.
+   *
+   * @param path        The path of the raw features file.
+   * @param batchSize   The number of positions kept in memory before they are written.
+   * @param ringPatches The number of patches of the circle encoded, starting from the neutral pawn.
+   * @param baseCatalog The patches of the base version, in the orientation they are dealt in.
+   * @param fullCatalog The patches of the full version, in the orientation they are dealt in.
+   * @throws IOException If the file can't be opened.
+   */
+  public FeatureEncoder(Path path, int batchSize, int ringPatches, List<Patch> baseCatalog, List<Patch> fullCatalog)
+          throws IOException {
+    Objects.requireNonNull(path);
+    Objects.requireNonNull(baseCatalog);
+    Objects.requireNonNull(fullCatalog);
+    if (batchSize <= 0 || ringPatches < 0 || baseCatalog.isEmpty() || fullCatalog.isEmpty()) {
+      throw new IllegalArgumentException("The batch and the catalogs can't be empty");
+    }
+    this.batchSize = batchSize;
+    this.ringPatches = ringPatches;
+    var indexes = new HashMap<String, Integer>();
+    indexShapes(0, baseCatalog, indexes);
+    indexShapes(1, fullCatalog, indexes);
+    this.shapes = indexes.size();
+    this.featuresPerPosition = PLANES * PLANE_SIZE + 2 * SCALARS_PER_PLAYER + ringPatches * shapes;
+    this.bytes = ByteBuffer.allocateDirect(batchSize * featuresPerPosition * Float.BYTES)
+                           .order(ByteOrder.LITTLE_ENDIAN);
+    this.features = bytes.asFloatBuffer();
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                    StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  /**
+   * Gives every patch of a catalog the index of its shape, a new one for a shape not seen yet.
+   *
+   * @param version The version of the catalog, 0 for the base version and 1 for the full one.
+   * @param catalog The patches of the catalog.
+   * @param indexes The indexes of the shapes seen so far, by shape.
+   */
+  private void indexShapes(int version, List<Patch> catalog, HashMap<String, Integer> indexes) {
+    var ids = new int[catalog.stream().mapToInt(Patch::getId).max().orElse(-1) + 1];
+    Arrays.fill(ids, -1);
+    for (var patch : catalog) {
+      ids[patch.getId()] = indexes.computeIfAbsent(shapeOf(patch), shape -> indexes.size());
+    }
+    shapesOfIds[version] = ids;
+  }
+
+  /**
+   * Describes the spaces a patch covers, two patches of the same shape have the same description.
+   *
+   * @param patch The patch.
+   * @return The lines of the patch, {@code #} for a covered space and {@code .} otherwise, separated by {@code /}.
+   */
+  private static String shapeOf(Patch patch) {
+    var shape = new StringBuilder();
+    for (var line : patch.getStructure()) {
+      for (var space : line) {
+        shape.append(space == null ? '.' : '#');
+      }
+      shape.append('/');
+    }
+    return shape.toString();
+  }
+
+  /**
+   * Getter function for the number of shapes a patch of the circle is one-hot encoded on.
+   *
+   * @return The number of distinct shapes of the catalogs.
+   */
+  public int getShapes() {
+    return shapes;
+  }
+
+  /**
+   * Getter function for the number of floats a position is encoded with.
+   *
+   * @return The number of features of a position.
+   */
+  public int getFeaturesPerPosition() {
+    return featuresPerPosition;
+  }
+
+  /**
+   * Getter function for the number of positions encoded so far, written or not.
+   *
+   * @return The number of positions.
+   */
+  public long getPositions() {
+    return written + positions;
+  }
+
+  /**
+   * Encodes the two planes of a quiltboard.
+   *
+   * @param base       The index of the first float of the occupancy plane, the buttons plane follows it.
+   * @param quiltBoard The quiltboard.
+   */
+  private void putQuiltBoard(int base, QuiltBoard quiltBoard) {
+    var structure = quiltBoard.getStructure();
+    for (int i = 0; i < 9; i++) {
+      var line = structure[i];
+      for (int j = 0; j < 9; j++) {
+        var space = line[j];
+        features.put(base + i * 9 + j, space == null ? 0f : 1f);
+        features.put(base + PLANE_SIZE + i * 9 + j, space != null && space.button() ? 1f : 0f);
+      }
+    }
+  }
+
+  /**
+   * Encodes the scalars of a player.
+   *
+   * @param base   The index of the first scalar.
+   * @param player The player.
+   */
+  private void putScalars(int base, Player player) {
+    features.put(base, player.getPosition());
+    features.put(base + 1, player.getButtons());
+    features.put(base + 2, player.getQuiltBoard().getTotalIncome());
+    features.put(base + 3, Math.max(0, CENTER_SQUARE - player.getPosition()));
+    features.put(base + 4, player.hasBonusTile() ? 1f : 0f);
+  }
+
+  /**
+   * A function that encodes a position from the point of view of the player whose turn it is, writing the batch to
+   * the file when it is full.
+   *
+   * @param state The state of the game.
+   * @throws IllegalArgumentException If a patch of the circle isn't one of the catalog of its version.
+   */
+  public void encode(GameState state) {
+    Objects.requireNonNull(state);
+    var playing = state.playerToMove();
+    var other = playing == state.player1() ? state.player2() : state.player1();
+    var base = positions * featuresPerPosition;
+    putQuiltBoard(base, playing.getQuiltBoard());
+    putQuiltBoard(base + 2 * PLANE_SIZE, other.getQuiltBoard());
+    base += PLANES * PLANE_SIZE;
+    putScalars(base, playing);
+    putScalars(base + SCALARS_PER_PLAYER, other);
+    base += 2 * SCALARS_PER_PLAYER;
+    for (int i = 0; i < ringPatches * shapes; i++) {
+      features.put(base + i, 0f);
+    }
+    var shapeOfId = shapesOfIds[state.choicesMap().get(Main.FULL) ? 1 : 0];
+    var patchesList = state.patches().getPatchesList();
+    var neutralPawnIndex = state.patches().getNeutralPawnIndex();
+    for (int i = 0; i < Math.min(ringPatches, patchesList.size()); i++) {
+      var id = patchesList.get((neutralPawnIndex + i) % patchesList.size()).getId();
+      if (id < 0 || id >= shapeOfId.length || shapeOfId[id] < 0) {
+        throw new IllegalArgumentException("Patch " + id + " isn't in the catalog of the encoder");
+      }
+      features.put(base + i * shapes + shapeOfId[id], 1f);
+    }
+    if (++positions == batchSize) {
+      flush();
+    }
+  }
+
+  @Override
+  public void gameStarted(GameHeader header, GameState state) {
+    encode(state);
+  }
+
+  @Override
+  public void moveApplied(Move move, GameState state) {
+    if (state.player1().getPosition() < CENTER_SQUARE || state.player2().getPosition() < CENTER_SQUARE) {
+      encode(state); // The final position has no player to move.
+    }
+  }
+
+  @Override
+  public void gameEnded(int winner, int score) {
+    // Nothing to encode.
+  }
+
+  /**
+   * Writes the encoded positions to the file.
+   *
+   * @throws UncheckedIOException If the file can't be written, the recorder is called from within the game.
+   */
+  public void flush() {
+    bytes.limit(positions * featuresPerPosition * Float.BYTES).position(0);
+    try {
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      bytes.clear();
+    }
+    written += positions;
+    positions = 0;
+  }
+
+  /**
+   * Writes the last encoded positions and closes the file.
+   *
+   * @throws IOException If the file can't be written or closed.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,264 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A class that renders games as PNG images without a display, on a pool of worker threads: saved states into one image
+ * each, for thumbnails or image datasets, and recorded games into one image per move, for replays.
+ * <p>
+ * Every worker draws with its own GraphicalView into its own OffscreenContext, one per version of the game since the
+ * versions have different catalogs and timeboards, and keeps them from one image to the next: the cached layers and
+ * sprites are drawn once per worker and, like on a screen, only what changed since the previous image is repainted. The
+ * states and games are read on the calling thread, at most two per worker wait to be rendered.
+ */
+public class FrameRenderer implements Closeable {
+  /**
+   * The width of the images by default.
+   */
+  public static final int DEFAULT_WIDTH = 1600;
+  /**
+   * The height of the images by default.
+   */
+  public static final int DEFAULT_HEIGHT = 1000;
+
+  /**
+   * A record that represents what a worker draws with.
+   *
+   * @param context The context the view renders into.
+   * @param view    The view.
+   */
+  private record Canvas(OffscreenContext context, GraphicalView view) {
+  }
+
+  private final int width;
+  private final int height;
+  private final ExecutorService workers;
+  private final Semaphore pending;
+  /* The canvases of every worker, by version of the game, and their replayer, only used by the worker. */
+  private final ThreadLocal<Map<Boolean, Canvas>> canvases = ThreadLocal.withInitial(HashMap::new);
+  private final ThreadLocal<JournalReplayer> replayers = ThreadLocal.withInitial(JournalReplayer::new);
+
+  /**
+   * A constructor for a FrameRenderer instance.
+   *
+   * @param width   The width of the images.
+   * @param height  The height of the images.
+   * @param threads The number of worker threads.
+   */
+  public FrameRenderer(int width, int height, int threads) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("The size of the images must be positive");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("At least one worker is needed");
+    }
+    this.width = width;
+    this.height = height;
+    this.workers = Executors.newFixedThreadPool(threads);
+    this.pending = new Semaphore(threads * 2);
+  }
+
+  /**
+   * Renders a state of a game into a PNG file, on the canvas of the calling worker.
+   *
+   * @param state The state of the game.
+   * @param file  The path of the image, replaced if it exists.
+   * @throws IOException If the image can't be written.
+   */
+  private void renderState(GameState state, Path file) throws IOException {
+    var canvas = canvases.get().computeIfAbsent(state.choicesMap().get(Main.FULL), fullVersion -> {
+      var context = new OffscreenContext(width, height, GraphicalView.BACKGROUND);
+      return new Canvas(context, new GraphicalView(context, new InputDispatcher()));
+    });
+    canvas.view().displayState(state);
+    canvas.view().repaint();
+    canvas.context().writePng(file);
+  }
+
+  /**
+   * A functional interface for the work done by a worker.
+   */
+  @FunctionalInterface
+  private interface Task {
+    /**
+     * Does the work.
+     *
+     * @throws IOException If something can't be read or written.
+     */
+    void run() throws IOException;
+  }
+
+  /**
+   * Hands a task to the workers, waiting while too many tasks are pending.
+   *
+   * @param task The task.
+   * @return The future of the task.
+   * @throws InterruptedIOException If the calling thread is interrupted while it waits.
+   */
+  private Future<Void> submit(Task task) throws InterruptedIOException {
+    try {
+      pending.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a worker");
+    }
+    try {
+      return workers.submit(() -> {
+        try {
+          task.run();
+          return null;
+        } finally {
+          pending.release();
+        }
+      });
+    } catch (RuntimeException e) {
+      pending.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Waits for tasks to complete.
+   *
+   * @param tasks The futures of the tasks.
+   * @throws IOException If one of the tasks failed to read or write something, the first one.
+   */
+  private static void awaitAll(List<Future<Void>> tasks) throws IOException {
+    IOException failure = null;
+    for (var task : tasks) {
+      try {
+        task.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the workers");
+      } catch (ExecutionException e) {
+        var cause = e.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause() : e.getCause();
+        if (cause instanceof IOException ioException) {
+          if (failure == null) {
+            failure = ioException;
+          }
+          continue;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+          throw error;
+        }
+        throw new IllegalStateException(cause);
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Renders saved states, written by GameStateCodec, into one PNG image each named like the save.
+   *
+   * @param saves     The paths of the saves.
+   * @param directory The directory of the images, it has to exist.
+   * @return The number of images written.
+   * @throws IOException If a save can't be read or an image written.
+   */
+  public int renderStates(List<Path> saves, Path directory) throws IOException {
+    Objects.requireNonNull(saves);
+    Objects.requireNonNull(directory);
+    var tasks = new ArrayList<Future<Void>>();
+    for (var save : saves) {
+      var name = save.getFileName().toString().replaceFirst("\\.[^.]*$", "") + ".png";
+      var file = directory.resolve(name);
+      var state = GameStateCodec.load(save);
+      tasks.add(submit(() -> renderState(state, file)));
+    }
+    awaitAll(tasks);
+    return tasks.size();
+  }
+
+  /**
+   * Replays recorded games and renders them into one PNG image per position, the start of the game included, named
+   * after the index of the game in the source and the number of moves played.
+   *
+   * @param source    The recorded games.
+   * @param directory The directory of the images, it has to exist.
+   * @return The number of games rendered.
+   * @throws IOException If the games can't be read or an image written.
+   */
+  public int renderGames(GameSource source, Path directory) throws IOException {
+    Objects.requireNonNull(source);
+    Objects.requireNonNull(directory);
+    var tasks = new ArrayList<Future<Void>>();
+    GameRecord record;
+    while ((record = source.next()) != null) {
+      var game = tasks.size();
+      var replayed = record;
+      tasks.add(submit(() -> replayers.get().replay(replayed, new StateRecorder() {
+        private int moves;
+
+        @Override
+        public void gameStarted(GameHeader header, GameState state) {
+          render(state);
+        }
+
+        @Override
+        public void moveApplied(Move move, GameState state) {
+          render(state);
+        }
+
+        @Override
+        public void gameEnded(int winner, int score) {
+        }
+
+        /**
+         * Renders the position the game is in.
+         *
+         * @param state The live state of the game.
+         */
+        private void render(GameState state) {
+          try {
+            renderState(state, directory.resolve(String.format("game-%05d-%03d.png", game, moves++)));
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+      })));
+    }
+    awaitAll(tasks);
+    return tasks.size();
+  }
+
+  /**
+   * A function that lists the regular files of a directory, the saves to render for instance, sorted by name.
+   *
+   * @param directory The directory.
+   * @return The paths of the files.
+   * @throws IOException If the directory can't be listed.
+   */
+  public static List<Path> listFiles(Path directory) throws IOException {
+    Objects.requireNonNull(directory);
+    try (var files = Files.list(directory)) {
+      return files.filter(Files::isRegularFile).sorted().toList();
+    }
+  }
+
+  /**
+   * Stops the workers once the tasks handed to them are done.
+   */
+  @Override
+  public void close() {
+    workers.shutdown();
+  }
+}
@@ -0,0 +1,227 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A class that scans the archives written by GameArchiveWriter block by block.
+ * <p>
+ * Moving to the next block only reads its header: the number of rows and the bounds of every column are known right
+ * away, and the block is only read and inflated if one of its columns is asked for. A scan that checks the bounds first
+ * thus skips the blocks that can't match without decompressing them, for instance:
+ * <pre>
+ * while (reader.nextBlock()) {
+ *   if (reader.max(ArchiveColumn.BONUS) == 0 || reader.min(ArchiveColumn.TURN) &gt;= 20) {
+ *     continue;
+ *   }
+ *   var bonus = reader.column(ArchiveColumn.BONUS);
+ *   ...
+ * }
+ * </pre>
+ * The arrays returned by {@link #column(ArchiveColumn)} are reused from one block to the next.
+ */
+public class GameArchiveReader implements Closeable {
+  private static final ArchiveColumn[] COLUMNS = ArchiveColumn.values();
+
+  private final FileChannel channel;
+  private final ByteBuffer header = ByteBuffer.allocate(GameArchiveWriter.BLOCK_HEADER_SIZE);
+  private final int[] min = new int[COLUMNS.length];
+  private final int[] max = new int[COLUMNS.length];
+  private final int[][] values = new int[COLUMNS.length][GameArchiveWriter.BLOCK_ROWS];
+  private final Inflater inflater = new Inflater();
+  private final int rowWidth;
+  private final ByteBuffer raw;
+  private ByteBuffer compressed = ByteBuffer.allocate(1 << 16);
+  private long nextBlockPosition;
+  private int rows, compressedLength;
+  private boolean inflated;
+  private long blocks, inflatedBlocks;
+
+  /**
+   * A constructor for a GameArchiveReader instance.
+   *
+   * @param path The path of the archive.
+   * @throws IOException If the file can't be opened or isn't an archive.
+   */
+  public GameArchiveReader(Path path) throws IOException {
+    Objects.requireNonNull(path);
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    int rowSize = 0;
+    for (var column : COLUMNS) {
+      rowSize += column.getWidth();
+    }
+    this.rowWidth = rowSize;
+    this.raw = ByteBuffer.allocate(rowSize * GameArchiveWriter.BLOCK_ROWS);
+    var start = ByteBuffer.allocate(GameArchiveWriter.MAGIC.length + 1);
+    if (!readFully(start, 0) || !Arrays.equals(Arrays.copyOf(start.array(), GameArchiveWriter.MAGIC.length),
+                                                GameArchiveWriter.MAGIC) ||
+        start.get(GameArchiveWriter.MAGIC.length) != GameArchiveWriter.VERSION) {
+      channel.close();
+      throw new IOException("Not an archive, or an archive of another version: " + path);
+    }
+    nextBlockPosition = start.capacity();
+  }
+
+  /**
+   * Fills a buffer from the given position of the file.
+   *
+   * @param buffer   The buffer to fill.
+   * @param position The position in the file.
+   * @return false if the file ends before the buffer is full.
+   * @throws IOException If the file can't be read.
+   */
+  private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+    buffer.clear();
+    while (buffer.hasRemaining()) {
+      var read = channel.read(buffer, position + buffer.position());
+      if (read == -1) {
+        return false;
+      }
+    }
+    buffer.flip();
+    return true;
+  }
+
+  /**
+   * Moves to the next block, only its header is read.
+   *
+   * @return false if there are no more blocks.
+   * @throws IOException If the file can't be read.
+   */
+  public boolean nextBlock() throws IOException {
+    if (!readFully(header, nextBlockPosition)) {
+      return false;
+    }
+    rows = header.getInt();
+    compressedLength = header.getInt();
+    for (int i = 0; i < COLUMNS.length; i++) {
+      min[i] = header.getInt();
+      max[i] = header.getInt();
+    }
+    nextBlockPosition += header.capacity() + compressedLength;
+    inflated = false;
+    blocks++;
+    return true;
+  }
+
+  /**
+   * Getter function for the number of rows of the current block.
+   *
+   * @return The number of rows.
+   */
+  public int rows() {
+    return rows;
+  }
+
+  /**
+   * Returns the smallest value of a column in the current block, known without inflating it.
+   *
+   * @param column The column.
+   * @return The smallest value.
+   */
+  public int min(ArchiveColumn column) {
+    return min[column.ordinal()];
+  }
+
+  /**
+   * Returns the biggest value of a column in the current block, known without inflating it.
+   *
+   * @param column The column.
+   * @return The biggest value.
+   */
+  public int max(ArchiveColumn column) {
+    return max[column.ordinal()];
+  }
+
+  /**
+   * Returns the values of a column in the current block, the block is read and inflated the first time.
+   *
+   * @param column The column.
+   * @return The values, only the first {@link #rows()} are meaningful, the array is reused by the next block.
+   * @throws IOException If the block can't be read or is corrupted.
+   */
+  public int[] column(ArchiveColumn column) throws IOException {
+    if (!inflated) {
+      inflate();
+    }
+    return values[column.ordinal()];
+  }
+
+  /**
+   * Reads, inflates and decodes every column of the current block.
+   *
+   * @throws IOException If the block can't be read or is corrupted.
+   */
+  private void inflate() throws IOException {
+    if (compressed.capacity() < compressedLength) {
+      compressed = ByteBuffer.allocate(compressedLength);
+    }
+    var slice = compressed.slice(0, compressedLength);
+    if (!readFully(slice, nextBlockPosition - compressedLength)) {
+      throw new EOFException("Truncated archive");
+    }
+    inflater.reset();
+    inflater.setInput(compressed.array(), 0, compressedLength);
+    raw.clear();
+    int length = 0;
+    try {
+      while (!inflater.finished() && length < raw.capacity()) {
+        int inflatedLength = inflater.inflate(raw.array(), length, raw.capacity() - length);
+        if (inflatedLength == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          // The compressed bytes end before the stream does, nothing more will ever come out.
+          throw new IOException("Corrupted archive");
+        }
+        length += inflatedLength;
+      }
+      raw.limit(length);
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupted archive", e);
+    }
+    if (length != rows * rowWidth) {
+      throw new IOException("Corrupted archive");
+    }
+    for (var column : COLUMNS) {
+      var columnValues = values[column.ordinal()];
+      for (int row = 0; row < rows; row++) {
+        columnValues[row] = switch (column.getWidth()) {
+          case 1 -> raw.get();
+          case 2 -> raw.getShort();
+          default -> raw.getInt();
+        };
+      }
+    }
+    inflated = true;
+    inflatedBlocks++;
+  }
+
+  /**
+   * Getter function for the number of blocks moved to so far.
+   *
+   * @return The number of blocks.
+   */
+  public long getBlocks() {
+    return blocks;
+  }
+
+  /**
+   * Getter function for the number of blocks that had to be inflated so far.
+   *
+   * @return The number of inflated blocks.
+   */
+  public long getInflatedBlocks() {
+    return inflatedBlocks;
+  }
+
+  @Override
+  public void close() throws IOException {
+    inflater.end();
+    channel.close();
+  }
+}
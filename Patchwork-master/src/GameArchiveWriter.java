@@ -0,0 +1,209 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.Deflater;
+
+/**
+ * A StateRecorder that stores one record per turn in a columnar, block compressed archive, meant for millions of games.
+ * <p>
+ * The records are gathered in blocks of {@link #BLOCK_ROWS} rows. A block is written as its number of rows, the
+ * length of its compressed data and, for every {@link ArchiveColumn}, the minimum and maximum of its values, followed
+ * by the values deflated column after column. A reader can thus skip the blocks whose bounds can't match a query
+ * without inflating them. An archive starts with the {@link #MAGIC} bytes and a {@link #VERSION} byte.
+ * <p>
+ * Bounds only skip blocks whose rows are alike, and the turns of a game are all different. The rows are therefore
+ * clustered by turn: each band of {@link #TURN_BAND} turns gathers its own blocks, the turns from the last band on
+ * sharing the last one, so the bounds of the TURN column are narrow and a query on the turns skips every block out of
+ * its range. Within a band the rows stay in the order of the games, the GAME column is increasing, but the rows of a
+ * game are spread over the bands. The other columns, BONUS for instance, only get narrow bounds through the turns
+ * they depend on.
+ * <p>
+ * The archive needs the state of the game after every move, it records the games a GameController plays, or the ones
+ * a JournalReplayer replays, but not bare moves.
+ */
+public class GameArchiveWriter implements StateRecorder, Closeable {
+  static final byte[] MAGIC = {'P', 'W', 'A'};
+  static final byte VERSION = 1;
+  static final int BLOCK_ROWS = 1 << 14;
+  static final int TURN_BAND = 8;
+  static final int TURN_BANDS = 8;
+  static final int BLOCK_HEADER_SIZE = 8 + 8 * ArchiveColumn.values().length;
+  private static final ArchiveColumn[] COLUMNS = ArchiveColumn.values();
+
+  private final FileChannel channel;
+  /* The rows gathered for each band of turns. */
+  private final int[][][] values = new int[TURN_BANDS][COLUMNS.length][BLOCK_ROWS];
+  private final int[] rows = new int[TURN_BANDS];
+  private int band;
+  private final Deflater deflater = new Deflater();
+  private final ByteBuffer raw;
+  private byte[] compressed = new byte[1 << 16];
+  private int games = -1, turn;
+  private final int[] buttons = new int[3];
+  private final boolean[] bonusTile = new boolean[3];
+
+  /**
+   * A constructor for a GameArchiveWriter instance, an existing file is replaced.
+   *
+   * @param path The path of the archive.
+   * @throws IOException If the file can't be opened.
+   */
+  public GameArchiveWriter(Path path) throws IOException {
+    Objects.requireNonNull(path);
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                    StandardOpenOption.TRUNCATE_EXISTING);
+    int rowSize = 0;
+    for (var column : COLUMNS) {
+      rowSize += column.getWidth();
+    }
+    this.raw = ByteBuffer.allocate(rowSize * BLOCK_ROWS);
+    writeFully(ByteBuffer.wrap(new byte[]{MAGIC[0], MAGIC[1], MAGIC[2], VERSION}));
+  }
+
+  /**
+   * Writes a whole buffer to the file.
+   *
+   * @param buffer The buffer to write.
+   * @throws IOException If the file can't be written.
+   */
+  private void writeFully(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  @Override
+  public void gameStarted(GameHeader header, GameState state) {
+    Objects.requireNonNull(state);
+    games++;
+    turn = 0;
+    buttons[1] = state.player1().getButtons();
+    buttons[2] = state.player2().getButtons();
+    bonusTile[1] = state.player1().hasBonusTile();
+    bonusTile[2] = state.player2().hasBonusTile();
+  }
+
+  @Override
+  public void moveApplied(Move move, GameState state) {
+    Objects.requireNonNull(move);
+    Objects.requireNonNull(state);
+    var slot = move.player();
+    var mover = slot == 1 ? state.player1() : state.player2();
+    var purchase = move.type() == Move.Type.PURCHASE;
+    band = Math.min(turn / TURN_BAND, TURN_BANDS - 1);
+    set(ArchiveColumn.GAME, games);
+    set(ArchiveColumn.TURN, turn++);
+    set(ArchiveColumn.PLAYER, slot);
+    set(ArchiveColumn.MOVE_TYPE, purchase ? 1 : 0);
+    set(ArchiveColumn.PATCH_ID, move.patchId());
+    set(ArchiveColumn.ORIENTATION, purchase ? move.rotations() | (move.flipped() ? 4 : 0) : -1);
+    set(ArchiveColumn.PLACEMENT, purchase ? (move.placement().i() - 1) * 9 + move.placement().j() - 1 : -1);
+    set(ArchiveColumn.BUTTONS_BEFORE, buttons[slot]);
+    set(ArchiveColumn.BUTTONS_AFTER, mover.getButtons());
+    set(ArchiveColumn.TIME_POSITION, mover.getPosition());
+    set(ArchiveColumn.BONUS, mover.hasBonusTile() && !bonusTile[slot] ? 1 : 0);
+    buttons[slot] = mover.getButtons();
+    bonusTile[slot] = mover.hasBonusTile();
+    if (++rows[band] == BLOCK_ROWS) {
+      flush(band);
+    }
+  }
+
+  /**
+   * Sets the value of a column for the row being recorded.
+   *
+   * @param column The column.
+   * @param value  The value.
+   */
+  private void set(ArchiveColumn column, int value) {
+    values[band][column.ordinal()][rows[band]] = value;
+  }
+
+  @Override
+  public void gameEnded(int winner, int score) {
+    // The result can be told from the last turns, nothing to store.
+  }
+
+  /**
+   * Compresses and writes the rows gathered so far as blocks, one per band of turns.
+   *
+   * @throws UncheckedIOException If the file can't be written, the recorder is called from within the game.
+   */
+  public void flush() {
+    for (int i = 0; i < TURN_BANDS; i++) {
+      flush(i);
+    }
+  }
+
+  /**
+   * Compresses and writes the rows gathered for a band of turns as a block.
+   *
+   * @param flushed The band of turns.
+   * @throws UncheckedIOException If the file can't be written.
+   */
+  private void flush(int flushed) {
+    var blockRows = rows[flushed];
+    if (blockRows == 0) {
+      return;
+    }
+    var header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+    header.putInt(blockRows).putInt(0);
+    raw.clear();
+    for (var column : COLUMNS) {
+      var columnValues = values[flushed][column.ordinal()];
+      int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+      for (int row = 0; row < blockRows; row++) {
+        var value = columnValues[row];
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        switch (column.getWidth()) {
+          case 1 -> raw.put((byte) value);
+          case 2 -> raw.putShort((short) value);
+          default -> raw.putInt(value);
+        }
+      }
+      header.putInt(min).putInt(max);
+    }
+    deflater.reset();
+    deflater.setInput(raw.array(), 0, raw.position());
+    deflater.finish();
+    int length = 0;
+    while (!deflater.finished()) {
+      if (length == compressed.length) {
+        compressed = Arrays.copyOf(compressed, compressed.length * 2);
+      }
+      length += deflater.deflate(compressed, length, compressed.length - length);
+    }
+    header.putInt(4, length).flip();
+    try {
+      writeFully(header);
+      writeFully(ByteBuffer.wrap(compressed, 0, length));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    rows[flushed] = 0;
+  }
+
+  /**
+   * Writes the last blocks and closes the file.
+   *
+   * @throws IOException If the file can't be written or closed.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      deflater.end();
+      channel.close();
+    }
+  }
+}
@@ -1,19 +1,57 @@
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
 
 
 /**
  * A class that contains and controls the intrinsic game logic, separated from any user interaction.
+ * <p>
+ * The game is driven through an AsyncView: every step that needs an answer from a player continues once the prompt's
+ * future completes, so a game waiting for a player holds no thread. Blocking views are adapted with a
+ * SynchronousViewAdapter, in which case the whole game runs on the calling thread.
  */
 public class GameController {
-  private final View view;
+  // Games played concurrently are created on different threads.
+  private static final AtomicLong nextGameId = new AtomicLong(1);
+  /* The types of the events, an event is only created while a recording enables its type. */
+  private static final EventType GAME_EVENT = EventType.getEventType(GameEvents.Game.class);
+  private static final EventType TURN_EVENT = EventType.getEventType(GameEvents.Turn.class);
+  private static final EventType PURCHASE_EVENT = EventType.getEventType(GameEvents.PatchPurchase.class);
+  private static final EventType INCOME_EVENT = EventType.getEventType(GameEvents.Income.class);
+  private static final EventType SPECIAL_PATCH_EVENT = EventType.getEventType(GameEvents.SpecialPatch.class);
+  private static final EventType SEVEN_BY_SEVEN_EVENT = EventType.getEventType(GameEvents.SevenBySeven.class);
+  private static final EventType RESULT_EVENT = EventType.getEventType(GameEvents.Result.class);
+
+  private final long gameId = nextGameId.getAndIncrement();
+  private final AsyncView view;
   private final Patches patches;
   private final TimeBoard timeBoard;
   private final Player player1;
   private final Player player2;
   private final Map<String, Boolean> choicesMap;
+  private StateRecorder moveRecorder;
+  /* The move of the turn being played and the special patches placed during it, only kept while recording. */
+  private Move turnMove;
+  private final List<Point> turnSpecialPatchPlacements = new ArrayList<>();
+  private TurnProfiler turnProfiler;
+  /* The number of turns played and whether the player bought a patch in the turn being played, for the events. */
+  private int turns;
+  private boolean turnPurchase;
+  /* The time spent on the special patches, measured apart from the advances they happen in. */
+  private long specialPatchNanos;
+  /* The type of the view, for the statistics of the games. */
+  private final String viewType;
 
   /**
    * This constructor creates a GameController instance.
@@ -27,10 +65,27 @@ public class GameController {
    */
   public GameController(View view, Patches patches, TimeBoard timeBoard, Player player1, Player player2,
                         Map<String, Boolean> choicesMap) {
+    this(new SynchronousViewAdapter(view), patches, timeBoard, player1, player2, choicesMap);
+  }
+
+  /**
+   * This constructor creates a GameController instance driven by an asynchronous view.
+   *
+   * @param view       An asynchronous game view, the instance that interacts with the user.
+   * @param patches    A Patches instance.
+   * @param timeBoard  A Timeboard instance.
+   * @param player1    A player instance, representing the first player.
+   * @param player2    A player instance, representing the second player.
+   * @param choicesMap A Map object representing the user's choices.
+   */
+  public GameController(AsyncView view, Patches patches, TimeBoard timeBoard, Player player1, Player player2,
+                        Map<String, Boolean> choicesMap) {
     if (!Stream.of(view, patches, timeBoard, player1, player2, choicesMap).allMatch(Objects::nonNull)) {
       throw new NullPointerException("One or more parameters is null");
     }
     this.view = view;
+    this.viewType = view instanceof SynchronousViewAdapter adapter ? adapter.getView().getClass().getSimpleName() :
+                    view.getClass().getSimpleName();
     this.patches = patches;
     this.timeBoard = timeBoard;
     this.player1 = player1;
@@ -39,6 +94,207 @@ public class GameController {
     view.setController(this); // linking them both, this might be a power move
   }
 
+  /**
+   * Setter function for the moveRecorder field, the recorder is told about every move applied from then on.
+   *
+   * @param moveRecorder The recorder, or null to stop recording.
+   */
+  public void setMoveRecorder(StateRecorder moveRecorder) {
+    this.moveRecorder = moveRecorder;
+  }
+
+  /**
+   * Setter function for the turnProfiler field, the phases of the turns are measured from then on.
+   *
+   * @param turnProfiler The profiler, or null to stop measuring.
+   */
+  public void setTurnProfiler(TurnProfiler turnProfiler) {
+    this.turnProfiler = turnProfiler;
+  }
+
+  /**
+   * Reads the clock at the start of a phase, if the turns are measured.
+   *
+   * @return The time, in nanoseconds, or 0 if the turns aren't measured.
+   */
+  private long phaseStart() {
+    return turnProfiler == null ? 0 : System.nanoTime();
+  }
+
+  /**
+   * Records how long a phase took, if the turns are measured.
+   *
+   * @param phase The phase.
+   * @param start The time the phase started at, from phaseStart.
+   * @return How long the phase took, in nanoseconds, or 0 if the turns aren't measured.
+   */
+  private long phaseEnd(TurnProfiler.Phase phase, long start) {
+    if (turnProfiler == null) {
+      return 0;
+    }
+    var nanos = System.nanoTime() - start;
+    turnProfiler.record(phase, nanos);
+    return nanos;
+  }
+
+  /**
+   * Creates and begins an event, if a recording enables its type.
+   *
+   * @param type    The type of the event.
+   * @param factory The constructor of the event.
+   * @param <E>     The class of the event.
+   * @return The event, or null if no recording enables its type.
+   */
+  private static <E extends Event> E beginEvent(EventType type, Supplier<E> factory) {
+    if (!type.isEnabled()) {
+      return null;
+    }
+    var event = factory.get();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Displays the timeboard, measuring how long it takes.
+   */
+  private void displayTimeBoard() {
+    var start = phaseStart();
+    view.displayTimeBoard(timeBoard, player1, player2);
+    phaseEnd(TurnProfiler.Phase.DISPLAY_TIME_BOARD, start);
+  }
+
+  /**
+   * Displays the quiltboard of a player, measuring how long it takes.
+   *
+   * @param player The player.
+   */
+  private void displayQuiltBoard(Player player) {
+    var start = phaseStart();
+    view.displayQuiltBoard(player);
+    phaseEnd(TurnProfiler.Phase.DISPLAY_QUILT_BOARD, start);
+  }
+
+  /**
+   * Displays the patches on offer, measuring how long it takes.
+   */
+  private void displayPatches() {
+    var start = phaseStart();
+    view.displayPatches(patches);
+    phaseEnd(TurnProfiler.Phase.DISPLAY_PATCHES, start);
+  }
+
+  /**
+   * Displays the patch being manipulated, measuring how long it takes.
+   *
+   * @param patch The patch.
+   */
+  private void displayPatch(Patch patch) {
+    var start = phaseStart();
+    view.displayPatch(patch);
+    phaseEnd(TurnProfiler.Phase.DISPLAY_PATCH, start);
+  }
+
+  /**
+   * Displays the status of a player after it advanced, measuring how long it takes.
+   *
+   * @param player The player.
+   */
+  private void displayPlayerNewStatusAfterAdvancing(Player player) {
+    var start = phaseStart();
+    view.displayPlayerNewStatusAfterAdvancing(player);
+    phaseEnd(TurnProfiler.Phase.DISPLAY_PLAYER_STATUS, start);
+  }
+
+  /**
+   * A function that gathers the objects the game is made of, to save it. The state is only consistent between two
+   * turns, when a MoveRecorder is told about a move for instance.
+   *
+   * @return The live state of the game.
+   */
+  public GameState saveState() {
+    return new GameState(player1, player2, patches, timeBoard, choicesMap);
+  }
+
+  /**
+   * Returns the slot of a player, 1 for the first player and 2 for the second.
+   *
+   * @param player The player in question.
+   * @return The slot of the player.
+   */
+  public int slotOf(Player player) {
+    return player == player1 ? 1 : 2;
+  }
+
+  /**
+   * Runs an asynchronous loop: the body is called again until its future completes with a present value. Iterations
+   * whose future is already completed run inline, so a synchronous view doesn't grow the stack however long it loops.
+   *
+   * @param body The body of the loop, completing with an empty Optional to loop again.
+   * @param <T>  The type of the value the loop ends with.
+   * @return A future completed with the value the loop ended with.
+   */
+  private static <T> CompletableFuture<T> repeatUntilPresent(Supplier<CompletableFuture<Optional<T>>> body) {
+    var result = new CompletableFuture<T>();
+    runLoop(body, result);
+    return result;
+  }
+
+  /**
+   * Runs iterations of a loop inline until one of them is not completed yet, the loop is then resumed by the
+   * completion of that iteration.
+   *
+   * @param body   The body of the loop.
+   * @param result The future to complete when the loop ends.
+   * @param <T>    The type of the value the loop ends with.
+   */
+  private static <T> void runLoop(Supplier<CompletableFuture<Optional<T>>> body, CompletableFuture<T> result) {
+    try {
+      while (true) {
+        var iteration = body.get();
+        if (!iteration.isDone()) {
+          iteration.whenComplete((value, failure) -> {
+            if (failure != null) {
+              result.completeExceptionally(failure);
+            } else if (value.isPresent()) {
+              result.complete(value.get());
+            } else {
+              runLoop(body, result);
+            }
+          });
+          return;
+        }
+        var value = iteration.join();
+        if (value.isPresent()) {
+          result.complete(value.get());
+          return;
+        }
+      }
+    } catch (RuntimeException | Error e) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * The iteration result of a loop that has to go on.
+   *
+   * @param <T> The type of the value the loop ends with.
+   * @return A completed future holding an empty Optional.
+   */
+  private static <T> CompletableFuture<Optional<T>> loopAgain() {
+    return CompletableFuture.completedFuture(Optional.empty());
+  }
+
+  /**
+   * The iteration result of a loop that ends.
+   *
+   * @param value The value the loop ends with.
+   * @param <T>   The type of the value the loop ends with.
+   * @return A completed future holding the value.
+   */
+  private static <T> CompletableFuture<Optional<T>> loopEnd(T value) {
+    return CompletableFuture.completedFuture(Optional.of(value));
+  }
+
   /**
    * A function that determines if the game has ended.
    *
@@ -55,8 +311,17 @@ public class GameController {
    * @param playing The player that's currently playing.
    */
   private void triggerQuiltBoardIncome(Player playing) {
+    var event = beginEvent(INCOME_EVENT, GameEvents.Income::new);
+    var start = phaseStart();
     view.displayQuiltBoardIncomeMessage(playing);
+    phaseEnd(TurnProfiler.Phase.DISPLAY_MESSAGE, start);
     playing.setButtons(playing.getButtons() + playing.getQuiltBoard().getTotalIncome());
+    if (event != null && event.shouldCommit()) {
+      event.gameId = gameId;
+      event.player = slotOf(playing);
+      event.buttons = playing.getQuiltBoard().getTotalIncome();
+      event.commit();
+    }
   }
 
   /**
@@ -73,18 +338,35 @@ public class GameController {
    * A function that starts the actions of when a player stumbles upon a special 1x1 patch.
    *
    * @param playing The player that's currently playing.
+   * @return A future completed once the special patch is placed.
    */
-  private void triggerSpecialPatchAcquisition(Player playing) {
+  private CompletableFuture<Void> triggerSpecialPatchAcquisition(Player playing) {
+    var event = beginEvent(SPECIAL_PATCH_EVENT, GameEvents.SpecialPatch::new);
+    var timeBoardPosition = playing.getPosition();
+    var start = phaseStart();
     view.displaySpecialPatchAcquisition(playing);
-    view.displayQuiltBoard(playing);
-    var position = view.promptPlayerForPatchPlacementPosition(playing);
-
-    while (!insideTheQuiltBoard(position) ||
-           playing.getQuiltBoard().getStructure()[position.i() - 1][position.j() - 1] != null) {
-      position = view.promptPlayerForPatchPlacementPosition(playing);
-    }
-    playing.getQuiltBoard().getStructure()[position.i() - 1][position.j() - 1] = new PatchSpace(false,
-                                                                                                new Color(110, 46, 36));
+    phaseEnd(TurnProfiler.Phase.DISPLAY_MESSAGE, start);
+    displayQuiltBoard(playing);
+    return repeatUntilPresent(() -> view.promptPlayerForPatchPlacementPosition(playing).thenApply(position -> {
+      if (!insideTheQuiltBoard(position) ||
+          playing.getQuiltBoard().getStructure()[position.i() - 1][position.j() - 1] != null) {
+        return Optional.<Point>empty();
+      }
+      return Optional.of(position);
+    })).thenAccept(position -> {
+      playing.getQuiltBoard().getStructure()[position.i() - 1][position.j() - 1] =
+              new PatchSpace(false, new Color(110, 46, 36));
+      if (moveRecorder != null) {
+        turnSpecialPatchPlacements.add(position);
+      }
+      specialPatchNanos += phaseEnd(TurnProfiler.Phase.SPECIAL_PATCH, start);
+      if (event != null && event.shouldCommit()) {
+        event.gameId = gameId;
+        event.player = slotOf(playing);
+        event.position = timeBoardPosition;
+        event.commit();
+      }
+    });
   }
 
   /**
@@ -119,17 +401,21 @@ public class GameController {
    * acquisition if applicable.
    *
    * @param advancing the player to check
+   * @return a future completed once the special patch, if any, is placed
    */
-  private void passPatchAction(Player advancing) {
+  private CompletableFuture<Void> passPatchAction(Player advancing) {
     if (timeBoard.getSpecialPatchesPos().contains(advancing.getPosition())) {
       if (QuiltBoard.fullyPatched(advancing.getQuiltBoard().getStructure())) {
+        var start = phaseStart();
         view.quiltBoardFullyPatchedMessage(advancing);
+        phaseEnd(TurnProfiler.Phase.DISPLAY_MESSAGE, start);
       } else {
         // First come, first served.
         timeBoard.getSpecialPatchesPos().remove(Integer.valueOf(advancing.getPosition()));
-        triggerSpecialPatchAcquisition(advancing);
+        return triggerSpecialPatchAcquisition(advancing);
       }
     }
+    return CompletableFuture.completedFuture(null);
   }
 
   /**
@@ -152,21 +438,30 @@ public class GameController {
    * @param finalDestination the position on the time board to advance to
    * @param advancing        the player to advance
    * @param other            the other player
+   * @return a future completed once the player has advanced and every special patch met on the way is placed
    */
-  public void advanceToPosition(int finalDestination, Player advancing, Player other) {
+  public CompletableFuture<Void> advanceToPosition(int finalDestination, Player advancing, Player other) {
     Objects.requireNonNull(advancing);
     Objects.requireNonNull(other);
 
-    int initialPosition = advancing.getPosition();
-    for (int i = initialPosition; i < finalDestination; i++) {
+    var start = phaseStart();
+    var specialPatchNanosBefore = specialPatchNanos;
+    var remainingSteps = new AtomicInteger(finalDestination - advancing.getPosition());
+    return repeatUntilPresent(() -> {
+      if (remainingSteps.getAndDecrement() <= 0) {
+        return loopEnd(true);
+      }
       advancing.setPosition(advancing.getPosition() + 1);
       if (checkIfReachedFirstPlace(advancing, other)) {
-        break; // Stop advancing.
+        return loopEnd(true); // Stop advancing.
       }
       passButtonAction(advancing);
-      passPatchAction(advancing);
-    }
-    occupyingSamePositionAsOtherPlayerAction(advancing, other);
+      return passPatchAction(advancing).thenCompose(ignored -> GameController.<Boolean>loopAgain());
+    }).thenRun(() -> {
+      occupyingSamePositionAsOtherPlayerAction(advancing, other);
+      // The special patches are measured apart, the advance starts later by the time they took.
+      phaseEnd(TurnProfiler.Phase.ADVANCE, start + specialPatchNanos - specialPatchNanosBefore);
+    });
   }
 
   /**
@@ -174,11 +469,15 @@ public class GameController {
    *
    * @param playing The player that's currently playing.
    * @param other   The other player.
+   * @return A future completed once the player has advanced.
    */
-  private void processAdvancingDecision(Player playing, Player other) {
+  private CompletableFuture<Void> processAdvancingDecision(Player playing, Player other) {
+    if (moveRecorder != null) {
+      turnMove = Move.advance(slotOf(playing));
+    }
     playing.setButtons(playing.getButtons() + (other.getPosition() - playing.getPosition()) + 1);
-    advanceToPosition(other.getPosition() + 1, playing, other);
-    view.displayPlayerNewStatusAfterAdvancing(playing);
+    return advanceToPosition(other.getPosition() + 1, playing, other).thenRun(
+            () -> displayPlayerNewStatusAfterAdvancing(playing));
   }
 
 
@@ -203,14 +502,17 @@ public class GameController {
    * @param other          The other player in the game.
    * @param placedPatch    The patch being placed.
    * @param placementPoint The user-specified placement point for the patch.
+   * @return A future completed once the player's status is updated.
    */
-  private void placePatchAndUpdatePlayerStatus(Player playing, Player other, Patch placedPatch, Point placementPoint) {
+  private CompletableFuture<Void> placePatchAndUpdatePlayerStatus(Player playing, Player other, Patch placedPatch,
+                                                                  Point placementPoint) {
     playing.getQuiltBoard().placePatch(placementPoint, placedPatch);
     playing.getQuiltBoard().setTotalIncome(playing.getQuiltBoard().getTotalIncome() + placedPatch.getIncome());
-    advanceToPosition(playing.getPosition() + placedPatch.getTimeCost(), playing, other);
-    playing.setButtons(playing.getButtons() - placedPatch.getPrice());
-    view.displayPlayerNewStatusAfterAdvancing(playing);
-    view.displayQuiltBoard(playing);
+    return advanceToPosition(playing.getPosition() + placedPatch.getTimeCost(), playing, other).thenRun(() -> {
+      playing.setButtons(playing.getButtons() - placedPatch.getPrice());
+      displayPlayerNewStatusAfterAdvancing(playing);
+      displayQuiltBoard(playing);
+    });
   }
 
   /**
@@ -219,18 +521,43 @@ public class GameController {
    * @param playing  The player that is placing the patch.
    * @param other    The other player.
    * @param possible The patch being placed.
-   * @return true if the patch placement was successful, false otherwise.
+   * @return A future completed with true if the patch placement was successful, false otherwise.
    */
-  private boolean processPatchPlacementDecision(Player playing, Player other, Patch possible) {
-    Point userPlacement = view.promptPlayerForPatchPlacementPosition(playing);
-    if (!playing.getQuiltBoard().validUserPlacement(userPlacement, possible)) {
-      view.displayInvalidPlacementMessage();
-      return false;
-    }
-    // Patch placement actions
-    updatePatchesListAfterPlacement(possible);
-    placePatchAndUpdatePlayerStatus(playing, other, possible, userPlacement);
-    return true;
+  private CompletableFuture<Boolean> processPatchPlacementDecision(Player playing, Player other, Patch possible) {
+    return view.promptPlayerForPatchPlacementPosition(playing).thenCompose(userPlacement -> {
+      var start = phaseStart();
+      var valid = playing.getQuiltBoard().validUserPlacement(userPlacement, possible);
+      phaseEnd(TurnProfiler.Phase.PLACEMENT_VALIDATION, start);
+      if (!valid) {
+        var messageStart = phaseStart();
+        view.displayInvalidPlacementMessage();
+        phaseEnd(TurnProfiler.Phase.DISPLAY_MESSAGE, messageStart);
+        return CompletableFuture.completedFuture(false);
+      }
+      if (moveRecorder != null) {
+        var size = patches.getPatchesList().size();
+        var ringOffset = (patches.getPatchesList().indexOf(possible) - patches.getNeutralPawnIndex() % size + size) %
+                         size + 1;
+        turnMove = Move.purchase(slotOf(playing), possible.getId(), ringOffset, possible.getRotations(),
+                                 possible.isFlipped(), userPlacement);
+      }
+      // Patch placement actions
+      var event = beginEvent(PURCHASE_EVENT, GameEvents.PatchPurchase::new);
+      turnPurchase = true;
+      updatePatchesListAfterPlacement(possible);
+      return placePatchAndUpdatePlayerStatus(playing, other, possible, userPlacement).thenApply(ignored -> {
+        if (event != null && event.shouldCommit()) {
+          event.gameId = gameId;
+          event.player = slotOf(playing);
+          event.patchId = possible.getId();
+          event.price = possible.getPrice();
+          event.timeCost = possible.getTimeCost();
+          event.income = possible.getIncome();
+          event.commit();
+        }
+        return true;
+      });
+    });
   }
 
   /**
@@ -239,30 +566,28 @@ public class GameController {
    * @param playing  The player that is manipulating the patch.
    * @param other    The other player.
    * @param possible The patch being manipulated.
-   * @return true if the patch was successfully placed, false otherwise.
+   * @return A future completed with true if the patch was successfully placed, false otherwise.
    */
-  private boolean processPatchManipulationDecision(Player playing, Player other, Patch possible) {
-    while (true) {
-      char decision = view.promptPlayerPatchManipulationDecision(playing);
+  private CompletableFuture<Boolean> processPatchManipulationDecision(Player playing, Player other, Patch possible) {
+    return repeatUntilPresent(() -> view.promptPlayerPatchManipulationDecision(playing).thenCompose(decision -> {
       switch (decision) {
         case 'r':
           possible.rotatePatch();
-          view.displayPatch(possible);
-          break;
+          displayPatch(possible);
+          return loopAgain();
         case 'f':
           possible.flipPatch();
-          view.displayPatch(possible);
-          break;
+          displayPatch(possible);
+          return loopAgain();
         case 'p':
-          if (!processPatchPlacementDecision(playing, other, possible)) {
-            continue;
-          } else {
-            return true;
-          }
+          return processPatchPlacementDecision(playing, other, possible).thenApply(
+                  placed -> placed ? Optional.of(true) : Optional.empty());
         case 'q':
-          return false;
+          return loopEnd(false);
+        default:
+          return loopAgain();
       }
-    }
+    }));
   }
 
   /**
@@ -270,22 +595,25 @@ public class GameController {
    *
    * @param playing The player that's currently playing.
    * @param other   The other player.
+   * @return A future completed once the decision has been carried out.
    */
-  private void processPlayerDecision(Player playing, Player other) {
-    while (true) {
-      char choice = view.promptPlayerTurnDecision(playing);
-      if (choice == 'a') {
-        processAdvancingDecision(playing, other);
-        return;
-      }
-      var possible = view.promptPlayerPatchDecision(playing, patches);
-      if (possible.isEmpty()) {
-        continue;
-      }
-      if (processPatchManipulationDecision(playing, other, possible.get())) {
-        return;
-      }
-    }
+  private CompletableFuture<Boolean> processPlayerDecision(Player playing, Player other) {
+    return repeatUntilPresent(() -> {
+      var start = phaseStart();
+      return view.promptPlayerTurnDecision(playing).thenCompose(choice -> {
+        phaseEnd(TurnProfiler.Phase.DECISION_PROMPT, start);
+        if (choice == 'a') {
+          return processAdvancingDecision(playing, other).thenCompose(ignored -> loopEnd(true));
+        }
+        return view.promptPlayerPatchDecision(playing, patches).thenCompose(possible -> {
+          if (possible.isEmpty()) {
+            return loopAgain();
+          }
+          return processPatchManipulationDecision(playing, other, possible.get()).thenApply(
+                  placed -> placed ? Optional.of(true) : Optional.empty());
+        });
+      });
+    });
   }
 
 
@@ -305,18 +633,49 @@ public class GameController {
    *
    * @param playing The player that's currently playing.
    * @param other   The other player.
+   * @return A future completed at the end of the turn.
    */
-  private void managePlayerTurn(Player playing, Player other) {
+  private CompletableFuture<Void> managePlayerTurn(Player playing, Player other) {
+    var event = beginEvent(TURN_EVENT, GameEvents.Turn::new);
+    turns++;
+    EngineStatistics.getInstance().turnPlayed();
+    turnPurchase = false;
+    var turnStart = phaseStart();
     view.playerTurnStartMessage(playing);
-    view.displayQuiltBoard(playing);
-    view.displayPatches(patches);
-    processPlayerDecision(playing, other);
-    if (choicesMap.get("full")) {
-      if (sevenBySevenNotClaimed(playing, other) && playing.getQuiltBoard().containsSevenBySeven()) {
-        view.displaySevenBySevenAcquisition(playing);
-        playing.setBonusTile(true);
+    displayQuiltBoard(playing);
+    displayPatches();
+    return processPlayerDecision(playing, other).thenRun(() -> {
+      if (choicesMap.get("full") && sevenBySevenNotClaimed(playing, other)) {
+        var bonusEvent = beginEvent(SEVEN_BY_SEVEN_EVENT, GameEvents.SevenBySeven::new);
+        var start = phaseStart();
+        var sevenBySeven = playing.getQuiltBoard().containsSevenBySeven();
+        phaseEnd(TurnProfiler.Phase.SEVEN_BY_SEVEN, start);
+        if (sevenBySeven) {
+          // The tile is given before the view shows it, so the view sees the player holding it.
+          playing.setBonusTile(true);
+          var messageStart = phaseStart();
+          view.displaySevenBySevenAcquisition(playing);
+          phaseEnd(TurnProfiler.Phase.DISPLAY_MESSAGE, messageStart);
+          if (bonusEvent != null && bonusEvent.shouldCommit()) {
+            bonusEvent.gameId = gameId;
+            bonusEvent.player = slotOf(playing);
+            bonusEvent.commit();
+          }
+        }
       }
-    }
+      phaseEnd(TurnProfiler.Phase.TURN, turnStart);
+      if (event != null && event.shouldCommit()) {
+        event.gameId = gameId;
+        event.player = slotOf(playing);
+        event.turn = turns;
+        event.purchase = turnPurchase;
+        event.commit();
+      }
+      if (moveRecorder != null) {
+        moveRecorder.moveApplied(turnMove.withSpecialPatchPlacements(turnSpecialPatchPlacements), saveState());
+        turnSpecialPatchPlacements.clear();
+      }
+    });
   }
 
   /**
@@ -333,19 +692,69 @@ public class GameController {
   }
 
   /**
-   * A function that starts the game, from beginning to end.
+   * A function that starts the game and returns immediately, the game goes on each time a player answers a prompt.
+   *
+   * @return A future completed with the result of the game once it is over.
    */
-  public void startGame() {
-    while (!gameEnd()) {
-      if (whoseTurnIsIt().equals(player1)) {
-        managePlayerTurn(player1, player2);
-      } else {
-        managePlayerTurn(player2, player1);
+  public CompletableFuture<GameResult> startGameAsync() {
+    var event = beginEvent(GAME_EVENT, GameEvents.Game::new);
+    EngineStatistics.getInstance().gameStarted(viewType);
+    if (moveRecorder != null) {
+      moveRecorder.gameStarted(new GameHeader(choicesMap.get("full"), player1.getName(), player2.getName(),
+                                              slotOf(timeBoard.getPlayerOnTop()), patches.getDealOrder()),
+                                 saveState());
+    }
+    return repeatUntilPresent(() -> {
+      if (gameEnd()) {
+        var resultEvent = beginEvent(RESULT_EVENT, GameEvents.Result::new);
+        var result = GameEvaluator.evaluateWinner(player1, player2);
+        if (resultEvent != null && resultEvent.shouldCommit()) {
+          resultEvent.gameId = gameId;
+          resultEvent.winner = slotOf(result.winner());
+          resultEvent.score = result.score();
+          resultEvent.commit();
+        }
+        return loopEnd(result);
+      }
+      var turn = whoseTurnIsIt().equals(player1) ? managePlayerTurn(player1, player2) :
+                 managePlayerTurn(player2, player1);
+      return turn.thenCompose(ignored -> {
+        displayTimeBoard();
+        return GameController.<GameResult>loopAgain();
+      });
+    }).thenApply(res -> {
+      if (event != null && event.shouldCommit()) {
+        event.gameId = gameId;
+        event.fullVersion = choicesMap.get("full");
+        event.turns = turns;
+        event.commit();
+      }
+      if (moveRecorder != null) {
+        moveRecorder.gameEnded(slotOf(res.winner()), res.score());
+      }
+      view.displayWinnerMessage(res);
+      view.closeView();
+      return res;
+    }).whenComplete((res, e) -> EngineStatistics.getInstance().gameFinished(viewType));
+  }
+
+  /**
+   * A function that starts the game, from beginning to end, and waits for it to be over.
+   *
+   * @return The result of the game.
+   */
+  public GameResult startGame() {
+    try {
+      return startGameAsync().join();
+    } catch (CompletionException e) {
+      // Rethrow what the view or the rules threw, as when the game wasn't asynchronous.
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
       }
-      view.displayTimeBoard(timeBoard, player1, player2);
+      throw e;
     }
-    var res = GameEvaluator.evaluateWinner(player1, player2);
-    view.displayWinnerMessage(res);
-    view.closeView();
   }
 }
@@ -0,0 +1,154 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A class that holds the Java Flight Recorder events of the games, emitted by the GameController so the timeline of a
+ * recording, in JDK Mission Control for instance, shows which game, turn and rule the garbage collections or the CPU
+ * spikes happened in.
+ * <p>
+ * Every event lasts from the start to the end of what it stands for and carries the identifier of its game, unique in
+ * the virtual machine, and the slot of its player, 1 or 2. The GameController only creates and commits the events
+ * while a recording enables their type, so the games allocate none without a recording. None of them records a stack
+ * trace.
+ */
+public final class GameEvents {
+  /* The category of the events in the recordings. */
+  private static final String CATEGORY = "Patchwork";
+
+  /**
+   * Private constructor, the class only holds the events.
+   */
+  private GameEvents() {
+  }
+
+  /**
+   * The event of a game, from its start to the evaluation of its winner.
+   */
+  @Name("patchwork.Game")
+  @Label("Game")
+  @Description("A game, from its start to the evaluation of its winner")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  public static class Game extends Event {
+    @Label("Game Id")
+    long gameId;
+    @Label("Full Version")
+    boolean fullVersion;
+    @Label("Turns")
+    int turns;
+  }
+
+  /**
+   * The event of a turn, from its start message to the check of the 7x7 bonus.
+   */
+  @Name("patchwork.Turn")
+  @Label("Turn")
+  @Description("A turn of a player, waiting for the player included")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  public static class Turn extends Event {
+    @Label("Game Id")
+    long gameId;
+    @Label("Player")
+    int player;
+    @Label("Turn")
+    int turn;
+    @Label("Purchase")
+    @Description("Whether the player bought a patch, or advanced")
+    boolean purchase;
+  }
+
+  /**
+   * The event of the purchase of a patch, from its placement to the end of the advance of the player it costs.
+   */
+  @Name("patchwork.PatchPurchase")
+  @Label("Patch Purchase")
+  @Description("A patch placed on a quiltboard and paid for")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  public static class PatchPurchase extends Event {
+    @Label("Game Id")
+    long gameId;
+    @Label("Player")
+    int player;
+    @Label("Patch Id")
+    int patchId;
+    @Label("Price")
+    int price;
+    @Label("Time Cost")
+    int timeCost;
+    @Label("Income")
+    int income;
+  }
+
+  /**
+   * The event of the income of a quiltboard, paid when a player passes a button on the timeboard.
+   */
+  @Name("patchwork.Income")
+  @Label("Income")
+  @Description("The buttons of a quiltboard paid to its player")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  public static class Income extends Event {
+    @Label("Game Id")
+    long gameId;
+    @Label("Player")
+    int player;
+    @Label("Buttons")
+    int buttons;
+  }
+
+  /**
+   * The event of the acquisition of a special patch, from the message to its placement.
+   */
+  @Name("patchwork.SpecialPatch")
+  @Label("Special Patch")
+  @Description("A special 1x1 patch acquired and placed, waiting for the player included")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  public static class SpecialPatch extends Event {
+    @Label("Game Id")
+    long gameId;
+    @Label("Player")
+    int player;
+    @Label("Position")
+    @Description("The position of the special patch on the timeboard")
+    int position;
+  }
+
+  /**
+   * The event of the 7x7 bonus, from the search of the square to its acquisition.
+   */
+  @Name("patchwork.SevenBySeven")
+  @Label("7x7 Bonus")
+  @Description("The 7x7 bonus tile acquired by a player")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  public static class SevenBySeven extends Event {
+    @Label("Game Id")
+    long gameId;
+    @Label("Player")
+    int player;
+  }
+
+  /**
+   * The event of the result of a game, the evaluation of its winner.
+   */
+  @Name("patchwork.GameResult")
+  @Label("Game Result")
+  @Description("The winner of a game and its score")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  public static class Result extends Event {
+    @Label("Game Id")
+    long gameId;
+    @Label("Winner")
+    int winner;
+    @Label("Score")
+    int score;
+  }
+}
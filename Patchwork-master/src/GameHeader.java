@@ -0,0 +1,33 @@
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A record that holds the random decisions a game started with, what is needed besides the moves to play it again.
+ *
+ * @param fullVersion Whether the game is played with the full version of the rules.
+ * @param player1Name The name of the first player.
+ * @param player2Name The name of the second player.
+ * @param firstPlayer The slot of the player whose token was on top at the start, the coin flip, 1 or 2.
+ * @param dealOrder   The catalog identifiers of the patches in the order they were laid in the circle.
+ */
+public record GameHeader(boolean fullVersion, String player1Name, String player2Name, int firstPlayer,
+                         List<Integer> dealOrder) {
+
+  /**
+   * A constructor for the GameHeader record, it ensures every field is set.
+   *
+   * @param fullVersion Whether the game is played with the full version of the rules.
+   * @param player1Name The name of the first player.
+   * @param player2Name The name of the second player.
+   * @param firstPlayer The slot of the player whose token was on top at the start.
+   * @param dealOrder   The catalog identifiers of the patches in the order of the circle.
+   */
+  public GameHeader {
+    Objects.requireNonNull(player1Name);
+    Objects.requireNonNull(player2Name);
+    if (firstPlayer != 1 && firstPlayer != 2) {
+      throw new IllegalArgumentException("The first player slot must be 1 or 2");
+    }
+    dealOrder = List.copyOf(dealOrder);
+  }
+}
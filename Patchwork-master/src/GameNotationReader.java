@@ -0,0 +1,359 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A class that reads, one game at a time, the text notation written by GameNotationWriter.
+ * <p>
+ * The text is read in blocks into a reused line buffer and parsed in place, without splitting lines or creating
+ * substrings, so that files of any size are read at the speed of the disk: apart from the games themselves, only the
+ * player names and the placements outside the quiltboard are allocated. Unknown headers are ignored.
+ */
+public class GameNotationReader implements GameSource {
+  /* Every point of the quiltboard, the moves share them. */
+  private static final Point[][] POINTS = new Point[10][10];
+  private static final Move[] ADVANCES = {null, Move.advance(1), Move.advance(2)};
+
+  static {
+    for (int i = 1; i < POINTS.length; i++) {
+      for (int j = 1; j < POINTS[i].length; j++) {
+        POINTS[i][j] = new Point(i, j);
+      }
+    }
+  }
+
+  private final Reader reader;
+  private final char[] input = new char[1 << 16];
+  private int inputPosition, inputLimit;
+  private char[] line = new char[256];
+  private int length, cursor;
+  private long lineNumber;
+  /* Whether the line in the buffer was read but not used yet, it starts the next game. */
+  private boolean pending;
+  private final List<Point> specialPatchPlacements = new ArrayList<>();
+
+  /**
+   * A constructor for a GameNotationReader instance.
+   *
+   * @param reader The reader to read the games from, it doesn't need to be buffered.
+   */
+  public GameNotationReader(Reader reader) {
+    this.reader = Objects.requireNonNull(reader);
+  }
+
+  /**
+   * Reads the next line into the line buffer, without its terminator.
+   *
+   * @return false if there are no more lines.
+   * @throws IOException If the text can't be read.
+   */
+  private boolean readLine() throws IOException {
+    length = 0;
+    cursor = 0;
+    boolean any = false;
+    while (true) {
+      if (inputPosition == inputLimit) {
+        inputLimit = reader.read(input);
+        inputPosition = 0;
+        if (inputLimit == -1) {
+          inputLimit = 0;
+          break;
+        }
+      }
+      any = true;
+      var c = input[inputPosition++];
+      if (c == '\n') {
+        break;
+      }
+      if (length == line.length) {
+        line = Arrays.copyOf(line, length * 2);
+      }
+      line[length++] = c;
+    }
+    if (length > 0 && line[length - 1] == '\r') {
+      length--;
+    }
+    if (any) {
+      lineNumber++;
+    }
+    return any;
+  }
+
+  /**
+   * Creates the exception thrown on malformed text.
+   *
+   * @param reason What is wrong.
+   * @return The exception.
+   */
+  private IOException malformed(String reason) {
+    return new IOException("Line " + lineNumber + ": " + reason + ": " + new String(line, 0, length));
+  }
+
+  /**
+   * A function that determines if the line is blank.
+   *
+   * @return A boolean.
+   */
+  private boolean blankLine() {
+    for (int i = 0; i < length; i++) {
+      if (!Character.isWhitespace(line[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Moves the cursor past the spaces.
+   */
+  private void skipSpaces() {
+    while (cursor < length && line[cursor] == ' ') {
+      cursor++;
+    }
+  }
+
+  /**
+   * Moves the cursor past an expected character.
+   *
+   * @param expected The character.
+   * @throws IOException If the line doesn't have it at the cursor.
+   */
+  private void expect(char expected) throws IOException {
+    if (cursor == length || line[cursor] != expected) {
+      throw malformed("'" + expected + "' expected");
+    }
+    cursor++;
+  }
+
+  /**
+   * Parses a non-negative number at the cursor.
+   *
+   * @return The number.
+   * @throws IOException If there is no number at the cursor.
+   */
+  private int parseNumber() throws IOException {
+    int start = cursor, value = 0;
+    while (cursor < length && line[cursor] >= '0' && line[cursor] <= '9') {
+      value = value * 10 + line[cursor++] - '0';
+    }
+    if (cursor == start) {
+      throw malformed("number expected");
+    }
+    return value;
+  }
+
+  /**
+   * Parses an integer that may be negative, a score, at the cursor.
+   *
+   * @return The integer.
+   * @throws IOException If there is no integer at the cursor.
+   */
+  private int parseInteger() throws IOException {
+    if (cursor < length && line[cursor] == '-') {
+      cursor++;
+      return -parseNumber();
+    }
+    return parseNumber();
+  }
+
+  /**
+   * Parses a point, {@code line,column}, at the cursor.
+   *
+   * @return The point.
+   * @throws IOException If there is no point at the cursor.
+   */
+  private Point parsePoint() throws IOException {
+    var i = parseNumber();
+    expect(',');
+    var j = parseNumber();
+    if (i < POINTS.length && j < POINTS.length && POINTS[i][j] != null) {
+      return POINTS[i][j];
+    }
+    return new Point(i, j); // Rejected by the rules when played.
+  }
+
+  /**
+   * A function that determines if the key of the header line in the buffer is the given one.
+   *
+   * @param key The key.
+   * @return A boolean.
+   */
+  private boolean headerKeyIs(String key) {
+    if (length < key.length() + 2 || line[1 + key.length()] != ' ') {
+      return false;
+    }
+    for (int i = 0; i < key.length(); i++) {
+      if (line[1 + i] != key.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Moves the cursor to the beginning of the value of the header line in the buffer.
+   *
+   * @throws IOException If the line isn't a header.
+   */
+  private void enterHeaderValue() throws IOException {
+    cursor = 1;
+    while (cursor < length && line[cursor] != ' ') {
+      cursor++;
+    }
+    skipSpaces();
+    expect('"');
+  }
+
+  /**
+   * Parses the quoted value of the header line in the buffer as a string.
+   *
+   * @return The value, unescaped.
+   * @throws IOException If the line isn't a well-formed header.
+   */
+  private String headerString() throws IOException {
+    enterHeaderValue();
+    var builder = new StringBuilder();
+    while (cursor < length && line[cursor] != '"') {
+      if (line[cursor] == '\\' && cursor + 1 < length) {
+        cursor++;
+      }
+      builder.append(line[cursor++]);
+    }
+    expect('"');
+    return builder.toString();
+  }
+
+  /**
+   * Reads the headers of a game, the buffer holding its first line.
+   *
+   * @return The header of the game.
+   * @throws IOException If a header is missing or malformed.
+   */
+  private GameHeader readHeaders() throws IOException {
+    Boolean fullVersion = null;
+    String player1Name = null, player2Name = null;
+    int firstPlayer = 0;
+    List<Integer> dealOrder = null;
+    do {
+      if (headerKeyIs("Mode")) {
+        fullVersion = headerString().equals("full");
+      } else if (headerKeyIs("Player1")) {
+        player1Name = headerString();
+      } else if (headerKeyIs("Player2")) {
+        player2Name = headerString();
+      } else if (headerKeyIs("First")) {
+        enterHeaderValue();
+        firstPlayer = parseNumber();
+      } else if (headerKeyIs("Deal")) {
+        enterHeaderValue();
+        dealOrder = new ArrayList<>(40);
+        skipSpaces();
+        while (cursor < length && line[cursor] != '"') {
+          dealOrder.add(parseNumber());
+          skipSpaces();
+        }
+      }
+    } while (readLine() && length > 0 && line[0] == '[');
+    pending = true;
+    if (fullVersion == null || player1Name == null || player2Name == null || firstPlayer == 0 || dealOrder == null) {
+      throw malformed("Mode, Player1, Player2, First and Deal headers expected before");
+    }
+    return new GameHeader(fullVersion, player1Name, player2Name, firstPlayer, dealOrder);
+  }
+
+  /**
+   * Parses the move line in the buffer.
+   *
+   * @return The move.
+   * @throws IOException If the line isn't a well-formed move.
+   */
+  private Move parseMove() throws IOException {
+    var player = parseNumber();
+    if (player != 1 && player != 2) {
+      throw malformed("player slot 1 or 2 expected");
+    }
+    skipSpaces();
+    Move move;
+    if (cursor < length && line[cursor] == 'A') {
+      cursor++;
+      move = ADVANCES[player];
+    } else {
+      expect('B');
+      var ringOffset = parseNumber();
+      skipSpaces();
+      expect('r');
+      var rotations = parseNumber();
+      var flipped = cursor < length && line[cursor] == 'f';
+      if (flipped) {
+        cursor++;
+      }
+      skipSpaces();
+      try {
+        move = Move.purchase(player, -1, ringOffset, rotations, flipped, parsePoint());
+      } catch (IllegalArgumentException e) {
+        throw malformed(e.getMessage());
+      }
+    }
+    skipSpaces();
+    if (cursor == length) {
+      return move;
+    }
+    specialPatchPlacements.clear();
+    while (cursor < length) {
+      expect('s');
+      specialPatchPlacements.add(parsePoint());
+      skipSpaces();
+    }
+    return move.withSpecialPatchPlacements(specialPatchPlacements);
+  }
+
+  @Override
+  public GameRecord next() throws IOException {
+    if (!pending && !readLine()) {
+      return null;
+    }
+    pending = false;
+    while (blankLine()) {
+      if (!readLine()) {
+        return null;
+      }
+    }
+    if (line[0] != '[') {
+      throw malformed("headers expected");
+    }
+    var header = readHeaders();
+    var moves = new ArrayList<Move>();
+    // The buffer holds the first line after the headers.
+    while (pending || readLine()) {
+      pending = false;
+      if (blankLine()) {
+        break;
+      }
+      if (line[0] == '[') {
+        pending = true; // The next game starts right away, this one never ended.
+        break;
+      }
+      if (line[0] == '=') {
+        cursor = 1;
+        skipSpaces();
+        var winner = parseNumber();
+        skipSpaces();
+        var score = parseInteger();
+        if (winner != 1 && winner != 2) {
+          throw malformed("winner slot 1 or 2 expected");
+        }
+        return new GameRecord(header, moves, winner, score);
+      }
+      moves.add(parseMove());
+    }
+    return new GameRecord(header, moves, 0, 0);
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,126 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * A MoveRecorder that writes the games it is told about in the text notation of Patchwork games, one game after the
+ * other, as they are played.
+ * <p>
+ * A game starts with its headers, {@code [Mode "full"]} or {@code [Mode "base"]}, {@code [Player1 "name"]},
+ * {@code [Player2 "name"]}, {@code [First "slot"]} and {@code [Deal "ids..."]}, followed by one line per move: the slot
+ * of the player, then {@code A} for advancing, or {@code B} followed by the ring offset of the purchased patch, its
+ * orientation ({@code r} and the number of clock wise rotations, followed by {@code f} if flipped) and the point it was
+ * placed at, in the 1-based coordinates the quiltboard takes from the players. The points the special patches were
+ * placed at follow, each prefixed with {@code s}. A finished game ends with {@code = slot score}, and games are
+ * separated by a blank line:
+ * <pre>
+ * 1 A
+ * 2 B3 r2f 4,7 s5,5
+ * = 2 17
+ * </pre>
+ */
+public class GameNotationWriter implements MoveRecorder, Closeable {
+  private final Writer writer;
+  private final StringBuilder line = new StringBuilder(64);
+  private boolean firstGame = true;
+
+  /**
+   * A constructor for a GameNotationWriter instance.
+   *
+   * @param writer The writer to write the games to, preferably buffered.
+   */
+  public GameNotationWriter(Writer writer) {
+    this.writer = Objects.requireNonNull(writer);
+  }
+
+  /**
+   * Writes the line being built and clears it for the next one.
+   */
+  private void writeLine() {
+    line.append('\n');
+    try {
+      writer.append(line);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    line.setLength(0);
+  }
+
+  /**
+   * Appends a header line.
+   *
+   * @param key   The name of the header.
+   * @param value The value of the header, escaped if needed.
+   */
+  private void header(String key, String value) {
+    line.append('[').append(key).append(" \"");
+    for (int i = 0; i < value.length(); i++) {
+      var c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        line.append('\\');
+      }
+      line.append(c);
+    }
+    line.append("\"]");
+    writeLine();
+  }
+
+  @Override
+  public void gameStarted(GameHeader header) {
+    Objects.requireNonNull(header);
+    if (!firstGame) {
+      writeLine();
+    }
+    firstGame = false;
+    header("Mode", header.fullVersion() ? "full" : "base");
+    header("Player1", header.player1Name());
+    header("Player2", header.player2Name());
+    header("First", Integer.toString(header.firstPlayer()));
+    line.append("[Deal \"");
+    for (int i = 0; i < header.dealOrder().size(); i++) {
+      if (i != 0) {
+        line.append(' ');
+      }
+      line.append(header.dealOrder().get(i));
+    }
+    line.append("\"]");
+    writeLine();
+  }
+
+  @Override
+  public void moveApplied(Move move) {
+    Objects.requireNonNull(move);
+    line.append(move.player()).append(' ');
+    if (move.type() == Move.Type.ADVANCE) {
+      line.append('A');
+    } else {
+      line.append('B').append(move.ringOffset()).append(" r").append(move.rotations());
+      if (move.flipped()) {
+        line.append('f');
+      }
+      line.append(' ').append(move.placement().i()).append(',').append(move.placement().j());
+    }
+    for (var point : move.specialPatchPlacements()) {
+      line.append(" s").append(point.i()).append(',').append(point.j());
+    }
+    writeLine();
+  }
+
+  @Override
+  public void gameEnded(int winner, int score) {
+    line.append("= ").append(winner).append(' ').append(score);
+    writeLine();
+  }
+
+  /**
+   * Flushes and closes the underlying writer.
+   *
+   * @throws IOException If the writer can't be flushed or closed.
+   */
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
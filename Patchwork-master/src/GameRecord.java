@@ -0,0 +1,38 @@
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A record that holds a game read back from a journal or a notation file.
+ *
+ * @param header The random decisions the game started with.
+ * @param moves  The moves of the game, in order.
+ * @param winner The slot of the recorded winner, 0 if the game never ended (the process stopped while it was played).
+ * @param score  The recorded score of the winner.
+ */
+public record GameRecord(GameHeader header, List<Move> moves, int winner, int score) {
+
+  /**
+   * A constructor for the GameRecord record, it ensures the header and the moves are set.
+   *
+   * @param header The random decisions the game started with.
+   * @param moves  The moves of the game.
+   * @param winner The slot of the recorded winner, or 0.
+   * @param score  The recorded score of the winner.
+   */
+  public GameRecord {
+    Objects.requireNonNull(header);
+    Objects.requireNonNull(moves);
+    if (winner < 0 || winner > 2) {
+      throw new IllegalArgumentException("The winner slot must be 0, 1 or 2");
+    }
+  }
+
+  /**
+   * A function that determines if the game reached its end when it was recorded.
+   *
+   * @return A boolean.
+   */
+  public boolean finished() {
+    return winner != 0;
+  }
+}
@@ -0,0 +1,256 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A class that hosts many games in one JVM, it accepts TCP connections, pairs the players in order of arrival and plays
+ * each match's GameController through a NetworkView.
+ * <p>
+ * The connections are read by one ConnectionReader, a match only runs when one of its players answers a prompt, on the
+ * thread of the reader, so the matches waiting for their players hold no thread at all.
+ * <p>
+ * The matches can be watched on a second port: a spectator sends a line with the number of a match, the matches being
+ * numbered from 1 in the order their players are paired, or an empty line for the oldest match being played. It then
+ * receives the frames of the SpectatorChannel of the match, a snapshot followed by the deltas, each preceded by its
+ * length as a big-endian int, until the match is over and the connection is closed. The connection is closed right
+ * away if there is no such match.
+ */
+public class GameServer implements Closeable {
+  private final ServerSocketChannel serverChannel;
+  private final ServerSocketChannel spectatorChannel;
+  private final ConnectionReader reader;
+  private final boolean fullVersion;
+  private final AtomicInteger activeMatches = new AtomicInteger();
+  private final AtomicInteger nextMatchId = new AtomicInteger(1);
+  /* The matches being played by number, only touched on the thread of the reader. */
+  private final ConcurrentSkipListMap<Integer, Match> matches = new ConcurrentSkipListMap<>();
+
+  /**
+   * A record of a match being played, for its spectators.
+   *
+   * @param channel    The channel the match is published to.
+   * @param spectators The connections of its spectators.
+   */
+  private record Match(SpectatorChannel channel, List<PlayerConnection> spectators) {
+  }
+
+  /**
+   * A constructor for a GameServer instance, listening on the loopback interface, the spectators on any free port.
+   *
+   * @param port        The port to listen on, 0 to pick any free port.
+   * @param fullVersion Whether the matches are played with the full version of the game.
+   * @throws IOException If the server sockets can't be bound.
+   */
+  public GameServer(int port, boolean fullVersion) throws IOException {
+    this(port, 0, InetAddress.getLoopbackAddress(), fullVersion);
+  }
+
+  /**
+   * A constructor for a GameServer instance.
+   *
+   * @param port          The port to listen on, 0 to pick any free port.
+   * @param spectatorPort The port the spectators connect to, 0 to pick any free port.
+   * @param address       The local address to bind to.
+   * @param fullVersion   Whether the matches are played with the full version of the game.
+   * @throws IOException If the server sockets can't be bound.
+   */
+  public GameServer(int port, int spectatorPort, InetAddress address, boolean fullVersion) throws IOException {
+    this.serverChannel = ServerSocketChannel.open().bind(new InetSocketAddress(address, port), 1024);
+    this.spectatorChannel = ServerSocketChannel.open().bind(new InetSocketAddress(address, spectatorPort), 1024);
+    this.fullVersion = fullVersion;
+    this.reader = new ConnectionReader("patchwork-reader");
+    reader.accept(spectatorChannel, this::watch);
+  }
+
+  /**
+   * Getter function for the port the server is listening on.
+   *
+   * @return The local port of the server socket.
+   */
+  public int getPort() {
+    return serverChannel.socket().getLocalPort();
+  }
+
+  /**
+   * Getter function for the port the spectators connect to.
+   *
+   * @return The local port of the server socket of the spectators.
+   */
+  public int getSpectatorPort() {
+    return spectatorChannel.socket().getLocalPort();
+  }
+
+  /**
+   * Getter function for the number of matches currently being played.
+   *
+   * @return The number of active matches.
+   */
+  public int getActiveMatches() {
+    return activeMatches.get();
+  }
+
+  /**
+   * Accepts connections until the server is closed, every two connections form a match.
+   *
+   * @throws IOException If accepting a connection fails for another reason than the server being closed.
+   */
+  public void serve() throws IOException {
+    SocketChannel waiting = null;
+    try {
+      while (serverChannel.isOpen()) {
+        var channel = serverChannel.accept();
+        channel.socket().setTcpNoDelay(true);
+        if (waiting == null) {
+          waiting = channel;
+          continue;
+        }
+        var first = waiting;
+        waiting = null;
+        startMatch(first, channel);
+      }
+    } catch (ClosedChannelException e) {
+      // Closed by close().
+    } finally {
+      if (waiting != null) {
+        waiting.close();
+      }
+    }
+  }
+
+  /**
+   * Creates the game objects of a match and starts it once both players gave their names, the connections are always
+   * closed once it is over.
+   *
+   * @param first  The socket of the first player.
+   * @param second The socket of the second player.
+   * @throws IOException If the sockets can't be read without blocking.
+   */
+  private void startMatch(SocketChannel first, SocketChannel second) throws IOException {
+    activeMatches.incrementAndGet();
+    var matchId = nextMatchId.getAndIncrement();
+    var connection1 = new PlayerConnection(first, reader);
+    var connection2 = new PlayerConnection(second, reader);
+    var name1 = readPlayerName(connection1, "player1");
+    var name2 = readPlayerName(connection2, "player2");
+    name1.thenCombine(name2, (player1Name, player2Name) -> {
+      try {
+        var player1 = Main.createPlayerOne(player1Name);
+        var player2 = Main.createPlayerTwo(player2Name);
+        var choicesMap = new HashMap<String, Boolean>(Map.of(Main.FULL, fullVersion, Main.GRAPHICAL, false));
+        var patches = Main.getPatchesByChoice(choicesMap);
+        var timeBoard = Main.getTimeBoardByChoice(choicesMap, player1, player2);
+        var channel = new SpectatorChannel(player1, player2, timeBoard, patches);
+        matches.put(matchId, new Match(channel, new ArrayList<>()));
+        var view = new SpectatedView(new NetworkView(connection1, connection2, player1, player2), channel);
+        return new GameController(view, patches, timeBoard, player1, player2, choicesMap);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }).thenCompose(GameController::startGameAsync).whenComplete((result, failure) -> {
+      if (failure != null) {
+        // A player left or the patches file is missing, the match is over either way.
+        var cause = failure.getCause() != null ? failure.getCause() : failure;
+        System.err.println("match aborted: " + cause.getMessage());
+        connection1.close();
+        connection2.close();
+      }
+      var match = matches.remove(matchId);
+      if (match != null) {
+        match.spectators().forEach(PlayerConnection::closeAfterSending);
+      }
+      activeMatches.decrementAndGet();
+    });
+  }
+
+  /**
+   * Finds the match a spectator asks for.
+   *
+   * @param line The line of the spectator, the number of the match or an empty line for the oldest match.
+   * @return The match, or null if there is no such match being played.
+   */
+  private Match find(String line) {
+    if (line.isEmpty()) {
+      var oldest = matches.firstEntry();
+      return oldest == null ? null : oldest.getValue();
+    }
+    try {
+      return matches.get(Integer.parseInt(line));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Reads the match a spectator asks for and subscribes it to the channel of the match, called on the thread of the
+   * reader.
+   *
+   * @param socket The socket of the spectator.
+   */
+  private void watch(SocketChannel socket) {
+    PlayerConnection spectator;
+    try {
+      socket.socket().setTcpNoDelay(true);
+      spectator = new PlayerConnection(socket, reader);
+    } catch (IOException e) {
+      System.err.println("spectator refused: " + e.getMessage());
+      return;
+    }
+    spectator.receive().thenAccept(line -> {
+      var match = find(line);
+      if (match == null) {
+        spectator.close();
+        return;
+      }
+      match.spectators().add(spectator);
+      match.channel().subscribe(new Consumer<>() {
+        @Override
+        public void accept(ByteBuffer frame) {
+          try {
+            spectator.sendFrame(frame);
+          } catch (UncheckedIOException e) {
+            // A spectator gone or too slow is dropped, the match goes on.
+            match.channel().unsubscribe(this);
+            match.spectators().remove(spectator);
+          }
+        }
+      });
+    });
+  }
+
+  /**
+   * Asks a player its name, only the first word is kept so that names stay single tokens in the protocol.
+   *
+   * @param connection  The connection of the player.
+   * @param defaultName The name to use if the player sent an empty one.
+   * @return A future completed with the player's name.
+   */
+  private static CompletableFuture<String> readPlayerName(PlayerConnection connection, String defaultName) {
+    return connection.ask("NAME").thenApply(answer -> answer.isEmpty() ? defaultName : answer.split("\\s+")[0]);
+  }
+
+  /**
+   * Stops accepting connections and closes the ones of the matches being played.
+   *
+   * @throws IOException If the server socket can't be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    serverChannel.close();
+    spectatorChannel.close();
+    reader.close();
+  }
+}
@@ -0,0 +1,40 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An interface for the readers of recorded games, whatever the format they are stored in.
+ */
+public interface GameSource extends Closeable {
+
+  /**
+   * Reads the next game.
+   *
+   * @return The game, or null if there are no more games.
+   * @throws IOException If the games can't be read.
+   */
+  GameRecord next() throws IOException;
+
+  /**
+   * A function that opens a file of recorded games, a journal if it starts like one and a notation file otherwise.
+   *
+   * @param path The path of the file.
+   * @return The reader of the file.
+   * @throws IOException If the file can't be opened.
+   */
+  static GameSource open(Path path) throws IOException {
+    Objects.requireNonNull(path);
+    byte[] start;
+    try (InputStream input = Files.newInputStream(path)) {
+      start = input.readNBytes(MoveJournal.MAGIC.length);
+    }
+    if (Arrays.equals(start, MoveJournal.MAGIC)) {
+      return new JournalReader(path);
+    }
+    return new GameNotationReader(Files.newBufferedReader(path));
+  }
+}
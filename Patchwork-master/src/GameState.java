@@ -0,0 +1,46 @@
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * A record that gathers everything a game is made of, what a GameController needs to play it on. The objects are
+ * the live ones of the game, not copies.
+ *
+ * @param player1    The first player.
+ * @param player2    The second player.
+ * @param patches    The patches laid in the circle and the neutral pawn.
+ * @param timeBoard  The timeboard.
+ * @param choicesMap The game mode flags.
+ */
+public record GameState(Player player1, Player player2, Patches patches, TimeBoard timeBoard,
+                        Map<String, Boolean> choicesMap) {
+
+  /**
+   * A constructor for the GameState record, it ensures every part of the game is set.
+   *
+   * @param player1    The first player.
+   * @param player2    The second player.
+   * @param patches    The patches.
+   * @param timeBoard  The timeboard.
+   * @param choicesMap The game mode flags.
+   */
+  public GameState {
+    if (!Stream.of(player1, player2, patches, timeBoard, choicesMap).allMatch(Objects::nonNull)) {
+      throw new NullPointerException("One or more parameters is null");
+    }
+  }
+
+  /**
+   * A function that computes whose turn it is, the player behind on the timeboard or the one on top when they share a
+   * space, like GameController does.
+   *
+   * @return The player whose turn it is.
+   */
+  public Player playerToMove() {
+    if (player1.getPosition() < player2.getPosition() ||
+        player1.getPosition() == player2.getPosition() && timeBoard.getPlayerOnTop() == player1) {
+      return player1;
+    }
+    return player2;
+  }
+}
@@ -0,0 +1,304 @@
+import java.awt.*;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * A class that saves the complete state of a game between two turns, and loads it back, in a compact binary format.
+ * <p>
+ * A save starts with the {@link #MAGIC} bytes and a {@link #VERSION} byte, then holds the game mode flags, both players
+ * (name, colors, buttons, position, first and bonus tile flags, income, and their quiltboard as a bitmap of the
+ * occupied spaces, a bitmap of the buttons and the index of every space's color in a palette), the timeboard (player on
+ * top and special patches left) and the circle of patches (neutral pawn, then every patch with its identifier, price,
+ * costs, color, orientation and catalog structure). A save takes less than a kilobyte.
+ */
+public final class GameStateCodec {
+  static final byte[] MAGIC = {'P', 'W', 'S'};
+  static final byte VERSION = 1;
+  private static final int QUILT_SPACES = 81;
+  private static final int BITMAP_BYTES = (QUILT_SPACES + 7) / 8;
+
+  /**
+   * Private constructor, the class only holds static functions.
+   */
+  private GameStateCodec() {
+  }
+
+  /**
+   * Encodes a string as its length on two bytes followed by its UTF-8 bytes.
+   *
+   * @param buffer The buffer to write to.
+   * @param string The string to encode.
+   */
+  private static void putString(ByteBuffer buffer, String string) {
+    var bytes = string.getBytes(StandardCharsets.UTF_8);
+    buffer.putShort((short) bytes.length).put(bytes);
+  }
+
+  /**
+   * Decodes a string written by putString.
+   *
+   * @param buffer The buffer to read from.
+   * @return The string.
+   */
+  private static String getString(ByteBuffer buffer) {
+    var bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Encodes a player and its quiltboard.
+   *
+   * @param buffer The buffer to write to.
+   * @param player The player to encode.
+   */
+  private static void putPlayer(ByteBuffer buffer, Player player) {
+    var quiltBoard = player.getQuiltBoard();
+    putString(buffer, player.getName());
+    buffer.putInt(player.getColor().getRGB())
+          .putInt(quiltBoard.getColor().getRGB())
+          .putShort((short) player.getButtons())
+          .put((byte) player.getPosition())
+          .put((byte) ((player.isFirst() ? 1 : 0) | (player.hasBonusTile() ? 2 : 0)))
+          .putShort((short) quiltBoard.getTotalIncome());
+    var occupied = new byte[BITMAP_BYTES];
+    var buttons = new byte[BITMAP_BYTES];
+    var palette = new ArrayList<Color>();
+    var colorIndexes = new byte[QUILT_SPACES];
+    int count = 0;
+    var structure = quiltBoard.getStructure();
+    for (int space = 0; space < QUILT_SPACES; space++) {
+      var patchSpace = structure[space / 9][space % 9];
+      if (patchSpace == null) {
+        continue;
+      }
+      occupied[space / 8] |= (byte) (1 << (space % 8));
+      if (patchSpace.button()) {
+        buttons[space / 8] |= (byte) (1 << (space % 8));
+      }
+      var index = palette.indexOf(patchSpace.color());
+      if (index == -1) {
+        index = palette.size();
+        palette.add(patchSpace.color());
+      }
+      colorIndexes[count++] = (byte) index;
+    }
+    buffer.put(occupied).put(buttons).put((byte) palette.size());
+    for (var color : palette) {
+      buffer.putInt(color.getRGB());
+    }
+    buffer.put(colorIndexes, 0, count);
+  }
+
+  /**
+   * Decodes a player written by putPlayer.
+   *
+   * @param buffer The buffer to read from.
+   * @return The player.
+   */
+  private static Player getPlayer(ByteBuffer buffer) {
+    var name = getString(buffer);
+    var color = new Color(buffer.getInt(), true);
+    var quiltBoardColor = new Color(buffer.getInt(), true);
+    var player = new Player(buffer.getShort(), Byte.toUnsignedInt(buffer.get()), name, color, quiltBoardColor);
+    var flags = buffer.get();
+    player.setFirst((flags & 1) != 0);
+    player.setBonusTile((flags & 2) != 0);
+    var quiltBoard = player.getQuiltBoard();
+    quiltBoard.setTotalIncome(buffer.getShort());
+    var occupied = new byte[BITMAP_BYTES];
+    var buttons = new byte[BITMAP_BYTES];
+    buffer.get(occupied).get(buttons);
+    var palette = new Color[Byte.toUnsignedInt(buffer.get())];
+    for (int i = 0; i < palette.length; i++) {
+      palette[i] = new Color(buffer.getInt(), true);
+    }
+    var structure = quiltBoard.getStructure();
+    for (int space = 0; space < QUILT_SPACES; space++) {
+      if ((occupied[space / 8] & (1 << (space % 8))) != 0) {
+        structure[space / 9][space % 9] = new PatchSpace((buttons[space / 8] & (1 << (space % 8))) != 0,
+                                                         palette[buffer.get()]);
+      }
+    }
+    return player;
+  }
+
+  /**
+   * Encodes a patch, its structure in the orientation of the catalog followed by the orientation it was turned to.
+   *
+   * @param buffer The buffer to write to.
+   * @param patch  The patch to encode.
+   */
+  private static void putPatch(ByteBuffer buffer, Patch patch) {
+    var catalogStructure = patch;
+    if (patch.getRotations() != 0 || patch.isFlipped()) {
+      catalogStructure = patch.copy();
+      catalogStructure.setOrientation(0, false);
+    }
+    var structure = catalogStructure.getStructure();
+    buffer.put((byte) patch.getId())
+          .put((byte) patch.getPrice())
+          .put((byte) patch.getTimeCost())
+          .put((byte) patch.getIncome())
+          .putInt(patch.getColor().getRGB())
+          .put((byte) (patch.getRotations() | (patch.isFlipped() ? 4 : 0)))
+          .put((byte) structure.length)
+          .put((byte) structure[0].length);
+    for (var line : structure) {
+      for (var space : line) {
+        buffer.put((byte) (space == null ? 0 : space.button() ? 2 : 1));
+      }
+    }
+  }
+
+  /**
+   * Decodes a patch written by putPatch.
+   *
+   * @param buffer The buffer to read from.
+   * @return The patch, turned to the orientation it was saved in.
+   */
+  private static Patch getPatch(ByteBuffer buffer) {
+    int id = Byte.toUnsignedInt(buffer.get()), price = buffer.get(), timeCost = buffer.get(), income = buffer.get();
+    var color = new Color(buffer.getInt(), true);
+    var orientation = buffer.get();
+    var structure = new PatchSpace[buffer.get()][buffer.get()];
+    for (var line : structure) {
+      for (int j = 0; j < line.length; j++) {
+        var space = buffer.get();
+        if (space != 0) {
+          line[j] = new PatchSpace(space == 2, color);
+        }
+      }
+    }
+    var patch = new Patch(id, price, timeCost, income, structure, color, 0, 0);
+    patch.setOrientation(orientation & 3, (orientation & 4) != 0);
+    return patch;
+  }
+
+  /**
+   * A function that encodes the state of a game into a buffer.
+   *
+   * @param state  The game, between two turns.
+   * @param buffer The buffer to write to, with enough room for the save.
+   */
+  public static void write(GameState state, ByteBuffer buffer) {
+    Objects.requireNonNull(state);
+    Objects.requireNonNull(buffer);
+    buffer.put(MAGIC).put(VERSION);
+    var choicesMap = state.choicesMap();
+    buffer.put((byte) choicesMap.size());
+    for (var choice : new TreeMap<>(choicesMap).entrySet()) { // Sorted, so that equal states give equal saves.
+      putString(buffer, choice.getKey());
+      buffer.put((byte) (choice.getValue() ? 1 : 0));
+    }
+    putPlayer(buffer, state.player1());
+    putPlayer(buffer, state.player2());
+    var timeBoard = state.timeBoard();
+    buffer.put((byte) (timeBoard.getPlayerOnTop() == state.player1() ? 1 : 2));
+    buffer.put((byte) timeBoard.getSpecialPatchesPos().size());
+    for (var position : timeBoard.getSpecialPatchesPos()) {
+      buffer.put((byte) (int) position);
+    }
+    var patchesList = state.patches().getPatchesList();
+    buffer.putInt(state.patches().getNeutralPawnIndex()).put((byte) patchesList.size());
+    for (var patch : patchesList) {
+      putPatch(buffer, patch);
+    }
+  }
+
+  /**
+   * A function that encodes the state of a game.
+   *
+   * @param state The game, between two turns.
+   * @return The bytes of the save.
+   */
+  public static byte[] encode(GameState state) {
+    // Generous, a save takes less than a kilobyte.
+    var buffer = ByteBuffer.allocate(16 * 1024);
+    write(state, buffer);
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  /**
+   * A function that decodes the state of a game from a buffer.
+   *
+   * @param buffer The buffer to read the save from.
+   * @return The game, ready to be played on.
+   * @throws IOException If the buffer doesn't hold a save of this version.
+   */
+  public static GameState read(ByteBuffer buffer) throws IOException {
+    Objects.requireNonNull(buffer);
+    try {
+      var magic = new byte[MAGIC.length];
+      buffer.get(magic);
+      if (!Arrays.equals(magic, MAGIC)) {
+        throw new IOException("Not a saved game");
+      }
+      var version = buffer.get();
+      if (version != VERSION) {
+        throw new IOException("Saved game of an unknown version: " + version);
+      }
+      var choicesMap = new HashMap<String, Boolean>();
+      for (int i = buffer.get(); i > 0; i--) {
+        choicesMap.put(getString(buffer), buffer.get() == 1);
+      }
+      var player1 = getPlayer(buffer);
+      var player2 = getPlayer(buffer);
+      var timeBoard = new TimeBoard(buffer.get() == 1 ? player1 : player2, true);
+      var specialPatchesPos = timeBoard.getSpecialPatchesPos();
+      specialPatchesPos.clear();
+      for (int i = buffer.get(); i > 0; i--) {
+        specialPatchesPos.add(Byte.toUnsignedInt(buffer.get()));
+      }
+      timeBoard.initialiseSpiralPathCoordinates();
+      var patches = new Patches();
+      var neutralPawnIndex = buffer.getInt();
+      var patchesList = new ArrayList<Patch>();
+      for (int i = Byte.toUnsignedInt(buffer.get()); i > 0; i--) {
+        patchesList.add(getPatch(buffer));
+      }
+      patches.getPatchesList().addAll(patchesList);
+      patches.setNeutralPawnIndex(neutralPawnIndex);
+      return new GameState(player1, player2, patches, timeBoard, choicesMap);
+    } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new IOException("Corrupted saved game", e);
+    }
+  }
+
+  /**
+   * A function that saves the state of a game to a file, replacing it atomically so that a crash while saving leaves
+   * the previous save intact.
+   *
+   * @param state The game, between two turns.
+   * @param path  The path of the save.
+   * @throws IOException If the file can't be written.
+   */
+  public static void save(GameState state, Path path) throws IOException {
+    Objects.requireNonNull(path);
+    var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    Files.write(temporary, encode(state));
+    Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * A function that loads the state of a game from a file.
+   *
+   * @param path The path of the save.
+   * @return The game, ready to be played on.
+   * @throws IOException If the file can't be read or isn't a save of this version.
+   */
+  public static GameState load(Path path) throws IOException {
+    Objects.requireNonNull(path);
+    return read(ByteBuffer.wrap(Files.readAllBytes(path)));
+  }
+}
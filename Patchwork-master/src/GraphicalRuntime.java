@@ -0,0 +1,110 @@
+import fr.umlv.zen5.ApplicationContext;
+import fr.umlv.zen5.Event;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * A class that runs a game in graphical mode with the game logic and the screen on two threads.
+ * <p>
+ * The controller plays the game on a thread of its own, its displays publish immutable snapshots of the game to the
+ * GraphicalView and its prompts wait for the player there. The thread of the application, the only one that may use
+ * the ApplicationContext, runs a frame loop at a fixed rate paced by {@link System#nanoTime()}: each frame it
+ * dispatches the pending events of the player to the prompt waiting for them, then repaints what changed in the last
+ * snapshot published. A slow step of the controller neither stalls the input nor the painting, and the frame loop never
+ * waits for the game.
+ */
+public class GraphicalRuntime {
+  /**
+   * The number of frames rendered per second by default.
+   */
+  public static final int DEFAULT_FRAMES_PER_SECOND = 60;
+
+  private final ApplicationContext context;
+  private final InputDispatcher inputDispatcher = new InputDispatcher();
+  private final GraphicalView view;
+  private final long framePeriod;
+
+  /**
+   * Constructor for the GraphicalRuntime, it has to be called on the thread of the application.
+   *
+   * @param context         The context of the application.
+   * @param framesPerSecond The number of frames rendered per second, at most.
+   */
+  public GraphicalRuntime(ApplicationContext context, int framesPerSecond) {
+    Objects.requireNonNull(context);
+    if (framesPerSecond <= 0 || framesPerSecond > 1000) {
+      throw new IllegalArgumentException("The frame rate must be between 1 and 1000 frames per second");
+    }
+    this.context = context;
+    this.view = new GraphicalView(context, inputDispatcher);
+    this.framePeriod = 1_000_000_000L / framesPerSecond;
+  }
+
+  /**
+   * Getter function for the view field.
+   *
+   * @return The view the controller has to play the game with.
+   */
+  public GraphicalView getView() {
+    return view;
+  }
+
+  /**
+   * Plays a game on a new thread and runs the frame loop on the calling thread, the thread of the application, until
+   * the game is over and the player presses a key.
+   *
+   * @param game The function that plays the game, startGame of the controller for instance.
+   * @return The result of the game.
+   */
+  public GameResult run(Supplier<GameResult> game) {
+    Objects.requireNonNull(game);
+    var result = new CompletableFuture<GameResult>();
+    var gameThread = new Thread(() -> {
+      try {
+        result.complete(game.get());
+      } catch (Throwable e) {
+        result.completeExceptionally(e);
+      }
+    }, "game");
+    gameThread.setDaemon(true);
+    gameThread.start();
+
+    CompletableFuture<Boolean> dismissed = null;
+    var nextFrame = System.nanoTime();
+    while (dismissed == null || !dismissed.isDone()) {
+      inputDispatcher.dispatchPending(context);
+      view.repaint();
+      if (dismissed == null && result.isDone()) {
+        if (result.isCompletedExceptionally()) {
+          break;
+        }
+        dismissed = inputDispatcher.await(
+                event -> event.getAction() == Event.Action.KEY_PRESSED ? Optional.of(true) : Optional.empty());
+      }
+      nextFrame += framePeriod;
+      var delay = nextFrame - System.nanoTime();
+      if (delay > 0) {
+        LockSupport.parkNanos(delay);
+      } else {
+        // Late, the frames missed are dropped rather than rendered in a burst.
+        nextFrame = System.nanoTime();
+      }
+    }
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
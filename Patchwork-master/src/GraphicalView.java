@@ -1,20 +1,50 @@
 import fr.umlv.zen5.ApplicationContext;
+import fr.umlv.zen5.Event;
+import fr.umlv.zen5.KeyboardKey;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * An implementation of the View interface that aims to represent a GUI and interact graphically with the user.
+ * <p>
+ * What never changes during a game, the timeboard with its buttons, the empty quiltboards and the price tags, is drawn
+ * once into cached images that every frame copies, only the tokens, the patched tiles and the texts are drawn each
+ * time. The cached images are rebuilt when the screen is resized. The patches on offer are copied from a
+ * PatchSpriteAtlas, one image per patch and orientation, and those off the screen aren't drawn at all.
+ * <p>
+ * Displaying something doesn't draw it right away, it publishes a new {@link Scene}, immutable snapshots of the game
+ * taken on the thread of the game. The frames are rendered on the thread of the application by {@link #repaint()}: the
+ * last scene published is compared with the last one drawn and only the regions that changed are repainted, clipped:
+ * the patched tiles and the texts of a quiltboard, the timeboard tiles along the path a token took or the strip of
+ * patches. The rest of the screen is kept by the application from one frame to the next.
+ * <p>
+ * Once given RenderMetrics, the view measures every frame: how long the renderFrame callback took, the draw calls and
+ * the shapes drawn into the frame. The images and shapes drawn into the cached layers and sprites aren't counted, a
+ * copy of a layer is one draw call. The metrics can be shown in a corner of the screen, updated with every frame.
+ * <p>
+ * The prompts wait for the answer of the player, given with the keyboard and the pointer through an InputDispatcher,
+ * so the game has to run on a thread of its own, see GraphicalRuntime.
  */
 public class GraphicalView implements View {
+  /**
+   * The color of the background of the screen.
+   */
+  public static final Color BACKGROUND = new Color(214, 183, 154);
 
   private GameController gameController;
   private final ApplicationContext context;
-  private final float screenWidth;
-  private final float screenHeight;
+  private final InputDispatcher inputDispatcher;
+  private float screenWidth;
+  private float screenHeight;
 
   private static final int TIMEBOARDTILESIZE = 60;
   private static final int TILESMARGIN = 1;
@@ -27,13 +57,45 @@ public class GraphicalView implements View {
   private static final int TIMEBOARDOUTERMARGIN = TIMEBOARDTILESIZE / 8;
   private static final int QUILTOARDOUTERMARGIN = QUILTBOARDSPACESIZE / 8;
   private static final float TIMEBOARDSIZE = 8 * TIMEBOARDTILESIZE;
-  private static final float QUILTBOARDSIZE = 9 * QUILTBOARDTILESIZE;
-  private final float quiltBoardStartingY;
-  private final float timeBoardStartingY;
+  private static final int QUILTBOARD_SIDE = 9;
+  private static final float QUILTBOARDSIZE = QUILTBOARD_SIDE * QUILTBOARDTILESIZE;
+  private float quiltBoardStartingY;
+  private float timeBoardStartingY;
 
-  private final float timeBoardStartingtX;
+  private float timeBoardStartingtX;
 
   private static final Color[] BUTTON_COLORS = {new Color(20, 20, 204), new Color(185, 185, 230)};
+  private static final Color TIMEBOARD_MARGIN_COLOR = new Color(102, 106, 154);
+  private static final Color TIMEBOARD_TEXT_COLOR = darkerColor(TIMEBOARD_MARGIN_COLOR, 50);
+  private static final Color[] TIMEBOARD_TILE_COLORS = {new Color(170, 150, 39), new Color(139, 114, 51)};
+  private static final Color[] TIMEBOARD_PATCH_COLORS = {new Color(110, 46, 36), new Color(110, 39, 29)};
+  private static final Color VOID_SPACE_COLOR = new Color(230, 95, 71);
+  private static final Color PRICE_TAG_COLOR = darkerColor(new Color(254, 251, 234), 10);
+  private static final Color PRICE_COLOR = new Color(105, 105, 254);
+  private static final Font TIMEBOARD_FONT = new Font(Font.MONOSPACED, Font.PLAIN, TIMEBOARDTILESIZE / 2);
+  private static final Font METRICS_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+  private static final Color METRICS_BACKGROUND = new Color(0, 0, 0, 160);
+  private static final Font QUILTBOARD_NAME_FONT = new Font(Font.MONOSPACED, Font.PLAIN, QUILTBOARDTILESIZE / 2);
+  private static final Font QUILTBOARD_INFO_FONT = new Font(Font.MONOSPACED, Font.PLAIN,
+                                                            Math.round(QUILTBOARDTILESIZE / 2.5F));
+
+  /* The cached layers, see the class documentation. */
+  private BufferedImage timeBoardLayer;
+  private final Map<Color, BufferedImage> quiltBoardLayers = new HashMap<>();
+  private final Map<Integer, BufferedImage> priceTagLayers = new HashMap<>();
+  private final PatchSpriteAtlas patchSprites = new PatchSpriteAtlas(PATCHTILESIZE, this::drawPatchSprite);
+  /* The darker shades of the colors of the patches and the tokens, computed once. */
+  private final Map<Color, Color> shades = new HashMap<>();
+  /* The last scene published by the game, and the last one drawn, null if the whole screen has to be painted. */
+  private final AtomicReference<Scene> scene = new AtomicReference<>(Scene.EMPTY);
+  private Scene drawnScene;
+
+  private RenderMetrics renderMetrics;
+  private boolean metricsOverlay;
+  /* The graphics of the frame being rendered and what was drawn into it so far, null between the frames. */
+  private Graphics2D frameGraphics;
+  private int drawCalls;
+  private int shapes;
 
   //TODO fix the margin superposition (in the patches that are displayed especially, this will be incredibly difficult),
   // modify drawCentered button so it accepts the length and width of the button.
@@ -46,16 +108,96 @@ public class GraphicalView implements View {
   /**
    * Constructor for the GraphicalView
    *
-   * @param context the ApplicationContext object
+   * @param context         the ApplicationContext object
+   * @param inputDispatcher the dispatcher the prompts get the events of the player from
    */
-  public GraphicalView(ApplicationContext context) {
+  public GraphicalView(ApplicationContext context, InputDispatcher inputDispatcher) {
     Objects.requireNonNull(context);
+    Objects.requireNonNull(inputDispatcher);
     this.context = context;
-    screenWidth = context.getScreenInfo().getWidth();
-    screenHeight = context.getScreenInfo().getHeight();
+    this.inputDispatcher = inputDispatcher;
+    layout();
+  }
+
+  /**
+   * Setter function for the renderMetrics field, every frame rendered is then measured. It has to be called on the
+   * thread of the application.
+   *
+   * @param renderMetrics The metrics the frames are reported to, or null to stop measuring.
+   * @param overlay       Whether the metrics are shown in the top left corner of the screen.
+   */
+  public void setRenderMetrics(RenderMetrics renderMetrics, boolean overlay) {
+    this.renderMetrics = renderMetrics;
+    this.metricsOverlay = renderMetrics != null && overlay;
+    drawnScene = null; // The overlay appears or goes away with the next frame.
+  }
+
+  /**
+   * Counts a shape drawn, if it was drawn into the frame being rendered and not into a cached layer or sprite.
+   *
+   * @param graphics2D The graphics the shape was drawn with.
+   */
+  private void countShape(Graphics2D graphics2D) {
+    if (graphics2D == frameGraphics) {
+      drawCalls++;
+      shapes++;
+    }
+  }
+
+  /**
+   * Counts an image copied, if it was copied into the frame being rendered.
+   *
+   * @param graphics2D The graphics the image was copied with.
+   */
+  private void countImage(Graphics2D graphics2D) {
+    if (graphics2D == frameGraphics) {
+      drawCalls++;
+    }
+  }
+
+  /**
+   * Places the boards according to the size of the screen, the cached layers are dropped if it changed since the last
+   * time. It has to be called on the thread of the application.
+   */
+  private void layout() {
+    float width = context.getScreenInfo().getWidth();
+    float height = context.getScreenInfo().getHeight();
+    if (width == screenWidth && height == screenHeight) {
+      return;
+    }
+    screenWidth = width;
+    screenHeight = height;
     quiltBoardStartingY = screenHeight / 15;
     timeBoardStartingY = screenHeight / 15;
     timeBoardStartingtX = screenWidth / 2 - TIMEBOARDSIZE / 2;
+    timeBoardLayer = null;
+    quiltBoardLayers.clear();
+    priceTagLayers.clear();
+    drawnScene = null;
+  }
+
+  /**
+   * Creates an image to cache a layer in, in a format that is quick to copy to the given graphics.
+   *
+   * @param graphics2D The graphics the layer will be copied to.
+   * @param width      The width of the layer.
+   * @param height     The height of the layer.
+   * @return A transparent image.
+   */
+  private static BufferedImage createLayer(Graphics2D graphics2D, float width, float height) {
+    return graphics2D.getDeviceConfiguration().createCompatibleImage((int) Math.ceil(width) + 1,
+                                                                     (int) Math.ceil(height) + 1,
+                                                                     Transparency.TRANSLUCENT);
+  }
+
+  /**
+   * Returns the darker shade of a color the patches and the tokens are drawn with, computing it only once.
+   *
+   * @param color The color.
+   * @return The darker shade.
+   */
+  private Color shadeOf(Color color) {
+    return shades.computeIfAbsent(color, c -> darkerColor(c, 25));
   }
 
   @Override
@@ -71,7 +213,9 @@ public class GraphicalView implements View {
 
   @Override
   public char promptPlayerTurnDecision(Player player) {
-    return 0;
+    Objects.requireNonNull(player);
+    // A to advance, B to buy a patch.
+    return inputDispatcher.await(event -> keyPressed(event, KeyboardKey.A, KeyboardKey.B)).join();
   }
 
   @Override
@@ -91,12 +235,53 @@ public class GraphicalView implements View {
 
   @Override
   public Point promptPlayerForPatchPlacementPosition(Player player) {
-    return null;
+    Objects.requireNonNull(player);
+    var slot = gameController.slotOf(player);
+    return inputDispatcher.await(event -> {
+      if (event.getAction() != Event.Action.POINTER_DOWN) {
+        return Optional.<Point>empty();
+      }
+      var location = event.getLocation();
+      int column = (int) Math.floor((location.x - quiltBoardStartingX(slot)) / QUILTBOARDTILESIZE) + 1;
+      int line = (int) Math.floor((location.y - quiltBoardStartingY) / QUILTBOARDTILESIZE) + 1;
+      if (line < 1 || line > QUILTBOARD_SIDE || column < 1 || column > QUILTBOARD_SIDE) {
+        return Optional.<Point>empty();
+      }
+      return Optional.of(new Point(line, column));
+    }).join();
   }
 
   @Override
   public Optional<Patch> promptPlayerPatchDecision(Player playing, Patches patches) {
-    return Optional.empty();
+    Objects.requireNonNull(playing);
+    Objects.requireNonNull(patches);
+    // The three patches following the neutral pawn, null if the player can't afford it, read on the game thread.
+    List<Patch> patchesList = patches.getPatchesList();
+    var choices = new ArrayList<Patch>();
+    for (int i = 0; i < Math.min(3, patchesList.size()); i++) {
+      var patch = patchesList.get((patches.getNeutralPawnIndex() + i) % patchesList.size());
+      choices.add(playing.purchasePossible(patch) ? patch : null);
+    }
+    // A click on one of them, or Q to go back.
+    return inputDispatcher.await(event -> {
+      if (keyPressed(event, KeyboardKey.Q).isPresent()) {
+        return Optional.of(Optional.<Patch>empty());
+      }
+      var offered = scene.get().patches();
+      if (event.getAction() != Event.Action.POINTER_DOWN || offered == null) {
+        return Optional.<Optional<Patch>>empty();
+      }
+      var patchesX = patchesX(offered);
+      var location = event.getLocation();
+      for (int i = 0; i < Math.min(choices.size(), patchesX.length); i++) {
+        var width = offered.patches().get(i).getStructure()[0].length * PATCHTILESIZE;
+        if (choices.get(i) != null && location.x >= patchesX[i] && location.x < patchesX[i] + width &&
+            location.y >= patchesY() && location.y < patchesY() + 5 * PATCHTILESIZE) {
+          return Optional.of(Optional.of(choices.get(i)));
+        }
+      }
+      return Optional.<Optional<Patch>>empty();
+    }).join();
   }
 
   @Override
@@ -106,12 +291,39 @@ public class GraphicalView implements View {
 
   @Override
   public char promptPlayerPatchManipulationDecision(Player playing) {
-    return 0;
+    Objects.requireNonNull(playing);
+    // R to rotate, F to flip, P to place or Q to go back.
+    return inputDispatcher.await(event -> keyPressed(event, KeyboardKey.R, KeyboardKey.F, KeyboardKey.P,
+                                                     KeyboardKey.Q)).join();
+  }
+
+  /**
+   * Interprets an event as the press of one of the given letter keys.
+   *
+   * @param event The event.
+   * @param keys  The letter keys that answer the prompt.
+   * @return The lower case letter of the key pressed, or an empty optional if the event isn't one of those keys.
+   */
+  private static Optional<Character> keyPressed(Event event, KeyboardKey... keys) {
+    if (event.getAction() != Event.Action.KEY_PRESSED) {
+      return Optional.empty();
+    }
+    for (var key : keys) {
+      if (event.getKey() == key) {
+        return Optional.of(Character.toLowerCase(key.name().charAt(0)));
+      }
+    }
+    return Optional.empty();
   }
 
   @Override
   public void displayPatch(Patch patch) {
-
+    Objects.requireNonNull(patch);
+    var shown = patch.copy();
+    // The patch being rotated or flipped shows in its new orientation in the strip of patches.
+    scene.updateAndGet(current -> current.patches() == null ? current : current.withPatches(
+            new Scene.PatchesSnapshot(current.patches().patches().stream()
+                                             .map(other -> other.getId() == shown.getId() ? shown : other).toList())));
   }
 
   @Override
@@ -135,24 +347,31 @@ public class GraphicalView implements View {
   }
 
   /**
-   * set the position of patches on the screen
+   * Computes the y-coordinate of the patches, halfway between the lowest board and the bottom of the screen.
    *
-   * @param patches the patches which needs to be drawn
+   * @return the y-coordinate of the patches
    */
-  private void setPatchesPositions(Patches patches) {
+  private float patchesY() {
     float lowestBoardY = Math.max(timeBoardStartingY + TIMEBOARDSIZE + TIMEBOARDOUTERMARGIN,
                                   quiltBoardStartingY + QUILTBOARDSIZE + QUILTOARDOUTERMARGIN);
     float maxPatchLength = 5 * PATCHTILESIZE;
-    float patchesY = (lowestBoardY + screenHeight) / 2 - maxPatchLength / 2;
+    return (lowestBoardY + screenHeight) / 2 - maxPatchLength / 2;
+  }
 
+  /**
+   * Computes the x-coordinates of the patches on the screen, from the first one, side by side.
+   *
+   * @param patches the patches which needs to be drawn
+   * @return the x-coordinate of every patch
+   */
+  private static float[] patchesX(Scene.PatchesSnapshot patches) {
+    var patchesX = new float[patches.patches().size()];
     float patchesStartingX = QUILTBOARDTILESIZE * 1.2F;
-    List<Patch> patchesList = patches.getPatchesList();
-    for (int i = 0; i < patches.getPatchesList().size(); i++) {
-      Patch currentPatch = patchesList.get((patches.getNeutralPawnIndex() + i) % patchesList.size());
-      currentPatch.setY(patchesY);
-      currentPatch.setX(patchesStartingX);
-      patchesStartingX += currentPatch.getStructure()[0].length * PATCHTILESIZE + PATCHTILESIZE * 2;
+    for (int i = 0; i < patchesX.length; i++) {
+      patchesX[i] = patchesStartingX;
+      patchesStartingX += patches.patches().get(i).getStructure()[0].length * PATCHTILESIZE + PATCHTILESIZE * 2;
     }
+    return patchesX;
   }
 
 
@@ -162,11 +381,17 @@ public class GraphicalView implements View {
    * @param graphics2D Graphics2D object used for drawing
    * @param patches    the patches which needs to be drawn
    */
-  private void drawPatches(Graphics2D graphics2D, Patches patches) {
-    setPatchesPositions(patches);
-    List<Patch> patchesList = patches.getPatchesList();
-    for (Patch patch : patchesList) {
-      drawPatch(graphics2D, patch);
+  private void drawPatches(Graphics2D graphics2D, Scene.PatchesSnapshot patches) {
+    var patchesX = patchesX(patches);
+    float patchesY = patchesY();
+    // The patches are laid out from left to right, those past the right edge of the screen are culled.
+    for (int i = 0; i < patchesX.length && patchesX[i] < screenWidth; i++) {
+      var patch = patches.patches().get(i);
+      // The price tag is one square wide, on the right of the patch.
+      int width = (patch.getStructure()[0].length + 1) * PATCHTILESIZE;
+      if (graphics2D.hitClip(Math.round(patchesX[i]), Math.round(patchesY), width, 5 * PATCHTILESIZE)) {
+        drawPatch(graphics2D, patch, patchesX[i], patchesY);
+      }
     }
   }
 
@@ -239,7 +464,7 @@ public class GraphicalView implements View {
                             float rectangleWidth, Color priceTagColor) {
     float tagWidth = rectangleWidth / 1.4F;
     float tagHeight = rectangleWidth * 2.3F;
-    Color buttonColor = new Color(105, 105, 254);
+    Color buttonColor = PRICE_COLOR;
     float tagStartingX = rectangleX + rectangleWidth / 2 - tagWidth / 2;
     float tagStartingY = rectangleY + rectangleWidth / 4;
 
@@ -257,6 +482,30 @@ public class GraphicalView implements View {
     drawHourGlassOnPriceTag(graphics2D, rectangleWidth, priceTagColor, tagWidth, tagStartingX, timeCostY);
   }
 
+  /**
+   * Copies the price tag of a patch on the screen, the tags are drawn once for every price and time cost.
+   *
+   * @param graphics2D Graphics2D object used for drawing
+   * @param patch      the patch for which the price tag needs to be drawn
+   * @param tagX       x-coordinate of the tag
+   * @param tagY       y-coordinate of the tag
+   */
+  private void drawCachedPriceTag(Graphics2D graphics2D, Patch patch, float tagX, float tagY) {
+    var layer = priceTagLayers.computeIfAbsent(patch.getPrice() << 8 | patch.getTimeCost(), key -> {
+      var image = createLayer(graphics2D, PATCHTILESIZE, PATCHTILESIZE * (0.25F + 2.3F));
+      var layerGraphics = image.createGraphics();
+      try {
+        layerGraphics.setRenderingHints(graphics2D.getRenderingHints());
+        drawPriceTag(layerGraphics, patch, 0, 0, PATCHTILESIZE, PRICE_TAG_COLOR);
+      } finally {
+        layerGraphics.dispose();
+      }
+      return image;
+    });
+    graphics2D.drawImage(layer, Math.round(tagX), Math.round(tagY), null);
+    countImage(graphics2D);
+  }
+
   /**
    * Draws the hourglass on the price tag.
    *
@@ -364,19 +613,34 @@ public class GraphicalView implements View {
 
 
   /**
-   * This method is used to draw a patch of a quilt on the screen. It loops through the structure of the patch, and for
-   * each non-null space it calls the method drawPatchSpace() to draw the space and if the space is a button it calls
-   * the method drawCenteredButton() to draw the button.
+   * This method is used to draw a patch of a quilt on the screen, it copies the sprite of the patch in its orientation
+   * and its price tag.
    *
    * @param graphics2D The graphics object used to draw the patch on the screen.
    * @param patch      The patch object that represents the patch to be drawn on the screen.
+   * @param patchX     The x-coordinate of the patch.
+   * @param patchY     The y-coordinate of the patch.
+   */
+  private void drawPatch(Graphics2D graphics2D, Patch patch, float patchX, float patchY) {
+    graphics2D.drawImage(patchSprites.sprite(graphics2D, patch), Math.round(patchX), Math.round(patchY), null);
+    countImage(graphics2D);
+    drawCachedPriceTag(graphics2D, patch, patchX + patch.getStructure()[0].length * PATCHTILESIZE, patchY);
+  }
+
+  /**
+   * This method is used to draw the sprite of a patch, with its top left corner at the origin. It loops through the
+   * structure of the patch, and for each non-null space it calls the method drawPatchSpace() to draw the space and if
+   * the space is a button it calls the method drawCenteredButton() to draw the button.
+   *
+   * @param graphics2D The graphics object used to draw the sprite.
+   * @param patch      The patch object that represents the patch to be drawn in its orientation.
    */
-  private void drawPatch(Graphics2D graphics2D, Patch patch) {
+  private void drawPatchSprite(Graphics2D graphics2D, Patch patch) {
     for (int i = 0; i < patch.getStructure().length; i++) {
       for (int j = 0; j < patch.getStructure()[0].length; j++) {
         if (patch.getStructure()[i][j] != null) {
-          float subPatchX = patch.getX() + PATCHTILESIZE * j;
-          float subPatchY = patch.getY() + PATCHTILESIZE * i;
+          float subPatchX = PATCHTILESIZE * j;
+          float subPatchY = PATCHTILESIZE * i;
           drawPatchSpace(graphics2D, patch, subPatchX, subPatchY);
           if (patch.getStructure()[i][j].button()) {
             drawCenteredButton(graphics2D, subPatchX, subPatchY, PATCHTILESIZE, PATCHTILESIZE, BUTTON_COLORS[0],
@@ -385,8 +649,6 @@ public class GraphicalView implements View {
         }
       }
     }
-    drawPriceTag(graphics2D, patch, patch.getX() + patch.getStructure()[0].length * PATCHTILESIZE, patch.getY(),
-                 PATCHTILESIZE, darkerColor(new Color(254, 251, 234), 10));
   }
 
 
@@ -402,7 +664,7 @@ public class GraphicalView implements View {
     graphics2D.setColor(Color.BLACK);
     graphics2D.fill(new Rectangle2D.Float(subPatchX, subPatchY, PATCHTILESIZE, PATCHTILESIZE));
     // TODO saturation issue, colors are too saturated, change colors in complexPatches.txt file.
-    graphics2D.setColor(darkerColor(patch.getColor(), 25));
+    graphics2D.setColor(shadeOf(patch.getColor()));
     graphics2D.fill(
             new Rectangle2D.Float(subPatchX + TILESMARGIN, subPatchY + TILESMARGIN, PATCHTILESIZE - TILESMARGIN * 2,
                                   PATCHTILESIZE - TILESMARGIN * 2));
@@ -410,111 +672,164 @@ public class GraphicalView implements View {
 
   @Override
   public void displayPatches(Patches patches) {
-    context.renderFrame(graphics2D -> drawPatches(graphics2D, patches));
+    Objects.requireNonNull(patches);
+    var shown = patchesSnapshot(patches);
+    scene.updateAndGet(current -> current.withPatches(shown));
+  }
 
+  /**
+   * Takes a snapshot of the patches, copies of them in the order they are laid out on the screen.
+   *
+   * @param patches the patches which needs to be drawn
+   * @return the snapshot, from the patch following the neutral pawn
+   */
+  private static Scene.PatchesSnapshot patchesSnapshot(Patches patches) {
+    List<Patch> patchesList = patches.getPatchesList();
+    var shown = new ArrayList<Patch>(patchesList.size());
+    for (int i = 0; i < patchesList.size(); i++) {
+      shown.add(patchesList.get((patches.getNeutralPawnIndex() + i) % patchesList.size()).copy());
+    }
+    return new Scene.PatchesSnapshot(shown);
   }
 
   /**
    * Returns the x-coordinate of the left edge of the quilt board on the screen.
    *
-   * @param quiltBoard The QuiltBoard object that holds information about the quilt board
+   * @param slot The slot of the player of the quilt board
    * @return The x-coordinate of the left edge of the quilt board on the screen
    */
-  private float quiltBoardStartingX(QuiltBoard quiltBoard) {
-    if (quiltBoard.getOwner() == 1) {
+  private float quiltBoardStartingX(int slot) {
+    if (slot == 1) {
       return QUILTBOARDTILESIZE + QUILTOARDOUTERMARGIN;
     }
     return screenWidth - QUILTBOARDSIZE - QUILTBOARDTILESIZE - QUILTOARDOUTERMARGIN * 2;
   }
 
   /**
-   * Draws a quilt board on the screen using the Graphics2D object and a Player object
+   * Draws a quilt board on the screen using the Graphics2D object and a snapshot of the quilt board
    *
    * @param graphics2D The Graphics2D object used to draw the quilt board
-   * @param player     The player object that holds information about the quilt board
+   * @param quiltBoard The snapshot that holds information about the quilt board
    */
-  private void drawQuiltBoard(Graphics2D graphics2D, Player player) {
-    QuiltBoard playersQuiltBoard = player.getQuiltBoard();
-    float quiltBoardLeftX = quiltBoardStartingX(playersQuiltBoard);
-    graphics2D.setColor(darkerColor(playersQuiltBoard.getColor(), 30));
-    graphics2D.fill(
-            new Rectangle2D.Float(quiltBoardLeftX - QUILTOARDOUTERMARGIN, quiltBoardStartingY - QUILTOARDOUTERMARGIN,
-                                  QUILTBOARDSIZE + QUILTOARDOUTERMARGIN * 2,
-                                  QUILTBOARDSIZE + QUILTOARDOUTERMARGIN * 2));
-    writeQuiltBoardInfo(graphics2D, player, quiltBoardLeftX, darkerColor(playersQuiltBoard.getColor(), 70));
+  private void drawQuiltBoard(Graphics2D graphics2D, Scene.QuiltBoardSnapshot quiltBoard) {
+    float quiltBoardLeftX = quiltBoardStartingX(quiltBoard.slot());
+    var layer = quiltBoardLayers.computeIfAbsent(quiltBoard.color(), color -> {
+      var image = createLayer(graphics2D, QUILTBOARDSIZE + QUILTOARDOUTERMARGIN * 2,
+                              QUILTBOARDSIZE + QUILTOARDOUTERMARGIN * 2);
+      var layerGraphics = image.createGraphics();
+      try {
+        layerGraphics.setRenderingHints(graphics2D.getRenderingHints());
+        layerGraphics.translate(QUILTOARDOUTERMARGIN - quiltBoardLeftX, QUILTOARDOUTERMARGIN - quiltBoardStartingY);
+        drawEmptyQuiltBoard(layerGraphics, color, quiltBoardLeftX);
+      } finally {
+        layerGraphics.dispose();
+      }
+      return image;
+    });
+    graphics2D.drawImage(layer, Math.round(quiltBoardLeftX - QUILTOARDOUTERMARGIN),
+                         Math.round(quiltBoardStartingY - QUILTOARDOUTERMARGIN), null);
+    countImage(graphics2D);
+    writeQuiltBoardInfo(graphics2D, quiltBoard, quiltBoardLeftX, darkerColor(quiltBoard.color(), 70));
 
-    drawQuiltBoardTiles(graphics2D, playersQuiltBoard, quiltBoardLeftX);
+    drawQuiltBoardTiles(graphics2D, quiltBoard, quiltBoardLeftX);
 
   }
 
   /**
-   * Draws the quilt board tiles on the screen using the Graphics2D object, the QuiltBoard object and the Color object
+   * Draws a quilt board without any patch, its margin and its empty tiles, to be cached.
    *
-   * @param graphics2D        The Graphics2D object used to draw the quilt board tiles
-   * @param playersQuiltBoard The QuiltBoard object that holds information about the quilt board
-   * @param quiltBoardLeftX   The x-coordinate of the left edge of the quilt board on the screen
+   * @param graphics2D      The Graphics2D object used to draw the quilt board
+   * @param color           The color of the quilt board
+   * @param quiltBoardLeftX The x-coordinate of the left edge of the quilt board on the screen
    */
-  private void drawQuiltBoardTiles(Graphics2D graphics2D, QuiltBoard playersQuiltBoard, float quiltBoardLeftX) {
-    for (int i = 0; i < playersQuiltBoard.getQBOARDSIZE(); i++) {
-      for (int j = 0; j < playersQuiltBoard.getQBOARDSIZE(); j++) {
+  private void drawEmptyQuiltBoard(Graphics2D graphics2D, Color color, float quiltBoardLeftX) {
+    graphics2D.setColor(darkerColor(color, 30));
+    graphics2D.fill(
+            new Rectangle2D.Float(quiltBoardLeftX - QUILTOARDOUTERMARGIN, quiltBoardStartingY - QUILTOARDOUTERMARGIN,
+                                  QUILTBOARDSIZE + QUILTOARDOUTERMARGIN * 2,
+                                  QUILTBOARDSIZE + QUILTOARDOUTERMARGIN * 2));
+    for (int i = 0; i < QUILTBOARD_SIDE; i++) {
+      for (int j = 0; j < QUILTBOARD_SIDE; j++) {
         float patchX = quiltBoardLeftX + j * QUILTBOARDTILESIZE;
         float patchY = quiltBoardStartingY + i * QUILTBOARDTILESIZE;
         graphics2D.setColor(Color.BLACK);
         graphics2D.fill(new Rectangle2D.Float(patchX, patchY, QUILTBOARDTILESIZE, QUILTBOARDTILESIZE));
-        if (detectAndDrawPatchSpace(graphics2D, playersQuiltBoard, i, j, patchX, patchY)) continue;
-        graphics2D.setColor(playersQuiltBoard.getColor());
+        graphics2D.setColor(color);
         graphics2D.fill(new Rectangle2D.Float(patchX + TILESMARGIN, patchY + TILESMARGIN, QUILTBOARDSPACESIZE,
                                               QUILTBOARDSPACESIZE));
       }
     }
   }
 
-  private boolean detectAndDrawPatchSpace(Graphics2D graphics2D, QuiltBoard playersQuiltBoard, int i, int j,
-                                          float patchX, float patchY) {
-    if (playersQuiltBoard.getStructure()[i][j] != null) {
-      graphics2D.setColor(playersQuiltBoard.getStructure()[i][j].color());
+  /**
+   * Draws the patched tiles of a quilt board on top of its cached empty tiles, those out of the clip are skipped.
+   *
+   * @param graphics2D      The Graphics2D object used to draw the quilt board tiles
+   * @param quiltBoard      The snapshot that holds information about the quilt board
+   * @param quiltBoardLeftX The x-coordinate of the left edge of the quilt board on the screen
+   */
+  private void drawQuiltBoardTiles(Graphics2D graphics2D, Scene.QuiltBoardSnapshot quiltBoard, float quiltBoardLeftX) {
+    for (int i = 0; i < QUILTBOARD_SIDE; i++) {
+      for (int j = 0; j < QUILTBOARD_SIDE; j++) {
+        float patchX = quiltBoardLeftX + j * QUILTBOARDTILESIZE;
+        float patchY = quiltBoardStartingY + i * QUILTBOARDTILESIZE;
+        if (graphics2D.hitClip(Math.round(patchX), Math.round(patchY), QUILTBOARDTILESIZE, QUILTBOARDTILESIZE)) {
+          detectAndDrawPatchSpace(graphics2D, quiltBoard.spaces().get(i * QUILTBOARD_SIDE + j), patchX, patchY);
+        }
+      }
+    }
+  }
+
+  private boolean detectAndDrawPatchSpace(Graphics2D graphics2D, PatchSpace space, float patchX, float patchY) {
+    if (space != null) {
+      graphics2D.setColor(space.color());
       graphics2D.fill(new Rectangle2D.Float(patchX + TILESMARGIN, patchY + TILESMARGIN, QUILTBOARDSPACESIZE,
                                             QUILTBOARDSPACESIZE));
-      drawButtonOnPatchSpace(graphics2D, playersQuiltBoard, i, j, patchX, patchY);
+      countShape(graphics2D);
+      drawButtonOnPatchSpace(graphics2D, space, patchX, patchY);
       return true;
     }
     return false;
   }
 
-  private void drawButtonOnPatchSpace(Graphics2D graphics2D, QuiltBoard playersQuiltBoard, int i, int j, float patchX,
-                                      float patchY) {
-    if (playersQuiltBoard.getStructure()[i][j].button()) {
+  private void drawButtonOnPatchSpace(Graphics2D graphics2D, PatchSpace space, float patchX, float patchY) {
+    if (space.button()) {
       drawCenteredButton(graphics2D, patchX, patchY, QUILTBOARDTILESIZE, QUILTBOARDTILESIZE, BUTTON_COLORS[0],
                          BUTTON_COLORS[1], Color.BLACK);
     }
   }
 
   /**
-   * Writes the quiltboard info on the screen using the Graphics2D object, the Player object and the Color object
+   * Writes the quiltboard info on the screen using the Graphics2D object, the snapshot and the Color object
    *
    * @param graphics2D      The Graphics2D object used to write the quilt board characteristics
-   * @param player          The player object that holds information about the quilt board
+   * @param quiltBoard      The snapshot that holds information about the quilt board
    * @param quiltBoardLeftX The x-coordinate of the left edge of the quilt board on the screen
    * @param color           The color of the text for the quilt board characteristics
    */
-  private void writeQuiltBoardInfo(Graphics2D graphics2D, Player player, float quiltBoardLeftX, Color color) {
+  private void writeQuiltBoardInfo(Graphics2D graphics2D, Scene.QuiltBoardSnapshot quiltBoard, float quiltBoardLeftX,
+                                   Color color) {
     graphics2D.setColor(color);
-    graphics2D.setFont(new Font(Font.MONOSPACED, Font.PLAIN, QUILTBOARDTILESIZE / 2));
+    graphics2D.setFont(QUILTBOARD_NAME_FONT);
     float ownerX = quiltBoardLeftX - QUILTOARDOUTERMARGIN + (QUILTBOARDSIZE + QUILTOARDOUTERMARGIN * 2) / 2 -
-                   graphics2D.getFontMetrics().stringWidth(player.getName() + "'s Quiltboard") / 2.0F;
+                   graphics2D.getFontMetrics().stringWidth(quiltBoard.name() + "'s Quiltboard") / 2.0F;
     float ownerY = quiltBoardStartingY - QUILTOARDOUTERMARGIN - 5;
-    graphics2D.drawString(player.getName() + "'s Quiltboard", ownerX, ownerY);
+    graphics2D.drawString(quiltBoard.name() + "'s Quiltboard", ownerX, ownerY);
+    countShape(graphics2D);
     float incomeY = quiltBoardStartingY - QUILTOARDOUTERMARGIN + (QUILTBOARDSIZE + QUILTOARDOUTERMARGIN * 2) +
                     graphics2D.getFontMetrics().getAscent();
     float incomeX = quiltBoardLeftX - QUILTOARDOUTERMARGIN;
-    graphics2D.setFont(new Font(Font.MONOSPACED, Font.PLAIN, Math.round(QUILTBOARDTILESIZE / 2.5F)));
-    graphics2D.drawString("income : " + player.getQuiltBoard().getTotalIncome() + "   Buttons : " + player.getButtons(),
-                          incomeX, incomeY);
+    graphics2D.setFont(QUILTBOARD_INFO_FONT);
+    graphics2D.drawString("income : " + quiltBoard.income() + "   Buttons : " + quiltBoard.buttons(), incomeX,
+                          incomeY);
+    countShape(graphics2D);
   }
 
   @Override
   public void displayQuiltBoard(Player player) {
-    context.renderFrame(graphics2D -> drawQuiltBoard(graphics2D, player));
+    Objects.requireNonNull(player);
+    var shown = Scene.QuiltBoardSnapshot.of(player, gameController.slotOf(player));
+    scene.updateAndGet(current -> current.withQuiltBoard(shown));
   }
 
 
@@ -530,6 +845,7 @@ public class GraphicalView implements View {
   private void drawGenericSpace(Graphics2D graphics2D, float x, float y, int size, Color color) {
     graphics2D.setColor(color);
     graphics2D.fill(new Rectangle2D.Float(x, y, size, size));
+    countShape(graphics2D);
   }
 
   /**
@@ -539,7 +855,7 @@ public class GraphicalView implements View {
    * @param i     The amount by which the color will be lightened
    * @return A new Color object that is a lighter version of the input color
    */
-  private Color lighterColor(Color color, int i) {
+  private static Color lighterColor(Color color, int i) {
     return new Color(Math.min(255, color.getRed() + i), Math.min(255, color.getGreen() + i),
                      Math.min(255, color.getBlue() + i));
   }
@@ -551,177 +867,162 @@ public class GraphicalView implements View {
    * @param i     The amount by which the color will be darkened
    * @return A new Color object that is a darker version of the input color
    */
-  private Color darkerColor(Color color, int i) {
+  private static Color darkerColor(Color color, int i) {
     return new Color(Math.max(0, color.getRed() - i), Math.max(0, color.getGreen() - i),
                      Math.max(0, color.getBlue() - i));
   }
 
-  private void writeTimeBoardInfo(Graphics2D graphics2D, Player playing, Color marginColor) {
+  private void writeTimeBoardInfo(Graphics2D graphics2D, String playing, Color marginColor) {
     graphics2D.setColor(marginColor);
-    graphics2D.setFont(new Font(Font.MONOSPACED, Font.PLAIN, TIMEBOARDTILESIZE / 2));
+    graphics2D.setFont(TIMEBOARD_FONT);
     float whoseTurnX = timeBoardStartingtX - TIMEBOARDOUTERMARGIN + (TIMEBOARDSIZE + TIMEBOARDOUTERMARGIN * 2) / 2 -
-                       graphics2D.getFontMetrics().stringWidth(playing.getName() + "'s Turn") / 2.0F;
+                       graphics2D.getFontMetrics().stringWidth(playing + "'s Turn") / 2.0F;
     float whoseTurnY = timeBoardStartingY - TIMEBOARDOUTERMARGIN - 5;
-    graphics2D.drawString(playing.getName() + "'s turn", whoseTurnX, whoseTurnY);
+    graphics2D.drawString(playing + "'s turn", whoseTurnX, whoseTurnY);
+    countShape(graphics2D);
   }
 
   /**
-   * Draws the time board using the Graphics2D object, a TimeBoard object, and two Player objects.
+   * Draws the time board using the Graphics2D object and a snapshot of the time board: the cached tiles, then the
+   * special patches left and the tokens.
    *
    * @param graphics2D The Graphics2D object used to draw the time board
-   * @param timeBoard  The TimeBoard object that holds information about the time board
-   * @param player1    The first Player object
-   * @param player2    The second Player object
+   * @param snapshot   The snapshot that holds information about the time board
    */
-  private void drawTimeBoard(Graphics2D graphics2D, TimeBoard timeBoard, Player player1, Player player2) {
-    Color marginColor = new Color(102, 106, 154);
-    graphics2D.setColor(marginColor);
-    graphics2D.fill(
-            new Rectangle2D.Float(timeBoardStartingtX - TIMEBOARDOUTERMARGIN, timeBoardStartingY - TIMEBOARDOUTERMARGIN,
-                                  TIMEBOARDSIZE + TIMEBOARDOUTERMARGIN * 2, TIMEBOARDSIZE + TIMEBOARDOUTERMARGIN * 2));
-    writeTimeBoardInfo(graphics2D, gameController.whoseTurnIsIt(), darkerColor(marginColor, 50));
-
-    Color[] tileColors = {new Color(170, 150, 39), new Color(139, 114, 51)};
-    Color[] patchColors = {new Color(110, 46, 36), new Color(110, 39, 29)};
-    Color voidSpaceColor = new Color(230, 95, 71);
-
-    drawTimeBoardTiles(graphics2D, timeBoard, player1, player2, tileColors, patchColors, voidSpaceColor);
+  private void drawTimeBoard(Graphics2D graphics2D, Scene.TimeBoardSnapshot snapshot) {
+    if (timeBoardLayer == null) {
+      timeBoardLayer = createLayer(graphics2D, TIMEBOARDSIZE + TIMEBOARDOUTERMARGIN * 2,
+                                   TIMEBOARDSIZE + TIMEBOARDOUTERMARGIN * 2);
+      var layerGraphics = timeBoardLayer.createGraphics();
+      try {
+        layerGraphics.setRenderingHints(graphics2D.getRenderingHints());
+        layerGraphics.translate(TIMEBOARDOUTERMARGIN - timeBoardStartingtX, TIMEBOARDOUTERMARGIN - timeBoardStartingY);
+        drawEmptyTimeBoard(layerGraphics, snapshot.timeBoard());
+      } finally {
+        layerGraphics.dispose();
+      }
+    }
+    graphics2D.drawImage(timeBoardLayer, Math.round(timeBoardStartingtX - TIMEBOARDOUTERMARGIN),
+                         Math.round(timeBoardStartingY - TIMEBOARDOUTERMARGIN), null);
+    countImage(graphics2D);
+    writeTimeBoardInfo(graphics2D, snapshot.playing(), TIMEBOARD_TEXT_COLOR);
+    drawTimeBoardTiles(graphics2D, snapshot);
   }
 
   /**
-   * Draws the tiles of the time board using the Graphics2D object, a TimeBoard object, two Player objects, a starting x
-   * and y coordinate, arrays of colors for the tiles, patches, and buttons, and a color for void spaces.
+   * Computes the x-coordinate of a tile of the time board.
    *
-   * @param graphics2D     The Graphics2D object used to draw the time board tiles
-   * @param timeBoard      The TimeBoard object that holds information about the time board
-   * @param player1        The first Player object
-   * @param player2        The second Player object
-   * @param tileColors     An array of colors for the tiles
-   * @param patchColors    An array of colors for the patches
-   * @param voidSpaceColor The color for void spaces
+   * @param timeBoard The TimeBoard object that holds information about the time board
+   * @param position  The position of the tile on the time board
+   * @return The x-coordinate of the tile
    */
-  private void drawTimeBoardTiles(Graphics2D graphics2D, TimeBoard timeBoard, Player player1, Player player2,
-                                  Color[] tileColors, Color[] patchColors, Color voidSpaceColor) {
-    for (int position = 0; position < timeBoard.getSpiralPathCoordinates().size(); position++) {
-      float tileX =
-              timeBoardStartingtX + timeBoard.getSpiralPathCoordinates().get(position).column() * TIMEBOARDTILESIZE;
-      float tileY = timeBoardStartingY + timeBoard.getSpiralPathCoordinates().get(position).line() * TIMEBOARDTILESIZE;
-      graphics2D.setColor(Color.BLACK);
-      graphics2D.fill(new Rectangle2D.Float(tileX, tileY, TIMEBOARDTILESIZE, TIMEBOARDTILESIZE));
-      drawPlayerAndItem(graphics2D, timeBoard, lighterColor(tileColors[position % 2], position),
-                        patchColors[position % 2], voidSpaceColor, position, tileX + TILESMARGIN, tileY + TILESMARGIN,
-                        player1, player2);
-    }
+  private float tileX(TimeBoard timeBoard, int position) {
+    return timeBoardStartingtX + timeBoard.getSpiralPathCoordinates().get(position).column() * TIMEBOARDTILESIZE;
   }
 
   /**
-   * Determines whether the input position contains both of the input players.
+   * Computes the y-coordinate of a tile of the time board.
    *
-   * @param position The position to check
-   * @param player1  The first player
-   * @param player2  The second player
-   * @return true if the input position contains both of the input players, false otherwise
+   * @param timeBoard The TimeBoard object that holds information about the time board
+   * @param position  The position of the tile on the time board
+   * @return The y-coordinate of the tile
    */
-  private boolean containsPlayers(int position, Player player1, Player player2) {
-    return player1.getPosition() == position || player2.getPosition() == position;
+  private float tileY(TimeBoard timeBoard, int position) {
+    return timeBoardStartingY + timeBoard.getSpiralPathCoordinates().get(position).line() * TIMEBOARDTILESIZE;
   }
 
   /**
-   * Determines whether the input position contains the input player.
+   * Draws what never changes on the time board, to be cached: its margin and its tiles with their void spaces and
+   * buttons.
    *
-   * @param position The position to check
-   * @param player   The player to check for
-   * @return true if the input position contains the input player, false otherwise
+   * @param graphics2D The Graphics2D object used to draw the time board
+   * @param timeBoard  The TimeBoard object that holds information about the time board
    */
-  private boolean containsPlayer(int position, Player player) {
-    return player.getPosition() == position;
+  private void drawEmptyTimeBoard(Graphics2D graphics2D, TimeBoard timeBoard) {
+    graphics2D.setColor(TIMEBOARD_MARGIN_COLOR);
+    graphics2D.fill(
+            new Rectangle2D.Float(timeBoardStartingtX - TIMEBOARDOUTERMARGIN, timeBoardStartingY - TIMEBOARDOUTERMARGIN,
+                                  TIMEBOARDSIZE + TIMEBOARDOUTERMARGIN * 2, TIMEBOARDSIZE + TIMEBOARDOUTERMARGIN * 2));
+    for (int position = 0; position < timeBoard.getSpiralPathCoordinates().size(); position++) {
+      float tileX = tileX(timeBoard, position);
+      float tileY = tileY(timeBoard, position);
+      graphics2D.setColor(Color.BLACK);
+      graphics2D.fill(new Rectangle2D.Float(tileX, tileY, TIMEBOARDTILESIZE, TIMEBOARDTILESIZE));
+      drawItem(graphics2D, timeBoard, lighterColor(TIMEBOARD_TILE_COLORS[position % 2], position), position,
+               tileX + TILESMARGIN, tileY + TILESMARGIN);
+    }
   }
 
   /**
-   * Given a TimeBoard object, two Player objects, and a position, returns the Player object that should be drawn on top
-   * at that position.
+   * Draws the tiles of the time board that change during the game, on top of the cached tiles: the special patches
+   * that are left and the tokens of the players.
    *
-   * @param timeBoard The TimeBoard object that holds information about the players' positions
-   * @param player1   The first Player object
-   * @param player2   The second Player object
-   * @param position  The position to check
-   * @return The Player object that should be drawn on top at the input position
+   * @param graphics2D The Graphics2D object used to draw the time board tiles
+   * @param snapshot   The snapshot that holds information about the time board
    */
-  private Player whichPlayerToDraw(TimeBoard timeBoard, Player player1, Player player2, int position) {
-    if (containsPlayer(position, player1) && containsPlayer(position, player2)) {
-      if (timeBoard.getPlayerOnTop().equals(player1)) {
-        return player1;
+  private void drawTimeBoardTiles(Graphics2D graphics2D, Scene.TimeBoardSnapshot snapshot) {
+    var timeBoard = snapshot.timeBoard();
+    for (int position : snapshot.specialPatches()) {
+      if (!timeBoard.isVoidSpace(position)) {
+        drawGenericSpace(graphics2D, tileX(timeBoard, position) + TILESMARGIN, tileY(timeBoard, position) + TILESMARGIN,
+                         TIMEBOARDSPACESIZE, TIMEBOARD_PATCH_COLORS[position % 2]);
       }
-      return player2;
     }
-    if (containsPlayer(position, player1)) {
-      return player1;
+    // When both tokens share a tile, only the one on top shows.
+    if (snapshot.position1() != snapshot.position2() || snapshot.player1OnTop()) {
+      drawToken(graphics2D, timeBoard, snapshot.position1(), snapshot.color1());
+    }
+    if (snapshot.position1() != snapshot.position2() || !snapshot.player1OnTop()) {
+      drawToken(graphics2D, timeBoard, snapshot.position2(), snapshot.color2());
     }
-    return player2;
   }
 
   /**
-   * Draws a player using the Graphics2D object, a Player object, and x and y coordinates.
+   * Draws the token of a player on its tile of the time board, a token past the last tile isn't drawn.
+   *
+   * @param graphics2D The Graphics2D object used to draw the token
+   * @param timeBoard  The TimeBoard object that holds information about the time board
+   * @param position   The position of the player
+   * @param color      The color of the player
+   */
+  private void drawToken(Graphics2D graphics2D, TimeBoard timeBoard, int position, Color color) {
+    if (position < timeBoard.getSpiralPathCoordinates().size()) {
+      drawPlayer(graphics2D, color, tileX(timeBoard, position) + TILESMARGIN, tileY(timeBoard, position) + TILESMARGIN);
+    }
+  }
+
+  /**
+   * Draws a player using the Graphics2D object, the color of the player, and x and y coordinates.
    *
    * @param graphics2D The Graphics2D object used to draw the player
-   * @param player     The Player object that holds information about the player
+   * @param color      The color of the player
    * @param tileX      The x-coordinate of the player
    * @param tileY      The y-coordinate of the player
    */
-  private void drawPlayer(Graphics2D graphics2D, Player player, float tileX, float tileY) {
-    drawCenteredEllipse(graphics2D, darkerColor(player.getColor(), 25), tileX, tileY, TIMEBOARDSPACESIZE / 1.4F,
+  private void drawPlayer(Graphics2D graphics2D, Color color, float tileX, float tileY) {
+    drawCenteredEllipse(graphics2D, shadeOf(color), tileX, tileY, TIMEBOARDSPACESIZE / 1.4F,
                         TIMEBOARDSPACESIZE / 1.4F, TIMEBOARDSPACESIZE, TIMEBOARDSPACESIZE);
-    drawCenteredEllipse(graphics2D, player.getColor(), tileX - (TIMEBOARDSPACESIZE / 1.4F) / 10,
+    drawCenteredEllipse(graphics2D, color, tileX - (TIMEBOARDSPACESIZE / 1.4F) / 10,
                         tileY - (TIMEBOARDSPACESIZE / 1.4F) / 10, TIMEBOARDSPACESIZE / 1.4F, TIMEBOARDSPACESIZE / 1.4F,
                         TIMEBOARDSPACESIZE, TIMEBOARDSPACESIZE);
   }
 
   /**
-   * Draws a player and an item (e.g. patch, button, void space) on a tile of the time board using the Graphics2D
-   * object, a TimeBoard object, and two Player objects, along with arrays of colors for the tile, patch, button, and
-   * void space.
-   *
-   * @param graphics2D     The Graphics2D object used to draw the player and item
-   * @param timeBoard      The TimeBoard object that holds information about the time board
-   * @param tileColor      The color of the tile
-   * @param patchColor     The color of the patch
-   * @param voidSpaceColor The color of the void space
-   * @param position       The position of the tile on the time board
-   * @param tileX          The x-coordinate of the tile
-   * @param tileY          The y-coordinate of the tile
-   * @param player1        The first Player object
-   * @param player2        The second Player object
-   */
-  private void drawPlayerAndItem(Graphics2D graphics2D, TimeBoard timeBoard, Color tileColor, Color patchColor,
-                                 Color voidSpaceColor, int position, float tileX, float tileY, Player player1,
-                                 Player player2) {
-    drawItem(graphics2D, timeBoard, tileColor, patchColor, voidSpaceColor, position, tileX, tileY);
-    if (containsPlayers(position, player1, player2)) {
-      drawPlayer(graphics2D, whichPlayerToDraw(timeBoard, player1, player2, position), tileX, tileY);
-    }
-  }
-
-
-  /**
-   * Draws an item (e.g. patch, button, void space) on a tile of the time board using the Graphics2D object, a TimeBoard
-   * object, and arrays of colors for the tile, patch, button, and void space.
+   * Draws the item of a tile of the time board that never changes (void space or button) using the Graphics2D object,
+   * a TimeBoard object, and the color of the tile.
    *
-   * @param graphics2D     The Graphics2D object used to draw the item
-   * @param timeBoard      The TimeBoard object that holds information about the time board
-   * @param tileColor      The color of the tile
-   * @param patchColor     The color of the patch
-   * @param voidSpaceColor The color of the void space
-   * @param position       The position of the tile on the time board
-   * @param tileX          The x-coordinate of the tile
-   * @param tileY          The y-coordinate of the tile
+   * @param graphics2D The Graphics2D object used to draw the item
+   * @param timeBoard  The TimeBoard object that holds information about the time board
+   * @param tileColor  The color of the tile
+   * @param position   The position of the tile on the time board
+   * @param tileX      The x-coordinate of the tile
+   * @param tileY      The y-coordinate of the tile
    */
-  private void drawItem(Graphics2D graphics2D, TimeBoard timeBoard, Color tileColor, Color patchColor,
-                        Color voidSpaceColor, int position, float tileX, float tileY) {
+  private void drawItem(Graphics2D graphics2D, TimeBoard timeBoard, Color tileColor, int position, float tileX,
+                        float tileY) {
     drawGenericSpace(graphics2D, tileX, tileY, TIMEBOARDSPACESIZE, lighterColor(tileColor, position));
     if (timeBoard.isVoidSpace(position)) {
-      drawGenericSpace(graphics2D, tileX, tileY, TIMEBOARDSPACESIZE, voidSpaceColor);
-    } else if (timeBoard.spaceContainsPatch(position)) {
-      drawGenericSpace(graphics2D, tileX, tileY, TIMEBOARDSPACESIZE, patchColor);
+      drawGenericSpace(graphics2D, tileX, tileY, TIMEBOARDSPACESIZE, VOID_SPACE_COLOR);
     } else if (timeBoard.spaceContainsButton(position)) {
       drawCenteredButton(graphics2D, tileX, tileY, TIMEBOARDSPACESIZE, TIMEBOARDSPACESIZE, BUTTON_COLORS[0],
                          BUTTON_COLORS[1], Color.BLACK);
@@ -813,10 +1114,339 @@ public class GraphicalView implements View {
     graphics2D.fillOval(Math.round(tileX + (rectangleWidth - ellipseWidth) / 2),
                         Math.round(tileY + (rectangleHeight - ellipseLength) / 2), Math.round(ellipseWidth),
                         Math.round(ellipseLength));
+    countShape(graphics2D);
   }
 
   @Override
   public void displayTimeBoard(TimeBoard timeBoard, Player player1, Player player2) {
-    context.renderFrame(graphics2D -> drawTimeBoard(graphics2D, timeBoard, player1, player2));
+    Objects.requireNonNull(timeBoard);
+    Objects.requireNonNull(player1);
+    Objects.requireNonNull(player2);
+    var shown = Scene.TimeBoardSnapshot.of(timeBoard, player1, player2, gameController.whoseTurnIsIt());
+    scene.updateAndGet(current -> current.withTimeBoard(shown));
+  }
+
+  /**
+   * Displays a whole game at once, its time board, both quilt boards and the patches, without a controller. It is
+   * meant to render saved or replayed games, see FrameRenderer.
+   *
+   * @param state The state of the game.
+   */
+  public void displayState(GameState state) {
+    Objects.requireNonNull(state);
+    scene.set(Scene.EMPTY
+                      .withTimeBoard(Scene.TimeBoardSnapshot.of(state.timeBoard(), state.player1(), state.player2(),
+                                                                state.playerToMove()))
+                      .withQuiltBoard(Scene.QuiltBoardSnapshot.of(state.player1(), 1))
+                      .withQuiltBoard(Scene.QuiltBoardSnapshot.of(state.player2(), 2))
+                      .withPatches(patchesSnapshot(state.patches())));
+  }
+
+  /**
+   * Renders one frame with everything displayed since the previous one, only the regions of the screen that changed
+   * are repainted, and the metrics overlay if it is shown. Nothing is rendered if nothing changed. It has to be called
+   * on the thread of the application.
+   *
+   * @return true if a frame was rendered, false otherwise.
+   */
+  public boolean repaint() {
+    layout();
+    var shown = scene.get();
+    var regions = dirtyRegions(drawnScene, shown);
+    if (regions.isEmpty()) {
+      return false;
+    }
+    if (metricsOverlay) {
+      addRegion(regions, metricsArea());
+    }
+    var start = renderMetrics == null ? 0 : System.nanoTime();
+    context.renderFrame(graphics2D -> {
+      frameGraphics = graphics2D;
+      drawCalls = 0;
+      shapes = 0;
+      try {
+        for (var region : regions) {
+          graphics2D.setClip(region);
+          graphics2D.setColor(BACKGROUND);
+          graphics2D.fill(region);
+          countShape(graphics2D);
+          drawScene(graphics2D, shown);
+        }
+        if (metricsOverlay) {
+          graphics2D.setClip(metricsArea());
+          drawMetrics(graphics2D);
+        }
+        graphics2D.setClip(null);
+      } finally {
+        frameGraphics = null;
+      }
+    });
+    if (renderMetrics != null) {
+      renderMetrics.recordFrame(System.nanoTime() - start, drawCalls, shapes, 0);
+    }
+    drawnScene = shown;
+    return true;
+  }
+
+  /**
+   * Draws the metrics of the last frames in the top left corner of the screen: the median and the 99th percentile of
+   * the time of a frame, and the median of its draw calls and shapes.
+   *
+   * @param graphics2D The Graphics2D object used to draw the metrics
+   */
+  private void drawMetrics(Graphics2D graphics2D) {
+    var area = metricsArea();
+    graphics2D.setColor(METRICS_BACKGROUND);
+    graphics2D.fill(area);
+    countShape(graphics2D);
+    graphics2D.setColor(Color.WHITE);
+    graphics2D.setFont(METRICS_FONT);
+    graphics2D.drawString(String.format("frame %.2f/%.2f ms (p50/p99)  %d draw calls  %d shapes",
+                                        renderMetrics.percentile(RenderMetrics.Metric.FRAME_NANOS, 50) / 1e6,
+                                        renderMetrics.percentile(RenderMetrics.Metric.FRAME_NANOS, 99) / 1e6,
+                                        renderMetrics.percentile(RenderMetrics.Metric.DRAW_CALLS, 50),
+                                        renderMetrics.percentile(RenderMetrics.Metric.SHAPES, 50)),
+                          area.x + 4, area.y + area.height - 5);
+    countShape(graphics2D);
+  }
+
+  /**
+   * Computes the region of the screen of the metrics overlay, in the top left corner.
+   *
+   * @return The region
+   */
+  private static Rectangle metricsArea() {
+    return new Rectangle(0, 0, 480, 18);
+  }
+
+  /**
+   * Draws the parts of a scene that are within the clip of the graphics.
+   *
+   * @param graphics2D The Graphics2D object used to draw the scene
+   * @param shown      The scene to draw
+   */
+  private void drawScene(Graphics2D graphics2D, Scene shown) {
+    if (shown.timeBoard() != null && hitClip(graphics2D, timeBoardArea())) {
+      drawTimeBoard(graphics2D, shown.timeBoard());
+    }
+    for (var quiltBoard : shown.quiltBoards().values()) {
+      if (hitClip(graphics2D, quiltBoardArea(quiltBoard.slot()))) {
+        drawQuiltBoard(graphics2D, quiltBoard);
+      }
+    }
+    if (shown.patches() != null && hitClip(graphics2D, patchesArea())) {
+      drawPatches(graphics2D, shown.patches());
+    }
+  }
+
+  /**
+   * Determines whether a region of the screen intersects the clip of the graphics.
+   *
+   * @param graphics2D The Graphics2D object
+   * @param region     The region
+   * @return true if something drawn in the region can show, false otherwise
+   */
+  private static boolean hitClip(Graphics2D graphics2D, Rectangle region) {
+    return graphics2D.hitClip(region.x, region.y, region.width, region.height);
+  }
+
+  /**
+   * Computes the smallest region of pixels that contains a rectangle, with a pixel to spare around it for the
+   * rounding and the antialiasing.
+   *
+   * @param x      The x-coordinate of the rectangle
+   * @param y      The y-coordinate of the rectangle
+   * @param width  The width of the rectangle
+   * @param height The height of the rectangle
+   * @return The region
+   */
+  private static Rectangle bounds(float x, float y, float width, float height) {
+    int left = (int) Math.floor(x) - 1;
+    int top = (int) Math.floor(y) - 1;
+    return new Rectangle(left, top, (int) Math.ceil(x + width) + 1 - left, (int) Math.ceil(y + height) + 1 - top);
+  }
+
+  /**
+   * Computes the region of the screen of the time board, with its margin and the text above it.
+   *
+   * @return The region
+   */
+  private Rectangle timeBoardArea() {
+    return bounds(timeBoardStartingtX - TIMEBOARDOUTERMARGIN,
+                  timeBoardStartingY - TIMEBOARDOUTERMARGIN - TIMEBOARDTILESIZE,
+                  TIMEBOARDSIZE + TIMEBOARDOUTERMARGIN * 2,
+                  TIMEBOARDSIZE + TIMEBOARDOUTERMARGIN * 2 + TIMEBOARDTILESIZE);
+  }
+
+  /**
+   * Computes the region of the screen of the text above the time board.
+   *
+   * @return The region
+   */
+  private Rectangle timeBoardTextArea() {
+    return bounds(timeBoardStartingtX - TIMEBOARDOUTERMARGIN,
+                  timeBoardStartingY - TIMEBOARDOUTERMARGIN - TIMEBOARDTILESIZE,
+                  TIMEBOARDSIZE + TIMEBOARDOUTERMARGIN * 2, TIMEBOARDTILESIZE);
+  }
+
+  /**
+   * Computes the region of the screen of a quilt board, with its margin and the texts above and below it.
+   *
+   * @param slot The slot of the player of the quilt board
+   * @return The region
+   */
+  private Rectangle quiltBoardArea(int slot) {
+    return bounds(quiltBoardStartingX(slot) - QUILTOARDOUTERMARGIN,
+                  quiltBoardStartingY - QUILTOARDOUTERMARGIN - QUILTBOARDTILESIZE,
+                  QUILTBOARDSIZE + QUILTOARDOUTERMARGIN * 2,
+                  QUILTBOARDSIZE + QUILTOARDOUTERMARGIN * 2 + QUILTBOARDTILESIZE * 2);
+  }
+
+  /**
+   * Computes the region of the screen of the text above a quilt board, with the name of the player, or of the one
+   * below it, with the income and the buttons.
+   *
+   * @param slot  The slot of the player of the quilt board
+   * @param above Whether it is the text above the quilt board
+   * @return The region
+   */
+  private Rectangle quiltBoardTextArea(int slot, boolean above) {
+    float textY = above ? quiltBoardStartingY - QUILTOARDOUTERMARGIN - QUILTBOARDTILESIZE
+                        : quiltBoardStartingY + QUILTBOARDSIZE + QUILTOARDOUTERMARGIN;
+    return bounds(quiltBoardStartingX(slot) - QUILTOARDOUTERMARGIN, textY, QUILTBOARDSIZE + QUILTOARDOUTERMARGIN * 2,
+                  QUILTBOARDTILESIZE);
+  }
+
+  /**
+   * Computes the region of the screen of the patches, the whole width of the screen.
+   *
+   * @return The region
+   */
+  private Rectangle patchesArea() {
+    return bounds(0, patchesY(), screenWidth, 5 * PATCHTILESIZE);
+  }
+
+  /**
+   * Adds a region to the regions to repaint, merged with those it overlaps so no pixel is painted twice.
+   *
+   * @param regions The regions to repaint, none of them overlap
+   * @param region  The region to add
+   */
+  private static void addRegion(List<Rectangle> regions, Rectangle region) {
+    for (var iterator = regions.iterator(); iterator.hasNext(); ) {
+      var other = iterator.next();
+      if (other.intersects(region)) {
+        iterator.remove();
+        addRegion(regions, region.union(other));
+        return;
+      }
+    }
+    regions.add(region);
+  }
+
+  /**
+   * Computes the regions of the screen to repaint to go from the scene drawn to the next one.
+   *
+   * @param previous The scene drawn, null if the whole screen has to be painted
+   * @param next     The scene to draw
+   * @return The regions, none of them overlap
+   */
+  private List<Rectangle> dirtyRegions(Scene previous, Scene next) {
+    var regions = new ArrayList<Rectangle>();
+    if (previous == null) {
+      regions.add(new Rectangle(0, 0, (int) Math.ceil(screenWidth), (int) Math.ceil(screenHeight)));
+      return regions;
+    }
+    addTimeBoardRegions(regions, previous.timeBoard(), next.timeBoard());
+    for (var quiltBoard : next.quiltBoards().values()) {
+      addQuiltBoardRegions(regions, previous.quiltBoards().get(quiltBoard.slot()), quiltBoard);
+    }
+    if (next.patches() != null && !next.patches().sameLayout(previous.patches())) {
+      addRegion(regions, patchesArea());
+    }
+    return regions;
+  }
+
+  /**
+   * Adds the regions of the time board that changed: the text above it, the tiles along the paths the tokens took and
+   * the tiles of the special patches taken.
+   *
+   * @param regions  The regions to repaint
+   * @param previous The time board drawn, or null
+   * @param next     The time board to draw, or null
+   */
+  private void addTimeBoardRegions(List<Rectangle> regions, Scene.TimeBoardSnapshot previous,
+                                   Scene.TimeBoardSnapshot next) {
+    if (next == null || next.equals(previous)) {
+      return;
+    }
+    if (previous == null || previous.timeBoard() != next.timeBoard()) {
+      addRegion(regions, timeBoardArea());
+      return;
+    }
+    if (!previous.playing().equals(next.playing())) {
+      addRegion(regions, timeBoardTextArea());
+    }
+    var timeBoard = next.timeBoard();
+    addPathRegions(regions, timeBoard, previous.position1(), next.position1());
+    addPathRegions(regions, timeBoard, previous.position2(), next.position2());
+    if (previous.player1OnTop() != next.player1OnTop() || !previous.color1().equals(next.color1()) ||
+        !previous.color2().equals(next.color2())) {
+      addPathRegions(regions, timeBoard, next.position1(), next.position1());
+      addPathRegions(regions, timeBoard, next.position2(), next.position2());
+    }
+    for (int position : previous.specialPatches()) {
+      if (!next.specialPatches().contains(position)) {
+        addPathRegions(regions, timeBoard, position, position);
+      }
+    }
+  }
+
+  /**
+   * Adds the tiles of the time board between two positions, both included, to the regions to repaint.
+   *
+   * @param regions   The regions to repaint
+   * @param timeBoard The TimeBoard object that holds information about the time board
+   * @param from      The first position
+   * @param to        The last position
+   */
+  private void addPathRegions(List<Rectangle> regions, TimeBoard timeBoard, int from, int to) {
+    int last = Math.min(Math.max(from, to), timeBoard.getSpiralPathCoordinates().size() - 1);
+    for (int position = Math.min(from, to); position <= last; position++) {
+      addRegion(regions, bounds(tileX(timeBoard, position), tileY(timeBoard, position), TIMEBOARDTILESIZE,
+                                TIMEBOARDTILESIZE));
+    }
+  }
+
+  /**
+   * Adds the regions of a quilt board that changed: its texts and its tiles.
+   *
+   * @param regions  The regions to repaint
+   * @param previous The quilt board drawn, or null
+   * @param next     The quilt board to draw
+   */
+  private void addQuiltBoardRegions(List<Rectangle> regions, Scene.QuiltBoardSnapshot previous,
+                                    Scene.QuiltBoardSnapshot next) {
+    if (next.equals(previous)) {
+      return;
+    }
+    if (previous == null || !previous.color().equals(next.color())) {
+      addRegion(regions, quiltBoardArea(next.slot()));
+      return;
+    }
+    if (!previous.name().equals(next.name())) {
+      addRegion(regions, quiltBoardTextArea(next.slot(), true));
+    }
+    if (previous.income() != next.income() || previous.buttons() != next.buttons()) {
+      addRegion(regions, quiltBoardTextArea(next.slot(), false));
+    }
+    float quiltBoardLeftX = quiltBoardStartingX(next.slot());
+    for (int index = 0; index < next.spaces().size(); index++) {
+      if (!Objects.equals(previous.spaces().get(index), next.spaces().get(index))) {
+        addRegion(regions, bounds(quiltBoardLeftX + index % QUILTBOARD_SIDE * QUILTBOARDTILESIZE,
+                                  quiltBoardStartingY + index / QUILTBOARD_SIDE * QUILTBOARDTILESIZE,
+                                  QUILTBOARDTILESIZE, QUILTBOARDTILESIZE));
+      }
+    }
   }
 }
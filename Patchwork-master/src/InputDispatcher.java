@@ -0,0 +1,117 @@
+import fr.umlv.zen5.ApplicationContext;
+import fr.umlv.zen5.Event;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * A class that hands the key and pointer events of the application to the prompt the game is waiting on.
+ * <p>
+ * A prompt is registered from the thread of the game with {@link #await(Function)}, its interpreter turns the events
+ * into an answer. The events are drained and given to the interpreter on the thread of the application by
+ * {@link #dispatchPending(ApplicationContext)}, once per frame: the pointer moves in between two other events are
+ * coalesced into the last one, since only the final location of the pointer matters. Events that come when no prompt
+ * is waiting are dropped.
+ */
+public class InputDispatcher {
+  /**
+   * A record that represents a prompt waiting for an answer.
+   *
+   * @param interpreter The function that turns an event into the answer, or into an empty optional to keep waiting.
+   * @param answer      The future completed with the answer.
+   * @param <T>         The type of the answer.
+   */
+  private record Prompt<T>(Function<Event, Optional<T>> interpreter, CompletableFuture<T> answer) {
+    /**
+     * Gives an event to the interpreter and completes the answer if the event answers the prompt.
+     *
+     * @param event The event.
+     * @return true if the prompt is answered, false otherwise.
+     */
+    private boolean offer(Event event) {
+      Optional<T> value;
+      try {
+        value = interpreter.apply(event);
+      } catch (RuntimeException e) {
+        answer.completeExceptionally(e);
+        return true;
+      }
+      value.ifPresent(answer::complete);
+      return value.isPresent();
+    }
+  }
+
+  private final AtomicReference<Prompt<?>> pending = new AtomicReference<>();
+
+  /**
+   * Registers a prompt, the previous one is cancelled if it is still waiting.
+   *
+   * @param interpreter The function that turns an event into the answer, or into an empty optional to keep waiting.
+   * @param <T>         The type of the answer.
+   * @return A future completed with the answer on the thread of the application.
+   */
+  public <T> CompletableFuture<T> await(Function<Event, Optional<T>> interpreter) {
+    Objects.requireNonNull(interpreter);
+    var prompt = new Prompt<>(interpreter, new CompletableFuture<T>());
+    var previous = pending.getAndSet(prompt);
+    if (previous != null) {
+      previous.answer().cancel(false);
+    }
+    return prompt.answer();
+  }
+
+  /**
+   * Determines whether a prompt is waiting for an answer.
+   *
+   * @return true if the game waits for the player, false otherwise.
+   */
+  public boolean isWaiting() {
+    return pending.get() != null;
+  }
+
+  /**
+   * Gives an event to the waiting prompt, if there is one.
+   *
+   * @param event The event.
+   */
+  private void dispatch(Event event) {
+    var prompt = pending.get();
+    if (prompt != null && prompt.offer(event)) {
+      pending.compareAndSet(prompt, null);
+    }
+  }
+
+  /**
+   * Drains the events of the application and dispatches them in order, a run of pointer moves being dispatched as its
+   * last move only. It has to be called on the thread of the application.
+   *
+   * @param context The context of the application.
+   * @return The number of events dispatched.
+   */
+  public int dispatchPending(ApplicationContext context) {
+    Objects.requireNonNull(context);
+    var dispatched = 0;
+    Event move = null;
+    for (var event = context.pollEvent(); event != null; event = context.pollEvent()) {
+      if (event.getAction() == Event.Action.POINTER_MOVE) {
+        move = event;
+        continue;
+      }
+      if (move != null) {
+        dispatch(move);
+        dispatched++;
+        move = null;
+      }
+      dispatch(event);
+      dispatched++;
+    }
+    if (move != null) {
+      dispatch(move);
+      dispatched++;
+    }
+    return dispatched;
+  }
+}
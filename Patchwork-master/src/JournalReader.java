@@ -0,0 +1,243 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A class that reads back, one game at a time, the journals written by MoveJournal.
+ * <p>
+ * The file is read sequentially through a direct buffer, so a journal of any size can be read without loading it in
+ * memory. A journal whose last game was interrupted, by a crash for instance, is read up to its last complete move.
+ */
+public class JournalReader implements GameSource {
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+  /* The header of the next game, read while looking for the end of a game that never ended. */
+  private GameHeader nextHeader;
+  /* The position in the file right after the last complete record read. */
+  private long completeLength;
+  /* Whether the file ended, the bytes left being the start of a record cut short. */
+  private boolean exhausted;
+
+  /**
+   * A constructor for a JournalReader instance.
+   *
+   * @param path The path of the journal.
+   * @throws IOException If the file can't be opened or isn't a journal.
+   */
+  public JournalReader(Path path) throws IOException {
+    Objects.requireNonNull(path);
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    buffer.flip();
+    var magic = new byte[MoveJournal.MAGIC.length];
+    if (!ensure(magic.length + 1)) {
+      channel.close();
+      throw new IOException("Not a journal: " + path);
+    }
+    buffer.get(magic);
+    if (!Arrays.equals(magic, MoveJournal.MAGIC) || buffer.get() != MoveJournal.VERSION) {
+      channel.close();
+      throw new IOException("Not a journal, or a journal of another version: " + path);
+    }
+    completeLength = position();
+  }
+
+  /**
+   * Returns the position in the file of the next byte to read.
+   *
+   * @return The position.
+   * @throws IOException If the position of the file can't be read.
+   */
+  private long position() throws IOException {
+    return channel.position() - buffer.remaining();
+  }
+
+  /**
+   * Getter function for the length of the journal up to the end of the last complete record read, the records of a
+   * game interrupted in the middle of one end there.
+   *
+   * @return The length in bytes, the header of the journal included.
+   */
+  long getCompleteLength() {
+    return completeLength;
+  }
+
+  /**
+   * Makes sure the buffer holds at least the given number of bytes, reading more of the file if needed.
+   *
+   * @param size The number of bytes needed.
+   * @return false if the file ends before.
+   * @throws IOException If the file can't be read.
+   */
+  private boolean ensure(int size) throws IOException {
+    if (buffer.remaining() >= size) {
+      return true;
+    }
+    buffer.compact();
+    try {
+      while (buffer.position() < size) {
+        if (channel.read(buffer) == -1) {
+          exhausted = true;
+          return false;
+        }
+      }
+      return true;
+    } finally {
+      buffer.flip();
+    }
+  }
+
+  /**
+   * Reads an unsigned byte.
+   *
+   * @return The byte, between 0 and 255.
+   */
+  private int unsigned() {
+    return buffer.get() & 0xFF;
+  }
+
+  /**
+   * Reads the content of a GAME_START record, after its tag.
+   *
+   * @return The header of the game, or null if the journal ends within the record.
+   * @throws IOException If the file can't be read.
+   */
+  private GameHeader readHeader() throws IOException {
+    if (!ensure(3)) {
+      return null;
+    }
+    var fullVersion = buffer.get() == 1;
+    var firstPlayer = unsigned();
+    var names = new String[2];
+    for (int i = 0; i < names.length; i++) {
+      var length = unsigned();
+      if (!ensure(length + 1)) {
+        return null;
+      }
+      var bytes = new byte[length];
+      buffer.get(bytes);
+      names[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    var count = unsigned();
+    if (!ensure(count)) {
+      return null;
+    }
+    var dealOrder = new ArrayList<Integer>(count);
+    for (int i = 0; i < count; i++) {
+      dealOrder.add(unsigned());
+    }
+    return new GameHeader(fullVersion, names[0], names[1], firstPlayer, dealOrder);
+  }
+
+  /**
+   * Reads the content of a MOVE record, after its tag.
+   *
+   * @return The move, or null if the journal ends within the record.
+   * @throws IOException If the file can't be read.
+   */
+  private Move readMove() throws IOException {
+    if (!ensure(1)) {
+      return null;
+    }
+    var slot = unsigned();
+    Move move;
+    if ((slot & MoveJournal.PURCHASE_FLAG) != 0) {
+      if (!ensure(5)) {
+        return null;
+      }
+      var patchId = unsigned();
+      if (patchId == 255) {
+        patchId = -1;
+      }
+      var ringOffset = unsigned();
+      var orientation = unsigned();
+      var placement = new Point(unsigned(), unsigned());
+      move = Move.purchase(slot & ~MoveJournal.PURCHASE_FLAG, patchId, ringOffset, orientation & 3,
+                           (orientation & 4) != 0, placement);
+    } else {
+      move = Move.advance(slot);
+    }
+    if (!ensure(1)) {
+      return null;
+    }
+    var count = unsigned();
+    if (count == 0) {
+      return move;
+    }
+    if (!ensure(2 * count)) {
+      return null;
+    }
+    var specials = new Point[count];
+    for (int i = 0; i < count; i++) {
+      specials[i] = new Point(unsigned(), unsigned());
+    }
+    return move.withSpecialPatchPlacements(List.of(specials));
+  }
+
+  /**
+   * Reads the next game of the journal.
+   *
+   * @return The game, unfinished if the journal ends or another game starts before its end, or null if there are no
+   * more games.
+   * @throws IOException If the file can't be read or the journal is corrupted.
+   */
+  @Override
+  public GameRecord next() throws IOException {
+    var header = nextHeader;
+    nextHeader = null;
+    if (header == null) {
+      if (exhausted || !ensure(1)) {
+        return null;
+      }
+      if (buffer.get() != MoveJournal.GAME_START) {
+        throw new IOException("Corrupted journal, a game doesn't start with its header");
+      }
+      header = readHeader();
+      if (header == null) {
+        return null;
+      }
+      completeLength = position();
+    }
+    var moves = new ArrayList<Move>();
+    while (ensure(1)) {
+      switch (buffer.get()) {
+        case MoveJournal.MOVE -> {
+          var move = readMove();
+          if (move == null) {
+            return new GameRecord(header, moves, 0, 0);
+          }
+          moves.add(move);
+          completeLength = position();
+        }
+        case MoveJournal.GAME_END -> {
+          if (!ensure(3)) {
+            return new GameRecord(header, moves, 0, 0);
+          }
+          var record = new GameRecord(header, moves, unsigned(), buffer.getShort());
+          completeLength = position();
+          return record;
+        }
+        case MoveJournal.GAME_START -> {
+          nextHeader = readHeader();
+          if (nextHeader != null) {
+            completeLength = position();
+          }
+          return new GameRecord(header, moves, 0, 0);
+        }
+        default -> throw new IOException("Corrupted journal, unknown record");
+      }
+    }
+    return new GameRecord(header, moves, 0, 0);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
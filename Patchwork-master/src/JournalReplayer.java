@@ -0,0 +1,213 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A class that plays recorded games again through a GameController, as fast as the rules allow, to check that the
+ * rules still give the recorded results or to rebuild a game that was interrupted.
+ * <p>
+ * The patch catalogs are read once per replayer, every replayed game then gets its own copies of the patches, dealt in
+ * the recorded order.
+ */
+public class JournalReplayer {
+  private final Map<Boolean, List<Patch>> catalogs = new HashMap<>();
+
+  /**
+   * Returns the patches of a version of the game indexed by their identifier, reading them the first time.
+   *
+   * @param fullVersion Whether the catalog of the full version is needed.
+   * @return The catalog.
+   * @throws IOException In case the file containing the complex patches is not found.
+   */
+  private List<Patch> catalog(boolean fullVersion) throws IOException {
+    var catalog = catalogs.get(fullVersion);
+    if (catalog == null) {
+      catalog = new ArrayList<>(Main.getPatchesByChoice(Map.of(Main.FULL, fullVersion)).getPatchesList());
+      catalog.sort(Comparator.comparingInt(Patch::getId));
+      catalogs.put(fullVersion, catalog);
+    }
+    return catalog;
+  }
+
+  /**
+   * Creates a game in the state the recorded game started in, played through the given view.
+   *
+   * @param header   The random decisions the game started with.
+   * @param view     The view to play the game with.
+   * @param player1  The first player.
+   * @param player2  The second player.
+   * @param spectate Given the channel the game is published to before it starts, or null if it isn't published.
+   * @return The controller of the game, not started yet.
+   * @throws IOException In case the file containing the complex patches is not found.
+   */
+  private GameController createGame(GameHeader header, View view, Player player1, Player player2,
+                                    Consumer<SpectatorChannel> spectate) throws IOException {
+    var patches = new Patches();
+    patches.deal(catalog(header.fullVersion()), header.dealOrder());
+    var timeBoard = new TimeBoard(header.firstPlayer() == 1 ? player1 : player2, header.fullVersion());
+    timeBoard.initialiseSpiralPathCoordinates();
+    var choicesMap = new HashMap<String, Boolean>(Map.of(Main.FULL, header.fullVersion(), Main.GRAPHICAL, false));
+    AsyncView played = new SynchronousViewAdapter(view);
+    if (spectate != null) {
+      var channel = new SpectatorChannel(player1, player2, timeBoard, patches);
+      spectate.accept(channel);
+      played = new SpectatedView(played, channel);
+    }
+    return new GameController(played, patches, timeBoard, player1, player2, choicesMap);
+  }
+
+  /**
+   * Plays a recorded game again from beginning to end.
+   *
+   * @param record The recorded game.
+   * @return The result the rules give, the same as the recorded one, or null if the recorded game never ended and
+   * all its moves were played.
+   * @throws IOException           In case the file containing the complex patches is not found.
+   * @throws IllegalStateException If the game doesn't go as recorded.
+   */
+  public GameResult replay(GameRecord record) throws IOException {
+    return replay(record, null);
+  }
+
+  /**
+   * Plays a recorded game again from beginning to end, reporting it to a recorder as it is played, with the state of
+   * the game after every move.
+   *
+   * @param record   The recorded game.
+   * @param recorder The recorder to report the game to, or null.
+   * @return The result the rules give, the same as the recorded one, or null if the recorded game never ended and
+   * all its moves were played.
+   * @throws IOException           In case the file containing the complex patches is not found.
+   * @throws IllegalStateException If the game doesn't go as recorded.
+   */
+  public GameResult replay(GameRecord record, StateRecorder recorder) throws IOException {
+    return replay(record, recorder, null);
+  }
+
+  /**
+   * Plays a recorded game again from beginning to end, reporting it to a recorder and publishing it to spectators as
+   * it is played.
+   *
+   * @param record   The recorded game.
+   * @param recorder The recorder to report the game to, or null.
+   * @param spectate Given the channel the game is published to before it starts, to subscribe the spectators, or
+   *                 null.
+   * @return The result the rules give, the same as the recorded one, or null if the recorded game never ended and
+   * all its moves were played.
+   * @throws IOException           In case the file containing the complex patches is not found.
+   * @throws IllegalStateException If the game doesn't go as recorded.
+   */
+  public GameResult replay(GameRecord record, StateRecorder recorder, Consumer<SpectatorChannel> spectate)
+          throws IOException {
+    Objects.requireNonNull(record);
+    var header = record.header();
+    var player1 = Main.createPlayerOne(header.player1Name());
+    var player2 = Main.createPlayerTwo(header.player2Name());
+    var view = new ReplayView(player1, record.moves(), null);
+    GameResult result;
+    try {
+      var controller = createGame(header, view, player1, player2, spectate);
+      controller.setMoveRecorder(recorder);
+      result = controller.startGame();
+    } catch (IllegalStateException e) {
+      if (!record.finished() && !view.isReplaying()) {
+        return null; // Went as far as it was recorded.
+      }
+      throw e;
+    }
+    if (view.hasMovesLeft()) {
+      throw new IllegalStateException("The game diverges from its record: it ends before the last move");
+    }
+    var winner = result.winner() == player1 ? 1 : 2;
+    if (record.finished() && (winner != record.winner() || result.score() != record.score())) {
+      throw new IllegalStateException("The game diverges from its record: player " + winner + " wins with " +
+                                      result.score() + " instead of player " + record.winner() + " with " +
+                                      record.score());
+    }
+    return result;
+  }
+
+  /**
+   * Rebuilds a recorded game, usually one that never ended, so that it can be played on: once started, the recorded
+   * moves are played silently then the given view takes over. The recorder is only told about the moves played after
+   * the recorded ones, so a game can be resumed into the journal it was recorded in.
+   *
+   * @param record     The recorded game.
+   * @param resumeView The view to play on with, its controller still has to be set.
+   * @param recorder   The recorder to report the rest of the game to, or null.
+   * @return The controller of the game, not started yet.
+   * @throws IOException In case the file containing the complex patches is not found.
+   */
+  public GameController resume(GameRecord record, View resumeView, StateRecorder recorder) throws IOException {
+    Objects.requireNonNull(record);
+    Objects.requireNonNull(resumeView);
+    var header = record.header();
+    var player1 = Main.createPlayerOne(header.player1Name());
+    var player2 = Main.createPlayerTwo(header.player2Name());
+    var controller = createGame(header, new ReplayView(player1, record.moves(), resumeView), player1, player2, null);
+    if (recorder != null) {
+      controller.setMoveRecorder(new StateRecorder() {
+        private int recordedMoves = record.moves().size();
+
+        @Override
+        public void gameStarted(GameHeader header, GameState state) {
+          // Recorded already.
+        }
+
+        @Override
+        public void moveApplied(Move move, GameState state) {
+          if (recordedMoves > 0) {
+            recordedMoves--;
+          } else {
+            recorder.moveApplied(move, state);
+          }
+        }
+
+        @Override
+        public void gameEnded(int winner, int score) {
+          recorder.gameEnded(winner, score);
+        }
+      });
+    }
+    return controller;
+  }
+
+  /**
+   * Replays every game of a journal, or of a notation file, and prints how many of them diverge from their record.
+   *
+   * @param journal The path of the journal.
+   * @return The number of games that diverge.
+   * @throws IOException If the journal can't be read.
+   */
+  public int verify(Path journal) throws IOException {
+    Objects.requireNonNull(journal);
+    int games = 0, moves = 0, unfinished = 0, diverging = 0;
+    long start = System.nanoTime();
+    try (var reader = GameSource.open(journal)) {
+      GameRecord record;
+      while ((record = reader.next()) != null) {
+        games++;
+        moves += record.moves().size();
+        if (!record.finished()) {
+          unfinished++;
+        }
+        try {
+          replay(record);
+        } catch (IllegalStateException e) {
+          diverging++;
+          System.err.println("Game " + games + ": " + e.getMessage());
+        }
+      }
+    }
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    System.out.println(games + " games (" + unfinished + " unfinished), " + moves + " moves replayed in " + millis +
+                       " ms, " + diverging + " diverging");
+    return diverging;
+  }
+}
@@ -0,0 +1,142 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A class that counts durations in buckets of bounded relative width, the way HdrHistogram does, to read their
+ * percentiles without keeping every duration.
+ * <p>
+ * The durations below 64 nanoseconds have a bucket each. Above, every power of two is split into 32 buckets, so a
+ * percentile is off by at most 1/32 of its value, about 3%. Durations over an hour are counted in the last bucket.
+ * Recording a duration is an increment of an atomic counter and never locks or allocates, so several threads can
+ * record at once; reading the percentiles while they record sees a slightly out of date but valid histogram.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  /* The powers of two covered, up to 2^42 nanoseconds, a bit more than an hour. */
+  private static final int HIGHEST_SHIFT = 42 - SUB_BUCKET_BITS;
+  private static final int BUCKETS = (HIGHEST_SHIFT + 2) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder total = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Computes the bucket of a duration.
+   *
+   * @param nanos The duration, positive or zero.
+   * @return The index of the bucket.
+   */
+  private static int indexOf(long nanos) {
+    if (nanos < 2 * SUB_BUCKETS) {
+      return (int) nanos;
+    }
+    // The bits below the 6 highest ones are dropped.
+    var shift = Math.min(63 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS, HIGHEST_SHIFT);
+    var top = Math.min(nanos >>> shift, 2 * SUB_BUCKETS - 1);
+    return (int) (shift * SUB_BUCKETS + top);
+  }
+
+  /**
+   * Computes the highest duration counted in a bucket.
+   *
+   * @param index The index of the bucket.
+   * @return The duration, in nanoseconds.
+   */
+  private static long highestValueOf(int index) {
+    if (index < 2 * SUB_BUCKETS) {
+      return index;
+    }
+    var shift = index / SUB_BUCKETS - 1;
+    var top = index % SUB_BUCKETS + SUB_BUCKETS;
+    return ((top + 1L) << shift) - 1;
+  }
+
+  /**
+   * Counts a duration.
+   *
+   * @param nanos The duration, in nanoseconds, a negative one is counted as zero.
+   */
+  public void record(long nanos) {
+    var value = Math.max(0, nanos);
+    counts.incrementAndGet(indexOf(value));
+    total.add(value);
+    if (value > max.get()) {
+      max.accumulateAndGet(value, Math::max);
+    }
+  }
+
+  /**
+   * Getter function for the number of durations counted.
+   *
+   * @return The number of durations.
+   */
+  public long getCount() {
+    var count = 0L;
+    for (int i = 0; i < BUCKETS; i++) {
+      count += counts.get(i);
+    }
+    return count;
+  }
+
+  /**
+   * Getter function for the longest duration counted, exactly.
+   *
+   * @return The duration, in nanoseconds, 0 if none was counted.
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Getter function for the mean of the durations counted, exactly.
+   *
+   * @return The mean, in nanoseconds, 0 if none was counted.
+   */
+  public double getMean() {
+    var count = getCount();
+    return count == 0 ? 0 : total.doubleValue() / count;
+  }
+
+  /**
+   * Computes a percentile of the durations counted: the duration that many of them are shorter or as long as.
+   *
+   * @param percentile The percentile, between 0 and 100.
+   * @return The duration, in nanoseconds, rounded up to the end of its bucket, 0 if none was counted.
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (!(0 <= percentile && percentile <= 100)) {
+      throw new IllegalArgumentException("The percentile must be between 0 and 100");
+    }
+    var snapshot = new long[BUCKETS];
+    var count = 0L;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      count += snapshot[i];
+    }
+    if (count == 0) {
+      return 0;
+    }
+    var rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    var seen = 0L;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(highestValueOf(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * Forgets every duration counted. The durations recorded at the same time by other threads may be partly kept.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts.set(i, 0);
+    }
+    total.reset();
+    max.set(0);
+  }
+}
@@ -1,25 +1,99 @@
 import fr.umlv.zen5.Application;
 import fr.umlv.zen5.ApplicationContext;
-import fr.umlv.zen5.Event;
 
 import java.awt.*;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 /**
  * A class that contains all the necessary variable instanciations and initialisations.
  */
 public class Main {
 
-  private static final String GRAPHICAL = "graphical";
+  static final String GRAPHICAL = "graphical";
   private static final String CONSOLE = "console";
-  private static final String FULL = "full";
+  static final String FULL = "full";
   private static final String BASE = "base";
+  private static final String SERVER = "server";
+  private static final String RECORD = "record";
+  private static final String REPLAY = "replay";
+  private static final String CONVERT = "convert";
+  private static final String AUTOSAVE = "autosave";
+  private static final String ARCHIVE = "archive";
+  private static final String BONUS_BEFORE = "bonus-before";
+  private static final String FEATURES = "features";
+  private static final String SELFPLAY = "selfplay";
+  private static final String BOOK = "book";
+  private static final String ANSI = "ansi";
+  private static final String FRAMES = "frames";
+  private static final String PROFILE = "profile";
+  private static final String METRICS = "metrics";
+  private static final String HINTS = "hints";
+  private static final String NOTATION_EXTENSION = ".pwn";
+  private static final int DEFAULT_PORT = 4242;
+  /* The deals of the full version are shuffled, the books hash the positions with the first patch of the circle. */
+  private static final int BOOK_RING_PATCHES = 1;
+  /* The subcommands that run instead of a game, by name. */
+  private static final Map<String, Subcommand> SUBCOMMANDS = Map.of(
+          SERVER, new Subcommand(1, Main::runServerMode),
+          REPLAY, new Subcommand(2, args -> {
+            if (new JournalReplayer().verify(Path.of(args[1])) != 0) {
+              System.exit(1);
+            }
+          }),
+          CONVERT, new Subcommand(3, args -> convertGames(Path.of(args[1]), Path.of(args[2]))),
+          ARCHIVE, new Subcommand(3, args -> archiveGames(Path.of(args[1]), Path.of(args[2]))),
+          BONUS_BEFORE, new Subcommand(3, args -> countEarlyBonuses(Path.of(args[1]), Integer.parseInt(args[2]))),
+          FEATURES, new Subcommand(3, args -> exportFeatures(Path.of(args[1]), Path.of(args[2]),
+                                                             intArgument(args, 3, 6))),
+          SELFPLAY, new Subcommand(3, args -> {
+            var profile = args[args.length - 1].equals(PROFILE);
+            var options = profile ? args.length - 1 : args.length;
+            playSelfPlayGames(Path.of(args[1]), Integer.parseInt(args[2]), options > 3 && args[3].equals(FULL),
+                              options > 4 ? Path.of(args[4]) : null, profile ? new TurnProfiler() : null);
+          }),
+          BOOK, new Subcommand(3, args -> buildOpeningBook(Path.of(args[1]), Path.of(args[2]), intArgument(args, 3, 10),
+                                                           intArgument(args, 4, BOOK_RING_PATCHES))),
+          FRAMES, new Subcommand(3, args -> renderFrames(Path.of(args[1]), Path.of(args[2]),
+                                                         intArgument(args, 3,
+                                                                     Runtime.getRuntime().availableProcessors()))));
+
+  /**
+   * A functional interface for what a subcommand of the program does.
+   */
+  @FunctionalInterface
+  private interface Command {
+    /**
+     * Runs the subcommand.
+     *
+     * @param args The arguments of the program, the name of the subcommand first.
+     * @throws IOException If something can't be read or written.
+     */
+    void run(String[] args) throws IOException;
+  }
+
+  /**
+   * A record that represents a subcommand of the program, it runs instead of a game.
+   *
+   * @param arguments The number of arguments it needs at least, its name included.
+   * @param command   What it does.
+   */
+  private record Subcommand(int arguments, Command command) {
+  }
 
   /**
    * Default constructor, creates a main object, silences a warning.
@@ -92,7 +166,7 @@ public class Main {
    * @return Patches object.
    * @throws IOException In case the file containing the complex patches is not found.
    */
-  private static Patches getPatchesByChoice(Map<String, Boolean> choices) throws IOException {
+  static Patches getPatchesByChoice(Map<String, Boolean> choices) throws IOException {
     var patches = new Patches();
     if (choices.get(FULL)) {
       patches.generatePatches(Path.of("complexPatches.txt"));
@@ -123,7 +197,7 @@ public class Main {
    * @param player2 The second player.
    * @return TimeBoard object
    */
-  private static TimeBoard getTimeBoardByChoice(Map<String, Boolean> choices, Player player1, Player player2) {
+  static TimeBoard getTimeBoardByChoice(Map<String, Boolean> choices, Player player1, Player player2) {
     TimeBoard timeBoard;
     if (choices.get(FULL)) {
       timeBoard = new TimeBoard(flipACoin(player1, player2), true);
@@ -143,7 +217,7 @@ public class Main {
    */
   private static View getViewByChoice(Map<String, Boolean> choices, Scanner scr, ApplicationContext context) {
     if (choices.get(GRAPHICAL)) {
-      return new GraphicalView(context);
+      return new GraphicalView(context, new InputDispatcher());
     }
     return new ConsoleView(scr);
   }
@@ -163,53 +237,259 @@ public class Main {
   }
 
   /**
-   * Methode than starts the graphical mode of the game.
+   * A function that creates the first player with its colors.
+   *
+   * @param name The player's name.
+   * @return The first player.
+   */
+  static Player createPlayerOne(String name) {
+    return new Player(5, 0, name, new Color(5, 107, 7), new Color(161, 168, 148));
+  }
+
+  /**
+   * A function that creates the second player with its colors.
+   *
+   * @param name The player's name.
+   * @return The second player.
+   */
+  static Player createPlayerTwo(String name) {
+    return new Player(5, 0, name, new Color(252, 186, 3), new Color(211, 183, 104));
+  }
+
+  /**
+   * Methode that starts the server mode, it hosts matches between remote players until the process is killed, the
+   * spectators watching them on the port after the one of the players unless another one is given.
+   *
+   * @param args program arguments, {@code server [port] [base|full] [spectator port]}.
+   * @throws IOException In case the server sockets can't be bound.
+   */
+  private static void runServerMode(String[] args) throws IOException {
+    int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+    boolean fullVersion = args.length > 2 && args[2].equals(FULL);
+    int spectatorPort = args.length > 3 ? Integer.parseInt(args[3]) : port == 0 ? 0 : port + 1;
+    try (var server = new GameServer(port, spectatorPort, InetAddress.getLoopbackAddress(), fullVersion)) {
+      System.out.println("Patchwork server listening on port " + server.getPort() + ", spectators on port " +
+                         server.getSpectatorPort());
+      server.serve();
+    }
+  }
+
+  /**
+   * Methode that copies the games of a journal or a notation file to another file, in the notation if its name ends
+   * with {@value NOTATION_EXTENSION} and in a journal otherwise.
+   *
+   * @param from The path of the games to copy.
+   * @param to   The path of the copy, appended to if it is a journal.
+   * @throws IOException In case the games can't be read or written.
+   */
+  private static void convertGames(Path from, Path to) throws IOException {
+    if (to.toString().endsWith(NOTATION_EXTENSION)) {
+      try (var writer = new GameNotationWriter(Files.newBufferedWriter(to))) {
+        copyGames(from, writer);
+      }
+    } else {
+      try (var journal = new MoveJournal(to, false)) {
+        copyGames(from, journal);
+      }
+    }
+  }
+
+  /**
+   * Methode that reports every game of a journal or a notation file to a recorder.
+   *
+   * @param from     The path of the games to copy.
+   * @param recorder The recorder to report them to.
+   * @throws IOException In case the games can't be read.
+   */
+  private static void copyGames(Path from, MoveRecorder recorder) throws IOException {
+    try (var source = GameSource.open(from)) {
+      GameRecord record;
+      while ((record = source.next()) != null) {
+        recorder.record(record);
+      }
+    }
+  }
+
+  /**
+   * Methode that replays the games of a journal or a notation file into a columnar archive.
+   *
+   * @param from The path of the games to archive.
+   * @param to   The path of the archive, replaced if it exists.
+   * @throws IOException In case the games can't be read or the archive written.
+   */
+  private static void archiveGames(Path from, Path to) throws IOException {
+    var replayer = new JournalReplayer();
+    try (var source = GameSource.open(from); var archive = new GameArchiveWriter(to)) {
+      GameRecord record;
+      while ((record = source.next()) != null) {
+        replayer.replay(record, archive);
+      }
+    }
+  }
+
+  /**
+   * Methode that counts the games of an archive in which the 7x7 bonus tile was claimed before a given turn, only the
+   * blocks whose bounds allow it are inflated.
+   *
+   * @param archive The path of the archive.
+   * @param turn    The turn, counted from 0.
+   * @throws IOException In case the archive can't be read.
+   */
+  private static void countEarlyBonuses(Path archive, int turn) throws IOException {
+    try (var reader = new GameArchiveReader(archive)) {
+      int games = 0, lastGame = -1;
+      while (reader.nextBlock()) {
+        if (reader.max(ArchiveColumn.BONUS) == 0 || reader.min(ArchiveColumn.TURN) >= turn) {
+          continue;
+        }
+        var bonus = reader.column(ArchiveColumn.BONUS);
+        var turns = reader.column(ArchiveColumn.TURN);
+        var gameIndexes = reader.column(ArchiveColumn.GAME);
+        for (int row = 0; row < reader.rows(); row++) {
+          if (bonus[row] == 1 && turns[row] < turn && gameIndexes[row] != lastGame) {
+            lastGame = gameIndexes[row];
+            games++;
+          }
+        }
+      }
+      System.out.println(games + " games with the bonus claimed before turn " + turn + ", " +
+                         reader.getInflatedBlocks() + " of " + reader.getBlocks() + " blocks inflated");
+    }
+  }
+
+  /**
+   * Methode that replays the games of a journal or a notation file and exports their positions as raw features.
+   *
+   * @param from        The path of the games.
+   * @param to          The path of the raw features file, replaced if it exists.
+   * @param ringPatches The number of patches of the circle encoded.
+   * @throws IOException In case the games can't be read or the features written.
+   */
+  private static void exportFeatures(Path from, Path to, int ringPatches) throws IOException {
+    var replayer = new JournalReplayer();
+    try (var source = GameSource.open(from);
+         var encoder = new FeatureEncoder(to, 4096, ringPatches,
+                                          getPatchesByChoice(Map.of(FULL, false)).getPatchesList(),
+                                          getPatchesByChoice(Map.of(FULL, true)).getPatchesList())) {
+      GameRecord record;
+      while ((record = source.next()) != null) {
+        replayer.replay(record, encoder);
+      }
+      System.out.println(encoder.getPositions() + " positions of " + encoder.getFeaturesPerPosition() +
+                         " little-endian float32 features");
+    }
+  }
+
+  /**
+   * Methode that plays games between two bots and appends them to a journal.
+   *
+   * @param to          The path of the journal.
+   * @param games       The number of games to play.
+   * @param fullVersion Whether the full version of the game is played.
+   * @param bookPath    The path of the opening book the bots consult, or null.
+   * @param profiler    The profiler measuring the phases of the turns, or null.
+   * @throws IOException In case the patches, the book or the journal can't be read or written.
+   */
+  private static void playSelfPlayGames(Path to, int games, boolean fullVersion, Path bookPath, TurnProfiler profiler)
+          throws IOException {
+    var book = bookPath == null ? null : new OpeningBook(bookPath);
+    var bot = new BotView(book, new Random());
+    long start = System.nanoTime();
+    try (var journal = new MoveJournal(to, false)) {
+      for (int game = 0; game < games; game++) {
+        Map<String, Boolean> choicesMap = new HashMap<>(Map.of(FULL, fullVersion, GRAPHICAL, false));
+        var player1 = createPlayerOne("Bot 1");
+        var player2 = createPlayerTwo("Bot 2");
+        var controller = new GameController(bot, getPatchesByChoice(choicesMap),
+                                            getTimeBoardByChoice(choicesMap, player1, player2), player1, player2,
+                                            choicesMap);
+        bot.setController(controller);
+        controller.setMoveRecorder(journal);
+        controller.setTurnProfiler(profiler);
+        controller.startGame();
+      }
+    }
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    System.out.println(games + " games played in " + millis + " ms, " + bot.getBookMoves() + " book moves, " +
+                       bot.getSearchedMoves() + " searched moves");
+    if (profiler != null) {
+      System.out.print(profiler.report());
+    }
+  }
+
+  /**
+   * Methode that replays the games of a journal or a notation file and writes the opening book of their first turns.
+   *
+   * @param from        The path of the games.
+   * @param to          The path of the book, replaced if it exists.
+   * @param turns       The number of turns of every game that go into the book.
+   * @param ringPatches The number of patches after the neutral pawn the positions are hashed with.
+   * @throws IOException In case the games can't be read or the book written.
+   */
+  private static void buildOpeningBook(Path from, Path to, int turns, int ringPatches) throws IOException {
+    var replayer = new JournalReplayer();
+    var builder = new OpeningBookBuilder(turns, ringPatches);
+    try (var source = GameSource.open(from)) {
+      GameRecord record;
+      while ((record = source.next()) != null) {
+        replayer.replay(record, builder);
+      }
+    }
+    builder.write(to);
+    System.out.println(builder.getPositions() + " positions written to the book");
+  }
+
+  /**
+   * Methode that renders saved games or recorded ones as PNG images, without a display, see FrameRenderer.
+   *
+   * @param from      A directory of saves, rendered into one image each, or a journal or a notation file, whose games
+   *                  are rendered into one image per move.
+   * @param directory The directory of the images, created if needed.
+   * @param threads   The number of worker threads.
+   * @throws IOException In case the games can't be read or the images written.
+   */
+  private static void renderFrames(Path from, Path directory, int threads) throws IOException {
+    Files.createDirectories(directory);
+    long start = System.nanoTime();
+    try (var renderer = new FrameRenderer(FrameRenderer.DEFAULT_WIDTH, FrameRenderer.DEFAULT_HEIGHT, threads)) {
+      String rendered;
+      if (Files.isDirectory(from)) {
+        rendered = renderer.renderStates(FrameRenderer.listFiles(from), directory) + " saves";
+      } else {
+        try (var source = GameSource.open(from)) {
+          rendered = renderer.renderGames(source, directory) + " games";
+        }
+      }
+      System.out.println(rendered + " rendered in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+  }
+
+  /**
+   * Methode than starts the graphical mode of the game, the game is played on a thread of its own while the thread of
+   * the application renders the frames and dispatches the input of the players, see GraphicalRuntime. The application
+   * exits once the game is over and a key is pressed.
    *
    * @param myPatches   The game patches.
    * @param myTimeBoard The game's timeBoard.
    * @param player1     The first player.
    * @param player2     The second player.
    * @param choicesMap  A map object containing the user made choices.
+   * @param metrics     The metrics the frames are measured in and shown over the game, or null.
    */
   private static void runGraphicalMode(Patches myPatches, TimeBoard myTimeBoard, Player player1, Player player2,
-                                       Map<String, Boolean> choicesMap) {
-    Application.run(new Color(214, 183, 154), applicationContext -> {
-      var myView = new GraphicalView(applicationContext);
+                                       Map<String, Boolean> choicesMap, RenderMetrics metrics) {
+    Application.run(GraphicalView.BACKGROUND, applicationContext -> {
+      var runtime = new GraphicalRuntime(applicationContext, GraphicalRuntime.DEFAULT_FRAMES_PER_SECOND);
+      var myView = runtime.getView();
       var myController = new GameController(myView, myPatches, myTimeBoard, player1, player2, choicesMap);
       myView.setController(myController);
-      //myController.startGame();
-      graphicalModeDemo(myPatches, myTimeBoard, player1, player2, applicationContext, myView);
-    });
-  }
-
-  /**
-   * A method to demonstrate the almost finished graphical mode.
-   *
-   * @param myPatches          The game patches.
-   * @param myTimeBoard        The game's timeBoard.
-   * @param player1            The first player.
-   * @param player2            The second player.
-   * @param applicationContext The context object.
-   * @param myView             The view object that will interact with the user (graphical view).
-   */
-  private static void graphicalModeDemo(Patches myPatches, TimeBoard myTimeBoard, Player player1, Player player2,
-                                        ApplicationContext applicationContext, GraphicalView myView) {
-    myView.displayTimeBoard(myTimeBoard, player1, player2);
-    myView.displayQuiltBoard(player1);
-    myView.displayQuiltBoard(player2);
-    myView.displayPatches(myPatches);
-    for (; ; ) {
-      Event event = applicationContext.pollOrWaitEvent(10);
-      if (event == null) {  // no event
-        continue;
+      myView.setRenderMetrics(metrics, true);
+      runtime.run(myController::startGame);
+      if (metrics != null) {
+        System.out.println(metrics.report());
       }
-      Event.Action action = event.getAction();
-      if (action == Event.Action.KEY_PRESSED || action == Event.Action.KEY_RELEASED) {
-        System.out.println("Demo ended");
-        applicationContext.exit(0);
-        return;
-      }
-    }
+      applicationContext.exit(0);
+    });
   }
 
   /**
@@ -221,35 +501,211 @@ public class Main {
    * @param player1     The first player.
    * @param player2     The second player.
    * @param choicesMap  A map object containing the user made choices.
+   * @param recorder    A function that returns the recorder the moves are reported to, or null, given the controller.
+   * @param ansiDiff    Whether the boards stay at the top of the terminal and only their changes are redrawn.
+   * @param metrics     The metrics the screens are measured in, printed once the game is over, or null.
+   * @param hints       The service the placements of the patches are suggested by, or null.
    */
   private static void runConsoleMode(Scanner myScr, Patches myPatches, TimeBoard myTimeBoard, Player player1,
-                                     Player player2, Map<String, Boolean> choicesMap) {
-    var myView = new ConsoleView(myScr);
+                                     Player player2, Map<String, Boolean> choicesMap,
+                                     Function<GameController, MoveRecorder> recorder, boolean ansiDiff,
+                                     RenderMetrics metrics, PlacementHintService hints) {
+    var myView = new ConsoleView(myScr, ansiDiff);
     var myController = new GameController(myView, myPatches, myTimeBoard, player1, player2, choicesMap);
     myView.setController(myController);
+    myView.setRenderMetrics(metrics);
+    myView.setPlacementHints(hints);
+    myController.setMoveRecorder(recorder.apply(myController));
+    myController.startGame();
+    printConsoleReports(metrics, hints);
+  }
+
+  /**
+   * Methode that resumes in the console the last game of a journal, which never ended, and records the rest of it in
+   * the same journal.
+   *
+   * @param myScr    The scanner object that will interact with the user.
+   * @param record   The unfinished game.
+   * @param journal  The journal the game was recorded in.
+   * @param ansiDiff Whether the boards stay at the top of the terminal and only their changes are redrawn.
+   * @param metrics  The metrics the screens are measured in, printed once the game is over, or null.
+   * @param hints    The service the placements of the patches are suggested by, or null.
+   * @throws IOException In case the file containing the complex patches is not found.
+   */
+  private static void resumeConsoleGame(Scanner myScr, GameRecord record, MoveJournal journal, boolean ansiDiff,
+                                        RenderMetrics metrics, PlacementHintService hints) throws IOException {
+    System.out.println("Resuming the game of " + record.header().player1Name() + " and " +
+                       record.header().player2Name() + " after " + record.moves().size() + " moves.");
+    var myView = new ConsoleView(myScr, ansiDiff);
+    var myController = new JournalReplayer().resume(record, myView, journal);
+    myView.setController(myController);
+    myView.setRenderMetrics(metrics);
+    myView.setPlacementHints(hints);
     myController.startGame();
+    printConsoleReports(metrics, hints);
+  }
+
+  /**
+   * Methode that prints the measures of a console game once it is over.
+   *
+   * @param metrics The metrics the screens were measured in, or null.
+   * @param hints   The service the placements of the patches were suggested by, or null.
+   */
+  private static void printConsoleReports(RenderMetrics metrics, PlacementHintService hints) {
+    if (metrics != null) {
+      System.out.println(metrics.report());
+      if (hints != null) {
+        System.out.println(hints.report());
+      }
+    }
+  }
+
+  /**
+   * Methode that reads the last game of a journal, to resume it if it never ended.
+   *
+   * @param path The path of the journal.
+   * @return The last game if it never ended, or null if it did or the journal has no game yet.
+   * @throws IOException If the journal can't be read or isn't a journal.
+   */
+  private static GameRecord lastUnfinishedGame(Path path) throws IOException {
+    if (!Files.exists(path) || Files.size(path) == 0) {
+      return null;
+    }
+    GameRecord last = null;
+    try (var reader = new JournalReader(path)) {
+      GameRecord record;
+      while ((record = reader.next()) != null) {
+        last = record;
+      }
+    }
+    return last == null || last.finished() ? null : last;
+  }
+
+  /**
+   * Methode that collects the flags at the end of the arguments of a console game, in any order.
+   *
+   * @param args The arguments of the program.
+   * @return The flags found, among ansi, metrics and hints.
+   */
+  private static Set<String> trailingFlags(String[] args) {
+    var flags = new HashSet<String>();
+    for (int k = args.length - 1; k >= 0 && Set.of(ANSI, METRICS, HINTS).contains(args[k]); k--) {
+      flags.add(args[k]);
+    }
+    return flags;
+  }
+
+  /**
+   * Methode that registers the statistics of the games and of the bots with the platform MBean server, so they can be
+   * watched through JMX while the games are played.
+   */
+  private static void registerStatistics() {
+    var server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      server.registerMBean(EngineStatistics.getInstance(), new ObjectName(EngineStatistics.OBJECT_NAME));
+      server.registerMBean(SearchStatistics.getInstance(), new ObjectName(SearchStatistics.OBJECT_NAME));
+    } catch (JMException e) {
+      throw new IllegalStateException("The statistics can't be registered", e);
+    }
   }
 
   /**
-   * The main entry point to the program.
+   * Methode that reads an optional integer argument of a subcommand.
    *
-   * @param args program arguments
+   * @param args         The arguments of the program.
+   * @param index        The index of the argument.
+   * @param defaultValue The value of the argument when it isn't given.
+   * @return The value of the argument.
+   */
+  private static int intArgument(String[] args, int index, int defaultValue) {
+    return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+  }
+
+  /**
+   * The main entry point to the program, a game in the console or in a window unless a subcommand is given.
+   *
+   * @param args program arguments, one of:
+   *             <ul>
+   *               <li>{@code [flags]}: plays a game,</li>
+   *               <li>{@code record journal [flags]}: plays a console game recorded in a journal, resuming the last
+   *               game of the journal if it never ended,</li>
+   *               <li>{@code autosave file [flags]}: plays a console game saved after every turn, picking it up
+   *               again if the save exists,</li>
+   *               <li>{@code server [port] [base|full] [spectator port]}: hosts matches between remote players,</li>
+   *               <li>{@code replay games}: replays a journal or a notation file and checks their results,</li>
+   *               <li>{@code convert from to}: copies games between a journal and a notation file,</li>
+   *               <li>{@code archive games file}: replays games into a columnar archive,</li>
+   *               <li>{@code bonus-before file turn}: counts the games of an archive whose bonus was claimed before
+   *               a turn,</li>
+   *               <li>{@code features games file [patches]}: exports the positions of games as training features,</li>
+   *               <li>{@code selfplay journal games [base|full] [book] [profile]}: appends games played by bots to a
+   *               journal,</li>
+   *               <li>{@code book games file [turns] [patches]}: builds an opening book from games,</li>
+   *               <li>{@code frames from directory [threads]}: renders saves or recorded games as PNG images.</li>
+   *             </ul>
+   *             The flags of a game come last in any order: {@code ansi} only redraws the changes of the console,
+   *             {@code metrics} measures the frames and {@code hints} suggests placements in the console.
    * @throws IOException In case the file containing the complex patches is not found.
    */
   public static void main(String[] args) throws IOException {
+    registerStatistics();
+    var subcommand = args.length > 0 ? SUBCOMMANDS.get(args[0]) : null;
+    if (subcommand != null && args.length >= subcommand.arguments()) {
+      subcommand.command().run(args);
+      return;
+    }
     var myScr = new Scanner(System.in);
+    var flags = trailingFlags(args);
+    var measured = flags.contains(METRICS);
+    var ansiDiff = flags.contains(ANSI);
+    var hints = flags.contains(HINTS) ? new PlacementHintService() : null;
+    Function<GameController, MoveRecorder> recorder = controller -> null;
+    if (args.length > 1 && args[0].equals(AUTOSAVE)) {
+      var savePath = Path.of(args[1]);
+      recorder = controller -> new AutoSave(controller, savePath);
+      if (Files.exists(savePath)) {
+        var state = GameStateCodec.load(savePath);
+        runConsoleMode(myScr, state.patches(), state.timeBoard(), state.player1(), state.player2(), state.choicesMap(),
+                       recorder, ansiDiff, measured ? RenderMetrics.of("console") : null, hints);
+        return;
+      }
+    }
+    if (args.length > 1 && args[0].equals(RECORD)) {
+      var unfinished = lastUnfinishedGame(Path.of(args[1]));
+      if (unfinished != null) {
+        try (var journal = new MoveJournal(Path.of(args[1]), true)) {
+          resumeConsoleGame(myScr, unfinished, journal, ansiDiff, measured ? RenderMetrics.of("console") : null,
+                            hints);
+        }
+        return;
+      }
+    }
     var choicesMap = getUserChoices(myScr);
     String player1Name = getPlayerName(myScr);
     String player2Name = getPlayerName(myScr);
     clearScreen();
-    var player1 = new Player(5, 0, player1Name, new Color(5, 107, 7), new Color(161, 168, 148));
-    var player2 = new Player(5, 0, player2Name, new Color(252, 186, 3), new Color(211, 183, 104));
+    var player1 = createPlayerOne(player1Name);
+    var player2 = createPlayerTwo(player2Name);
     var myPatches = getPatchesByChoice(choicesMap);
     var myTimeBoard = getTimeBoardByChoice(choicesMap, player1, player2);
     if (choicesMap.get(GRAPHICAL)) {
-      runGraphicalMode(myPatches, myTimeBoard, player1, player2, choicesMap);
+      runGraphicalMode(myPatches, myTimeBoard, player1, player2, choicesMap,
+                       measured ? RenderMetrics.of("graphical") : null);
       return;
     }
-    runConsoleMode(myScr, myPatches, myTimeBoard, player1, player2, choicesMap);
+    MoveJournal journal = null;
+    if (args.length > 1 && args[0].equals(RECORD)) {
+      var opened = new MoveJournal(Path.of(args[1]), true);
+      journal = opened;
+      recorder = controller -> opened;
+    }
+    try {
+      runConsoleMode(myScr, myPatches, myTimeBoard, player1, player2, choicesMap, recorder, ansiDiff,
+                     measured ? RenderMetrics.of("console") : null, hints);
+    } finally {
+      if (journal != null) {
+        journal.close();
+      }
+    }
   }
 }
@@ -0,0 +1,97 @@
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A record that represents a move applied during a game, everything needed to play it again on the same position.
+ *
+ * @param type                   Whether the player advanced or purchased a patch.
+ * @param player                 The slot of the player who moved, 1 for the first player and 2 for the second.
+ * @param patchId                The catalog identifier of the purchased patch, -1 when advancing or when it isn't
+ *                               known, the text notation doesn't name the patches.
+ * @param ringOffset             The position of the purchased patch after the neutral pawn, between 1 and 3, 0 when
+ *                               advancing.
+ * @param rotations              The number of clock wise rotations of the placed patch, between 0 and 3.
+ * @param flipped                Whether the placed patch was flipped after its rotations.
+ * @param placement              The point the patch was placed at, in the coordinates the quiltboard takes from the
+ *                               players (between 1 and 9), null when advancing.
+ * @param specialPatchPlacements The points the special 1x1 patches met during the move were placed at, in order.
+ */
+public record Move(Type type, int player, int patchId, int ringOffset, int rotations, boolean flipped, Point placement,
+                   List<Point> specialPatchPlacements) {
+
+  /**
+   * The two kinds of moves a player can make on its turn.
+   */
+  public enum Type {
+    ADVANCE, PURCHASE
+  }
+
+  /**
+   * A constructor for the Move record, it checks the fields are coherent with the type of move.
+   *
+   * @param type                   Whether the player advanced or purchased a patch.
+   * @param player                 The slot of the player who moved.
+   * @param patchId                The catalog identifier of the purchased patch.
+   * @param ringOffset             The position of the purchased patch after the neutral pawn.
+   * @param rotations              The number of clock wise rotations of the placed patch.
+   * @param flipped                Whether the placed patch was flipped.
+   * @param placement              The point the patch was placed at.
+   * @param specialPatchPlacements The points the special patches were placed at.
+   */
+  public Move {
+    Objects.requireNonNull(type);
+    Objects.requireNonNull(specialPatchPlacements);
+    if (player != 1 && player != 2) {
+      throw new IllegalArgumentException("The player slot must be 1 or 2");
+    }
+    if (type == Type.PURCHASE) {
+      Objects.requireNonNull(placement);
+      if (patchId < -1) {
+        throw new IllegalArgumentException("Invalid patch id");
+      }
+      if (ringOffset < 1 || ringOffset > 3) {
+        throw new IllegalArgumentException("The ring offset must be between 1 and 3");
+      }
+      if (rotations < 0 || rotations > 3) {
+        throw new IllegalArgumentException("Rotations must be between 0 and 3");
+      }
+    }
+    specialPatchPlacements = List.copyOf(specialPatchPlacements);
+  }
+
+  /**
+   * A function that creates the move of a player advancing past the other player.
+   *
+   * @param player The slot of the player who moved.
+   * @return The move.
+   */
+  public static Move advance(int player) {
+    return new Move(Type.ADVANCE, player, -1, 0, 0, false, null, List.of());
+  }
+
+  /**
+   * A function that creates the move of a player purchasing and placing a patch.
+   *
+   * @param player     The slot of the player who moved.
+   * @param patchId    The catalog identifier of the purchased patch, -1 if unknown.
+   * @param ringOffset The position of the purchased patch after the neutral pawn, between 1 and 3.
+   * @param rotations  The number of clock wise rotations of the placed patch.
+   * @param flipped    Whether the placed patch was flipped after its rotations.
+   * @param placement  The point the patch was placed at.
+   * @return The move.
+   */
+  public static Move purchase(int player, int patchId, int ringOffset, int rotations, boolean flipped,
+                              Point placement) {
+    return new Move(Type.PURCHASE, player, patchId, ringOffset, rotations, flipped, placement, List.of());
+  }
+
+  /**
+   * A function that returns the same move with the given special patch placements.
+   *
+   * @param placements The points the special patches were placed at, in order.
+   * @return The completed move.
+   */
+  public Move withSpecialPatchPlacements(List<Point> placements) {
+    return new Move(type, player, patchId, ringOffset, rotations, flipped, placement, placements);
+  }
+}
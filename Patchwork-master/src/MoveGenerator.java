@@ -0,0 +1,124 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A class that lists the moves the rules allow in a position, for the bots.
+ */
+public final class MoveGenerator {
+  /* The patches a player can choose from, after the neutral pawn. */
+  private static final int CHOICES = 3;
+  /* The placements of a quiltboard, in the coordinates the quiltboard takes from the players, shared by the moves. */
+  private static final Point[] PLACEMENTS = new Point[9 * 9];
+
+  static {
+    for (int k = 0; k < PLACEMENTS.length; k++) {
+      PLACEMENTS[k] = new Point(k / 9 + 1, k % 9 + 1);
+    }
+  }
+
+  /**
+   * Private constructor, the class only holds static functions.
+   */
+  private MoveGenerator() {
+  }
+
+  /**
+   * A function that returns the patch of the circle at a given place after the neutral pawn.
+   *
+   * @param patches    The patches of the game.
+   * @param ringOffset The place after the neutral pawn, from 1.
+   * @return The patch.
+   */
+  public static Patch ringPatch(Patches patches, int ringOffset) {
+    var patchesList = patches.getPatchesList();
+    return patchesList.get((patches.getNeutralPawnIndex() + ringOffset - 1) % patchesList.size());
+  }
+
+  /**
+   * A function that returns copies of a patch in each of its distinct orientations, a symmetrical patch has fewer than
+   * eight.
+   *
+   * @param patch The patch.
+   * @return The oriented copies.
+   */
+  public static List<Patch> orientations(Patch patch) {
+    Objects.requireNonNull(patch);
+    var orientations = new ArrayList<Patch>(8);
+    for (int flip = 0; flip < 2; flip++) {
+      for (int rotations = 0; rotations < 4; rotations++) {
+        var oriented = patch.copy();
+        oriented.setOrientation(rotations, flip == 1);
+        if (orientations.stream().noneMatch(other -> Arrays.deepEquals(other.getStructure(),
+                                                                        oriented.getStructure()))) {
+          orientations.add(oriented);
+        }
+      }
+    }
+    return orientations;
+  }
+
+  /**
+   * A function that lists every move the player whose turn it is can make: advancing, and every placement of every
+   * orientation of the patches it can afford.
+   *
+   * @param state   The state of the game.
+   * @param playing The player whose turn it is.
+   * @return The moves, advancing first.
+   */
+  public static List<Move> legalMoves(GameState state, Player playing) {
+    Objects.requireNonNull(state);
+    Objects.requireNonNull(playing);
+    var slot = playing == state.player1() ? 1 : 2;
+    var moves = new ArrayList<Move>();
+    moves.add(Move.advance(slot));
+    var quiltBoard = playing.getQuiltBoard();
+    var choices = Math.min(CHOICES, state.patches().getPatchesList().size());
+    for (int ringOffset = 1; ringOffset <= choices; ringOffset++) {
+      var patch = ringPatch(state.patches(), ringOffset);
+      if (!playing.purchasePossible(patch)) {
+        continue;
+      }
+      for (var oriented : orientations(patch)) {
+        for (var point : PLACEMENTS) {
+          if (quiltBoard.validUserPlacement(point, oriented)) {
+            moves.add(Move.purchase(slot, patch.getId(), ringOffset, oriented.getRotations(), oriented.isFlipped(),
+                                    point));
+          }
+        }
+      }
+    }
+    return moves;
+  }
+
+  /**
+   * A function that determines if a move, coming from an opening book for instance, can be made in a position.
+   *
+   * @param state   The state of the game.
+   * @param playing The player whose turn it is.
+   * @param move    The move.
+   * @return A boolean.
+   */
+  public static boolean isLegal(GameState state, Player playing, Move move) {
+    Objects.requireNonNull(state);
+    Objects.requireNonNull(playing);
+    Objects.requireNonNull(move);
+    if (move.player() != (playing == state.player1() ? 1 : 2)) {
+      return false;
+    }
+    if (move.type() == Move.Type.ADVANCE) {
+      return true;
+    }
+    if (move.ringOffset() > Math.min(CHOICES, state.patches().getPatchesList().size())) {
+      return false;
+    }
+    var patch = ringPatch(state.patches(), move.ringOffset());
+    if (move.patchId() != -1 && move.patchId() != patch.getId() || !playing.purchasePossible(patch)) {
+      return false;
+    }
+    var oriented = patch.copy();
+    oriented.setOrientation(move.rotations(), move.flipped());
+    return playing.getQuiltBoard().validUserPlacement(move.placement(), oriented);
+  }
+}
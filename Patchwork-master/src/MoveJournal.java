@@ -0,0 +1,187 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A MoveRecorder that appends the games it is told about to a binary journal file.
+ * <p>
+ * The records are encoded in a direct buffer and written to the file in batches through a FileChannel, the file is
+ * only ever appended to, after its last complete record, so many games, played one after the other, can share a
+ * journal. A journal starts with the {@link #MAGIC} bytes and a version, followed by records starting with a tag
+ * byte:
+ * <ul>
+ *   <li>{@link #GAME_START}: version (0 base, 1 full), first player slot, the two names (unsigned byte length then UTF-8
+ *   bytes), the number of patches in the circle then their catalog identifiers, one byte each,</li>
+ *   <li>{@link #MOVE}: player slot, then for a purchase (slot or'ed with {@link #PURCHASE_FLAG}) the patch identifier
+ *   (255 if unknown), the ring offset, the orientation (rotations, plus 4 if flipped), the line and column, and finally
+ *   the number of special patches placed followed by their line and column,</li>
+ *   <li>{@link #GAME_END}: winner slot, score as a big endian short.</li>
+ * </ul>
+ * A journal isn't meant to be shared by games played at the same time, their records would interleave.
+ */
+public class MoveJournal implements MoveRecorder, Closeable {
+  static final byte[] MAGIC = {'P', 'W', 'J'};
+  static final byte VERSION = 1;
+  static final byte GAME_START = 1;
+  static final byte MOVE = 2;
+  static final byte GAME_END = 3;
+  static final int PURCHASE_FLAG = 0x80;
+  /* Much bigger than any record, two names of at most 255 bytes and a circle of at most 255 patches. */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private final boolean flushEveryMove;
+
+  /**
+   * A constructor for a MoveJournal instance, the file is created if it doesn't exist. An existing journal is read
+   * first, and cut after its last complete record if it was interrupted in the middle of one, so the records appended
+   * follow a complete one.
+   *
+   * @param path           The path of the journal.
+   * @param flushEveryMove Whether every move is written to the file right away, so that a game being played can be
+   *                       rebuilt after a crash, or only when the buffer is full and when the journal is closed.
+   * @throws IOException If the file can't be opened, or isn't a journal of this version or is corrupted.
+   */
+  public MoveJournal(Path path, boolean flushEveryMove) throws IOException {
+    Objects.requireNonNull(path);
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                    StandardOpenOption.WRITE);
+    this.flushEveryMove = flushEveryMove;
+    try {
+      if (channel.size() == 0) {
+        buffer.put(MAGIC).put(VERSION);
+        return;
+      }
+      long length;
+      try (var reader = new JournalReader(path)) {
+        while (reader.next() != null) {
+          // Read to the end, only the length of the complete records matters.
+        }
+        length = reader.getCompleteLength();
+      }
+      channel.truncate(length);
+      channel.position(length);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Makes sure the buffer has room for a record, writing its content to the file otherwise.
+   *
+   * @param size The size of the record.
+   */
+  private void reserve(int size) {
+    if (buffer.remaining() < size) {
+      flush();
+    }
+  }
+
+  /**
+   * Encodes a name in UTF-8, checking its length fits the one byte it is journaled with.
+   *
+   * @param name The name to encode.
+   * @return The UTF-8 bytes of the name.
+   */
+  private static byte[] nameBytes(String name) {
+    var bytes = name.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > 255) {
+      throw new IllegalArgumentException("Name too long to be journaled: " + name);
+    }
+    return bytes;
+  }
+
+  @Override
+  public void gameStarted(GameHeader header) {
+    Objects.requireNonNull(header);
+    if (header.dealOrder().size() > 255) {
+      throw new IllegalArgumentException("Too many patches to be journaled");
+    }
+    var name1 = nameBytes(header.player1Name());
+    var name2 = nameBytes(header.player2Name());
+    reserve(6 + name1.length + name2.length + header.dealOrder().size());
+    buffer.put(GAME_START).put((byte) (header.fullVersion() ? 1 : 0)).put((byte) header.firstPlayer())
+          .put((byte) name1.length).put(name1)
+          .put((byte) name2.length).put(name2)
+          .put((byte) header.dealOrder().size());
+    for (var id : header.dealOrder()) {
+      buffer.put((byte) (int) id);
+    }
+  }
+
+  @Override
+  public void moveApplied(Move move) {
+    Objects.requireNonNull(move);
+    var specials = move.specialPatchPlacements();
+    reserve(9 + 2 * specials.size());
+    buffer.put(MOVE);
+    if (move.type() == Move.Type.PURCHASE) {
+      buffer.put((byte) (move.player() | PURCHASE_FLAG))
+            .put((byte) move.patchId())
+            .put((byte) move.ringOffset())
+            .put((byte) (move.rotations() | (move.flipped() ? 4 : 0)))
+            .put((byte) move.placement().i())
+            .put((byte) move.placement().j());
+    } else {
+      buffer.put((byte) move.player());
+    }
+    buffer.put((byte) specials.size());
+    for (var point : specials) {
+      buffer.put((byte) point.i()).put((byte) point.j());
+    }
+    if (flushEveryMove) {
+      flush();
+    }
+  }
+
+  @Override
+  public void gameEnded(int winner, int score) {
+    reserve(4);
+    buffer.put(GAME_END).put((byte) winner).putShort((short) score);
+    if (flushEveryMove) {
+      flush();
+    }
+  }
+
+  /**
+   * Writes the buffered records to the file.
+   *
+   * @throws UncheckedIOException If the file can't be written, the recorder is called from within the game.
+   */
+  public void flush() {
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      buffer.clear();
+    }
+  }
+
+  /**
+   * Writes the buffered records and closes the file.
+   *
+   * @throws IOException If the file can't be written or closed.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/**
+ * An interface for the objects a GameController reports the course of a game to, the moves are reported once they
+ * are fully applied. A MoveRecorder only needs the moves, the state of the game it is given as a StateRecorder is
+ * ignored, so it can also be told about recorded games.
+ */
+public interface MoveRecorder extends StateRecorder {
+
+  /**
+   * A function called once when the game starts, before any move.
+   *
+   * @param header The random decisions the game starts with.
+   */
+  void gameStarted(GameHeader header);
+
+  @Override
+  default void gameStarted(GameHeader header, GameState state) {
+    gameStarted(header);
+  }
+
+  /**
+   * A function called at the end of every turn, with the move the player made.
+   *
+   * @param move The move, including the special patches placed during it.
+   */
+  void moveApplied(Move move);
+
+  @Override
+  default void moveApplied(Move move, GameState state) {
+    moveApplied(move);
+  }
+
+  /**
+   * A function that reports a whole recorded game, to store it in another format for instance.
+   *
+   * @param record The recorded game.
+   */
+  default void record(GameRecord record) {
+    gameStarted(record.header());
+    for (var move : record.moves()) {
+      moveApplied(move);
+    }
+    if (record.finished()) {
+      gameEnded(record.winner(), record.score());
+    }
+  }
+}
@@ -0,0 +1,347 @@
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * An implementation of the AsyncView interface that plays a game with two remote players over a line based text
+ * protocol, a prompt is a future completed by the reader of the connection, so a game waiting for a player holds no
+ * thread.
+ * <p>
+ * Every display call is serialized as a single line sent to both players, every prompt is sent as {@code ? KIND} to the
+ * player concerned only, and the next line it sends back is its answer. Players are designated by their slot, 1 or
+ * 2. The lines sent by the server are:
+ * <ul>
+ *   <li>{@code YOU slot}, {@code PLAYERS name1 name2} when the game starts,</li>
+ *   <li>{@code TIMEBOARD position1 position2 slotOnTop specialPatchesPositions...},</li>
+ *   <li>{@code QUILT slot buttons income cells}, cells being 81 characters, {@code .} for an empty space, {@code #}
+ *   for a patch space and {@code o} for a patch space with a button,</li>
+ *   <li>{@code PATCHES neutralPawnIndex patch...} for the next seven patches of the circle, and {@code PATCH patch}
+ *   after a rotation or a flip, a patch being {@code price,timeCost,income,lines,columns,cells},</li>
+ *   <li>{@code TURN slot}, {@code STATUS slot position buttons}, {@code INCOME slot amount}, {@code SPECIAL slot},
+ *   {@code FULL slot}, {@code BONUS slot}, {@code INVALID}, {@code RESULT slot score} and {@code BYE},</li>
+ *   <li>{@code EXPENSIVE}, sent to the prompted player only when it chose a patch it can't afford.</li>
+ * </ul>
+ * The prompts are {@code ? TURN} (answer {@code c} or {@code a}), {@code ? PATCH} ({@code 1}, {@code 2}, {@code 3} or
+ * {@code q}), {@code ? MANIPULATE} ({@code r}, {@code f}, {@code p} or {@code q}) and {@code ? PLACE} (the line and
+ * the column between 1 and 9 separated by a space). An unexpected answer is simply prompted again.
+ */
+public class NetworkView implements AsyncView {
+  private GameController gameController;
+  private final PlayerConnection connection1;
+  private final PlayerConnection connection2;
+  private final Player player1;
+  private final Player player2;
+
+  /**
+   * Constructor for the NetworkView class.
+   *
+   * @param connection1 The connection of the first player.
+   * @param connection2 The connection of the second player.
+   * @param player1     The first player.
+   * @param player2     The second player.
+   */
+  public NetworkView(PlayerConnection connection1, PlayerConnection connection2, Player player1, Player player2) {
+    this.connection1 = Objects.requireNonNull(connection1);
+    this.connection2 = Objects.requireNonNull(connection2);
+    this.player1 = Objects.requireNonNull(player1);
+    this.player2 = Objects.requireNonNull(player2);
+    connection1.send("YOU 1");
+    connection2.send("YOU 2");
+    broadcast("PLAYERS " + player1.getName() + " " + player2.getName());
+  }
+
+  /**
+   * Returns the slot of a player, 1 for the first player and 2 for the second.
+   *
+   * @param player The player in question.
+   * @return The slot of the player.
+   */
+  private int slotOf(Player player) {
+    return player == player1 ? 1 : 2;
+  }
+
+  /**
+   * Returns the connection of a player.
+   *
+   * @param player The player in question.
+   * @return The connection the player plays through.
+   */
+  private PlayerConnection connectionOf(Player player) {
+    return player == player1 ? connection1 : connection2;
+  }
+
+  /**
+   * Sends a line to both players.
+   *
+   * @param line The line to send.
+   */
+  private void broadcast(String line) {
+    connection1.send(line);
+    connection2.send(line);
+  }
+
+  /**
+   * Prompts a player until it gives an answer it is expected to give.
+   *
+   * @param player The player.
+   * @param kind   The kind of prompt.
+   * @param parse  The function that reads an answer, empty if the player has to be prompted again.
+   * @param <T>    The type of the answer read.
+   * @return A future completed with the first answer read.
+   */
+  private <T> CompletableFuture<T> askUntil(Player player, String kind, Function<String, Optional<T>> parse) {
+    var result = new CompletableFuture<T>();
+    askUntil(connectionOf(player), kind, parse, result);
+    return result;
+  }
+
+  /**
+   * Prompts a player again and again, inline as long as its answers are already there, so a player sending many wrong
+   * answers at once doesn't deepen the stack.
+   *
+   * @param connection The connection of the player.
+   * @param kind       The kind of prompt.
+   * @param parse      The function that reads an answer, empty if the player has to be prompted again.
+   * @param result     The future to complete with the first answer read.
+   * @param <T>        The type of the answer read.
+   */
+  private static <T> void askUntil(PlayerConnection connection, String kind, Function<String, Optional<T>> parse,
+                                   CompletableFuture<T> result) {
+    while (true) {
+      var answer = connection.ask(kind);
+      if (!answer.isDone()) {
+        answer.whenComplete((line, failure) -> {
+          if (failure != null) {
+            result.completeExceptionally(failure);
+            return;
+          }
+          Optional<T> read;
+          try {
+            read = parse.apply(line);
+          } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+          }
+          if (read.isPresent()) {
+            result.complete(read.get());
+          } else {
+            askUntil(connection, kind, parse, result);
+          }
+        });
+        return;
+      }
+      if (answer.isCompletedExceptionally()) {
+        answer.whenComplete((line, failure) -> result.completeExceptionally(failure));
+        return;
+      }
+      var read = parse.apply(answer.join());
+      if (read.isPresent()) {
+        result.complete(read.get());
+        return;
+      }
+    }
+  }
+
+  /**
+   * Encodes a patch as {@code price,timeCost,income,lines,columns,cells}.
+   *
+   * @param builder The builder to append the encoded patch to.
+   * @param patch   The patch to encode.
+   */
+  private static void appendPatch(StringBuilder builder, Patch patch) {
+    var structure = patch.getStructure();
+    builder.append(patch.getPrice()).append(',').append(patch.getTimeCost()).append(',').append(patch.getIncome())
+           .append(',').append(structure.length).append(',').append(structure[0].length).append(',');
+    appendSpaces(builder, structure);
+  }
+
+  /**
+   * Encodes a two-dimensional PatchSpace array line by line, one character per space.
+   *
+   * @param builder   The builder to append the encoded spaces to.
+   * @param structure The spaces to encode.
+   */
+  private static void appendSpaces(StringBuilder builder, PatchSpace[][] structure) {
+    for (var line : structure) {
+      for (var space : line) {
+        if (space == null) {
+          builder.append('.');
+        } else {
+          builder.append(space.button() ? 'o' : '#');
+        }
+      }
+    }
+  }
+
+  @Override
+  public void displayTimeBoard(TimeBoard timeBoard, Player player1, Player player2) {
+    Objects.requireNonNull(timeBoard);
+    Objects.requireNonNull(player1);
+    Objects.requireNonNull(player2);
+    var builder = new StringBuilder("TIMEBOARD ");
+    builder.append(player1.getPosition()).append(' ').append(player2.getPosition()).append(' ')
+           .append(slotOf(timeBoard.getPlayerOnTop()));
+    for (var position : timeBoard.getSpecialPatchesPos()) {
+      builder.append(' ').append(position);
+    }
+    broadcast(builder.toString());
+  }
+
+  @Override
+  public void displayQuiltBoard(Player player) {
+    Objects.requireNonNull(player);
+    var builder = new StringBuilder("QUILT ");
+    builder.append(slotOf(player)).append(' ').append(player.getButtons()).append(' ')
+           .append(player.getQuiltBoard().getTotalIncome()).append(' ');
+    appendSpaces(builder, player.getQuiltBoard().getStructure());
+    broadcast(builder.toString());
+  }
+
+  @Override
+  public void displayPatches(Patches patches) {
+    Objects.requireNonNull(patches);
+    var patchesList = patches.getPatchesList();
+    var builder = new StringBuilder("PATCHES ");
+    builder.append(patches.getNeutralPawnIndex() % patchesList.size());
+    for (int i = 0; i < Math.min(7, patchesList.size()); i++) {
+      builder.append(' ');
+      appendPatch(builder, patchesList.get((patches.getNeutralPawnIndex() + i) % patchesList.size()));
+    }
+    broadcast(builder.toString());
+  }
+
+  @Override
+  public void setController(GameController gameController) {
+    Objects.requireNonNull(gameController);
+    this.gameController = gameController;
+  }
+
+  @Override
+  public void playerTurnStartMessage(Player playing) {
+    Objects.requireNonNull(playing);
+    broadcast("TURN " + slotOf(playing));
+  }
+
+  @Override
+  public CompletableFuture<Character> promptPlayerTurnDecision(Player player) {
+    Objects.requireNonNull(player);
+    return askUntil(player, "TURN", answer -> {
+      if (!answer.isEmpty() && (answer.charAt(0) == 'c' || answer.charAt(0) == 'a')) {
+        return Optional.of(answer.charAt(0));
+      }
+      return Optional.empty();
+    });
+  }
+
+  @Override
+  public void displayPlayerNewStatusAfterAdvancing(Player player) {
+    Objects.requireNonNull(player);
+    broadcast("STATUS " + slotOf(player) + " " + player.getPosition() + " " + player.getButtons());
+  }
+
+  @Override
+  public void displayQuiltBoardIncomeMessage(Player playing) {
+    Objects.requireNonNull(playing);
+    broadcast("INCOME " + slotOf(playing) + " " + playing.getQuiltBoard().getTotalIncome());
+  }
+
+  @Override
+  public void displaySpecialPatchAcquisition(Player playing) {
+    Objects.requireNonNull(playing);
+    broadcast("SPECIAL " + slotOf(playing));
+  }
+
+  @Override
+  public CompletableFuture<Point> promptPlayerForPatchPlacementPosition(Player player) {
+    Objects.requireNonNull(player);
+    return askUntil(player, "PLACE", answer -> {
+      var parts = answer.split("[\\s,]+");
+      if (parts.length == 2) {
+        try {
+          return Optional.of(new Point(Integer.parseInt(parts[0]), Integer.parseInt(parts[1])));
+        } catch (NumberFormatException e) {
+          // Prompted again.
+        }
+      }
+      return Optional.empty();
+    });
+  }
+
+  @Override
+  public CompletableFuture<Optional<Patch>> promptPlayerPatchDecision(Player playing, Patches patches) {
+    Objects.requireNonNull(playing);
+    Objects.requireNonNull(patches);
+    return askUntil(playing, "PATCH", answer -> {
+      if (answer.isEmpty()) {
+        return Optional.empty();
+      }
+      switch (answer.charAt(0)) {
+        case '1', '2', '3' -> {
+          Patch chosen = patches.getPatchesList().get(
+                  (patches.getNeutralPawnIndex() + answer.charAt(0) - '1') % patches.getPatchesList().size());
+          if (playing.purchasePossible(chosen)) {
+            return Optional.of(Optional.of(chosen));
+          }
+          connectionOf(playing).send("EXPENSIVE");
+        }
+        case 'q' -> {
+          return Optional.of(Optional.empty());
+        }
+        default -> {
+          // Prompted again.
+        }
+      }
+      return Optional.empty();
+    });
+  }
+
+  @Override
+  public void quiltBoardFullyPatchedMessage(Player player) {
+    Objects.requireNonNull(player);
+    broadcast("FULL " + slotOf(player));
+  }
+
+  @Override
+  public CompletableFuture<Character> promptPlayerPatchManipulationDecision(Player playing) {
+    Objects.requireNonNull(playing);
+    return askUntil(playing, "MANIPULATE", answer -> {
+      if (!answer.isEmpty() && "rfpq".indexOf(answer.charAt(0)) >= 0) {
+        return Optional.of(answer.charAt(0));
+      }
+      return Optional.empty();
+    });
+  }
+
+  @Override
+  public void displayPatch(Patch patch) {
+    Objects.requireNonNull(patch);
+    var builder = new StringBuilder("PATCH ");
+    appendPatch(builder, patch);
+    broadcast(builder.toString());
+  }
+
+  @Override
+  public void displaySevenBySevenAcquisition(Player player) {
+    Objects.requireNonNull(player);
+    broadcast("BONUS " + slotOf(player));
+  }
+
+  @Override
+  public void displayWinnerMessage(GameResult res) {
+    Objects.requireNonNull(res);
+    broadcast("RESULT " + slotOf(res.winner()) + " " + res.score());
+  }
+
+  @Override
+  public void displayInvalidPlacementMessage() {
+    broadcast("INVALID");
+  }
+
+  @Override
+  public void closeView() {
+    broadcast("BYE");
+    connection1.closeAfterSending();
+    connection2.closeAfterSending();
+  }
+}
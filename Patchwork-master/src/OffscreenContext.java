@@ -0,0 +1,138 @@
+import fr.umlv.zen5.ApplicationContext;
+import fr.umlv.zen5.Event;
+import fr.umlv.zen5.ScreenInfo;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * An ApplicationContext that renders into an image in memory instead of a window, so a GraphicalView can draw without
+ * a display, with {@code java.awt.headless=true} on a server for instance.
+ * <p>
+ * Like the window of an application, the image keeps what was drawn from one frame to the next. There are no players
+ * in front of it: no event ever comes, and exiting only records the exit status since there is no application to
+ * stop. A context is meant to be used by one thread at a time, every thread rendering in parallel has its own.
+ */
+public class OffscreenContext implements ApplicationContext {
+  private final BufferedImage image;
+  private final ScreenInfo screenInfo;
+  private boolean exited;
+  private int exitStatus;
+
+  /**
+   * A constructor for an OffscreenContext instance, the image starts filled with the background color.
+   *
+   * @param width      The width of the image.
+   * @param height     The height of the image.
+   * @param background The background color.
+   */
+  public OffscreenContext(int width, int height, Color background) {
+    Objects.requireNonNull(background);
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("The size of the image must be positive");
+    }
+    this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    var graphics = image.createGraphics();
+    try {
+      graphics.setColor(background);
+      graphics.fillRect(0, 0, width, height);
+    } finally {
+      graphics.dispose();
+    }
+    this.screenInfo = new ScreenInfo() {
+      @Override
+      public float getWidth() {
+        return width;
+      }
+
+      @Override
+      public float getHeight() {
+        return height;
+      }
+    };
+  }
+
+  /**
+   * Getter function for the image field, the frames are rendered into it.
+   *
+   * @return The image.
+   */
+  public BufferedImage getImage() {
+    return image;
+  }
+
+  /**
+   * A function that writes the last frame rendered as a PNG file, an existing file is replaced.
+   *
+   * @param path The path of the file.
+   * @throws IOException If the file can't be written.
+   */
+  public void writePng(Path path) throws IOException {
+    Objects.requireNonNull(path);
+    if (!ImageIO.write(image, "png", path.toFile())) {
+      throw new IOException("No PNG writer available");
+    }
+  }
+
+  /**
+   * A function that determines if the view asked to exit.
+   *
+   * @return A boolean.
+   */
+  public boolean isExited() {
+    return exited;
+  }
+
+  /**
+   * Getter function for the exitStatus field.
+   *
+   * @return The status the view asked to exit with, 0 if it didn't.
+   */
+  public int getExitStatus() {
+    return exitStatus;
+  }
+
+  @Override
+  public ScreenInfo getScreenInfo() {
+    return screenInfo;
+  }
+
+  @Override
+  public void exit(int exitStatus) {
+    // Nothing to stop, the status is kept for the caller.
+    this.exited = true;
+    this.exitStatus = exitStatus;
+  }
+
+  @Override
+  public Event pollEvent() {
+    return null;
+  }
+
+  @Override
+  public Event pollOrWaitEvent(long timeout) {
+    try {
+      TimeUnit.MILLISECONDS.sleep(timeout);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return null;
+  }
+
+  @Override
+  public void renderFrame(Consumer<Graphics2D> renderer) {
+    Objects.requireNonNull(renderer);
+    var graphics = image.createGraphics();
+    try {
+      renderer.accept(graphics);
+    } finally {
+      graphics.dispose();
+    }
+  }
+}
@@ -0,0 +1,180 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A class that looks positions up in an opening book file, built offline by OpeningBookBuilder.
+ * <p>
+ * A book starts with the {@link #MAGIC} bytes, a version byte, the number of entries and the number of patches after
+ * the neutral pawn its positions were hashed with, followed by the entries sorted by position hash. An entry takes
+ * {@link #ENTRY_SIZE} bytes: the hash of the position (see PositionHash), the best move encoded by
+ * {@link #encodeMove(Move)}, the number of times it was played and its value, the share of those games the player who
+ * made it won, and 4 reserved bytes.
+ * <p>
+ * The file is mapped read-only and searched in place, by interpolation since the hashes are uniformly spread, so a
+ * lookup takes no heap and the pages are shared by every thread and every process of the host that opens the book.
+ * A book can hold about 89 million positions.
+ */
+public class OpeningBook {
+  static final byte[] MAGIC = {'P', 'W', 'B'};
+  /* Version 2 hashes the positions with the first patches of the circle rather than the whole circle. */
+  static final byte VERSION = 2;
+  static final int HEADER_SIZE = 12;
+  static final int ENTRY_SIZE = 24;
+
+  private final ByteBuffer entries;
+  private final int size;
+  private final int ringPatches;
+
+  /**
+   * A constructor for an OpeningBook instance, the file is mapped until the book is garbage collected.
+   *
+   * @param path The path of the book.
+   * @throws IOException If the file can't be mapped or isn't a book.
+   */
+  public OpeningBook(Path path) throws IOException {
+    Objects.requireNonNull(path);
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (mapping.capacity() < HEADER_SIZE || mapping.get(0) != MAGIC[0] || mapping.get(1) != MAGIC[1] ||
+          mapping.get(2) != MAGIC[2] || mapping.get(3) != VERSION) {
+        throw new IOException("Not an opening book, or a book of another version: " + path);
+      }
+      this.size = mapping.getInt(4);
+      this.ringPatches = mapping.getInt(8);
+      if ((long) HEADER_SIZE + (long) size * ENTRY_SIZE > mapping.capacity()) {
+        throw new IOException("Truncated opening book: " + path);
+      }
+      this.entries = mapping.slice(HEADER_SIZE, size * ENTRY_SIZE);
+    }
+  }
+
+  /**
+   * Getter function for the number of positions in the book.
+   *
+   * @return The number of entries.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Getter function for the number of patches after the neutral pawn the positions of the book were hashed with, the
+   * positions have to be looked up with the same number, see PositionHash.
+   *
+   * @return The number of patches.
+   */
+  public int getRingPatches() {
+    return ringPatches;
+  }
+
+  /**
+   * Returns the hash of an entry.
+   *
+   * @param index The index of the entry.
+   * @return The hash of its position.
+   */
+  public long hash(int index) {
+    return entries.getLong(index * ENTRY_SIZE);
+  }
+
+  /**
+   * Returns the encoded best move of an entry.
+   *
+   * @param index The index of the entry.
+   * @return The move, as encoded by {@link #encodeMove(Move)}.
+   */
+  public int move(int index) {
+    return entries.getInt(index * ENTRY_SIZE + 8);
+  }
+
+  /**
+   * Returns the number of times the best move of an entry was played.
+   *
+   * @param index The index of the entry.
+   * @return The visit count.
+   */
+  public int visits(int index) {
+    return entries.getInt(index * ENTRY_SIZE + 12);
+  }
+
+  /**
+   * Returns the value of the best move of an entry.
+   *
+   * @param index The index of the entry.
+   * @return The share of the games won by the player who made the move, between 0 and 1.
+   */
+  public float value(int index) {
+    return entries.getFloat(index * ENTRY_SIZE + 16);
+  }
+
+  /**
+   * A function that searches the book for a position. The absolute reads of the mapping make it safe to call from any
+   * number of threads.
+   *
+   * @param hash The hash of the position.
+   * @return The index of its entry, or -1 if the position isn't in the book.
+   */
+  public int find(long hash) {
+    int low = 0, high = size - 1;
+    while (low <= high) {
+      long lowHash = hash(low), highHash = hash(high);
+      if (hash < lowHash || hash > highHash) {
+        return -1;
+      }
+      int middle;
+      if (highHash == lowHash) {
+        middle = low;
+      } else {
+        // Interpolation, in doubles since the difference of two hashes can overflow.
+        middle = low + (int) (((double) hash - lowHash) / ((double) highHash - lowHash) * (high - low));
+        middle = Math.max(low, Math.min(high, middle));
+      }
+      var middleHash = hash(middle);
+      if (middleHash == hash) {
+        return middle;
+      }
+      if (middleHash < hash) {
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * A function that encodes a move, without its player and its special patch placements, in an int: bit 0 for a
+   * purchase, then the ring offset on 2 bits, the rotations on 2 bits, the flip on 1 bit, the line and the column of
+   * the placement on 4 bits each and the patch identifier plus 1 on 8 bits.
+   *
+   * @param move The move.
+   * @return The encoded move.
+   */
+  public static int encodeMove(Move move) {
+    Objects.requireNonNull(move);
+    if (move.type() == Move.Type.ADVANCE) {
+      return 0;
+    }
+    return 1 | move.ringOffset() << 1 | move.rotations() << 3 | (move.flipped() ? 1 << 5 : 0) |
+           move.placement().i() << 6 | move.placement().j() << 10 | (move.patchId() + 1) << 14;
+  }
+
+  /**
+   * A function that decodes a move encoded by {@link #encodeMove(Move)}.
+   *
+   * @param code   The encoded move.
+   * @param player The slot of the player who makes the move.
+   * @return The move.
+   */
+  public static Move decodeMove(int code, int player) {
+    if ((code & 1) == 0) {
+      return Move.advance(player);
+    }
+    return Move.purchase(player, (code >>> 14 & 0xFF) - 1, code >>> 1 & 3, code >>> 3 & 3, (code & 1 << 5) != 0,
+                         new Point(code >>> 6 & 0xF, code >>> 10 & 0xF));
+  }
+}
@@ -0,0 +1,119 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A StateRecorder that gathers the opening moves of the games it is told about, self-play games replayed for instance,
+ * and writes them as an opening book: for every position, the move played the most, how many times it was played and
+ * the share of those games won by the player who made it.
+ * <p>
+ * Only finished games are counted, the moves of a game are kept aside until its result is known.
+ */
+public class OpeningBookBuilder implements StateRecorder {
+  private final int turns;
+  private final int ringPatches;
+  /* Position hash to encoded move to its visits and wins. */
+  private final Map<Long, Map<Integer, int[]>> statistics = new HashMap<>();
+  private final List<long[]> gameMoves = new ArrayList<>();
+  private long positionHash;
+  private int turn;
+
+  /**
+   * A constructor for an OpeningBookBuilder instance.
+   *
+   * @param turns       The number of turns of every game that go into the book.
+   * @param ringPatches The number of patches after the neutral pawn the positions are hashed with, the fewer the more
+   *                    the shuffled deals of the full version share positions.
+   */
+  public OpeningBookBuilder(int turns, int ringPatches) {
+    if (turns <= 0) {
+      throw new IllegalArgumentException("The book needs at least one turn");
+    }
+    if (ringPatches < 0) {
+      throw new IllegalArgumentException("The number of patches can't be negative");
+    }
+    this.turns = turns;
+    this.ringPatches = ringPatches;
+  }
+
+  @Override
+  public void gameStarted(GameHeader header, GameState state) {
+    Objects.requireNonNull(state);
+    gameMoves.clear();
+    turn = 0;
+    positionHash = PositionHash.of(state, state.playerToMove(), ringPatches);
+  }
+
+  @Override
+  public void moveApplied(Move move, GameState state) {
+    Objects.requireNonNull(move);
+    Objects.requireNonNull(state);
+    if (turn++ >= turns) {
+      return;
+    }
+    gameMoves.add(new long[]{positionHash, OpeningBook.encodeMove(move), move.player()});
+    positionHash = PositionHash.of(state, state.playerToMove(), ringPatches);
+  }
+
+  @Override
+  public void gameEnded(int winner, int score) {
+    for (var gameMove : gameMoves) {
+      var counts = statistics.computeIfAbsent(gameMove[0], hash -> new HashMap<>())
+                             .computeIfAbsent((int) gameMove[1], code -> new int[2]);
+      counts[0]++;
+      if (gameMove[2] == winner) {
+        counts[1]++;
+      }
+    }
+    gameMoves.clear();
+  }
+
+  /**
+   * Getter function for the number of distinct positions gathered so far.
+   *
+   * @return The number of positions.
+   */
+  public int getPositions() {
+    return statistics.size();
+  }
+
+  /**
+   * A function that writes the book, an existing file is replaced.
+   *
+   * @param path The path of the book.
+   * @throws IOException If the file can't be written.
+   */
+  public void write(Path path) throws IOException {
+    Objects.requireNonNull(path);
+    var hashes = statistics.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    var buffer = ByteBuffer.allocate(OpeningBook.HEADER_SIZE + hashes.length * OpeningBook.ENTRY_SIZE);
+    buffer.put(OpeningBook.MAGIC).put(OpeningBook.VERSION).putInt(hashes.length).putInt(ringPatches);
+    for (var hash : hashes) {
+      int bestMove = 0, bestVisits = -1, bestWins = 0;
+      for (var entry : statistics.get(hash).entrySet()) {
+        var counts = entry.getValue();
+        // The most played move, then the one that won the most.
+        if (counts[0] > bestVisits || counts[0] == bestVisits && counts[1] > bestWins) {
+          bestMove = entry.getKey();
+          bestVisits = counts[0];
+          bestWins = counts[1];
+        }
+      }
+      buffer.putLong(hash).putInt(bestMove).putInt(bestVisits).putFloat((float) bestWins / bestVisits).putInt(0);
+    }
+    buffer.flip();
+    try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+  }
+}
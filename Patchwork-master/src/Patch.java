@@ -6,14 +6,19 @@ import java.util.Objects;
  * A class that aims to represent a patch and all its properties.
  */
 public class Patch {
+  private final int id;
   private final int price, timeCost, income;
   private float x, y;
   private final Color color;
   private PatchSpace[][] structure;
+  /* The orientation relative to the catalog structure: rotated clock wise that many times, then flipped or not. */
+  private int rotations;
+  private boolean flipped;
 
   /**
    * A constructor for the Patch object.
    *
+   * @param id        The identifier of the patch in its catalog, the order in which the patches were generated.
    * @param price     The price in buttons of the patch.
    * @param timeCost  The time cost (space cost) of the patch.
    * @param income    The amount of buttons this patch will give if it were placed on the player's quiltboard and if the
@@ -23,7 +28,10 @@ public class Patch {
    * @param x         The x coordinate of the top left piece of the patch.
    * @param y         The y coordinate of the top left piece of the patch.
    */
-  public Patch(int price, int timeCost, int income, PatchSpace[][] structure, Color color, float x, float y) {
+  public Patch(int id, int price, int timeCost, int income, PatchSpace[][] structure, Color color, float x, float y) {
+    if (id < 0) {
+      throw new IllegalArgumentException("Negative id");
+    }
     if (price < 0) {
       throw new IllegalArgumentException("Negative price");
     }
@@ -33,6 +41,7 @@ public class Patch {
     if (income < 0) {
       throw new IllegalArgumentException("Negative income");
     }
+    this.id = id;
     this.price = price;
     this.timeCost = timeCost;
     this.income = income;
@@ -44,6 +53,33 @@ public class Patch {
 
   // Putting the needed getters and setters before the actual functions
 
+  /**
+   * Getter function for id field.
+   *
+   * @return id field
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Getter function for the number of clock wise rotations applied to the catalog structure.
+   *
+   * @return the number of rotations, between 0 and 3
+   */
+  public int getRotations() {
+    return rotations;
+  }
+
+  /**
+   * Getter function for flipped field, whether the structure was flipped after its rotations.
+   *
+   * @return flipped field
+   */
+  public boolean isFlipped() {
+    return flipped;
+  }
+
   /**
    * Getter function for structure field.
    *
@@ -147,6 +183,7 @@ public class Patch {
    * A function that flips a patch's structure on the vertical axis.
    */
   public void flipPatch() {
+    flipped = !flipped;
     for (int j = 0; j < structure.length; j++) {
       for (int i = 0; i < structure[j].length / 2; i++) {
         PatchSpace temp = structure[j][i];
@@ -160,9 +197,52 @@ public class Patch {
    * A function that rotates the patch clock wise.
    */
   public void rotatePatch() {
+    // Rotating a flipped structure clock wise is the same as flipping the structure rotated counter clock wise.
+    rotations = (rotations + (flipped ? 3 : 1)) % 4;
     structure = rotateStructureClockWise(structure);
   }
 
+  /**
+   * A function that turns the patch to the given orientation, whatever its current one.
+   *
+   * @param rotations The number of clock wise rotations to apply to the catalog structure, between 0 and 3.
+   * @param flipped   Whether the structure is flipped after its rotations.
+   */
+  public void setOrientation(int rotations, boolean flipped) {
+    if (rotations < 0 || rotations > 3) {
+      throw new IllegalArgumentException("Rotations must be between 0 and 3");
+    }
+    // Back to the catalog structure first.
+    if (this.flipped) {
+      flipPatch();
+    }
+    while (this.rotations != 0) {
+      rotatePatch();
+    }
+    for (int i = 0; i < rotations; i++) {
+      rotatePatch();
+    }
+    if (flipped) {
+      flipPatch();
+    }
+  }
+
+  /**
+   * A function that creates a copy of the patch, in the same orientation, that can be rotated and flipped
+   * independently.
+   *
+   * @return The copy.
+   */
+  public Patch copy() {
+    var copy = new Patch(id, price, timeCost, income, new PatchSpace[structure.length][], color, x, y);
+    for (int i = 0; i < structure.length; i++) {
+      copy.structure[i] = structure[i].clone();
+    }
+    copy.rotations = rotations;
+    copy.flipped = flipped;
+    return copy;
+  }
+
   /**
    * A function that takes in two two-dimensional boolean arrays and computes if their lengths and widths are equal.
    *
@@ -0,0 +1,81 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * A class that keeps one pre-rendered image, a sprite, for every patch of a catalog in every orientation it was shown
+ * in, so drawing a patch is a single copy of its sprite instead of drawing each of its squares and buttons.
+ * <p>
+ * A sprite is drawn the first time its patch is asked for in an orientation, by the painter given to the atlas, and is
+ * kept for the lifetime of the atlas: a catalog holds at most 33 patches, in 8 orientations each. The identifiers of the
+ * patches are those of one catalog, an atlas is not shared between games played with different catalogs.
+ */
+public class PatchSpriteAtlas {
+  private final int tileSize;
+  private final BiConsumer<Graphics2D, Patch> painter;
+  /* Identifier and orientation of the patch to its sprite. */
+  private final Map<Integer, BufferedImage> sprites = new HashMap<>();
+
+  /**
+   * A constructor for a PatchSpriteAtlas instance.
+   *
+   * @param tileSize The size in pixels of a square of a patch.
+   * @param painter  The function that draws a patch in its orientation with its top left corner at the origin.
+   */
+  public PatchSpriteAtlas(int tileSize, BiConsumer<Graphics2D, Patch> painter) {
+    Objects.requireNonNull(painter);
+    if (tileSize <= 0) {
+      throw new IllegalArgumentException("The size of a square must be positive");
+    }
+    this.tileSize = tileSize;
+    this.painter = painter;
+  }
+
+  /**
+   * Computes the key of a patch in the atlas from its identifier and its orientation.
+   *
+   * @param patch The patch.
+   * @return The key.
+   */
+  private static int keyOf(Patch patch) {
+    return patch.getId() << 3 | patch.getRotations() << 1 | (patch.isFlipped() ? 1 : 0);
+  }
+
+  /**
+   * Returns the sprite of a patch in its current orientation, drawing it if it is the first time.
+   *
+   * @param target The graphics the sprite will be copied to, the sprite is in a format quick to copy to it.
+   * @param patch  The patch.
+   * @return The sprite, as wide and high as the structure of the patch.
+   */
+  public BufferedImage sprite(Graphics2D target, Patch patch) {
+    Objects.requireNonNull(target);
+    Objects.requireNonNull(patch);
+    return sprites.computeIfAbsent(keyOf(patch), key -> {
+      var structure = patch.getStructure();
+      var image = target.getDeviceConfiguration().createCompatibleImage(structure[0].length * tileSize,
+                                                                        structure.length * tileSize,
+                                                                        Transparency.TRANSLUCENT);
+      var graphics = image.createGraphics();
+      try {
+        graphics.setRenderingHints(target.getRenderingHints());
+        painter.accept(graphics, patch);
+      } finally {
+        graphics.dispose();
+      }
+      return image;
+    });
+  }
+
+  /**
+   * Getter function for the number of sprites drawn so far.
+   *
+   * @return The number of sprites in the atlas.
+   */
+  public int size() {
+    return sprites.size();
+  }
+}
@@ -81,6 +81,41 @@ public class Patches {
     return myBuilder.toString();
   }
 
+  /**
+   * A function that returns the identifiers of the patches in the order they are laid in the circle, starting from the
+   * beginning of the list.
+   *
+   * @return A list of patch identifiers.
+   */
+  public List<Integer> getDealOrder() {
+    var ids = new ArrayList<Integer>(patchesList.size());
+    for (var patch : patchesList) {
+      ids.add(patch.getId());
+    }
+    return ids;
+  }
+
+  /**
+   * A function that fills patchesList with copies of catalog patches laid in a known order, used to play a dealt game
+   * again.
+   *
+   * @param catalog   The patches of the catalog, indexed by their identifier.
+   * @param dealOrder The identifiers of the patches in the order of the circle.
+   */
+  public void deal(List<Patch> catalog, List<Integer> dealOrder) {
+    Objects.requireNonNull(catalog);
+    Objects.requireNonNull(dealOrder);
+    patchesList.clear();
+    neutralPawnIndex = 0;
+    for (var id : dealOrder) {
+      var patch = catalog.get(id);
+      if (patch.getId() != id) {
+        throw new IllegalArgumentException("The catalog isn't indexed by patch identifier");
+      }
+      add(patch.copy());
+    }
+  }
+
   /**
    * A function that takes a string of booleans separated by sep, and returns the corresponding PatchSpace array.
    *
@@ -192,7 +227,7 @@ public class Patches {
         PatchSpace[][] patchStruct = parsePatchStructFromFile(reader, Integer.parseInt(dimensions[0]),
                                                               Integer.parseInt(dimensions[1]), color);
         addButtons(patchStruct, Integer.parseInt(paramsTable[2]));
-        add(new Patch(Integer.parseInt(paramsTable[0]), Integer.parseInt(paramsTable[1]),
+        add(new Patch(patchesList.size(), Integer.parseInt(paramsTable[0]), Integer.parseInt(paramsTable[1]),
                       Integer.parseInt(paramsTable[2]), patchStruct, color, 0, 0));
       }
       Patch twoByOne = patchesList.remove(patchesList.size() - 1);
@@ -211,10 +246,11 @@ public class Patches {
     Color model1Color = new Color(255, 179, 179);
     Color model2Color = new Color(119, 214, 119);
     for (int i = 0; i < 20; i++) {
-      add(new Patch(3, 4, 1, new PatchSpace[][]{{new PatchSpace(false, model1Color), new PatchSpace(true, model1Color)},
-                                                {new PatchSpace(false, model1Color),
-                                                 new PatchSpace(false, model1Color)}}, model1Color, 0, 0));
-      add(new Patch(2, 2, 0,
+      add(new Patch(patchesList.size(), 3, 4, 1,
+                    new PatchSpace[][]{{new PatchSpace(false, model1Color), new PatchSpace(true, model1Color)},
+                                       {new PatchSpace(false, model1Color), new PatchSpace(false, model1Color)}},
+                    model1Color, 0, 0));
+      add(new Patch(patchesList.size(), 2, 2, 0,
                     new PatchSpace[][]{{new PatchSpace(false, model2Color), new PatchSpace(false, model2Color)},
                                        {new PatchSpace(false, model2Color), new PatchSpace(false, model2Color)}},
                     model2Color, 0, 0));
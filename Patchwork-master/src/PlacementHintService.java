@@ -0,0 +1,292 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A class that suggests where to place a patch on a quiltboard: every distinct orientation of the patch is tried at
+ * every position it fits, and the placements are ranked by the fragmentation of the quiltboard they leave, as the
+ * PositionEvaluator weights it, the regions and the dead spaces they create and the progress toward the 7x7 bonus.
+ * <p>
+ * The ranked placements are kept in a least recently used cache, by occupancy of the quiltboard, patch and size of
+ * the smallest patch left in the circle, so the hints of a patch are computed once per turn and the view can ask for
+ * them again every time the player rotates or flips it. The cache holds a bounded number of entries, each of at most
+ * {@link #HINTS_PER_ORIENTATION} placements per orientation, and counts its hits and its misses. The patches are told
+ * apart by identifier, a service serves the patches of one catalog.
+ */
+public class PlacementHintService {
+  /**
+   * The number of entries of the cache by default.
+   */
+  public static final int DEFAULT_CAPACITY = 1024;
+  /**
+   * The number of placements kept for each orientation of a patch, the best ones.
+   */
+  public static final int HINTS_PER_ORIENTATION = 4;
+  private static final int ORIENTATIONS = 8;
+  private static final int SIZE = PositionEvaluator.SIZE;
+
+  /**
+   * A record of a placement suggested.
+   *
+   * @param rotations The number of clock wise rotations of the patch, from its catalog structure.
+   * @param flipped   Whether the patch is flipped after its rotations.
+   * @param placement The placement, in the coordinates the quiltboard takes from the players.
+   * @param value     The value of the placement, the higher the better.
+   */
+  public record Hint(int rotations, boolean flipped, Point placement, double value) {
+  }
+
+  /**
+   * A record of the key of the cache.
+   *
+   * @param low           The occupancy of the first seven lines of the quiltboard, nine bits per line.
+   * @param high          The occupancy of the last two lines of the quiltboard.
+   * @param patchId       The identifier of the patch.
+   * @param smallestPatch The number of spaces of the smallest patch left in the circle.
+   */
+  private record Key(long low, long high, int patchId, int smallestPatch) {
+  }
+
+  /**
+   * A record of an entry of the cache.
+   *
+   * @param hints     The placements, the best first.
+   * @param canonical For each orientation, rotations plus 4 if flipped, the first orientation of the same shape.
+   */
+  private record Entry(Hint[] hints, int[] canonical) {
+  }
+
+  private final int capacity;
+  private final PositionEvaluator evaluator;
+  private final Map<Key, Entry> cache;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  /* The occupancy of the quiltboard and the shapes of the orientations of the patch, as bitmasks. */
+  private final int[] lines = new int[SIZE];
+  private final int[][] shapes = new int[ORIENTATIONS][SIZE];
+  private final int[] shapeLines = new int[ORIENTATIONS];
+
+  /**
+   * Constructor for a PlacementHintService with the default capacity and weights.
+   */
+  public PlacementHintService() {
+    this(DEFAULT_CAPACITY, PositionEvaluator.Weights.DEFAULT);
+  }
+
+  /**
+   * Constructor for a PlacementHintService.
+   *
+   * @param capacity The number of entries of the cache.
+   * @param weights  The weights the placements are ranked with.
+   */
+  public PlacementHintService(int capacity, PositionEvaluator.Weights weights) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The cache can't be empty");
+    }
+    this.capacity = capacity;
+    this.evaluator = new PositionEvaluator(weights);
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        return size() > PlacementHintService.this.capacity;
+      }
+    };
+  }
+
+  /**
+   * Getter function for the capacity field.
+   *
+   * @return The number of entries of the cache.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Getter function for the number of entries in the cache.
+   *
+   * @return The number of entries.
+   */
+  public synchronized int getSize() {
+    return cache.size();
+  }
+
+  /**
+   * Getter function for the number of hints found in the cache.
+   *
+   * @return The number of hits.
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Getter function for the number of hints computed.
+   *
+   * @return The number of misses.
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * A function that suggests the best placements of a patch, in any orientation.
+   *
+   * @param quiltBoard    The quiltboard.
+   * @param patch         The patch, in any orientation.
+   * @param smallestPatch The number of spaces of the smallest patch left in the circle, see
+   *                      PositionEvaluator.smallestPatch.
+   * @param count         The number of placements wanted.
+   * @return At most count placements, the best first, none if the patch doesn't fit.
+   */
+  public synchronized List<Hint> hints(QuiltBoard quiltBoard, Patch patch, int smallestPatch, int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("The number of hints can't be negative");
+    }
+    var hints = entry(quiltBoard, patch, smallestPatch).hints();
+    return List.of(Arrays.copyOf(hints, Math.min(count, hints.length)));
+  }
+
+  /**
+   * A function that suggests the best placement of a patch in its current orientation.
+   *
+   * @param quiltBoard    The quiltboard.
+   * @param patch         The patch.
+   * @param smallestPatch The number of spaces of the smallest patch left in the circle.
+   * @return The placement, or nothing if the patch doesn't fit in this orientation.
+   */
+  public synchronized Optional<Hint> bestInOrientation(QuiltBoard quiltBoard, Patch patch, int smallestPatch) {
+    var entry = entry(quiltBoard, patch, smallestPatch);
+    var orientation = entry.canonical()[patch.getRotations() + (patch.isFlipped() ? 4 : 0)];
+    for (var hint : entry.hints()) {
+      if (hint.rotations() + (hint.flipped() ? 4 : 0) == orientation) {
+        return Optional.of(hint);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Finds the ranked placements of a patch in the cache, computing them if they aren't there.
+   *
+   * @param quiltBoard    The quiltboard.
+   * @param patch         The patch.
+   * @param smallestPatch The number of spaces of the smallest patch left in the circle.
+   * @return The entry of the cache.
+   */
+  private Entry entry(QuiltBoard quiltBoard, Patch patch, int smallestPatch) {
+    Objects.requireNonNull(quiltBoard);
+    Objects.requireNonNull(patch);
+    PositionEvaluator.occupancy(quiltBoard, lines);
+    long low = 0, high = 0;
+    for (int i = 0; i < 7; i++) {
+      low |= (long) lines[i] << (i * SIZE);
+    }
+    for (int i = 7; i < SIZE; i++) {
+      high |= (long) lines[i] << ((i - 7) * SIZE);
+    }
+    var key = new Key(low, high, patch.getId(), smallestPatch);
+    var entry = cache.get(key);
+    if (entry != null) {
+      hits.increment();
+      return entry;
+    }
+    misses.increment();
+    entry = rank(patch, smallestPatch);
+    cache.put(key, entry);
+    return entry;
+  }
+
+  /**
+   * Ranks the placements of every distinct orientation of a patch on the quiltboard whose occupancy is in lines.
+   *
+   * @param patch         The patch.
+   * @param smallestPatch The number of spaces of the smallest patch left in the circle.
+   * @return The entry of the cache.
+   */
+  private Entry rank(Patch patch, int smallestPatch) {
+    var oriented = patch.copy();
+    var canonical = new int[ORIENTATIONS];
+    var ranked = new Hint[ORIENTATIONS * HINTS_PER_ORIENTATION];
+    var size = 0;
+    for (int orientation = 0; orientation < ORIENTATIONS; orientation++) {
+      oriented.setOrientation(orientation % 4, orientation >= 4);
+      var shape = shapes[orientation];
+      shapeLines[orientation] = PositionEvaluator.shape(oriented, shape);
+      canonical[orientation] = orientation;
+      for (int previous = 0; previous < orientation; previous++) {
+        if (shapeLines[previous] == shapeLines[orientation] &&
+            Arrays.equals(shapes[previous], 0, shapeLines[previous], shape, 0, shapeLines[orientation])) {
+          canonical[orientation] = previous;
+          break;
+        }
+      }
+      if (canonical[orientation] != orientation) {
+        continue; // The same shape as an orientation already ranked.
+      }
+      var columns = oriented.getStructure()[0].length;
+      var kept = 0;
+      for (int top = 0; top + shapeLines[orientation] <= SIZE; top++) {
+        for (int left = 0; left + columns <= SIZE; left++) {
+          if (!fits(shape, shapeLines[orientation], top, left)) {
+            continue;
+          }
+          var value = evaluator.evaluatePlacement(lines, shape, shapeLines[orientation], top, left, smallestPatch);
+          // Insertion among the best placements of the orientation, the first found wins the ties.
+          var index = size + kept;
+          if (kept == HINTS_PER_ORIENTATION) {
+            if (value <= ranked[index - 1].value()) {
+              continue;
+            }
+            index--;
+          } else {
+            kept++;
+          }
+          while (index > size && ranked[index - 1].value() < value) {
+            ranked[index] = ranked[index - 1];
+            index--;
+          }
+          var placement = new Point(top + 1, left + 1 + Integer.numberOfTrailingZeros(shape[0]));
+          ranked[index] = new Hint(orientation % 4, orientation >= 4, placement, value);
+        }
+      }
+      size += kept;
+    }
+    var hints = Arrays.copyOf(ranked, size);
+    Arrays.sort(hints, (a, b) -> Double.compare(b.value(), a.value()));
+    return new Entry(hints, canonical);
+  }
+
+  /**
+   * Determines if a patch fits on the quiltboard at a given place.
+   *
+   * @param shape      The spaces of the patch, as bitmasks.
+   * @param shapeLines The number of lines of the patch.
+   * @param top        The line of the top left corner of the patch, from 0.
+   * @param left       The column of the top left corner of the patch, from 0.
+   * @return A boolean.
+   */
+  private boolean fits(int[] shape, int shapeLines, int top, int left) {
+    for (int i = 0; i < shapeLines; i++) {
+      if ((lines[top + i] & shape[i] << left) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A function that creates the report of the cache.
+   *
+   * @return The report, on one line.
+   */
+  public String report() {
+    long hitCount = getHits(), lookups = hitCount + getMisses();
+    return String.format("placement hints: %d/%d entries, %d lookups, %.1f%% hits", getSize(), capacity, lookups,
+                         lookups == 0 ? 0.0 : 100.0 * hitCount / lookups);
+  }
+}
@@ -1,5 +1,6 @@
 import java.awt.*;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A class that aims to represent a player and all his properties.
@@ -13,7 +14,8 @@ public class Player {
   private boolean first;
   private final Color color;
 
-  private static int nextId = 1;
+  // Players of concurrent matches are created on different threads.
+  private static final AtomicInteger nextId = new AtomicInteger(1);
 
   /**
    * A contractor for a Player instance.
@@ -33,7 +35,7 @@ public class Player {
     if (position < 0) {
       throw new IllegalArgumentException("Negative position");
     }
-    int id = nextId++;
+    int id = nextId.getAndIncrement();
     this.buttons = buttons;
     this.quiltBoard = new QuiltBoard(quiltBoardColor, id); // Smart quiltboard feature (lmao). A QB knows its
     // master.
@@ -0,0 +1,301 @@
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A class that wraps the socket of a remote player, it sends the line based messages of the network protocol and reads
+ * the player's answers.
+ * <p>
+ * The socket is read by a ConnectionReader: a prompt returns a future, completed on the thread of the reader by the
+ * next line of the player, so a connection waiting for its player holds no thread. The lines are sent without
+ * waiting, the ones the socket can't take at once are kept until it can, up to {@link #MAX_PENDING_BYTES}.
+ */
+public class PlayerConnection implements Closeable {
+  /**
+   * The number of bytes a connection keeps for a player that doesn't read them, beyond it the player is dropped.
+   */
+  public static final int MAX_PENDING_BYTES = 1 << 20;
+  private static final int MAX_LINE_BYTES = 1 << 12;
+
+  private final SocketChannel channel;
+  private final ConnectionReader reader;
+  private final ByteBuffer input = ByteBuffer.allocate(1 << 12);
+  private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+  /* The lines read that no prompt asked for yet, and the prompt waiting for a line. */
+  private final ArrayDeque<String> lines = new ArrayDeque<>();
+  private CompletableFuture<String> pending;
+  /* The bytes the socket didn't take yet, in write mode. */
+  private ByteBuffer output = ByteBuffer.allocate(1 << 12);
+  private boolean awaitingWritable;
+  private boolean closing;
+  private boolean closed;
+
+  /**
+   * A constructor for a PlayerConnection instance, the reader starts reading the socket right away.
+   *
+   * @param channel The connected socket of the remote player.
+   * @param reader  The reader of the socket.
+   * @throws IOException If the socket can't be put in non blocking mode.
+   */
+  public PlayerConnection(SocketChannel channel, ConnectionReader reader) throws IOException {
+    Objects.requireNonNull(channel);
+    Objects.requireNonNull(reader);
+    this.channel = channel;
+    this.reader = reader;
+    channel.configureBlocking(false);
+    reader.register(this);
+  }
+
+  /**
+   * Getter function for the channel field.
+   *
+   * @return The socket of the player.
+   */
+  SocketChannel channel() {
+    return channel;
+  }
+
+  /**
+   * Creates the exception of a player gone.
+   *
+   * @return The exception.
+   */
+  private static UncheckedIOException disconnection() {
+    return new UncheckedIOException(new IOException("Player disconnected"));
+  }
+
+  /**
+   * Sends a single line to the remote player.
+   *
+   * @param line The line to send, without the line terminator.
+   * @throws UncheckedIOException If the player disconnected, the socket failed or the player doesn't read.
+   */
+  public void send(String line) {
+    Objects.requireNonNull(line);
+    var bytes = line.getBytes(StandardCharsets.UTF_8);
+    synchronized (this) {
+      ensureOutput(bytes.length + 1);
+      output.put(bytes).put((byte) '\n');
+      flush();
+    }
+  }
+
+  /**
+   * Sends a binary frame to the remote end, preceded by its length as a big-endian int.
+   *
+   * @param frame The frame, its position is left as it is.
+   * @throws UncheckedIOException If the remote end disconnected, the socket failed or it doesn't read.
+   */
+  public void sendFrame(ByteBuffer frame) {
+    Objects.requireNonNull(frame);
+    synchronized (this) {
+      ensureOutput(frame.remaining() + 4);
+      output.putInt(frame.remaining()).put(frame.duplicate());
+      flush();
+    }
+  }
+
+  /**
+   * Makes room in the output buffer, which is checked to still be usable.
+   *
+   * @param bytes The number of bytes about to be added.
+   * @throws UncheckedIOException If the connection is closed or the bytes kept would exceed the maximum.
+   */
+  private void ensureOutput(int bytes) {
+    if (closed) {
+      throw disconnection();
+    }
+    if (output.remaining() < bytes) {
+      var needed = output.position() + bytes;
+      if (needed > MAX_PENDING_BYTES) {
+        close();
+        throw new UncheckedIOException(new IOException("Player doesn't read"));
+      }
+      var bigger = ByteBuffer.allocate(Math.max(output.capacity() * 2, needed));
+      output.flip();
+      bigger.put(output);
+      output = bigger;
+    }
+  }
+
+  /**
+   * Writes what the socket takes of the output buffer without waiting, the reader is asked to write the rest once the
+   * socket can take it.
+   *
+   * @throws UncheckedIOException If the socket failed.
+   */
+  private void flush() {
+    if (!writeAvailable() && !awaitingWritable) {
+      awaitingWritable = true;
+      reader.awaitWritable(this);
+    }
+  }
+
+  /**
+   * Writes what the socket takes of the output buffer, called by the reader once the socket can take more.
+   *
+   * @return true if the output buffer is empty.
+   * @throws UncheckedIOException If the socket failed.
+   */
+  synchronized boolean writeAvailable() {
+    output.flip();
+    try {
+      channel.write(output);
+    } catch (IOException e) {
+      close();
+      throw new UncheckedIOException(e);
+    } finally {
+      output.compact();
+    }
+    var written = output.position() == 0;
+    if (written) {
+      awaitingWritable = false;
+      if (closing) {
+        close();
+      }
+    }
+    return written;
+  }
+
+  /**
+   * Waits for the next line of the remote end.
+   *
+   * @return A future completed with the trimmed line, or failed with an UncheckedIOException if the remote end
+   * disconnected.
+   * @throws IllegalStateException If a line is already waited for.
+   */
+  public synchronized CompletableFuture<String> receive() {
+    if (!lines.isEmpty()) {
+      return CompletableFuture.completedFuture(lines.poll().trim());
+    }
+    if (closed) {
+      return CompletableFuture.failedFuture(disconnection());
+    }
+    if (pending != null) {
+      throw new IllegalStateException("A line is already waited for");
+    }
+    pending = new CompletableFuture<>();
+    return pending;
+  }
+
+  /**
+   * Sends a prompt to the remote player and waits for its answer.
+   *
+   * @param kind The kind of prompt, one of the prompt keywords of the protocol.
+   * @return A future completed with the trimmed answer of the player, or failed with an UncheckedIOException if the
+   * player disconnected or the socket failed.
+   */
+  public CompletableFuture<String> ask(String kind) {
+    Objects.requireNonNull(kind);
+    try {
+      send("? " + kind);
+    } catch (UncheckedIOException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    return receive();
+  }
+
+  /**
+   * Reads what the socket holds, called by the reader. The prompt waiting is completed outside of the lock, its game
+   * goes on from there.
+   *
+   * @throws IOException If the socket failed or the player sent a line too long.
+   */
+  void readAvailable() throws IOException {
+    int read;
+    try {
+      read = channel.read(input);
+    } catch (IOException e) {
+      read = -1;
+    }
+    if (read < 0) {
+      disconnected();
+      return;
+    }
+    input.flip();
+    synchronized (this) {
+      while (input.hasRemaining()) {
+        var b = input.get();
+        if (b == '\n') {
+          lines.add(line.toString(StandardCharsets.UTF_8));
+          line.reset();
+        } else if (line.size() == MAX_LINE_BYTES) {
+          throw new IOException("Line too long");
+        } else {
+          line.write(b);
+        }
+      }
+    }
+    input.clear();
+    while (true) {
+      CompletableFuture<String> answered;
+      String answer;
+      synchronized (this) {
+        if (pending == null || lines.isEmpty()) {
+          return;
+        }
+        answered = pending;
+        answer = lines.poll().trim();
+        pending = null;
+      }
+      answered.complete(answer);
+    }
+  }
+
+  /**
+   * Fails the prompt waiting, if any, once the player is gone.
+   */
+  void disconnected() {
+    CompletableFuture<String> failed;
+    synchronized (this) {
+      closed = true;
+      failed = pending;
+      pending = null;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // Nothing left to do with a broken socket.
+    }
+    if (failed != null) {
+      failed.completeExceptionally(disconnection());
+    }
+  }
+
+  /**
+   * Closes the connection once the lines sent so far are written, the prompt waiting fails right away.
+   */
+  public void closeAfterSending() {
+    CompletableFuture<String> failed;
+    synchronized (this) {
+      if (output.position() == 0) {
+        failed = null;
+      } else {
+        closing = true;
+        failed = pending;
+        pending = null;
+      }
+    }
+    if (failed == null) {
+      close();
+    } else {
+      failed.completeExceptionally(disconnection());
+    }
+  }
+
+  /**
+   * Closes the connection, the prompt waiting fails. Any error while closing is ignored since the player is gone
+   * anyway.
+   */
+  @Override
+  public void close() {
+    disconnected();
+  }
+}
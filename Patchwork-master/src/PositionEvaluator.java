@@ -0,0 +1,373 @@
+import java.util.Objects;
+
+/**
+ * A class that evaluates the positions of a game in the middle of it, where GameEvaluator only scores the end. The
+ * features of a player are computed from the occupancy of its quiltboard, kept as bitmasks, a line per int and a
+ * column per bit:
+ * <ul>
+ *   <li>its buttons, and the 7 of the bonus tile if it owns it, and its empty spaces, which cost two each at the end,
+ *   </li>
+ *   <li>the isolated regions of empty spaces, found by flood fill on the bitmasks,</li>
+ *   <li>the dead spaces: the empty spaces in regions smaller than the smallest patch left in the circle, only special
+ *   patches can fill them,</li>
+ *   <li>the projected income: the income of the quiltboard times the buttons left ahead of the player on the
+ *   timeboard,</li>
+ *   <li>the time efficiency: the spaces covered per space of the timeboard travelled,</li>
+ *   <li>the distance to the 7x7 bonus: the fewest empty spaces in a 7x7 window of the quiltboard, 0 once the player
+ *   owns the bonus tile and 49 once the other player does.</li>
+ * </ul>
+ * A position is worth the weighted sum of the features of a player minus the one of the other player, the weights
+ * are given to the evaluator.
+ * <p>
+ * An evaluator keeps the bitmasks it works on and the features of the last quiltboard it measured, it allocates
+ * nothing but can't be shared between threads.
+ */
+public class PositionEvaluator {
+  /**
+   * The number of lines and columns of a quiltboard.
+   */
+  public static final int SIZE = 9;
+  private static final int FULL_LINE = (1 << SIZE) - 1;
+  private static final int BONUS_SIDE = 7;
+  private static final int BONUS_BUTTONS = 7;
+
+  /**
+   * A record of the weights of the features, see the class documentation.
+   *
+   * @param buttons              The weight of a button.
+   * @param emptySpaces          The weight of an empty space of the quiltboard.
+   * @param regions              The weight of an isolated region of empty spaces.
+   * @param deadSpaces           The weight of a dead space, on top of the one of an empty space.
+   * @param projectedIncome      The weight of a button of projected income.
+   * @param timeEfficiency       The weight of a space covered per space of time.
+   * @param sevenBySevenDistance The weight of an empty space between the quiltboard and the 7x7 bonus.
+   */
+  public record Weights(double buttons, double emptySpaces, double regions, double deadSpaces, double projectedIncome,
+                        double timeEfficiency, double sevenBySevenDistance) {
+    /**
+     * The weights of the final score, and a penalty on the fragmentation of the quiltboard.
+     */
+    public static final Weights DEFAULT = new Weights(1, -2, -1, -1, 1, 0, -0.15);
+  }
+
+  private final Weights weights;
+  /* The spaces left to visit by the flood fill and the region it grows, a line per int. */
+  private final int[] unvisited = new int[SIZE];
+  private final int[] region = new int[SIZE];
+  private final int[] placed = new int[SIZE];
+  private int regions;
+  private int deadSpaces;
+  private int sevenBySevenDistance;
+
+  /**
+   * Constructor for a PositionEvaluator with the default weights.
+   */
+  public PositionEvaluator() {
+    this(Weights.DEFAULT);
+  }
+
+  /**
+   * Constructor for a PositionEvaluator.
+   *
+   * @param weights The weights of the features.
+   */
+  public PositionEvaluator(Weights weights) {
+    this.weights = Objects.requireNonNull(weights);
+  }
+
+  /**
+   * Getter function for the weights field.
+   *
+   * @return The weights of the features.
+   */
+  public Weights getWeights() {
+    return weights;
+  }
+
+  /**
+   * Getter function for the number of isolated regions of empty spaces of the last quiltboard measured.
+   *
+   * @return The number of regions.
+   */
+  public int getRegions() {
+    return regions;
+  }
+
+  /**
+   * Getter function for the number of dead spaces of the last quiltboard measured.
+   *
+   * @return The number of dead spaces.
+   */
+  public int getDeadSpaces() {
+    return deadSpaces;
+  }
+
+  /**
+   * Getter function for the distance to the 7x7 bonus of the last quiltboard measured.
+   *
+   * @return The fewest empty spaces in a 7x7 window.
+   */
+  public int getSevenBySevenDistance() {
+    return sevenBySevenDistance;
+  }
+
+  /**
+   * A function that writes the occupancy of a quiltboard as bitmasks.
+   *
+   * @param quiltBoard The quiltboard.
+   * @param lines      The bitmasks to write, one per line, bit j set if the space of column j is filled.
+   */
+  public static void occupancy(QuiltBoard quiltBoard, int[] lines) {
+    Objects.requireNonNull(quiltBoard);
+    var structure = quiltBoard.getStructure();
+    for (int i = 0; i < SIZE; i++) {
+      var mask = 0;
+      for (int j = 0; j < SIZE; j++) {
+        if (structure[i][j] != null) {
+          mask |= 1 << j;
+        }
+      }
+      lines[i] = mask;
+    }
+  }
+
+  /**
+   * A function that writes the spaces of a patch, in its orientation, as bitmasks.
+   *
+   * @param patch The patch.
+   * @param lines The bitmasks to write, one per line of the patch, bit j set if the patch covers column j.
+   * @return The number of lines of the patch.
+   */
+  public static int shape(Patch patch, int[] lines) {
+    Objects.requireNonNull(patch);
+    var structure = patch.getStructure();
+    for (int i = 0; i < structure.length; i++) {
+      var mask = 0;
+      for (int j = 0; j < structure[i].length; j++) {
+        if (structure[i][j] != null) {
+          mask |= 1 << j;
+        }
+      }
+      lines[i] = mask;
+    }
+    return structure.length;
+  }
+
+  /**
+   * A function that computes the number of spaces of the smallest patch left in the circle.
+   *
+   * @param patches The patches of the game.
+   * @return The number of spaces, or more than a quiltboard holds if the circle is empty.
+   */
+  public static int smallestPatch(Patches patches) {
+    Objects.requireNonNull(patches);
+    var smallest = SIZE * SIZE + 1;
+    for (var patch : patches.getPatchesList()) {
+      var cells = 0;
+      for (var line : patch.getStructure()) {
+        for (var space : line) {
+          if (space != null) {
+            cells++;
+          }
+        }
+      }
+      smallest = Math.min(smallest, cells);
+    }
+    return smallest;
+  }
+
+  /**
+   * Spreads a set of spaces along its line to every empty space it touches, by shifts of 1, 2, 4 and 8 columns in
+   * both directions, each shift only crossing runs of empty spaces as long as itself.
+   *
+   * @param spaces The spaces, a bitmask.
+   * @param empty  The empty spaces of the line.
+   * @return The spaces spread.
+   */
+  private static int spread(int spaces, int empty) {
+    int left = spaces | (spaces << 1) & empty, leftRun = empty & empty << 1;
+    left |= (left << 2) & leftRun;
+    leftRun &= leftRun << 2;
+    left |= (left << 4) & leftRun;
+    leftRun &= leftRun << 4;
+    left |= (left << 8) & leftRun;
+    int right = spaces | (spaces >>> 1) & empty, rightRun = empty & empty >>> 1;
+    right |= (right >>> 2) & rightRun;
+    rightRun &= rightRun >>> 2;
+    right |= (right >>> 4) & rightRun;
+    rightRun &= rightRun >>> 4;
+    right |= (right >>> 8) & rightRun;
+    return left | right;
+  }
+
+  /**
+   * Measures the regions, the dead spaces and the distance to the 7x7 bonus of a quiltboard, read afterwards from the
+   * getters.
+   *
+   * @param lines         The occupancy of the quiltboard, see occupancy.
+   * @param smallestPatch The number of spaces of the smallest patch left in the circle.
+   */
+  public void measure(int[] lines, int smallestPatch) {
+    regions = 0;
+    deadSpaces = 0;
+    for (int i = 0; i < SIZE; i++) {
+      unvisited[i] = ~lines[i] & FULL_LINE;
+    }
+    for (int seedLine = 0; seedLine < SIZE; seedLine++) {
+      while (unvisited[seedLine] != 0) {
+        // A region spans consecutive lines, from the seed line to bottom.
+        var bottom = seedLine;
+        region[seedLine] = spread(Integer.lowestOneBit(unvisited[seedLine]), unvisited[seedLine]);
+        // Sweeps down then up until the way up grows nothing, the lines are then closed both ways. Most regions take
+        // one pass.
+        var grown = true;
+        while (grown) {
+          grown = false;
+          for (int i = seedLine + 1; i <= Math.min(bottom + 1, SIZE - 1); i++) {
+            var touched = region[i - 1] & unvisited[i];
+            if (i > bottom) {
+              if (touched == 0) {
+                break;
+              }
+              region[i] = 0;
+              bottom = i;
+            }
+            grow(i, touched);
+          }
+          for (int i = bottom - 1; i >= seedLine; i--) {
+            grown |= grow(i, region[i + 1] & unvisited[i]);
+          }
+        }
+        var size = 0;
+        for (int i = seedLine; i <= bottom; i++) {
+          size += Integer.bitCount(region[i]);
+          unvisited[i] &= ~region[i];
+        }
+        regions++;
+        if (size < smallestPatch) {
+          deadSpaces += size;
+        }
+      }
+    }
+    sevenBySevenDistance = BONUS_SIDE * BONUS_SIDE;
+    for (int left = 0; left + BONUS_SIDE <= SIZE; left++) {
+      // The empty spaces of the windows of these columns, slid down a line at a time.
+      var window = ((1 << BONUS_SIDE) - 1) << left;
+      var empty = 0;
+      for (int i = 0; i < SIZE; i++) {
+        empty += Integer.bitCount(~lines[i] & window);
+        if (i >= BONUS_SIDE) {
+          empty -= Integer.bitCount(~lines[i - BONUS_SIDE] & window);
+        }
+        if (i >= BONUS_SIDE - 1) {
+          sevenBySevenDistance = Math.min(sevenBySevenDistance, empty);
+        }
+      }
+    }
+  }
+
+  /**
+   * Grows the region on a line from the spaces it touches on a neighbouring line.
+   *
+   * @param line    The line.
+   * @param touched The unvisited spaces of the line under the region on the neighbouring line.
+   * @return true if the region grew.
+   */
+  private boolean grow(int line, int touched) {
+    if ((touched & ~region[line]) == 0) {
+      return false;
+    }
+    region[line] = spread(region[line] | touched, unvisited[line]);
+    return true;
+  }
+
+  /**
+   * A function that computes the weighted fragmentation of a quiltboard: its regions, its dead spaces and its
+   * distance to the 7x7 bonus. The features are read afterwards from the getters.
+   *
+   * @param lines         The occupancy of the quiltboard, see occupancy.
+   * @param smallestPatch The number of spaces of the smallest patch left in the circle.
+   * @return The weighted sum of the three features.
+   */
+  public double evaluateQuilt(int[] lines, int smallestPatch) {
+    measure(lines, smallestPatch);
+    return weights.regions() * regions + weights.deadSpaces() * deadSpaces +
+           weights.sevenBySevenDistance() * sevenBySevenDistance;
+  }
+
+  /**
+   * A function that computes the weighted fragmentation of a quiltboard once a patch is placed on it, the quiltboard
+   * itself is left as it is. The patch has to fit.
+   *
+   * @param lines         The occupancy of the quiltboard, see occupancy.
+   * @param shape         The spaces of the patch, see shape.
+   * @param shapeLines    The number of lines of the patch.
+   * @param top           The line of the top left corner of the patch, from 0.
+   * @param left          The column of the top left corner of the patch, from 0.
+   * @param smallestPatch The number of spaces of the smallest patch left in the circle.
+   * @return The weighted sum of the features of evaluateQuilt.
+   */
+  public double evaluatePlacement(int[] lines, int[] shape, int shapeLines, int top, int left, int smallestPatch) {
+    System.arraycopy(lines, 0, placed, 0, SIZE);
+    for (int i = 0; i < shapeLines; i++) {
+      placed[top + i] |= shape[i] << left;
+    }
+    return evaluateQuilt(placed, smallestPatch);
+  }
+
+  /**
+   * A function that computes the weighted features of a player.
+   *
+   * @param player        The player.
+   * @param timeBoard     The timeboard of the game.
+   * @param other         The other player, to know whether the 7x7 bonus is still to take.
+   * @param smallestPatch The number of spaces of the smallest patch left in the circle.
+   * @return The weighted sum of the features.
+   */
+  public double evaluatePlayer(Player player, TimeBoard timeBoard, Player other, int smallestPatch) {
+    Objects.requireNonNull(player);
+    Objects.requireNonNull(timeBoard);
+    Objects.requireNonNull(other);
+    occupancy(player.getQuiltBoard(), placed);
+    evaluateQuilt(placed, smallestPatch);
+    if (player.hasBonusTile()) {
+      sevenBySevenDistance = 0;
+    } else if (other.hasBonusTile()) {
+      sevenBySevenDistance = BONUS_SIDE * BONUS_SIDE;
+    }
+    var covered = 0;
+    for (var line : placed) {
+      covered += Integer.bitCount(line);
+    }
+    var buttonsAhead = 0;
+    var buttonsPos = timeBoard.getButtonsPos();
+    for (int k = 0; k < buttonsPos.size(); k++) {
+      if (buttonsPos.get(k) > player.getPosition()) {
+        buttonsAhead++;
+      }
+    }
+    var buttons = player.getButtons() + (player.hasBonusTile() ? BONUS_BUTTONS : 0);
+    return weights.buttons() * buttons + weights.emptySpaces() * (SIZE * SIZE - covered) +
+           weights.regions() * regions + weights.deadSpaces() * deadSpaces +
+           weights.projectedIncome() * player.getQuiltBoard().getTotalIncome() * buttonsAhead +
+           weights.timeEfficiency() * covered / Math.max(1, player.getPosition()) +
+           weights.sevenBySevenDistance() * sevenBySevenDistance;
+  }
+
+  /**
+   * A function that evaluates a position from the point of view of a player: its weighted features minus the ones of
+   * the other player.
+   *
+   * @param state  The state of the game.
+   * @param player The player.
+   * @return The value of the position, positive if it favours the player.
+   */
+  public double evaluate(GameState state, Player player) {
+    Objects.requireNonNull(state);
+    Objects.requireNonNull(player);
+    var other = player == state.player1() ? state.player2() : state.player1();
+    var smallestPatch = smallestPatch(state.patches());
+    return evaluatePlayer(player, state.timeBoard(), other, smallestPatch) -
+           evaluatePlayer(other, state.timeBoard(), player, smallestPatch);
+  }
+}
@@ -0,0 +1,93 @@
+import java.util.Objects;
+
+/**
+ * A class that computes a 64 bits hash of a position, the same in every process, to look positions up in an opening
+ * book. The hash covers what the move depends on: the player to move, both quiltboards, the positions, buttons and
+ * incomes of the players, the special patches left on the timeboard and the first patches after the neutral pawn, as
+ * many as asked. The rest of the circle is left out: the deals of the full version are shuffled, and two games would
+ * otherwise never share a position. Two positions with the same hash are the same up to the colors of the patches and
+ * the rest of the circle, with a negligible risk of collision.
+ */
+public final class PositionHash {
+  private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  /**
+   * Private constructor, the class only holds static functions.
+   */
+  private PositionHash() {
+  }
+
+  /**
+   * Mixes a value into a hash.
+   *
+   * @param hash  The hash so far.
+   * @param value The value to mix in.
+   * @return The new hash.
+   */
+  private static long mix(long hash, long value) {
+    return Long.rotateLeft((hash ^ value) * MULTIPLIER, 29);
+  }
+
+  /**
+   * Mixes a player and its quiltboard into a hash.
+   *
+   * @param hash   The hash so far.
+   * @param player The player.
+   * @return The new hash.
+   */
+  private static long mixPlayer(long hash, Player player) {
+    long low = 0, high = 0;
+    var structure = player.getQuiltBoard().getStructure();
+    for (int space = 0; space < 81; space++) {
+      if (structure[space / 9][space % 9] != null) {
+        if (space < 64) {
+          low |= 1L << space;
+        } else {
+          high |= 1L << (space - 64);
+        }
+      }
+    }
+    hash = mix(hash, low);
+    hash = mix(hash, high);
+    hash = mix(hash, player.getPosition() | (long) player.getButtons() << 8 |
+                     (long) player.getQuiltBoard().getTotalIncome() << 24 | (player.hasBonusTile() ? 1L << 40 : 0) |
+                     (player.isFirst() ? 1L << 41 : 0));
+    return hash;
+  }
+
+  /**
+   * A function that computes the hash of a position. It allocates nothing.
+   *
+   * @param state       The state of the game.
+   * @param playing     The player whose turn it is.
+   * @param ringPatches The number of patches after the neutral pawn that go into the hash.
+   * @return The hash.
+   */
+  public static long of(GameState state, Player playing, int ringPatches) {
+    Objects.requireNonNull(state);
+    Objects.requireNonNull(playing);
+    if (ringPatches < 0) {
+      throw new IllegalArgumentException("The number of patches can't be negative");
+    }
+    long hash = mix(0, playing == state.player1() ? 1 : 2);
+    hash = mixPlayer(hash, state.player1());
+    hash = mixPlayer(hash, state.player2());
+    long specialPatches = 0;
+    var specialPatchesPos = state.timeBoard().getSpecialPatchesPos();
+    for (int i = 0; i < specialPatchesPos.size(); i++) {
+      specialPatches |= 1L << specialPatchesPos.get(i);
+    }
+    hash = mix(hash, specialPatches);
+    var patchesList = state.patches().getPatchesList();
+    var neutralPawnIndex = state.patches().getNeutralPawnIndex();
+    for (int i = 0; i < Math.min(ringPatches, patchesList.size()); i++) {
+      hash = mix(hash, patchesList.get((neutralPawnIndex + i) % patchesList.size()).getId());
+    }
+    // Final avalanche, so that close positions get far apart hashes and the book can be searched by interpolation.
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    hash *= 0xC4CEB9FE1A85EC53L;
+    return hash ^ hash >>> 33;
+  }
+}
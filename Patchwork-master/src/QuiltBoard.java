@@ -92,7 +92,7 @@ public class QuiltBoard {
    * @param patch The patch the player wants to place on the quiltboard.
    * @return The point on the quiltboard that the first element of the patch will occupy.
    */
-  private static Point realPlacementPosition(Point point, Patch patch) {
+  static Point realPlacementPosition(Point point, Patch patch) {
     int realI = point.i() - 1, realJ = point.j() - 1;
     int shift = 0;
     for (int j = 0; j < patch.getStructure()[0].length; j++) {
@@ -237,20 +237,35 @@ public class QuiltBoard {
   }
 
 
+  /**
+   * A function that determines if a square section of the quiltboard is filled entirely with patches.
+   *
+   * @param top  The first line of the section.
+   * @param left The first column of the section.
+   * @param side The number of lines and columns of the section.
+   * @return A boolean.
+   */
+  private boolean squarePatched(int top, int left, int side) {
+    for (int i = top; i < top + side; i++) {
+      for (int j = left; j < left + side; j++) {
+        if (structure[i][j] == null) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
   /**
    * A function that determines if the quiltboard have a 7x7 section composed entirely en true elements (filled
-   * entirely with patches).
+   * entirely with patches). The sections are checked in place, nothing is copied.
    *
    * @return A boolean.
    */
   public boolean containsSevenBySeven() {
-    PatchSpace[][] subArr = new PatchSpace[7][7];
-    for (int i = 0; i < 3; i++) {
-      for (int j = 0; j < 3; j++) {
-        for (int k = 0; k < 7; k++) {
-          subArr[k] = Arrays.copyOfRange(structure[k + i], j, structure[0].length - (3 - j) + 1);
-        }
-        if (fullyPatched(subArr)) {
+    for (int i = 0; i + 7 <= QBOARDSIZE; i++) {
+      for (int j = 0; j + 7 <= QBOARDSIZE; j++) {
+        if (squarePatched(i, j, 7)) {
           return true;
         }
       }
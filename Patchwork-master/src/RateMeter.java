@@ -0,0 +1,41 @@
+/**
+ * A class that turns a counter that only grows into a rate per second, for the statistics read through JMX.
+ * <p>
+ * The rate is measured between two reads at least a second apart, so a monitoring tool polling every few seconds sees
+ * the rate over its last period. A read sooner than a second after the last measure gets the same rate again.
+ */
+public class RateMeter {
+  private static final long PERIOD_NANOS = 1_000_000_000L;
+
+  private long lastNanos = System.nanoTime();
+  private long lastCount;
+  private double rate;
+
+  /**
+   * Computes the rate of a counter.
+   *
+   * @param count The current value of the counter.
+   * @return The increase of the counter per second over the last period, 0 until a second has passed.
+   */
+  public synchronized double rate(long count) {
+    var now = System.nanoTime();
+    var elapsed = now - lastNanos;
+    if (elapsed >= PERIOD_NANOS) {
+      rate = (count - lastCount) * 1e9 / elapsed;
+      lastNanos = now;
+      lastCount = count;
+    }
+    return rate;
+  }
+
+  /**
+   * Starts the measure over, for a counter that was reset, so the next rate isn't computed across the reset.
+   *
+   * @param count The value of the counter after its reset.
+   */
+  public synchronized void reset(long count) {
+    lastNanos = System.nanoTime();
+    lastCount = count;
+    rate = 0;
+  }
+}
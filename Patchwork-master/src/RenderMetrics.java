@@ -0,0 +1,155 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A class that keeps what the frames of a view cost to render: how long each frame took, how many draw calls and
+ * shapes it was made of and how many bytes it wrote, over the last frames only so the percentiles follow the changes.
+ * <p>
+ * The metrics of the views are kept in a registry of the process, by name, for a view to report to and anything else
+ * to read: {@code RenderMetrics.of("graphical")} for instance. A view records its frames on the thread that renders
+ * them, the metrics can be read from any thread.
+ */
+public class RenderMetrics {
+  /**
+   * The number of frames the percentiles are computed over, the last ones.
+   */
+  public static final int WINDOW = 512;
+
+  /**
+   * An enum of the measures of a frame.
+   */
+  public enum Metric {
+    /**
+     * The time the frame took to render, in nanoseconds.
+     */
+    FRAME_NANOS,
+    /**
+     * The number of calls that drew into the frame, images and shapes.
+     */
+    DRAW_CALLS,
+    /**
+     * The number of shapes drawn into the frame, or of cells for the console.
+     */
+    SHAPES,
+    /**
+     * The number of bytes written to the standard output.
+     */
+    BYTES
+  }
+
+  private static final Map<String, RenderMetrics> registry = new ConcurrentHashMap<>();
+
+  private final String name;
+  /* The measures of the last frames, by metric, in a ring. */
+  private final long[][] samples = new long[Metric.values().length][WINDOW];
+  private long frames;
+
+  /**
+   * A constructor for a RenderMetrics instance, see of.
+   *
+   * @param name The name of the metrics.
+   */
+  private RenderMetrics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Returns the metrics of a view from the registry, created the first time they are asked for.
+   *
+   * @param name The name of the metrics, the kind of view they are measured on.
+   * @return The metrics.
+   */
+  public static RenderMetrics of(String name) {
+    Objects.requireNonNull(name);
+    return registry.computeIfAbsent(name, RenderMetrics::new);
+  }
+
+  /**
+   * A function that creates the report of every metrics of the registry.
+   *
+   * @return The report, a line per metrics sorted by name.
+   */
+  public static String reportAll() {
+    var builder = new StringBuilder();
+    for (var metrics : new TreeMap<>(registry).values()) {
+      builder.append(metrics.report()).append('\n');
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Getter function for the name field.
+   *
+   * @return The name of the metrics.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Records the measures of a frame.
+   *
+   * @param nanos     The time the frame took to render, in nanoseconds.
+   * @param drawCalls The number of calls that drew into the frame.
+   * @param shapes    The number of shapes drawn into the frame.
+   * @param bytes     The number of bytes written to the standard output.
+   */
+  public synchronized void recordFrame(long nanos, long drawCalls, long shapes, long bytes) {
+    var index = (int) (frames % WINDOW);
+    samples[Metric.FRAME_NANOS.ordinal()][index] = nanos;
+    samples[Metric.DRAW_CALLS.ordinal()][index] = drawCalls;
+    samples[Metric.SHAPES.ordinal()][index] = shapes;
+    samples[Metric.BYTES.ordinal()][index] = bytes;
+    frames++;
+  }
+
+  /**
+   * Getter function for the number of frames recorded since the start.
+   *
+   * @return The number of frames.
+   */
+  public synchronized long getFrames() {
+    return frames;
+  }
+
+  /**
+   * Computes a percentile of a measure over the last frames.
+   *
+   * @param metric     The measure.
+   * @param percentile The percentile, between 0 and 100.
+   * @return The measure that many of the last frames are below or at, 0 if no frame was recorded.
+   */
+  public long percentile(Metric metric, double percentile) {
+    Objects.requireNonNull(metric);
+    if (!(0 <= percentile && percentile <= 100)) {
+      throw new IllegalArgumentException("The percentile must be between 0 and 100");
+    }
+    long[] window;
+    synchronized (this) {
+      window = Arrays.copyOf(samples[metric.ordinal()], (int) Math.min(frames, WINDOW));
+    }
+    if (window.length == 0) {
+      return 0;
+    }
+    Arrays.sort(window);
+    var rank = Math.max(1, (int) Math.ceil(percentile / 100 * window.length));
+    return window[rank - 1];
+  }
+
+  /**
+   * A function that creates the report of the metrics: the frames recorded and, over the last ones, the median and
+   * the 99th percentile of the time of a frame in milliseconds, of its draw calls, of its shapes and of its bytes.
+   *
+   * @return The report, on one line.
+   */
+  public String report() {
+    return String.format("%s: %d frames, %.2f/%.2f ms, %d/%d draw calls, %d/%d shapes, %d/%d bytes (p50/p99)", name,
+                         getFrames(), percentile(Metric.FRAME_NANOS, 50) / 1e6,
+                         percentile(Metric.FRAME_NANOS, 99) / 1e6, percentile(Metric.DRAW_CALLS, 50),
+                         percentile(Metric.DRAW_CALLS, 99), percentile(Metric.SHAPES, 50),
+                         percentile(Metric.SHAPES, 99), percentile(Metric.BYTES, 50), percentile(Metric.BYTES, 99));
+  }
+}
@@ -0,0 +1,251 @@
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An implementation of the View interface that plays recorded moves instead of asking players, and displays nothing
+ * while doing so.
+ * <p>
+ * Once the recorded moves are exhausted, the game is handed over to a resume view, if there is one, that displays and
+ * prompts from then on: this is how a game interrupted by a crash is rebuilt and played on. Without a resume view, the
+ * game has to end with the recorded moves. A recorded move the rules don't accept, because the rules or the catalog
+ * changed since it was recorded, stops the replay with an IllegalStateException.
+ */
+public class ReplayView implements View {
+  private final Player player1;
+  private final Iterator<Move> moves;
+  private final View resumeView;
+  private boolean replaying = true;
+  /* The move of the turn being replayed, and how far into it the replay is. */
+  private Move move;
+  private boolean placementPending;
+  private int nextSpecialPatchPlacement;
+  /* The last time board display skipped, shown by the resume view when it takes over. */
+  private TimeBoard lastTimeBoard;
+  private Player lastPlayer2;
+
+  /**
+   * Constructor for the ReplayView class.
+   *
+   * @param player1    The first player of the game, the moves designate the players by their slot.
+   * @param moves      The moves to play, in order.
+   * @param resumeView The view to hand the game over to after the last move, or null if the game ends with the moves.
+   */
+  public ReplayView(Player player1, List<Move> moves, View resumeView) {
+    this.player1 = Objects.requireNonNull(player1);
+    this.moves = moves.iterator();
+    this.resumeView = resumeView;
+  }
+
+  /**
+   * A function that determines if the recorded moves are still being played.
+   *
+   * @return A boolean.
+   */
+  public boolean isReplaying() {
+    return replaying;
+  }
+
+  /**
+   * A function that determines if recorded moves are left to be played, which is a divergence once the game is over.
+   *
+   * @return A boolean.
+   */
+  public boolean hasMovesLeft() {
+    return moves.hasNext();
+  }
+
+  /**
+   * Creates the exception thrown when the game doesn't go as recorded.
+   *
+   * @param reason What went differently.
+   * @return The exception.
+   */
+  private IllegalStateException diverged(String reason) {
+    var message = "The game diverges from its record: " + reason;
+    return new IllegalStateException(move == null ? message : message + " (" + move + ")");
+  }
+
+  /**
+   * Returns the slot of a player, 1 for the first player and 2 for the second.
+   *
+   * @param player The player in question.
+   * @return The slot of the player.
+   */
+  private int slotOf(Player player) {
+    return player == player1 ? 1 : 2;
+  }
+
+  @Override
+  public void displayTimeBoard(TimeBoard timeBoard, Player player1, Player player2) {
+    if (!replaying) {
+      resumeView.displayTimeBoard(timeBoard, player1, player2);
+      return;
+    }
+    lastTimeBoard = timeBoard;
+    lastPlayer2 = player2;
+  }
+
+  @Override
+  public void displayQuiltBoard(Player player) {
+    if (!replaying) {
+      resumeView.displayQuiltBoard(player);
+    }
+  }
+
+  @Override
+  public void displayPatches(Patches patches) {
+    if (!replaying) {
+      resumeView.displayPatches(patches);
+    }
+  }
+
+  @Override
+  public void setController(GameController gameController) {
+    if (resumeView != null) {
+      resumeView.setController(gameController);
+    }
+  }
+
+  @Override
+  public void playerTurnStartMessage(Player playing) {
+    Objects.requireNonNull(playing);
+    if (replaying && !moves.hasNext()) {
+      replaying = false;
+      if (resumeView == null) {
+        throw diverged("the game goes on after the last move");
+      }
+      if (lastTimeBoard != null) {
+        resumeView.displayTimeBoard(lastTimeBoard, player1, lastPlayer2);
+      }
+    }
+    if (!replaying) {
+      resumeView.playerTurnStartMessage(playing);
+      return;
+    }
+    move = moves.next();
+    if (move.player() != slotOf(playing)) {
+      throw diverged("player " + slotOf(playing) + " plays instead");
+    }
+    placementPending = move.type() == Move.Type.PURCHASE;
+    nextSpecialPatchPlacement = 0;
+  }
+
+  @Override
+  public char promptPlayerTurnDecision(Player player) {
+    if (!replaying) {
+      return resumeView.promptPlayerTurnDecision(player);
+    }
+    return move.type() == Move.Type.ADVANCE ? 'a' : 'c';
+  }
+
+  @Override
+  public void displayPlayerNewStatusAfterAdvancing(Player player) {
+    if (!replaying) {
+      resumeView.displayPlayerNewStatusAfterAdvancing(player);
+    }
+  }
+
+  @Override
+  public void displayQuiltBoardIncomeMessage(Player playing) {
+    if (!replaying) {
+      resumeView.displayQuiltBoardIncomeMessage(playing);
+    }
+  }
+
+  @Override
+  public void displaySpecialPatchAcquisition(Player playing) {
+    if (!replaying) {
+      resumeView.displaySpecialPatchAcquisition(playing);
+    }
+  }
+
+  @Override
+  public Point promptPlayerForPatchPlacementPosition(Player player) {
+    if (!replaying) {
+      return resumeView.promptPlayerForPatchPlacementPosition(player);
+    }
+    if (placementPending) {
+      placementPending = false;
+      return move.placement();
+    }
+    // Otherwise a special patch is being placed.
+    if (nextSpecialPatchPlacement == move.specialPatchPlacements().size()) {
+      throw diverged("a special patch was met that wasn't placed, or couldn't be placed where it was");
+    }
+    return move.specialPatchPlacements().get(nextSpecialPatchPlacement++);
+  }
+
+  @Override
+  public Optional<Patch> promptPlayerPatchDecision(Player playing, Patches patches) {
+    if (!replaying) {
+      return resumeView.promptPlayerPatchDecision(playing, patches);
+    }
+    var patchesList = patches.getPatchesList();
+    var patch = patchesList.get((patches.getNeutralPawnIndex() + move.ringOffset() - 1) % patchesList.size());
+    if (move.patchId() != -1 && patch.getId() != move.patchId()) {
+      throw diverged("patch " + patch.getId() + " is at this place of the circle");
+    }
+    if (!playing.purchasePossible(patch)) {
+      throw diverged("the patch is too expensive");
+    }
+    patch.setOrientation(move.rotations(), move.flipped());
+    return Optional.of(patch);
+  }
+
+  @Override
+  public void quiltBoardFullyPatchedMessage(Player player) {
+    if (!replaying) {
+      resumeView.quiltBoardFullyPatchedMessage(player);
+    }
+  }
+
+  @Override
+  public char promptPlayerPatchManipulationDecision(Player playing) {
+    if (!replaying) {
+      return resumeView.promptPlayerPatchManipulationDecision(playing);
+    }
+    if (!placementPending) {
+      throw diverged("the patch is asked to be manipulated again");
+    }
+    return 'p';
+  }
+
+  @Override
+  public void displayPatch(Patch patch) {
+    if (!replaying) {
+      resumeView.displayPatch(patch);
+    }
+  }
+
+  @Override
+  public void displaySevenBySevenAcquisition(Player player) {
+    if (!replaying) {
+      resumeView.displaySevenBySevenAcquisition(player);
+    }
+  }
+
+  @Override
+  public void displayWinnerMessage(GameResult res) {
+    if (resumeView != null) {
+      resumeView.displayWinnerMessage(res);
+    }
+  }
+
+  @Override
+  public void displayInvalidPlacementMessage() {
+    if (!replaying) {
+      resumeView.displayInvalidPlacementMessage();
+      return;
+    }
+    throw diverged("the patch can't be placed there");
+  }
+
+  @Override
+  public void closeView() {
+    if (resumeView != null) {
+      resumeView.closeView();
+    }
+  }
+}
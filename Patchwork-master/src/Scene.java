@@ -0,0 +1,203 @@
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A record that represents what the graphical view shows, as immutable snapshots of the game taken when the controller
+ * asks the view to display something. A scene is never modified, updating one of its parts returns a new scene, so that
+ * the view can compare the scene it last drew with the current one and repaint only what changed.
+ *
+ * @param timeBoard   The timeboard, null if it wasn't displayed yet.
+ * @param quiltBoards The quiltboards displayed so far, by the slot of their player.
+ * @param patches     The patches on offer, null if they weren't displayed yet.
+ */
+public record Scene(TimeBoardSnapshot timeBoard, Map<Integer, QuiltBoardSnapshot> quiltBoards,
+                    PatchesSnapshot patches) {
+  /**
+   * The scene before anything is displayed.
+   */
+  public static final Scene EMPTY = new Scene(null, Map.of(), null);
+
+  /**
+   * A compact constructor that makes the map of the quiltboards immutable.
+   *
+   * @param timeBoard   The timeboard, null if it wasn't displayed yet.
+   * @param quiltBoards The quiltboards displayed so far, by the slot of their player.
+   * @param patches     The patches on offer, null if they weren't displayed yet.
+   */
+  public Scene {
+    quiltBoards = Map.copyOf(quiltBoards);
+  }
+
+  /**
+   * A record that represents the state of the timeboard, the spaces themselves never change during a game.
+   *
+   * @param timeBoard      The timeboard, for the layout of its spaces only.
+   * @param position1      The position of the first player.
+   * @param position2      The position of the second player.
+   * @param player1OnTop   Whether the token of the first player is on top of the other one.
+   * @param color1         The color of the token of the first player.
+   * @param color2         The color of the token of the second player.
+   * @param playing        The name of the player whose turn it is.
+   * @param specialPatches The positions of the special patches left on the timeboard.
+   */
+  public record TimeBoardSnapshot(TimeBoard timeBoard, int position1, int position2, boolean player1OnTop,
+                                  Color color1, Color color2, String playing, List<Integer> specialPatches) {
+    /**
+     * A compact constructor that copies the positions of the special patches.
+     *
+     * @param timeBoard      The timeboard, for the layout of its spaces only.
+     * @param position1      The position of the first player.
+     * @param position2      The position of the second player.
+     * @param player1OnTop   Whether the token of the first player is on top of the other one.
+     * @param color1         The color of the token of the first player.
+     * @param color2         The color of the token of the second player.
+     * @param playing        The name of the player whose turn it is.
+     * @param specialPatches The positions of the special patches left on the timeboard.
+     */
+    public TimeBoardSnapshot {
+      Objects.requireNonNull(timeBoard);
+      Objects.requireNonNull(color1);
+      Objects.requireNonNull(color2);
+      Objects.requireNonNull(playing);
+      specialPatches = List.copyOf(specialPatches);
+    }
+
+    /**
+     * Takes a snapshot of the timeboard.
+     *
+     * @param timeBoard The timeboard.
+     * @param player1   The first player.
+     * @param player2   The second player.
+     * @param playing   The player whose turn it is.
+     * @return The snapshot.
+     */
+    public static TimeBoardSnapshot of(TimeBoard timeBoard, Player player1, Player player2, Player playing) {
+      return new TimeBoardSnapshot(timeBoard, player1.getPosition(), player2.getPosition(),
+                                   timeBoard.getPlayerOnTop().equals(player1), player1.getColor(), player2.getColor(),
+                                   playing.getName(), timeBoard.getSpecialPatchesPos());
+    }
+  }
+
+  /**
+   * A record that represents the state of a quiltboard.
+   *
+   * @param slot    The slot of the player, 1 or 2, it decides which side of the screen the quiltboard is on.
+   * @param name    The name of the player.
+   * @param color   The color of the quiltboard.
+   * @param income  The income of the quiltboard.
+   * @param buttons The buttons of the player.
+   * @param spaces  The spaces of the quiltboard, line after line, null where there is no patch.
+   */
+  public record QuiltBoardSnapshot(int slot, String name, Color color, int income, int buttons,
+                                   List<PatchSpace> spaces) {
+    /**
+     * A compact constructor that copies the spaces, the list is unmodifiable but can hold nulls.
+     *
+     * @param slot    The slot of the player, 1 or 2, it decides which side of the screen the quiltboard is on.
+     * @param name    The name of the player.
+     * @param color   The color of the quiltboard.
+     * @param income  The income of the quiltboard.
+     * @param buttons The buttons of the player.
+     * @param spaces  The spaces of the quiltboard, line after line, null where there is no patch.
+     */
+    public QuiltBoardSnapshot {
+      if (slot != 1 && slot != 2) {
+        throw new IllegalArgumentException("The slot of a player is 1 or 2");
+      }
+      Objects.requireNonNull(name);
+      Objects.requireNonNull(color);
+      spaces = Collections.unmodifiableList(Arrays.asList(spaces.toArray(new PatchSpace[0])));
+    }
+
+    /**
+     * Takes a snapshot of the quiltboard of a player.
+     *
+     * @param player The player.
+     * @param slot   The slot of the player, 1 or 2.
+     * @return The snapshot.
+     */
+    public static QuiltBoardSnapshot of(Player player, int slot) {
+      var quiltBoard = player.getQuiltBoard();
+      var spaces = Arrays.stream(quiltBoard.getStructure()).flatMap(Arrays::stream).toList();
+      return new QuiltBoardSnapshot(slot, player.getName(), quiltBoard.getColor(),
+                                    quiltBoard.getTotalIncome(), player.getButtons(), spaces);
+    }
+  }
+
+  /**
+   * A record that represents the patches on offer, copies of the patches of the game in their orientation that no one
+   * modifies, in the order they are laid out on the screen.
+   *
+   * @param patches The patches, from the one following the neutral pawn.
+   */
+  public record PatchesSnapshot(List<Patch> patches) {
+    /**
+     * A compact constructor that copies the list of the patches.
+     *
+     * @param patches The patches, from the one following the neutral pawn.
+     */
+    public PatchesSnapshot {
+      patches = List.copyOf(patches);
+    }
+
+    /**
+     * Determines if two snapshots show the same patches in the same order and orientations.
+     *
+     * @param other The other snapshot, or null.
+     * @return true if nothing needs to be repainted, false otherwise.
+     */
+    public boolean sameLayout(PatchesSnapshot other) {
+      if (other == null || other.patches.size() != patches.size()) {
+        return false;
+      }
+      for (int i = 0; i < patches.size(); i++) {
+        Patch patch = patches.get(i), otherPatch = other.patches.get(i);
+        if (patch.getId() != otherPatch.getId() || patch.getRotations() != otherPatch.getRotations() ||
+            patch.isFlipped() != otherPatch.isFlipped()) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Returns the scene with another timeboard.
+   *
+   * @param snapshot The timeboard.
+   * @return The new scene.
+   */
+  public Scene withTimeBoard(TimeBoardSnapshot snapshot) {
+    Objects.requireNonNull(snapshot);
+    return new Scene(snapshot, quiltBoards, patches);
+  }
+
+  /**
+   * Returns the scene with another quiltboard, in place of the one of the same player.
+   *
+   * @param snapshot The quiltboard.
+   * @return The new scene.
+   */
+  public Scene withQuiltBoard(QuiltBoardSnapshot snapshot) {
+    Objects.requireNonNull(snapshot);
+    var newQuiltBoards = new HashMap<>(quiltBoards);
+    newQuiltBoards.put(snapshot.slot(), snapshot);
+    return new Scene(timeBoard, newQuiltBoards, patches);
+  }
+
+  /**
+   * Returns the scene with other patches.
+   *
+   * @param snapshot The patches.
+   * @return The new scene.
+   */
+  public Scene withPatches(PatchesSnapshot snapshot) {
+    Objects.requireNonNull(snapshot);
+    return new Scene(timeBoard, quiltBoards, snapshot);
+  }
+}
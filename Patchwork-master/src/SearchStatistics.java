@@ -0,0 +1,163 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A class that counts what the bots do, shared by every BotView of the virtual machine and registered with the
+ * platform MBean server so it can be watched live through JMX, with JConsole or VisualVM for instance.
+ * <p>
+ * The bots search one move ahead: a node is a legal move evaluated and the branching factor, the number of legal moves
+ * of a search, stands for its depth. The opening books are the tables of known positions the bots look up before
+ * searching. A search that takes longer than the budget is counted as an overrun, the bot still plays its move.
+ * <p>
+ * The counters are LongAdders, the bots of concurrent games update them without contending on a single cache line.
+ */
+public class SearchStatistics implements SearchStatisticsMXBean {
+  /**
+   * The name the statistics are registered under.
+   */
+  public static final String OBJECT_NAME = "patchwork:type=Search";
+
+  private static final SearchStatistics instance = new SearchStatistics();
+
+  private final LongAdder searches = new LongAdder();
+  private final LongAdder nodes = new LongAdder();
+  private final LongAdder searchNanos = new LongAdder();
+  private final LongAdder randomMoves = new LongAdder();
+  private final LongAdder bookLookups = new LongAdder();
+  private final LongAdder bookHits = new LongAdder();
+  private final LongAdder budgetOverruns = new LongAdder();
+  private final RateMeter searchRate = new RateMeter();
+  private final RateMeter nodeRate = new RateMeter();
+  private volatile long searchBudgetNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
+  /**
+   * Private constructor, the statistics are shared, see getInstance.
+   */
+  private SearchStatistics() {
+  }
+
+  /**
+   * Getter function for the statistics of the bots of the virtual machine.
+   *
+   * @return The statistics.
+   */
+  public static SearchStatistics getInstance() {
+    return instance;
+  }
+
+  /**
+   * Counts a search.
+   *
+   * @param nodes The number of legal moves evaluated.
+   * @param nanos The duration of the search, in nanoseconds.
+   */
+  public void searched(int nodes, long nanos) {
+    searches.increment();
+    this.nodes.add(nodes);
+    searchNanos.add(nanos);
+    if (nanos > searchBudgetNanos) {
+      budgetOverruns.increment();
+    }
+  }
+
+  /**
+   * Counts a move played at random.
+   */
+  public void randomMove() {
+    randomMoves.increment();
+  }
+
+  /**
+   * Counts a lookup in an opening book.
+   *
+   * @param hit Whether the book gave the move to play.
+   */
+  public void bookLookup(boolean hit) {
+    bookLookups.increment();
+    if (hit) {
+      bookHits.increment();
+    }
+  }
+
+  @Override
+  public long getSearches() {
+    return searches.sum();
+  }
+
+  @Override
+  public double getSearchesPerSecond() {
+    return searchRate.rate(searches.sum());
+  }
+
+  @Override
+  public long getNodes() {
+    return nodes.sum();
+  }
+
+  @Override
+  public double getNodesPerSecond() {
+    return nodeRate.rate(nodes.sum());
+  }
+
+  @Override
+  public double getAverageBranchingFactor() {
+    var count = searches.sum();
+    return count == 0 ? 0 : (double) nodes.sum() / count;
+  }
+
+  @Override
+  public double getAverageSearchMicros() {
+    var count = searches.sum();
+    return count == 0 ? 0 : searchNanos.sum() / 1000.0 / count;
+  }
+
+  @Override
+  public long getRandomMoves() {
+    return randomMoves.sum();
+  }
+
+  @Override
+  public long getBookLookups() {
+    return bookLookups.sum();
+  }
+
+  @Override
+  public long getBookHits() {
+    return bookHits.sum();
+  }
+
+  @Override
+  public double getBookHitRate() {
+    var count = bookLookups.sum();
+    return count == 0 ? 0 : (double) bookHits.sum() / count;
+  }
+
+  @Override
+  public long getSearchBudgetMicros() {
+    return TimeUnit.NANOSECONDS.toMicros(searchBudgetNanos);
+  }
+
+  @Override
+  public void setSearchBudgetMicros(long searchBudgetMicros) {
+    if (searchBudgetMicros <= 0) {
+      throw new IllegalArgumentException("The budget of a search must be positive");
+    }
+    searchBudgetNanos = TimeUnit.MICROSECONDS.toNanos(searchBudgetMicros);
+  }
+
+  @Override
+  public long getBudgetOverruns() {
+    return budgetOverruns.sum();
+  }
+
+  @Override
+  public void reset() {
+    for (var counter : new LongAdder[]{searches, nodes, searchNanos, randomMoves, bookLookups, bookHits,
+                                       budgetOverruns}) {
+      counter.reset();
+    }
+    // Otherwise the next rates would be measured from the counts before the reset, and be negative.
+    searchRate.reset(0);
+    nodeRate.reset(0);
+  }
+}
@@ -0,0 +1,101 @@
+/**
+ * The management interface of the statistics of the bots, see SearchStatistics.
+ */
+public interface SearchStatisticsMXBean {
+  /**
+   * Getter function for the number of searches for the best move.
+   *
+   * @return The number of searches.
+   */
+  long getSearches();
+
+  /**
+   * Getter function for the number of searches per second, over the last period.
+   *
+   * @return The number of searches per second.
+   */
+  double getSearchesPerSecond();
+
+  /**
+   * Getter function for the number of moves evaluated by the searches.
+   *
+   * @return The number of nodes.
+   */
+  long getNodes();
+
+  /**
+   * Getter function for the number of moves evaluated per second, over the last period.
+   *
+   * @return The number of nodes per second.
+   */
+  double getNodesPerSecond();
+
+  /**
+   * Getter function for the mean number of legal moves a search evaluated.
+   *
+   * @return The mean branching factor, 0 before the first search.
+   */
+  double getAverageBranchingFactor();
+
+  /**
+   * Getter function for the mean duration of a search.
+   *
+   * @return The mean duration, in microseconds, 0 before the first search.
+   */
+  double getAverageSearchMicros();
+
+  /**
+   * Getter function for the number of moves played at random by the bots that don't search.
+   *
+   * @return The number of random moves.
+   */
+  long getRandomMoves();
+
+  /**
+   * Getter function for the number of positions looked up in the opening books.
+   *
+   * @return The number of lookups.
+   */
+  long getBookLookups();
+
+  /**
+   * Getter function for the number of positions found in the opening books with a legal move.
+   *
+   * @return The number of hits.
+   */
+  long getBookHits();
+
+  /**
+   * Getter function for the share of the lookups in the opening books that gave the move to play.
+   *
+   * @return The hit rate, between 0 and 1, 0 before the first lookup.
+   */
+  double getBookHitRate();
+
+  /**
+   * Getter function for the time a search is expected to take at most.
+   *
+   * @return The budget, in microseconds.
+   */
+  long getSearchBudgetMicros();
+
+  /**
+   * Setter function for the time a search is expected to take at most, the searches that take longer are counted as
+   * overruns.
+   *
+   * @param searchBudgetMicros The budget, in microseconds.
+   */
+  void setSearchBudgetMicros(long searchBudgetMicros);
+
+  /**
+   * Getter function for the number of searches that took longer than the budget.
+   *
+   * @return The number of overruns.
+   */
+  long getBudgetOverruns();
+
+  /**
+   * Sets every counter back to zero.
+   */
+  void reset();
+}
@@ -0,0 +1,122 @@
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A decorator of an AsyncView that publishes every change of the game displayed to a SpectatorChannel, the players
+ * keep interacting with the decorated view.
+ */
+public class SpectatedView implements AsyncView {
+  private final AsyncView view;
+  private final SpectatorChannel channel;
+
+  /**
+   * Constructor for the SpectatedView class.
+   *
+   * @param view    The view the players interact with.
+   * @param channel The channel the changes are published to.
+   */
+  public SpectatedView(AsyncView view, SpectatorChannel channel) {
+    Objects.requireNonNull(view);
+    Objects.requireNonNull(channel);
+    this.view = view;
+    this.channel = channel;
+  }
+
+  @Override
+  public void displayTimeBoard(TimeBoard timeBoard, Player player1, Player player2) {
+    view.displayTimeBoard(timeBoard, player1, player2);
+    channel.publish();
+  }
+
+  @Override
+  public void displayQuiltBoard(Player player) {
+    view.displayQuiltBoard(player);
+    channel.publish();
+  }
+
+  @Override
+  public void displayPatches(Patches patches) {
+    view.displayPatches(patches);
+    channel.publish();
+  }
+
+  @Override
+  public void setController(GameController gameController) {
+    view.setController(gameController);
+  }
+
+  @Override
+  public void playerTurnStartMessage(Player playing) {
+    view.playerTurnStartMessage(playing);
+  }
+
+  @Override
+  public CompletableFuture<Character> promptPlayerTurnDecision(Player player) {
+    return view.promptPlayerTurnDecision(player);
+  }
+
+  @Override
+  public void displayPlayerNewStatusAfterAdvancing(Player player) {
+    view.displayPlayerNewStatusAfterAdvancing(player);
+    channel.publish();
+  }
+
+  @Override
+  public void displayQuiltBoardIncomeMessage(Player playing) {
+    view.displayQuiltBoardIncomeMessage(playing);
+  }
+
+  @Override
+  public void displaySpecialPatchAcquisition(Player playing) {
+    view.displaySpecialPatchAcquisition(playing);
+  }
+
+  @Override
+  public CompletableFuture<Point> promptPlayerForPatchPlacementPosition(Player player) {
+    return view.promptPlayerForPatchPlacementPosition(player);
+  }
+
+  @Override
+  public CompletableFuture<Optional<Patch>> promptPlayerPatchDecision(Player playing, Patches patches) {
+    return view.promptPlayerPatchDecision(playing, patches);
+  }
+
+  @Override
+  public void quiltBoardFullyPatchedMessage(Player player) {
+    view.quiltBoardFullyPatchedMessage(player);
+  }
+
+  @Override
+  public CompletableFuture<Character> promptPlayerPatchManipulationDecision(Player playing) {
+    return view.promptPlayerPatchManipulationDecision(playing);
+  }
+
+  @Override
+  public void displayPatch(Patch patch) {
+    view.displayPatch(patch);
+    channel.publish();
+  }
+
+  @Override
+  public void displaySevenBySevenAcquisition(Player player) {
+    view.displaySevenBySevenAcquisition(player);
+    channel.publish();
+  }
+
+  @Override
+  public void displayWinnerMessage(GameResult res) {
+    channel.publish();
+    view.displayWinnerMessage(res);
+  }
+
+  @Override
+  public void displayInvalidPlacementMessage() {
+    view.displayInvalidPlacementMessage();
+  }
+
+  @Override
+  public void closeView() {
+    view.closeView();
+  }
+}
@@ -0,0 +1,470 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A class that broadcasts the state of a game to any number of spectators as compact binary frames.
+ * <p>
+ * Each state change is turned into one delta frame, serialized once into an immutable buffer shared by every
+ * subscriber, so the serialization cost doesn't depend on the number of spectators. A late joiner first receives a
+ * snapshot frame of the whole state, then the same deltas as everybody else. All values are big-endian, a frame is:
+ * <ul>
+ *   <li>{@code byte kind} ({@link #SNAPSHOT} or {@link #DELTA}) and {@code int sequence}, the number of the last
+ *   delta included,</li>
+ *   <li>for a snapshot: both players (name, position, buttons, income, bonus tile, 81 cells), the slot on top, the
+ *   special patches positions, the neutral pawn index and every patch of the circle,</li>
+ *   <li>for a delta: {@code short count} followed by that many records, each starting with its record type.</li>
+ * </ul>
+ * A cell is {@code byte flags} (bit 0 occupied, bit 1 button) followed by {@code int rgb} when occupied, a patch is
+ * its price, time cost, income, lines and columns as bytes, its cells and its {@code int rgb} color.
+ */
+public class SpectatorChannel {
+  /**
+   * Kind of a frame holding the whole state.
+   */
+  public static final byte SNAPSHOT = 0;
+  /**
+   * Kind of a frame holding the changes since the previous frame.
+   */
+  public static final byte DELTA = 1;
+  /**
+   * Record {@code byte slot, byte count, (byte cell, cell)...}: cells placed on a quiltboard.
+   */
+  public static final byte CELLS_PLACED = 1;
+  /**
+   * Record {@code byte slot, byte position}: a time token moved.
+   */
+  public static final byte POSITION = 2;
+  /**
+   * Record {@code byte slot, short buttons}: the buttons of a player changed.
+   */
+  public static final byte BUTTONS = 3;
+  /**
+   * Record {@code byte slot, byte income}: the income of a quiltboard changed.
+   */
+  public static final byte INCOME = 4;
+  /**
+   * Record {@code byte removedIndex, byte neutralPawnIndex}: a patch was removed from the circle.
+   */
+  public static final byte RING_REMOVAL = 5;
+  /**
+   * Record {@code byte index, patch}: a patch of the circle was rotated or flipped.
+   */
+  public static final byte RING_PATCH = 6;
+  /**
+   * Record {@code byte position}: a special patch was taken from the timeboard.
+   */
+  public static final byte SPECIAL_PATCH_TAKEN = 7;
+  /**
+   * Record {@code byte slot}: the player whose token is on top changed.
+   */
+  public static final byte ON_TOP = 8;
+  /**
+   * Record {@code byte slot}: a player got the 7x7 bonus tile.
+   */
+  public static final byte BONUS_TILE = 9;
+
+  private static final int CELLS = 81;
+
+  private final Player[] players;
+  private final TimeBoard timeBoard;
+  private final Patches patches;
+  private final List<Consumer<ByteBuffer>> subscribers = new CopyOnWriteArrayList<>();
+
+  // The state last sent to the subscribers, deltas are computed against it.
+  private final int[] positions = new int[2];
+  private final int[] buttons = new int[2];
+  private final int[] incomes = new int[2];
+  private final boolean[] bonusTiles = new boolean[2];
+  private final PatchSpace[][] cells = new PatchSpace[2][CELLS];
+  private final List<Patch> ring = new ArrayList<>();
+  private int[] ringFingerprints = new int[0];
+  private final List<Integer> specialPatchesPos = new ArrayList<>();
+  private int onTop;
+
+  private ByteBuffer scratch = ByteBuffer.allocate(4096);
+  private int sequence;
+  private ByteBuffer snapshot;
+
+  /**
+   * A constructor for a SpectatorChannel instance, the channel reads the live game objects each time it publishes.
+   *
+   * @param player1   The first player.
+   * @param player2   The second player.
+   * @param timeBoard The timeboard of the game.
+   * @param patches   The patches of the game.
+   */
+  public SpectatorChannel(Player player1, Player player2, TimeBoard timeBoard, Patches patches) {
+    this.players = new Player[]{Objects.requireNonNull(player1), Objects.requireNonNull(player2)};
+    this.timeBoard = Objects.requireNonNull(timeBoard);
+    this.patches = Objects.requireNonNull(patches);
+    remember();
+  }
+
+  /**
+   * Getter function for the number of subscribers.
+   *
+   * @return The number of spectators currently subscribed.
+   */
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  /**
+   * Subscribes a spectator, it immediately receives a snapshot frame then every following delta frame. Frames are
+   * delivered on the game's thread, a subscriber should hand them over to its own writer instead of blocking. The
+   * subscribers already there first receive the changes not published yet, so the snapshot is the state their deltas
+   * lead to.
+   *
+   * @param subscriber The consumer of the frames, every buffer it receives is read-only and its own.
+   */
+  public synchronized void subscribe(Consumer<ByteBuffer> subscriber) {
+    Objects.requireNonNull(subscriber);
+    if (subscribers.isEmpty()) {
+      // Nothing was published without subscribers, the deltas start over from the live game.
+      remember();
+      snapshot = null;
+    } else {
+      publish();
+    }
+    if (snapshot == null) {
+      snapshot = encodeSnapshot();
+    }
+    subscriber.accept(snapshot.duplicate());
+    subscribers.add(subscriber);
+  }
+
+  /**
+   * Unsubscribes a spectator.
+   *
+   * @param subscriber The consumer previously subscribed.
+   */
+  public void unsubscribe(Consumer<ByteBuffer> subscriber) {
+    subscribers.remove(subscriber);
+  }
+
+  /**
+   * Compares the live game with the state last sent and sends the differences as one delta frame, nothing is sent if
+   * nothing changed or nobody is subscribed.
+   */
+  public synchronized void publish() {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    if (!ringChangedByOneRemovalAtMost()) {
+      // The circle was rearranged in a way deltas can't describe, everybody starts over from a snapshot.
+      remember();
+      sequence++;
+      snapshot = encodeSnapshot();
+      fanOut(snapshot);
+      return;
+    }
+    scratch.clear();
+    scratch.put(DELTA).putInt(0).putShort((short) 0);
+    int count = encodeDeltas();
+    if (count == 0) {
+      return;
+    }
+    sequence++;
+    scratch.putInt(1, sequence).putShort(5, (short) count);
+    remember();
+    snapshot = null;
+    fanOut(sealScratch());
+  }
+
+  /**
+   * Hands a frame to every subscriber.
+   *
+   * @param frame The frame, shared by all subscribers.
+   */
+  private void fanOut(ByteBuffer frame) {
+    for (var subscriber : subscribers) {
+      subscriber.accept(frame.duplicate());
+    }
+  }
+
+  /**
+   * Copies the scratch buffer into an immutable buffer of the exact size of the frame.
+   *
+   * @return The read-only frame.
+   */
+  private ByteBuffer sealScratch() {
+    return ByteBuffer.wrap(Arrays.copyOf(scratch.array(), scratch.position())).asReadOnlyBuffer();
+  }
+
+  /**
+   * Makes sure the scratch buffer has room for a number of bytes, it grows but is never shrunk.
+   *
+   * @param bytes The number of bytes about to be written.
+   */
+  private void ensureCapacity(int bytes) {
+    if (scratch.remaining() < bytes) {
+      var bigger = ByteBuffer.allocate(Math.max(scratch.capacity() * 2, scratch.position() + bytes));
+      scratch.flip();
+      bigger.put(scratch);
+      scratch = bigger;
+    }
+  }
+
+  /**
+   * Determines whether the circle of patches is the one last sent, minus one patch at most.
+   *
+   * @return true if the changes of the circle can be sent as deltas.
+   */
+  private boolean ringChangedByOneRemovalAtMost() {
+    var current = patches.getPatchesList();
+    int removed = ring.size() - current.size();
+    if (removed != 0 && removed != 1) {
+      return false;
+    }
+    int shift = 0;
+    for (int i = 0; i < current.size(); i++) {
+      if (current.get(i) != ring.get(i + shift)) {
+        if (shift == 1 || removed == 0) {
+          return false;
+        }
+        shift = 1;
+        i--;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes every record describing the changes since the last frame into the scratch buffer.
+   *
+   * @return The number of records written.
+   */
+  private int encodeDeltas() {
+    int count = 0;
+    for (int slot = 0; slot < 2; slot++) {
+      count += encodePlayerDeltas(slot);
+    }
+    count += encodeRingDeltas();
+    for (var position : specialPatchesPos) {
+      if (!timeBoard.getSpecialPatchesPos().contains(position)) {
+        ensureCapacity(2);
+        scratch.put(SPECIAL_PATCH_TAKEN).put(position.byteValue());
+        count++;
+      }
+    }
+    if (slotOf(timeBoard.getPlayerOnTop()) != onTop) {
+      ensureCapacity(2);
+      scratch.put(ON_TOP).put((byte) slotOf(timeBoard.getPlayerOnTop()));
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Writes the records describing the changes of a player.
+   *
+   * @param slot The slot of the player, 0 or 1.
+   * @return The number of records written.
+   */
+  private int encodePlayerDeltas(int slot) {
+    var player = players[slot];
+    int count = 0;
+    ensureCapacity(16);
+    if (player.getPosition() != positions[slot]) {
+      scratch.put(POSITION).put((byte) slot).put((byte) player.getPosition());
+      count++;
+    }
+    if (player.getButtons() != buttons[slot]) {
+      scratch.put(BUTTONS).put((byte) slot).putShort((short) player.getButtons());
+      count++;
+    }
+    if (player.getQuiltBoard().getTotalIncome() != incomes[slot]) {
+      scratch.put(INCOME).put((byte) slot).put((byte) player.getQuiltBoard().getTotalIncome());
+      count++;
+    }
+    if (player.hasBonusTile() != bonusTiles[slot]) {
+      scratch.put(BONUS_TILE).put((byte) slot);
+      count++;
+    }
+    return count + encodePlacedCells(slot);
+  }
+
+  /**
+   * Writes the record of the cells placed on a player's quiltboard since the last frame, if any.
+   *
+   * @param slot The slot of the player, 0 or 1.
+   * @return The number of records written, 0 or 1.
+   */
+  private int encodePlacedCells(int slot) {
+    var structure = players[slot].getQuiltBoard().getStructure();
+    int countIndex = -1;
+    int placed = 0;
+    for (int cell = 0; cell < CELLS; cell++) {
+      var space = structure[cell / 9][cell % 9];
+      if (space != null && cells[slot][cell] == null) {
+        if (countIndex < 0) {
+          ensureCapacity(3);
+          scratch.put(CELLS_PLACED).put((byte) slot);
+          countIndex = scratch.position();
+          scratch.put((byte) 0);
+        }
+        ensureCapacity(6);
+        scratch.put((byte) cell);
+        putCell(space);
+        placed++;
+      }
+    }
+    if (countIndex < 0) {
+      return 0;
+    }
+    scratch.put(countIndex, (byte) placed);
+    return 1;
+  }
+
+  /**
+   * Writes the records describing the changes of the circle of patches.
+   *
+   * @return The number of records written.
+   */
+  private int encodeRingDeltas() {
+    var current = patches.getPatchesList();
+    int count = 0;
+    int removedIndex = -1;
+    if (current.size() < ring.size()) {
+      removedIndex = current.size();
+      for (int i = 0; i < current.size(); i++) {
+        if (current.get(i) != ring.get(i)) {
+          removedIndex = i;
+          break;
+        }
+      }
+      ensureCapacity(3);
+      scratch.put(RING_REMOVAL).put((byte) removedIndex).put((byte) patches.getNeutralPawnIndex());
+      count++;
+    }
+    for (int i = 0; i < current.size(); i++) {
+      int previous = ringFingerprints[removedIndex >= 0 && i >= removedIndex ? i + 1 : i];
+      if (fingerprint(current.get(i)) != previous) {
+        ensureCapacity(2);
+        scratch.put(RING_PATCH).put((byte) i);
+        putPatch(current.get(i));
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns a value that changes when a patch is rotated or flipped.
+   *
+   * @param patch The patch in question.
+   * @return The fingerprint of the patch's structure.
+   */
+  private static int fingerprint(Patch patch) {
+    return Arrays.deepHashCode(patch.getStructure());
+  }
+
+  /**
+   * Returns the slot of a player.
+   *
+   * @param player The player in question.
+   * @return 0 for the first player, 1 for the second.
+   */
+  private int slotOf(Player player) {
+    return player == players[0] ? 0 : 1;
+  }
+
+  /**
+   * Writes a cell of a quiltboard or of a patch.
+   *
+   * @param space The cell, null if empty.
+   */
+  private void putCell(PatchSpace space) {
+    ensureCapacity(5);
+    if (space == null) {
+      scratch.put((byte) 0);
+      return;
+    }
+    scratch.put((byte) (space.button() ? 3 : 1)).putInt(space.color().getRGB());
+  }
+
+  /**
+   * Writes a patch.
+   *
+   * @param patch The patch to write.
+   */
+  private void putPatch(Patch patch) {
+    var structure = patch.getStructure();
+    ensureCapacity(5);
+    scratch.put((byte) patch.getPrice()).put((byte) patch.getTimeCost()).put((byte) patch.getIncome())
+           .put((byte) structure.length).put((byte) structure[0].length);
+    for (var line : structure) {
+      for (var space : line) {
+        putCell(space);
+      }
+    }
+    ensureCapacity(4);
+    scratch.putInt(patch.getColor().getRGB());
+  }
+
+  /**
+   * Serializes the whole state of the game.
+   *
+   * @return The read-only snapshot frame.
+   */
+  private ByteBuffer encodeSnapshot() {
+    scratch.clear();
+    scratch.put(SNAPSHOT).putInt(sequence);
+    for (var player : players) {
+      var name = player.getName().getBytes(StandardCharsets.UTF_8);
+      ensureCapacity(name.length + 7);
+      scratch.putShort((short) name.length).put(name).put((byte) player.getPosition())
+             .putShort((short) player.getButtons()).put((byte) player.getQuiltBoard().getTotalIncome())
+             .put((byte) (player.hasBonusTile() ? 1 : 0));
+      for (var line : player.getQuiltBoard().getStructure()) {
+        for (var space : line) {
+          putCell(space);
+        }
+      }
+    }
+    var specials = timeBoard.getSpecialPatchesPos();
+    ensureCapacity(specials.size() + 5);
+    scratch.put((byte) slotOf(timeBoard.getPlayerOnTop())).put((byte) specials.size());
+    for (var position : specials) {
+      scratch.put(position.byteValue());
+    }
+    var current = patches.getPatchesList();
+    scratch.put((byte) patches.getNeutralPawnIndex()).put((byte) current.size());
+    for (var patch : current) {
+      putPatch(patch);
+    }
+    return sealScratch();
+  }
+
+  /**
+   * Records the live game as the state last sent.
+   */
+  private void remember() {
+    for (int slot = 0; slot < 2; slot++) {
+      var player = players[slot];
+      positions[slot] = player.getPosition();
+      buttons[slot] = player.getButtons();
+      incomes[slot] = player.getQuiltBoard().getTotalIncome();
+      bonusTiles[slot] = player.hasBonusTile();
+      var structure = player.getQuiltBoard().getStructure();
+      for (int cell = 0; cell < CELLS; cell++) {
+        cells[slot][cell] = structure[cell / 9][cell % 9];
+      }
+    }
+    ring.clear();
+    ring.addAll(patches.getPatchesList());
+    ringFingerprints = new int[ring.size()];
+    for (int i = 0; i < ring.size(); i++) {
+      ringFingerprints[i] = fingerprint(ring.get(i));
+    }
+    specialPatchesPos.clear();
+    specialPatchesPos.addAll(timeBoard.getSpecialPatchesPos());
+    onTop = slotOf(timeBoard.getPlayerOnTop());
+  }
+}
@@ -0,0 +1,34 @@
+/**
+ * An interface for the objects a GameController reports the course of a game to along with its state, the moves are
+ * reported once they are fully applied.
+ * <p>
+ * The recorders that only need the moves implement MoveRecorder, which can also be told about recorded games. The ones
+ * that need the state, to encode positions for instance, implement this interface and can only record the games a
+ * GameController plays, or the ones a JournalReplayer replays.
+ */
+public interface StateRecorder {
+
+  /**
+   * A function called once when the game starts, with the state it starts in.
+   *
+   * @param header The random decisions the game starts with.
+   * @param state  The live state of the game, only valid during the call.
+   */
+  void gameStarted(GameHeader header, GameState state);
+
+  /**
+   * A function called at the end of every turn, with the move and the state it led to.
+   *
+   * @param move  The move, including the special patches placed during it.
+   * @param state The live state of the game, only valid during the call.
+   */
+  void moveApplied(Move move, GameState state);
+
+  /**
+   * A function called once the game is over.
+   *
+   * @param winner The slot of the winner, 1 or 2.
+   * @param score  The score of the winner.
+   */
+  void gameEnded(int winner, int score);
+}
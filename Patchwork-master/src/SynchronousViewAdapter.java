@@ -0,0 +1,136 @@
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * An adapter that lets a blocking View be used where an AsyncView is expected, every prompt is answered on the calling
+ * thread and returned as an already completed future.
+ */
+public class SynchronousViewAdapter implements AsyncView {
+  private final View view;
+
+  /**
+   * Constructor for the SynchronousViewAdapter class.
+   *
+   * @param view The blocking view to adapt.
+   */
+  public SynchronousViewAdapter(View view) {
+    Objects.requireNonNull(view);
+    this.view = view;
+  }
+
+  /**
+   * Getter function for the adapted view.
+   *
+   * @return The adapted view.
+   */
+  public View getView() {
+    return view;
+  }
+
+  /**
+   * Calls a blocking prompt and wraps its answer, or its failure, in a completed future.
+   *
+   * @param prompt The prompt to call.
+   * @param <T>    The type of the answer.
+   * @return A completed future.
+   */
+  private static <T> CompletableFuture<T> answered(Supplier<T> prompt) {
+    try {
+      return CompletableFuture.completedFuture(prompt.get());
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  @Override
+  public void displayTimeBoard(TimeBoard timeBoard, Player player1, Player player2) {
+    view.displayTimeBoard(timeBoard, player1, player2);
+  }
+
+  @Override
+  public void displayQuiltBoard(Player player) {
+    view.displayQuiltBoard(player);
+  }
+
+  @Override
+  public void displayPatches(Patches patches) {
+    view.displayPatches(patches);
+  }
+
+  @Override
+  public void setController(GameController gameController) {
+    view.setController(gameController);
+  }
+
+  @Override
+  public void playerTurnStartMessage(Player playing) {
+    view.playerTurnStartMessage(playing);
+  }
+
+  @Override
+  public CompletableFuture<Character> promptPlayerTurnDecision(Player player) {
+    return answered(() -> view.promptPlayerTurnDecision(player));
+  }
+
+  @Override
+  public void displayPlayerNewStatusAfterAdvancing(Player player) {
+    view.displayPlayerNewStatusAfterAdvancing(player);
+  }
+
+  @Override
+  public void displayQuiltBoardIncomeMessage(Player playing) {
+    view.displayQuiltBoardIncomeMessage(playing);
+  }
+
+  @Override
+  public void displaySpecialPatchAcquisition(Player playing) {
+    view.displaySpecialPatchAcquisition(playing);
+  }
+
+  @Override
+  public CompletableFuture<Point> promptPlayerForPatchPlacementPosition(Player player) {
+    return answered(() -> view.promptPlayerForPatchPlacementPosition(player));
+  }
+
+  @Override
+  public CompletableFuture<Optional<Patch>> promptPlayerPatchDecision(Player playing, Patches patches) {
+    return answered(() -> view.promptPlayerPatchDecision(playing, patches));
+  }
+
+  @Override
+  public void quiltBoardFullyPatchedMessage(Player player) {
+    view.quiltBoardFullyPatchedMessage(player);
+  }
+
+  @Override
+  public CompletableFuture<Character> promptPlayerPatchManipulationDecision(Player playing) {
+    return answered(() -> view.promptPlayerPatchManipulationDecision(playing));
+  }
+
+  @Override
+  public void displayPatch(Patch patch) {
+    view.displayPatch(patch);
+  }
+
+  @Override
+  public void displaySevenBySevenAcquisition(Player player) {
+    view.displaySevenBySevenAcquisition(player);
+  }
+
+  @Override
+  public void displayWinnerMessage(GameResult res) {
+    view.displayWinnerMessage(res);
+  }
+
+  @Override
+  public void displayInvalidPlacementMessage() {
+    view.displayInvalidPlacementMessage();
+  }
+
+  @Override
+  public void closeView() {
+    view.closeView();
+  }
+}
@@ -0,0 +1,130 @@
+import java.util.Objects;
+
+/**
+ * A class that measures how long the phases of the turns of a GameController take, in a LatencyHistogram per phase.
+ * <p>
+ * A controller only measures its turns once a profiler is given to it, without one it doesn't even read the clock, so
+ * the games of the bots aren't slowed down. A profiler can be shared by the controllers of concurrent games and its
+ * report printed while they play.
+ */
+public class TurnProfiler {
+  /**
+   * An enum of the phases of a turn that are measured.
+   */
+  public enum Phase {
+    /**
+     * The whole turn, from its start message to the check of the 7x7 bonus.
+     */
+    TURN,
+    /**
+     * The wait for the player to decide between advancing and buying a patch.
+     */
+    DECISION_PROMPT,
+    /**
+     * The check of the placement the player chose for a patch.
+     */
+    PLACEMENT_VALIDATION,
+    /**
+     * The advance of the player on the timeboard, the special patches placed on the way excluded.
+     */
+    ADVANCE,
+    /**
+     * The acquisition of a special patch met during an advance, the wait for the player to place it included.
+     */
+    SPECIAL_PATCH,
+    /**
+     * The search for a 7x7 square on the quiltboard.
+     */
+    SEVEN_BY_SEVEN,
+    /**
+     * The display of the timeboard.
+     */
+    DISPLAY_TIME_BOARD,
+    /**
+     * The display of a quiltboard.
+     */
+    DISPLAY_QUILT_BOARD,
+    /**
+     * The display of the patches on offer.
+     */
+    DISPLAY_PATCHES,
+    /**
+     * The display of the patch being manipulated.
+     */
+    DISPLAY_PATCH,
+    /**
+     * The display of the status of a player after it advanced.
+     */
+    DISPLAY_PLAYER_STATUS,
+    /**
+     * The display of a message: an income, a special patch or the 7x7 bonus acquired, a full quiltboard or an invalid
+     * placement.
+     */
+    DISPLAY_MESSAGE
+  }
+
+  private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+
+  /**
+   * A constructor for a TurnProfiler instance, its histograms start empty.
+   */
+  public TurnProfiler() {
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] = new LatencyHistogram();
+    }
+  }
+
+  /**
+   * Counts how long a phase took.
+   *
+   * @param phase The phase.
+   * @param nanos The duration, in nanoseconds.
+   */
+  public void record(Phase phase, long nanos) {
+    histograms[phase.ordinal()].record(nanos);
+  }
+
+  /**
+   * Returns the histogram of the durations of a phase.
+   *
+   * @param phase The phase.
+   * @return The histogram.
+   */
+  public LatencyHistogram histogram(Phase phase) {
+    Objects.requireNonNull(phase);
+    return histograms[phase.ordinal()];
+  }
+
+  /**
+   * Forgets every duration counted, to measure from now on.
+   */
+  public void reset() {
+    for (var histogram : histograms) {
+      histogram.reset();
+    }
+  }
+
+  /**
+   * A function that creates the report of the profiler: for every phase measured, the number of times, the mean, the
+   * median, the 90th, 99th and 99.9th percentiles and the longest time, in microseconds.
+   *
+   * @return The report, a line per phase.
+   */
+  public String report() {
+    var builder = new StringBuilder(String.format("%-22s %10s %10s %10s %10s %10s %10s %10s%n", "phase (us)", "count",
+                                                  "mean", "p50", "p90", "p99", "p99.9", "max"));
+    for (var phase : Phase.values()) {
+      var histogram = histograms[phase.ordinal()];
+      var count = histogram.getCount();
+      if (count == 0) {
+        continue;
+      }
+      builder.append(String.format("%-22s %10d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n", phase, count,
+                                   histogram.getMean() / 1000, histogram.getValueAtPercentile(50) / 1000.0,
+                                   histogram.getValueAtPercentile(90) / 1000.0,
+                                   histogram.getValueAtPercentile(99) / 1000.0,
+                                   histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMax() / 1000.0));
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,171 @@
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The allocation budgets of the hot paths of the rules: each path is run in a loop, once compiled, and the bytes the
+ * thread allocated are measured through com.sun.management.ThreadMXBean. A path that allocates more per call than its
+ * budget fails the test, so boxing or Point churn slipping into the rules is caught before it is merged.
+ * <p>
+ * The placements, the 7x7 check, the scoring, the evaluation of a position and the lookups of the timeboard an
+ * advance goes through must not allocate at all. Generating the legal moves allocates the list of moves it returns,
+ * its budget is what it allocates today on the fixed position of the test, with some room. A path is measured a few
+ * times and its best measure kept, so an allocation of the virtual machine on the same thread doesn't fail it.
+ * <p>
+ * It has to be run from the directory of complexPatches.txt and exits with a status of 1 if a budget is exceeded, see
+ * the test target of the build.
+ */
+public class AllocationBudgetTest {
+  private static final long WARMUP_NANOS = 1_000_000_000L;
+  private static final int ROUNDS = 3;
+  private static final long SEED = 42;
+  /* From 16 to 20 kB today, the moves of the position of the test and the orientations of its patches. */
+  private static final double LEGAL_MOVES_BUDGET = 24 * 1024;
+
+  private static final com.sun.management.ThreadMXBean threads =
+          (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+  /* The results of the operations, so the compiler can't drop them. */
+  private static long sink;
+  private static int failures;
+
+  /**
+   * Private constructor, the class only holds static functions.
+   */
+  private AllocationBudgetTest() {
+  }
+
+  /**
+   * An operation of the rules whose allocations are measured.
+   */
+  @FunctionalInterface
+  private interface Operation {
+    /**
+     * Runs the operation once.
+     *
+     * @return A value derived from the result of the operation.
+     */
+    long run();
+  }
+
+  /**
+   * Measures the bytes an operation allocates per call, on the current thread.
+   *
+   * @param operation The operation.
+   * @param calls     The number of calls measured.
+   * @return The mean number of bytes allocated per call.
+   */
+  private static double bytesPerCall(Operation operation, int calls) {
+    var thread = Thread.currentThread().getId();
+    var result = 0L;
+    var before = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < calls; i++) {
+      result ^= operation.run();
+    }
+    var after = threads.getThreadAllocatedBytes(thread);
+    sink ^= result;
+    return (double) (after - before) / calls;
+  }
+
+  /**
+   * Runs an operation until it is compiled, then checks that it allocates no more than its budget per call.
+   *
+   * @param name      The name of the operation.
+   * @param budget    The number of bytes the operation may allocate per call.
+   * @param calls     The number of calls of a measure.
+   * @param operation The operation.
+   */
+  private static void check(String name, double budget, int calls, Operation operation) {
+    var end = System.nanoTime() + WARMUP_NANOS;
+    while (System.nanoTime() < end) {
+      sink ^= operation.run();
+    }
+    var best = Double.MAX_VALUE;
+    for (int round = 0; round < ROUNDS && best > budget; round++) {
+      best = Math.min(best, bytesPerCall(operation, calls));
+    }
+    var passed = best <= budget;
+    if (!passed) {
+      failures++;
+    }
+    System.out.printf("%-40s %12.1f B/call %12.1f budget  %s%n", name, best, budget, passed ? "ok" : "FAILED");
+  }
+
+  /**
+   * A function that places patches of the catalog at random on the quiltboard of a player until about half of it is
+   * filled.
+   *
+   * @param player  The player.
+   * @param catalog The patches to place.
+   * @param random  The source of randomness.
+   */
+  private static void fill(Player player, List<Patch> catalog, Random random) {
+    var quiltBoard = player.getQuiltBoard();
+    for (int placed = 0; placed < 8; ) {
+      var patch = catalog.get(random.nextInt(catalog.size())).copy();
+      patch.setOrientation(random.nextInt(4), random.nextBoolean());
+      var point = new Point(random.nextInt(9) + 1, random.nextInt(9) + 1);
+      if (quiltBoard.validUserPlacement(point, patch)) {
+        quiltBoard.placePatch(point, patch);
+        placed++;
+      }
+    }
+  }
+
+  /**
+   * Runs the checks.
+   *
+   * @param args Unused.
+   * @throws Exception If the catalog of the patches can't be read.
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, Boolean> choicesMap = new HashMap<>(Map.of(Main.FULL, true, Main.GRAPHICAL, false));
+    var player1 = Main.createPlayerOne("Player 1");
+    var player2 = Main.createPlayerTwo("Player 2");
+    var patches = Main.getPatchesByChoice(choicesMap);
+    var timeBoard = Main.getTimeBoardByChoice(choicesMap, player1, player2);
+    var random = new Random(SEED);
+    var catalog = patches.getPatchesList();
+    fill(player1, catalog, random);
+    fill(player2, catalog, random);
+    player1.setButtons(20);
+    var state = new GameState(player1, player2, patches, timeBoard, choicesMap);
+    var quiltBoard = player1.getQuiltBoard();
+    var patch = catalog.get(0).copy();
+    var points = new Point[81];
+    for (int k = 0; k < points.length; k++) {
+      points[k] = new Point(k / 9 + 1, k % 9 + 1);
+    }
+    var empty = Main.createPlayerTwo("Empty").getQuiltBoard();
+    var placed = empty.validUserPlacement(points[0], patch) ? points[0] : points[40];
+
+    var probe = new int[1];
+    check("QuiltBoard.validUserPlacement", 0, 1_000_000, () -> {
+      probe[0] = (probe[0] + 1) % points.length;
+      return quiltBoard.validUserPlacement(points[probe[0]], patch) ? 1 : 0;
+    });
+    check("QuiltBoard.placePatch", 0, 1_000_000, () -> {
+      empty.placePatch(placed, patch);
+      return empty.getStructure()[placed.i() - 1].length;
+    });
+    check("QuiltBoard.containsSevenBySeven", 0, 1_000_000, () -> quiltBoard.containsSevenBySeven() ? 1 : 0);
+    check("GameEvaluator.evaluateWinner", 0, 1_000_000,
+          () -> GameEvaluator.evaluateWinner(player1, player2).score());
+    var evaluator = new PositionEvaluator();
+    check("PositionEvaluator.evaluate", 0, 1_000_000, () -> (long) evaluator.evaluate(state, player1));
+    check("TimeBoard lookups of an advance", 0, 100_000, () -> {
+      var found = 0L;
+      for (int position = 0; position < 64; position++) {
+        found += (timeBoard.spaceContainsButton(position) ? 1 : 0) + (timeBoard.spaceContainsPatch(position) ? 2 : 0) +
+                 (timeBoard.isVoidSpace(position) ? 4 : 0) + timeBoard.getCoordinates(position).i();
+      }
+      return found;
+    });
+    check("MoveGenerator.legalMoves", LEGAL_MOVES_BUDGET, 2_000, () -> MoveGenerator.legalMoves(state, player1).size());
+    if (failures > 0) {
+      System.out.println(failures + " allocation budget(s) exceeded");
+      System.exit(1);
+    }
+  }
+}
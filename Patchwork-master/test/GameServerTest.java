@@ -0,0 +1,279 @@
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The end to end test of the game server: a GameServer is started on a free port of the loopback interface, two
+ * scripted clients connect to it and play a whole game through the protocol of NetworkView, and the lines they receive
+ * are checked. The clients always advance and place the special patches they get at the first space that takes them,
+ * so the game goes to its end without a purchase.
+ * <p>
+ * A game passes if both clients receive the same {@code RESULT} line, with a winner slot of 1 or 2, and then
+ * {@code BYE}. A second match checks that a client leaving in the middle of its game ends the match on the server.
+ * <p>
+ * A third match is watched by a spectator, which joins once the match is under way: it must receive a snapshot frame
+ * then the delta frames of the match until the server closes the connection at the end of the match. A spectator
+ * asking for a match that doesn't exist must be disconnected right away.
+ * <p>
+ * It has to be run from the directory of complexPatches.txt and exits with a status of 1 if a check fails, see the
+ * test target of the build.
+ */
+public class GameServerTest {
+  /* How long a client waits for a line of the server, and the test for a match to end. */
+  private static final int TIMEOUT_MILLIS = 10_000;
+
+  private static int failures;
+
+  /**
+   * Private constructor, the class only holds static functions.
+   */
+  private GameServerTest() {
+  }
+
+  /**
+   * What a scripted client saw of its game.
+   *
+   * @param slot    The slot the server gave the client.
+   * @param result  The {@code RESULT} line, or null if none came.
+   * @param bye     Whether the game ended with {@code BYE}.
+   * @param answers The number of prompts answered.
+   */
+  private record Outcome(int slot, String result, boolean bye, int answers) {
+  }
+
+  /**
+   * What a spectator saw of a match.
+   *
+   * @param kinds The kinds of the frames received, in order.
+   * @param ended Whether the server closed the connection after a whole frame.
+   */
+  private record Watched(List<Byte> kinds, boolean ended) {
+  }
+
+  /**
+   * A function that plays a game as a scripted client, until the server says {@code BYE} or closes the connection.
+   *
+   * @param port     The port of the server.
+   * @param name     The name of the player.
+   * @param maxTurns The number of turn prompts answered before the client leaves, -1 to play to the end.
+   * @param atTurn   Run before the first turn prompt is answered, or null.
+   * @return What the client saw of the game.
+   * @throws IOException If the connection fails.
+   */
+  private static Outcome play(int port, String name, int maxTurns, Runnable atTurn) throws IOException {
+    try (var socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      socket.setSoTimeout(TIMEOUT_MILLIS);
+      var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      var writer = new PrintWriter(socket.getOutputStream(), false, StandardCharsets.UTF_8);
+      int slot = 0, answers = 0, turns = 0, space = 0;
+      String result = null;
+      for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+        if (line.equals("BYE")) {
+          return new Outcome(slot, result, true, answers);
+        }
+        if (line.startsWith("YOU ")) {
+          slot = Integer.parseInt(line.substring(4));
+        } else if (line.startsWith("RESULT ")) {
+          result = line;
+        } else if (line.startsWith("SPECIAL ")) {
+          space = 0;
+        } else if (line.startsWith("? ")) {
+          var answer = switch (line.substring(2)) {
+            case "NAME" -> name;
+            case "TURN" -> "a";
+            // The spaces are tried in order, the server prompts again after an invalid one.
+            case "PLACE" -> (space / 9 + 1) + " " + (space++ % 9 + 1);
+            default -> "q";
+          };
+          if (line.equals("? TURN") && turns == 0 && atTurn != null) {
+            atTurn.run();
+          }
+          if (line.equals("? TURN") && turns++ == maxTurns) {
+            return new Outcome(slot, result, false, answers);
+          }
+          writer.print(answer);
+          writer.print('\n');
+          writer.flush();
+          answers++;
+        }
+      }
+      return new Outcome(slot, result, false, answers);
+    }
+  }
+
+  /**
+   * A function that watches a match as a spectator, until the server closes the connection.
+   *
+   * @param port       The spectator port of the server.
+   * @param match      The line asking for the match, its number or an empty line for the oldest one.
+   * @param firstFrame Counted down once the first frame is received.
+   * @return What the spectator saw of the match.
+   * @throws IOException If the connection fails.
+   */
+  private static Watched watch(int port, String match, CountDownLatch firstFrame) throws IOException {
+    try (var socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      socket.setSoTimeout(TIMEOUT_MILLIS);
+      socket.getOutputStream().write((match + "\n").getBytes(StandardCharsets.UTF_8));
+      var input = new DataInputStream(socket.getInputStream());
+      var kinds = new ArrayList<Byte>();
+      while (true) {
+        int length;
+        try {
+          length = input.readInt();
+        } catch (EOFException e) {
+          return new Watched(kinds, true);
+        }
+        var frame = input.readNBytes(length);
+        if (frame.length < length) {
+          return new Watched(kinds, false);
+        }
+        kinds.add(frame[0]);
+        firstFrame.countDown();
+      }
+    }
+  }
+
+  /**
+   * Records the result of a check.
+   *
+   * @param name   The name of the check.
+   * @param passed Whether it passed.
+   * @param detail What was observed.
+   */
+  private static void check(String name, boolean passed, String detail) {
+    if (!passed) {
+      failures++;
+    }
+    System.out.printf("%-40s %-40s %s%n", name, detail, passed ? "ok" : "FAILED");
+  }
+
+  /**
+   * Waits until the server has no match left.
+   *
+   * @param server The server.
+   * @return true if the matches ended in time.
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  private static boolean awaitNoMatch(GameServer server) throws InterruptedException {
+    var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+    while (server.getActiveMatches() > 0) {
+      if (System.nanoTime() - deadline > 0) {
+        return false;
+      }
+      Thread.sleep(10);
+    }
+    return true;
+  }
+
+  /**
+   * Connects two clients in order, so the first one is the first player of the match, and waits for their games.
+   *
+   * @param clients The executor of the clients.
+   * @param first   The game of the first client.
+   * @param second  The game of the second client.
+   * @return The outcomes of the two clients.
+   * @throws Exception If a client failed or timed out.
+   */
+  private static Outcome[] playMatch(ExecutorService clients, Callable<Outcome> first, Callable<Outcome> second)
+          throws Exception {
+    Future<Outcome> one = clients.submit(first);
+    // The server pairs the players in order of arrival, the second one connects once the first is waiting.
+    Thread.sleep(100);
+    Future<Outcome> two = clients.submit(second);
+    return new Outcome[]{one.get(TIMEOUT_MILLIS * 6L, TimeUnit.MILLISECONDS),
+                         two.get(TIMEOUT_MILLIS * 6L, TimeUnit.MILLISECONDS)};
+  }
+
+  /**
+   * Runs the checks.
+   *
+   * @param args Unused.
+   * @throws Exception If the server can't be started or a client fails.
+   */
+  public static void main(String[] args) throws Exception {
+    var clients = Executors.newCachedThreadPool(runnable -> {
+      var thread = new Thread(runnable, "patchwork-test-client");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try (var server = new GameServer(0, true)) {
+      var serving = new Thread(() -> {
+        try {
+          server.serve();
+        } catch (IOException e) {
+          System.err.println("server failed: " + e.getMessage());
+        }
+      }, "patchwork-test-server");
+      serving.setDaemon(true);
+      serving.start();
+      var port = server.getPort();
+
+      var outcomes = playMatch(clients, () -> play(port, "alice", -1, null),
+                             () -> play(port, "bob", -1, null));
+      var alice = outcomes[0];
+      var bob = outcomes[1];
+      check("slots", alice.slot() == 1 && bob.slot() == 2, alice.slot() + " and " + bob.slot());
+      check("game played", alice.answers() > 0 && bob.answers() > 0,
+            alice.answers() + " and " + bob.answers() + " answers");
+      check("result", alice.result() != null && alice.result().matches("RESULT [12] -?\\d+"),
+            String.valueOf(alice.result()));
+      check("same result for both", alice.result() != null && alice.result().equals(bob.result()),
+            String.valueOf(bob.result()));
+      check("bye", alice.bye() && bob.bye(), alice.bye() + " and " + bob.bye());
+      check("match over", awaitNoMatch(server), server.getActiveMatches() + " active");
+
+      outcomes = playMatch(clients, () -> play(port, "carol", 3, null),
+                         () -> play(port, "dave", -1, null));
+      check("leaver gets no result", outcomes[0].result() == null && !outcomes[0].bye(),
+            String.valueOf(outcomes[0].result()));
+      check("opponent of a leaver gets no result", outcomes[1].result() == null,
+            String.valueOf(outcomes[1].result()));
+      check("aborted match over", awaitNoMatch(server), server.getActiveMatches() + " active");
+
+      var spectatorPort = server.getSpectatorPort();
+      var firstFrame = new CountDownLatch(1);
+      var watched = new ArrayList<Future<Watched>>();
+      // The spectator joins the match under way, the game goes on once it got its snapshot.
+      Runnable join = () -> {
+        watched.add(clients.submit(() -> watch(spectatorPort, "", firstFrame)));
+        try {
+          firstFrame.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      };
+      outcomes = playMatch(clients, () -> play(port, "erin", -1, join), () -> play(port, "frank", -1, null));
+      var spectator = watched.get(0).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      var kinds = spectator.kinds();
+      check("spectator gets a snapshot first", !kinds.isEmpty() && kinds.get(0) == SpectatorChannel.SNAPSHOT,
+            kinds.size() + " frames");
+      check("spectator gets the deltas", kinds.size() > 1 && !kinds.subList(1, kinds.size()).contains(
+              SpectatorChannel.SNAPSHOT), kinds.size() - 1 + " deltas");
+      check("spectator let go at the end", spectator.ended() && outcomes[0].bye(), String.valueOf(spectator.ended()));
+      check("watched match over", awaitNoMatch(server), server.getActiveMatches() + " active");
+
+      var unknown = watch(spectatorPort, "999", new CountDownLatch(1));
+      check("no such match", unknown.kinds().isEmpty() && unknown.ended(), unknown.kinds().size() + " frames");
+    } finally {
+      clients.shutdownNow();
+    }
+    if (failures > 0) {
+      System.out.println(failures + " check(s) failed");
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,154 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The test of the resumption of an interrupted game: a game played by bots is recorded in a journal, cut after a few
+ * moves and in the middle of the next one as a crash would, then reopened and resumed by a bot through
+ * JournalReplayer.
+ * <p>
+ * Reopening the journal must cut it after its last complete record, and the resumed game must be recorded in the same
+ * journal as the rest of the interrupted game: the journal then holds a single finished game, starting with the moves
+ * recorded before the crash, which replays to the result of the resumed game. A file that isn't a journal must be
+ * refused instead of appended to.
+ * <p>
+ * It has to be run from the directory of complexPatches.txt and exits with a status of 1 if a check fails, see the
+ * test target of the build.
+ */
+public class JournalResumeTest {
+  /* The number of moves recorded before the crash. */
+  private static final int MOVES_BEFORE_CRASH = 10;
+
+  private static int failures;
+
+  /**
+   * Private constructor, the class only holds static functions.
+   */
+  private JournalResumeTest() {
+  }
+
+  /**
+   * Records the result of a check.
+   *
+   * @param name   The name of the check.
+   * @param passed Whether it passed.
+   * @param detail What was observed.
+   */
+  private static void check(String name, boolean passed, String detail) {
+    if (!passed) {
+      failures++;
+    }
+    System.out.printf("%-40s %-40s %s%n", name, detail, passed ? "ok" : "FAILED");
+  }
+
+  /**
+   * Reads every game of a journal.
+   *
+   * @param path The path of the journal.
+   * @return The games, in order.
+   * @throws IOException If the journal can't be read.
+   */
+  private static List<GameRecord> readGames(Path path) throws IOException {
+    var games = new ArrayList<GameRecord>();
+    try (var source = GameSource.open(path)) {
+      GameRecord record;
+      while ((record = source.next()) != null) {
+        games.add(record);
+      }
+    }
+    return games;
+  }
+
+  /**
+   * Plays a game between two bots into a journal.
+   *
+   * @param path The path of the journal.
+   * @return The recorded game.
+   * @throws IOException If the patches can't be read or the journal written.
+   */
+  private static GameRecord playGame(Path path) throws IOException {
+    var bot = new BotView(null, new Random(7));
+    Map<String, Boolean> choicesMap = new HashMap<>(Map.of(Main.FULL, true, Main.GRAPHICAL, false));
+    var player1 = Main.createPlayerOne("Bot 1");
+    var player2 = Main.createPlayerTwo("Bot 2");
+    var controller = new GameController(bot, Main.getPatchesByChoice(choicesMap),
+                                        Main.getTimeBoardByChoice(choicesMap, player1, player2), player1, player2,
+                                        choicesMap);
+    bot.setController(controller);
+    try (var journal = new MoveJournal(path, false)) {
+      controller.setMoveRecorder(journal);
+      controller.startGame();
+    }
+    return readGames(path).get(0);
+  }
+
+  /**
+   * Runs the checks.
+   *
+   * @param args Unused.
+   * @throws Exception If the games can't be played or the journals written.
+   */
+  public static void main(String[] args) throws Exception {
+    var played = Files.createTempFile("played", ".journal");
+    var crashed = Files.createTempFile("crashed", ".journal");
+    var other = Files.createTempFile("other", ".txt");
+    try {
+      Files.delete(crashed);
+      var game = playGame(played);
+      try (var journal = new MoveJournal(crashed, true)) {
+        journal.gameStarted(game.header());
+        game.moves().subList(0, MOVES_BEFORE_CRASH).forEach(journal::moveApplied);
+      }
+      var complete = Files.size(crashed);
+      // The crash happens in the middle of a purchase.
+      Files.write(crashed, new byte[]{MoveJournal.MOVE, (byte) (1 | MoveJournal.PURCHASE_FLAG), 5},
+                  StandardOpenOption.APPEND);
+
+      var interrupted = readGames(crashed).get(0);
+      check("interrupted game read", !interrupted.finished() && interrupted.moves().size() == MOVES_BEFORE_CRASH,
+            interrupted.moves().size() + " moves");
+      GameResult result;
+      try (var journal = new MoveJournal(crashed, true)) {
+        check("cut after the last complete record", Files.size(crashed) == complete,
+              Files.size(crashed) + " of " + complete + " bytes");
+        var bot = new BotView(null, new Random(11));
+        var controller = new JournalReplayer().resume(interrupted, bot, journal);
+        bot.setController(controller);
+        result = controller.startGame();
+      }
+
+      var games = readGames(crashed);
+      var resumed = games.get(0);
+      check("single game", games.size() == 1, games.size() + " game(s)");
+      check("resumed game finished", resumed.finished() && resumed.moves().size() > MOVES_BEFORE_CRASH,
+            resumed.moves().size() + " moves");
+      check("recorded moves kept", resumed.moves().subList(0, MOVES_BEFORE_CRASH).equals(interrupted.moves()),
+            MOVES_BEFORE_CRASH + " moves");
+      var replayed = new JournalReplayer().replay(resumed);
+      check("resumed game replays", replayed != null && replayed.score() == result.score() &&
+                                    resumed.score() == result.score(), "score " + result.score());
+
+      Files.writeString(other, "not a journal");
+      try {
+        new MoveJournal(other, false).close();
+        check("other file refused", false, "opened");
+      } catch (IOException e) {
+        check("other file refused", Files.readString(other).equals("not a journal"), "IOException");
+      }
+    } finally {
+      Files.deleteIfExists(played);
+      Files.deleteIfExists(crashed);
+      Files.deleteIfExists(other);
+    }
+    if (failures > 0) {
+      System.out.println(failures + " check(s) failed");
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,380 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * The test of the frames of SpectatorChannel: a few games are played by bots into a journal, then replayed through a
+ * channel, and a decoder on the side of the test rebuilds the state of each game from the frames it receives.
+ * <p>
+ * After every move, the state rebuilt from the frames must be the live state of the game. A second spectator joins in
+ * the middle of each game, its first frame must be a snapshot and the following ones the very frames the first
+ * spectator receives, and both must end with the final state of the game.
+ * <p>
+ * It has to be run from the directory of complexPatches.txt and exits with a status of 1 if a check fails, see the
+ * test target of the build.
+ */
+public class SpectatorChannelTest {
+  private static final int GAMES = 3;
+  /* The move after which the second spectator joins. */
+  private static final int LATE_JOIN_MOVE = 12;
+
+  private static int failures;
+
+  /**
+   * Private constructor, the class only holds static functions.
+   */
+  private SpectatorChannelTest() {
+  }
+
+  /**
+   * A spectator that rebuilds the state of the game from the frames it receives, the way a remote client would.
+   */
+  private static final class Replica implements Consumer<ByteBuffer> {
+    private final List<ByteBuffer> frames = new ArrayList<>();
+    private final String[] names = new String[2];
+    private final int[] positions = new int[2];
+    private final int[] buttons = new int[2];
+    private final int[] incomes = new int[2];
+    private final boolean[] bonusTiles = new boolean[2];
+    private final long[][] cells = new long[2][81];
+    private final List<Integer> specials = new ArrayList<>();
+    private final List<String> ring = new ArrayList<>();
+    private int onTop;
+    private int neutralPawnIndex;
+    private int sequence = -1;
+    private int snapshots;
+    private String error;
+
+    @Override
+    public void accept(ByteBuffer frame) {
+      frames.add(frame.duplicate());
+      var in = frame.duplicate();
+      var kind = in.get();
+      var frameSequence = in.getInt();
+      if (kind == SpectatorChannel.SNAPSHOT) {
+        snapshots++;
+        readSnapshot(in);
+      } else if (sequence < 0 || frameSequence != sequence + 1) {
+        error = "delta " + frameSequence + " after " + sequence;
+      } else {
+        readDelta(in);
+      }
+      sequence = frameSequence;
+      if (in.hasRemaining() && error == null) {
+        error = in.remaining() + " bytes left in frame " + frameSequence;
+      }
+    }
+
+    /**
+     * Reads the state of a snapshot frame.
+     *
+     * @param in The frame, after its kind and sequence.
+     */
+    private void readSnapshot(ByteBuffer in) {
+      for (int slot = 0; slot < 2; slot++) {
+        var name = new byte[in.getShort()];
+        in.get(name);
+        names[slot] = new String(name, StandardCharsets.UTF_8);
+        positions[slot] = in.get();
+        buttons[slot] = in.getShort();
+        incomes[slot] = in.get();
+        bonusTiles[slot] = in.get() != 0;
+        for (int cell = 0; cell < 81; cell++) {
+          cells[slot][cell] = readCell(in);
+        }
+      }
+      onTop = in.get();
+      specials.clear();
+      for (int i = in.get(); i > 0; i--) {
+        specials.add((int) in.get());
+      }
+      neutralPawnIndex = in.get();
+      ring.clear();
+      for (int i = in.get(); i > 0; i--) {
+        ring.add(readPatch(in));
+      }
+    }
+
+    /**
+     * Applies the records of a delta frame.
+     *
+     * @param in The frame, after its kind and sequence.
+     */
+    private void readDelta(ByteBuffer in) {
+      for (int record = in.getShort(); record > 0; record--) {
+        switch (in.get()) {
+          case SpectatorChannel.CELLS_PLACED -> {
+            var slot = in.get();
+            for (int i = in.get(); i > 0; i--) {
+              var cell = in.get();
+              cells[slot][cell] = readCell(in);
+            }
+          }
+          case SpectatorChannel.POSITION -> positions[in.get()] = in.get();
+          case SpectatorChannel.BUTTONS -> buttons[in.get()] = in.getShort();
+          case SpectatorChannel.INCOME -> incomes[in.get()] = in.get();
+          case SpectatorChannel.RING_REMOVAL -> {
+            ring.remove(in.get());
+            neutralPawnIndex = in.get();
+          }
+          case SpectatorChannel.RING_PATCH -> {
+            var index = in.get();
+            ring.set(index, readPatch(in));
+          }
+          case SpectatorChannel.SPECIAL_PATCH_TAKEN -> specials.remove(Integer.valueOf(in.get()));
+          case SpectatorChannel.ON_TOP -> onTop = in.get();
+          case SpectatorChannel.BONUS_TILE -> bonusTiles[in.get()] = true;
+          default -> throw new IllegalStateException("Unknown record " + in.get(in.position() - 1));
+        }
+      }
+    }
+
+    /**
+     * Reads a cell.
+     *
+     * @param in The frame.
+     * @return The code of the cell, see {@link #code(PatchSpace)}.
+     */
+    private static long readCell(ByteBuffer in) {
+      var flags = in.get();
+      return flags == 0 ? 0 : (long) flags << 32 | in.getInt() & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Reads a patch.
+     *
+     * @param in The frame.
+     * @return The description of the patch, see {@link #describe(Patch)}.
+     */
+    private static String readPatch(ByteBuffer in) {
+      var text = new StringBuilder();
+      text.append(in.get()).append('/').append(in.get()).append('/').append(in.get());
+      int lines = in.get(), columns = in.get();
+      text.append(' ').append(lines).append('x').append(columns);
+      for (int i = lines * columns; i > 0; i--) {
+        text.append(' ').append(readCell(in));
+      }
+      return text.append(' ').append(in.getInt()).toString();
+    }
+
+    /**
+     * Compares the state rebuilt with the live state of the game.
+     *
+     * @param state The live state.
+     * @return The first difference found, or null if there is none.
+     */
+    String mismatch(GameState state) {
+      if (error != null) {
+        return error;
+      }
+      var players = new Player[]{state.player1(), state.player2()};
+      for (int slot = 0; slot < 2; slot++) {
+        var player = players[slot];
+        if (!player.getName().equals(names[slot]) || player.getPosition() != positions[slot] ||
+            player.getButtons() != buttons[slot] || player.getQuiltBoard().getTotalIncome() != incomes[slot] ||
+            player.hasBonusTile() != bonusTiles[slot]) {
+          return "player " + (slot + 1) + " at " + positions[slot] + " with " + buttons[slot] + " buttons";
+        }
+        var structure = player.getQuiltBoard().getStructure();
+        for (int cell = 0; cell < 81; cell++) {
+          if (code(structure[cell / 9][cell % 9]) != cells[slot][cell]) {
+            return "cell " + cell + " of player " + (slot + 1);
+          }
+        }
+      }
+      var timeBoard = state.timeBoard();
+      if ((timeBoard.getPlayerOnTop() == players[0] ? 0 : 1) != onTop) {
+        return "player on top " + (onTop + 1);
+      }
+      if (!timeBoard.getSpecialPatchesPos().equals(specials)) {
+        return "special patches at " + specials;
+      }
+      var patches = state.patches();
+      if (patches.getNeutralPawnIndex() != neutralPawnIndex) {
+        return "neutral pawn at " + neutralPawnIndex;
+      }
+      var live = patches.getPatchesList().stream().map(Replica::describe).toList();
+      return live.equals(ring) ? null : "circle of " + ring.size() + " patches";
+    }
+
+    /**
+     * Returns the code of a cell, the way the frames describe it.
+     *
+     * @param space The cell, null if empty.
+     * @return 0 for an empty cell, its flags and color otherwise.
+     */
+    private static long code(PatchSpace space) {
+      if (space == null) {
+        return 0;
+      }
+      return (long) (space.button() ? 3 : 1) << 32 | space.color().getRGB() & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Describes a patch, the way {@link #readPatch(ByteBuffer)} describes the patches of the frames.
+     *
+     * @param patch The patch.
+     * @return The description of its costs, income, cells and color.
+     */
+    private static String describe(Patch patch) {
+      var structure = patch.getStructure();
+      var text = new StringBuilder();
+      text.append(patch.getPrice()).append('/').append(patch.getTimeCost()).append('/').append(patch.getIncome());
+      text.append(' ').append(structure.length).append('x').append(structure[0].length);
+      for (var line : structure) {
+        for (var space : line) {
+          text.append(' ').append(code(space));
+        }
+      }
+      return text.append(' ').append(patch.getColor().getRGB()).toString();
+    }
+  }
+
+  /**
+   * A recorder that follows a replayed game, publishing the changes of every move and comparing the states rebuilt
+   * by the spectators with the live one.
+   */
+  private static final class Follower implements StateRecorder {
+    private final Replica first = new Replica();
+    private final Replica late = new Replica();
+    private SpectatorChannel channel;
+    private int moves;
+    private int lateFrom = -1;
+    private String mismatch;
+
+    /**
+     * Follows the channel of the game, the first spectator is subscribed to it right away.
+     *
+     * @param channel The channel of the game, before the game starts.
+     */
+    void watch(SpectatorChannel channel) {
+      this.channel = channel;
+      channel.subscribe(first);
+    }
+
+    @Override
+    public void gameStarted(GameHeader header, GameState state) {
+      compare(state);
+    }
+
+    @Override
+    public void moveApplied(Move move, GameState state) {
+      moves++;
+      compare(state);
+      if (moves == LATE_JOIN_MOVE) {
+        lateFrom = first.frames.size();
+        channel.subscribe(late);
+      }
+    }
+
+    @Override
+    public void gameEnded(int winner, int score) {
+      // The last move left the final state, it was compared then.
+    }
+
+    /**
+     * Publishes the changes not published yet and compares the states of the spectators with the live one.
+     *
+     * @param state The live state.
+     */
+    void compare(GameState state) {
+      channel.publish();
+      if (mismatch != null) {
+        return;
+      }
+      var difference = first.mismatch(state);
+      if (difference == null && lateFrom >= 0) {
+        difference = late.mismatch(state);
+      }
+      if (difference != null) {
+        mismatch = "move " + moves + ": " + difference;
+      }
+    }
+  }
+
+  /**
+   * Records the result of a check.
+   *
+   * @param name   The name of the check.
+   * @param passed Whether it passed.
+   * @param detail What was observed.
+   */
+  private static void check(String name, boolean passed, String detail) {
+    if (!passed) {
+      failures++;
+    }
+    System.out.printf("%-40s %-40s %s%n", name, detail, passed ? "ok" : "FAILED");
+  }
+
+  /**
+   * Plays games between two bots into a journal.
+   *
+   * @param journal The journal.
+   * @throws IOException If the patches can't be read or the journal written.
+   */
+  private static void playGames(MoveJournal journal) throws IOException {
+    var bot = new BotView(null, new Random(42));
+    for (int game = 0; game < GAMES; game++) {
+      Map<String, Boolean> choicesMap = new HashMap<>(Map.of(Main.FULL, true, Main.GRAPHICAL, false));
+      var player1 = Main.createPlayerOne("Bot 1");
+      var player2 = Main.createPlayerTwo("Bot 2");
+      var controller = new GameController(bot, Main.getPatchesByChoice(choicesMap),
+                                          Main.getTimeBoardByChoice(choicesMap, player1, player2), player1, player2,
+                                          choicesMap);
+      bot.setController(controller);
+      controller.setMoveRecorder(journal);
+      controller.startGame();
+    }
+  }
+
+  /**
+   * Runs the checks.
+   *
+   * @param args Unused.
+   * @throws Exception If the games can't be played or replayed.
+   */
+  public static void main(String[] args) throws Exception {
+    var path = Files.createTempFile("spectated", ".journal");
+    try {
+      try (var journal = new MoveJournal(path, false)) {
+        playGames(journal);
+      }
+      var replayer = new JournalReplayer();
+      try (var source = GameSource.open(path)) {
+        GameRecord record;
+        for (int game = 1; (record = source.next()) != null; game++) {
+          var follower = new Follower();
+          var result = replayer.replay(record, follower, follower::watch);
+          var replica = follower.first;
+          var name = "game " + game;
+          check(name + " rebuilt from the frames", follower.mismatch == null,
+                follower.mismatch == null ? follower.moves + " moves" : follower.mismatch);
+          check(name + " deltas only", replica.snapshots == 1, replica.snapshots + " snapshot(s)");
+          var late = follower.late;
+          check(name + " late joiner gets a snapshot",
+                !late.frames.isEmpty() && late.frames.get(0).get(0) == SpectatorChannel.SNAPSHOT,
+                late.frames.size() + " frames");
+          var expected = replica.frames.subList(Math.max(follower.lateFrom, 0), replica.frames.size());
+          var actual = late.frames.isEmpty() ? late.frames : late.frames.subList(1, late.frames.size());
+          check(name + " late joiner gets the same deltas", follower.lateFrom >= 0 && expected.equals(actual),
+                actual.size() + " of " + expected.size() + " deltas");
+          check(name + " result", result != null && result.score() == record.score(),
+                result == null ? "none" : String.valueOf(result.score()));
+        }
+      }
+    } finally {
+      Files.deleteIfExists(path);
+    }
+    if (failures > 0) {
+      System.out.println(failures + " check(s) failed");
+      System.exit(1);
+    }
+  }
+}